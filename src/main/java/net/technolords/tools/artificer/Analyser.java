@@ -1,7 +1,10 @@
 package net.technolords.tools.artificer;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
 
+import net.technolords.tools.artificer.domain.ReportSection;
 import net.technolords.tools.artificer.exception.ArtificerException;
 
 /**
@@ -27,12 +30,177 @@ public interface Analyser {
      */
     void setOutputFilename(String outputFilename);
 
+    /**
+     * Specify the number of threads used to analyse the classes of an artifact. The default is 1, which means the
+     * classes are analysed sequentially. The report is the same regardless of the parallelism.
+     *
+     * @param parallelism
+     *  The number of threads.
+     */
+    void setParallelism(int parallelism);
+
+    /**
+     * Specify the format of the reports, being one of the formats provided by a ReportWriter: 'xml' (the default),
+     * 'json', 'binary' (a compact format, see BinaryReportWriter) or 'index' (a memory mappable index for queries,
+     * see AnalysisIndex, which applies to the analysis of an artifact only).
+     *
+     * @param reportFormat
+     *  The format of the reports.
+     */
+    void setReportFormat(String reportFormat);
+
+    /**
+     * Specify the number of threads used to write a report. With more than 1 thread, the XML report of an artifact is
+     * serialized in chunks (i.e. of the referenced classes and of the resources of each group), which are serialized
+     * in parallel and concatenated in order, so the report is byte identical to a report written by a single thread.
+     * The threads compress the report as well, when the report is compressed. The default is 1.
+     *
+     * @param reportParallelism
+     *  The number of threads.
+     */
+    void setReportParallelism(int reportParallelism);
+
+    /**
+     * Specify whether the reports are compressed with gzip, in which case the name of a report gets the extension
+     * '.gz'. The default is false.
+     *
+     * @param compressedReport
+     *  True to compress the reports.
+     */
+    void setCompressedReport(boolean compressedReport);
+
+    /**
+     * Specify the sections of the report of an artifact, i.e. just the referenced classes with their class domains.
+     * The sections which are not part of the report are not computed either (unless another section, the dependency
+     * graph or an index needs them), so the byte code is not parsed at all when none of the sections needs it. The
+     * default is null, which means the default sections, being all sections but the summary of the referenced classes
+     * per package (see ReportSection.REFERENCED_PACKAGES).
+     *
+     * @param reportSections
+     *  The sections of the report, or null for the default sections.
+     */
+    void setReportSections(Set<ReportSection> reportSections);
+
+    /**
+     * Specify the number of classes listed per referenced package (see ReportSection.REFERENCED_PACKAGES), being
+     * the classes referenced by the most classes of the artifact. The default is 0, which means no classes are listed.
+     *
+     * @param topReferencedClasses
+     *  The number of classes listed per referenced package.
+     */
+    void setTopReferencedClasses(int topReferencedClasses);
+
+    /**
+     * Specify whether the report of an artifact is streamed, which means the resources are written as the classes
+     * are analysed, and the aggregated sections once the analysis is done. This keeps the memory used for the report
+     * constant, at the cost of a different order of the elements (the resources come first). The default is false.
+     * Streaming applies to the XML format only.
+     *
+     * @param streamingReport
+     *  True to stream the report.
+     */
+    void setStreamingReport(boolean streamingReport);
+
+    /**
+     * Specify the format of the dependency graph written next to the report of an artifact, being one of the formats
+     * provided by a GraphWriter: 'gexf' (Gephi), 'graphml' or 'dot' (Graphviz). The default is null, which means no
+     * graph is written.
+     *
+     * @param graphFormat
+     *  The format of the graph, or null for no graph.
+     */
+    void setGraphFormat(String graphFormat);
+
+    /**
+     * Specify the granularity of the dependency graph, being 'class' (the default) or 'package', where the edges
+     * between packages are weighted by the number of class references.
+     *
+     * @param graphGranularity
+     *  The granularity of the graph.
+     */
+    void setGraphGranularity(String graphGranularity);
+
+    /**
+     * Specify the directory of a reference index, to which the references of each analysed artifact are added once
+     * its analysis completes (see ReferenceIndex). The index is shared by the artifacts analysed over time, so it
+     * tells which artifacts reference a class without analysing them again. The default is null, which means no
+     * index is kept.
+     *
+     * @param referenceIndexLocation
+     *  The directory of the reference index, or null for no index.
+     */
+    void setReferenceIndexLocation(Path referenceIndexLocation);
+
+    /**
+     * Specify the class path the artifact is analysed against, which tells which entry provides each referenced
+     * class (where the first entry providing a class wins), and which referenced classes are not provided at all.
+     *
+     * @param classPath
+     *  The jars and directories of the class path, in class path order, or null for no class path.
+     */
+    void setClassPath(List<Path> classPath);
+
+    /**
+     * Specify the directory of a cache of the parse results of the classes (see ClassResultCache), keyed by the CRC,
+     * size and name of their entries in the artifact. When an artifact is analysed again (i.e. a new snapshot
+     * build), only the classes which changed are parsed. The cache is shared by the artifacts analysed over time.
+     * The default is null, which means every class is parsed.
+     *
+     * @param classCacheLocation
+     *  The directory of the cache, or null for no cache.
+     */
+    void setClassCacheLocation(Path classCacheLocation);
+
+    /**
+     * Specify the filename of a merged report, which summarizes the artifacts analysed from now on (see
+     * ReportMerger): the census of their java versions, their referenced classes per class domain, and the union of
+     * their external classes and artifacts. The merged report is written to the output location by
+     * writeMergedReport. The default is null, which means the artifacts are not merged.
+     *
+     * @param mergedReportFilename
+     *  The filename of the merged report, or null for no merged report.
+     */
+    void setMergedReportFilename(String mergedReportFilename);
+
     /**
      * Specify the input location of the artifact to be analyzed.
      *
      * @param inputLocation
      *  The location of the artifact.
+     * @throws ArtificerException
+     *  When an error occurred during analysis or writing the report.
      */
     void analyseArtifact(Path inputLocation) throws ArtificerException;
 
+    /**
+     * Analyse the class path (as specified by setClassPath) for classes defined by more than one entry, and for
+     * packages split across entries. The report is written to the output location, with the output filename.
+     *
+     * @throws ArtificerException
+     *  When no class path is set, or an error occurred during analysis or writing the report.
+     */
+    void analyseClassPath() throws ArtificerException;
+
+    /**
+     * Write the merged report (see setMergedReportFilename) of the artifacts analysed since the last merged report,
+     * and start a new merge.
+     *
+     * @throws ArtificerException
+     *  When no merged report filename is set, or writing the merged report fails.
+     */
+    void writeMergedReport() throws ArtificerException;
+
+    /**
+     * Merge the reports written before (in the XML format, optionally compressed) into one merged report (see
+     * setMergedReportFilename), without analysing the artifacts again. The reports are read one at a time, so the
+     * memory stays bounded however many reports are merged. The merged report is written to the output location,
+     * with the output filename.
+     *
+     * @param reports
+     *  The paths to the reports.
+     * @throws ArtificerException
+     *  When a report can not be read, or writing the merged report fails.
+     */
+    void mergeReports(List<Path> reports) throws ArtificerException;
+
 }
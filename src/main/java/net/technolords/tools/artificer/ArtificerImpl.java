@@ -1,17 +1,34 @@
 package net.technolords.tools.artificer;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.technolords.tools.artificer.analyser.AnalysisEngine;
+import net.technolords.tools.artificer.analyser.classpath.ClassPathConflictAnalyser;
+import net.technolords.tools.artificer.analyser.classpath.ClassPathIndex;
+import net.technolords.tools.artificer.analyser.dotclass.ClassResultCache;
 import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
+import net.technolords.tools.artificer.domain.classpath.ClassPathAnalysis;
 import net.technolords.tools.artificer.domain.meta.Meta;
 import net.technolords.tools.artificer.exception.ArtificerException;
 import net.technolords.tools.artificer.input.ArtifactManager;
 import net.technolords.tools.artificer.output.OutputManager;
+import net.technolords.tools.artificer.output.StreamingReportWriter;
+import net.technolords.tools.artificer.output.XmlReportWriter;
+import net.technolords.tools.artificer.output.graph.GraphExport;
+import net.technolords.tools.artificer.output.index.AnalysisIndexWriter;
+import net.technolords.tools.artificer.output.index.ReferenceIndexWriter;
+import net.technolords.tools.artificer.output.merge.ReportMerger;
 
 /**
  * Created by Technolords on 2015-Aug-18.
@@ -21,6 +38,41 @@ public class ArtificerImpl implements Analyser {
 
     private Path outputLocation;
     private String outputFilename;
+    private int parallelism = 1;
+    private int reportParallelism = 1;
+    private boolean compressedReport;
+    private boolean streamingReport;
+    private String reportFormat = XmlReportWriter.FORMAT;
+    private Set<ReportSection> reportSections = ReportSection.defaults();
+    private int topReferencedClasses;
+    private String graphFormat;
+    private String graphGranularity = GraphExport.GRANULARITY_CLASS;
+    private Path referenceIndexLocation;
+    private ReferenceIndexWriter referenceIndexWriter;
+    private Path classCacheLocation;
+    private ClassResultCache classResultCache;
+    private String mergedReportFilename;
+    private ReportMerger reportMerger;
+    private List<Path> classPath;
+    private ClassPathIndex classPathIndex;
+    private final AnalysisEngine analysisEngine;
+
+    /**
+     * Create an analyser using the default engine, which is shared by all analysers.
+     */
+    public ArtificerImpl() {
+        this(AnalysisEngine.getDefaultEngine());
+    }
+
+    /**
+     * Create an analyser using the given engine.
+     *
+     * @param analysisEngine
+     *  The engine holding the state which is shared by the analyses, such as the java specifications.
+     */
+    public ArtificerImpl(AnalysisEngine analysisEngine) {
+        this.analysisEngine = analysisEngine;
+    }
 
     /**
      * Set the output location where the analysis report will be written to.
@@ -42,12 +94,168 @@ public class ArtificerImpl implements Analyser {
         this.outputFilename = outputFilename;
     }
 
+    /**
+     * Set the number of threads used to analyse the classes of an artifact.
+     *
+     * @param parallelism
+     *  The number of threads, which must be at least 1.
+     */
+    public void setParallelism(int parallelism) {
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Set the format of the reports.
+     *
+     * @param reportFormat
+     *  The format, i.e. xml, json or binary.
+     */
+    public void setReportFormat(String reportFormat) {
+        this.reportFormat = reportFormat;
+    }
+
+    /**
+     * Set the number of threads used to write a report.
+     *
+     * @param reportParallelism
+     *  The number of threads, which must be at least 1.
+     */
+    public void setReportParallelism(int reportParallelism) {
+        if(reportParallelism < 1) {
+            throw new IllegalArgumentException("Report parallelism must be at least 1, but was: " + reportParallelism);
+        }
+        this.reportParallelism = reportParallelism;
+    }
+
+    /**
+     * Set whether the reports are compressed with gzip.
+     *
+     * @param compressedReport
+     *  True to compress the reports.
+     */
+    public void setCompressedReport(boolean compressedReport) {
+        this.compressedReport = compressedReport;
+    }
+
+    /**
+     * Set the sections of the report of an artifact.
+     *
+     * @param reportSections
+     *  The sections, or null for the default sections.
+     */
+    public void setReportSections(Set<ReportSection> reportSections) {
+        if(reportSections == null) {
+            this.reportSections = ReportSection.defaults();
+        } else {
+            this.reportSections = EnumSet.noneOf(ReportSection.class);
+            this.reportSections.addAll(reportSections);
+        }
+    }
+
+    /**
+     * Set the number of classes listed per referenced package.
+     *
+     * @param topReferencedClasses
+     *  The number of classes, which must be at least 0.
+     */
+    public void setTopReferencedClasses(int topReferencedClasses) {
+        if(topReferencedClasses < 0) {
+            throw new IllegalArgumentException("Top referenced classes must be at least 0, but was: " + topReferencedClasses);
+        }
+        this.topReferencedClasses = topReferencedClasses;
+    }
+
+    /**
+     * Set whether the report of an artifact is streamed while the artifact is analysed.
+     *
+     * @param streamingReport
+     *  True to stream the report.
+     */
+    public void setStreamingReport(boolean streamingReport) {
+        this.streamingReport = streamingReport;
+    }
+
+    /**
+     * Set the format of the dependency graph written next to the report of an artifact.
+     *
+     * @param graphFormat
+     *  The format, i.e. gexf, graphml or dot, or null for no graph.
+     */
+    public void setGraphFormat(String graphFormat) {
+        this.graphFormat = graphFormat;
+    }
+
+    /**
+     * Set the granularity of the dependency graph.
+     *
+     * @param graphGranularity
+     *  The granularity, i.e. class or package.
+     */
+    public void setGraphGranularity(String graphGranularity) {
+        if(!GraphExport.GRANULARITY_CLASS.equals(graphGranularity) && !GraphExport.GRANULARITY_PACKAGE.equals(graphGranularity)) {
+            throw new IllegalArgumentException("Granularity must be class or package, but was: " + graphGranularity);
+        }
+        this.graphGranularity = graphGranularity;
+    }
+
+    /**
+     * Set the directory of the reference index the analysed artifacts are added to.
+     *
+     * @param referenceIndexLocation
+     *  The directory of the reference index, or null for no index.
+     */
+    public void setReferenceIndexLocation(Path referenceIndexLocation) {
+        this.referenceIndexLocation = referenceIndexLocation;
+        this.referenceIndexWriter = null;
+    }
+
+    /**
+     * Set the directory of the cache of parse results, which is shared by the analysed artifacts.
+     *
+     * @param classCacheLocation
+     *  The directory of the cache, or null for no cache.
+     */
+    public synchronized void setClassCacheLocation(Path classCacheLocation) {
+        this.classCacheLocation = classCacheLocation;
+        this.classResultCache = null;
+    }
+
+    /**
+     * Set the filename of the merged report, which summarizes the artifacts analysed from now on. The artifacts
+     * merged so far (and not yet written) are discarded.
+     *
+     * @param mergedReportFilename
+     *  The filename of the merged report, or null for no merged report.
+     */
+    public synchronized void setMergedReportFilename(String mergedReportFilename) {
+        this.mergedReportFilename = mergedReportFilename;
+        this.closeReportMerger();
+    }
+
+    /**
+     * Set the class path the artifacts are analysed against. The class path is indexed once (on the first analysis),
+     * and the index is reused for the next artifacts.
+     *
+     * @param classPath
+     *  The jars and directories of the class path, in class path order, or null for no class path.
+     */
+    public synchronized void setClassPath(List<Path> classPath) {
+        this.classPath = classPath == null ? null : new ArrayList<>(classPath);
+        this.classPathIndex = null;
+    }
+
     /**
      * The main method exposed to the interface. The implementation is executed with the following steps:
      * - verification of output location
      * - initialization of internal model
      * - perform analysis
-     * - write report
+     * - write report (or stream the report while analysing, see setStreamingReport)
+     * - write dependency graph (when a graph format is set)
+     * - add references to the reference index (when a reference index location is set)
+     * - add the analysis to the merged report (when a merged report filename is set)
      *
      * @param inputLocation
      *  A reference of the artifact to be analysed.
@@ -59,6 +267,287 @@ public class ArtificerImpl implements Analyser {
         if(!Files.exists(inputLocation)) {
             throw new ArtificerException("No output as the input does not exist...");
         }
+        this.verifyOutput();
+
+        // Instantiate model
+        Analysis analysis = new Analysis();
+        analysis.setArtifactName(this.determineArtifactName(inputLocation));
+        analysis.setGeneratedFilename(this.outputFilename);
+        analysis.setReportSections(this.reportSections);
+        analysis.setTopReferencedClasses(this.topReferencedClasses);
+        Meta meta = new Meta();
+        meta.setStatus(STATUS_OK);
+        analysis.setMeta(meta);
+
+        // Start analysis
+        LOGGER.debug("Starting analysis...");
+        ArtifactManager artifactManager = new ArtifactManager(this.analysisEngine, this.parallelism, this.determineComputedSections());
+        artifactManager.setClassResultCache(this.getClassResultCache());
+        OutputManager outputManager = this.createOutputManager();
+        if(this.streamingReport && XmlReportWriter.FORMAT.equalsIgnoreCase(this.reportFormat)) {
+            // Report analysis while analysing, where the details of the classes are only kept when read afterwards
+            artifactManager.setReleasingDetails(this.isReleasingDetails());
+            try (StreamingReportWriter streamingReportWriter = outputManager.createStreamingReportWriter(analysis)) {
+                artifactManager.analyseArtifact(analysis, inputLocation, streamingReportWriter);
+                this.attributeReferencedClasses(analysis);
+                LOGGER.debug("Finishing analysis...");
+                streamingReportWriter.finish(analysis);
+            }
+        } else {
+            artifactManager.analyseArtifact(analysis, inputLocation);
+            this.attributeReferencedClasses(analysis);
+
+            // Report analysis
+            LOGGER.debug("Writing analysis...");
+            outputManager.writeReport(analysis);
+        }
+
+        if(this.classResultCache != null) {
+            LOGGER.debug("Class cache: " + this.classResultCache.getHits() + " hits, " + this.classResultCache.getMisses() + " misses");
+        }
+
+        // Export dependency graph
+        if(this.graphFormat != null) {
+            LOGGER.debug("Writing dependency graph...");
+            outputManager.writeGraph(analysis, this.graphFormat, this.graphGranularity);
+        }
+
+        // Index references
+        if(this.referenceIndexLocation != null) {
+            LOGGER.debug("Indexing references...");
+            this.indexReferences(analysis);
+        }
+
+        // Merge analysis
+        if(this.mergedReportFilename != null) {
+            LOGGER.debug("Merging analysis...");
+            this.mergeAnalysis(analysis);
+        }
+    }
+
+    /**
+     * Analyse the class path for duplicate classes and split packages, and write the report. The implementation is
+     * executed with the following steps:
+     * - verification of class path and output location
+     * - indexing of the class path (once, as the index is shared with the analysis of artifacts)
+     * - perform analysis
+     * - write report
+     *
+     * @throws ArtificerException
+     *  When no class path is set, or an error occurred during analysis or writing the report.
+     */
+    public void analyseClassPath() throws ArtificerException {
+        // Verify class path is set
+        if(this.classPath == null) {
+            throw new ArtificerException("No class path set...");
+        }
+        this.verifyOutput();
+
+        // Instantiate model
+        ClassPathAnalysis classPathAnalysis = new ClassPathAnalysis();
+        classPathAnalysis.setGeneratedFilename(this.outputFilename);
+        Meta meta = new Meta();
+        meta.setStatus(STATUS_OK);
+        classPathAnalysis.setMeta(meta);
+
+        // Start analysis
+        LOGGER.debug("Starting class path analysis...");
+        ClassPathConflictAnalyser classPathConflictAnalyser = new ClassPathConflictAnalyser(this.parallelism);
+        try {
+            classPathConflictAnalyser.analyseClassPath(this.getClassPathIndex(), classPathAnalysis);
+        } catch (IOException e) {
+            LOGGER.error("Updated meta with error message: " + e.getMessage(), e);
+            meta.setStatus(STATUS_ERROR);
+            meta.setErrorMessage(e.getMessage());
+        }
+
+        // Report analysis
+        LOGGER.debug("Writing class path analysis...");
+        OutputManager outputManager = this.createOutputManager();
+        outputManager.writeReport(classPathAnalysis);
+    }
+
+    /**
+     * Write the merged report of the artifacts analysed since the last merged report, and start a new merge. The
+     * merged report is written to the output location, with the merged report filename.
+     *
+     * @throws ArtificerException
+     *  When no merged report filename is set, or writing the merged report fails.
+     */
+    public synchronized void writeMergedReport() throws ArtificerException {
+        // Verify merged report filename is set
+        if(this.mergedReportFilename == null) {
+            throw new ArtificerException("No merged report filename set...");
+        }
+        // Verify output location is set and writable
+        if(this.outputLocation == null) {
+            throw new ArtificerException("No output location set...");
+        }
+        if(!Files.isWritable(this.outputLocation)) {
+            throw new ArtificerException("No permission to write to: " + this.outputLocation.toAbsolutePath());
+        }
+        try {
+            if(this.reportMerger == null) {
+                this.reportMerger = new ReportMerger();
+            }
+            LOGGER.debug("Writing merged report of " + this.reportMerger.getTotalArtifacts() + " artifacts...");
+            this.createOutputManager().writeMergedReport(this.reportMerger, this.mergedReportFilename);
+        } catch (IOException e) {
+            throw new ArtificerException("Unable to merge the reports: " + e.getMessage(), e);
+        } finally {
+            this.closeReportMerger();
+        }
+    }
+
+    /**
+     * Merge the reports written before into one merged report, which is written to the output location, with the
+     * output filename. The reports are read one at a time.
+     *
+     * @param reports
+     *  The paths to the reports.
+     * @throws ArtificerException
+     *  When a report can not be read, or writing the merged report fails.
+     */
+    public void mergeReports(List<Path> reports) throws ArtificerException {
+        this.verifyOutput();
+        try (ReportMerger merger = new ReportMerger()) {
+            for (Path report : reports) {
+                LOGGER.debug("Merging report: " + report);
+                merger.addReport(report);
+            }
+            this.createOutputManager().writeMergedReport(merger, this.outputFilename);
+        } catch (IOException e) {
+            throw new ArtificerException("Unable to merge the reports: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Auxiliary method to attribute the referenced classes to the entries of the class path, when a class path is set.
+     *
+     * @param analysis
+     *  The analysis associated with the referenced classes.
+     * @throws ArtificerException
+     *  When indexing the class path fails.
+     */
+    protected void attributeReferencedClasses(Analysis analysis) throws ArtificerException {
+        if(this.classPath != null && this.determineComputedSections().contains(ReportSection.CLASS_PATH)) {
+            this.getClassPathIndex().attributeReferencedClasses(analysis);
+        }
+    }
+
+    /**
+     * Auxiliary method to create the output manager, which writes the reports as configured.
+     *
+     * @return
+     *  The output manager.
+     */
+    protected OutputManager createOutputManager() {
+        OutputManager outputManager = new OutputManager(this.outputLocation, this.reportFormat);
+        outputManager.setReportParallelism(this.reportParallelism);
+        outputManager.setCompressedReport(this.compressedReport);
+        return outputManager;
+    }
+
+    /**
+     * Auxiliary method to determine the sections to compute, being the sections of the report, and the sections
+     * needed by the dependency graph (the referenced classes with their class domains), the indices (the
+     * referenced classes) and the merged report (the java versions and external artifacts). The sections they
+     * require are computed as well (see ReportSection.withRequirements), but are left out here, so the session can
+     * tell the summary of the referenced classes on its own (which needs no list of referenced classes).
+     *
+     * @return
+     *  The sections to compute.
+     */
+    protected Set<ReportSection> determineComputedSections() {
+        Set<ReportSection> computedSections = EnumSet.copyOf(this.reportSections);
+        if(this.graphFormat != null) {
+            computedSections.add(ReportSection.CLASS_DOMAINS);
+        }
+        if(this.referenceIndexLocation != null || AnalysisIndexWriter.FORMAT.equalsIgnoreCase(this.reportFormat)) {
+            computedSections.add(ReportSection.REFERENCED_CLASSES);
+        }
+        if(this.mergedReportFilename != null) {
+            computedSections.add(ReportSection.JAVA_VERSIONS);
+            computedSections.add(ReportSection.EXTERNAL_ARTIFACTS);
+        }
+        return computedSections;
+    }
+
+    /**
+     * Auxiliary method to tell whether the details of the classes (the referenced classes, interfaces and annotations)
+     * can be released once reported, which is the case when none of the dependency graph, the reference index and
+     * the analysis index reads them after the analysis.
+     *
+     * @return
+     *  Whether the details of the classes can be released.
+     */
+    protected boolean isReleasingDetails() {
+        return this.graphFormat == null
+            && this.referenceIndexLocation == null
+            && !AnalysisIndexWriter.FORMAT.equalsIgnoreCase(this.reportFormat);
+    }
+
+    /**
+     * Auxiliary method to add the references of an analysis to the reference index, which is written right away, so
+     * the index is complete for every analysed artifact. The writer is created on first use.
+     *
+     * @param analysis
+     *  The analysis with the references.
+     * @throws ArtificerException
+     *  When writing the reference index fails.
+     */
+    protected synchronized void indexReferences(Analysis analysis) throws ArtificerException {
+        try {
+            if(this.referenceIndexWriter == null) {
+                this.referenceIndexWriter = new ReferenceIndexWriter(this.referenceIndexLocation);
+            }
+            this.referenceIndexWriter.addAnalysis(analysis);
+            this.referenceIndexWriter.flush();
+        } catch (IOException e) {
+            throw new ArtificerException("Unable to write the reference index: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Auxiliary method to add an analysis to the merged report. The merger is created on first use.
+     *
+     * @param analysis
+     *  The analysis to merge.
+     * @throws ArtificerException
+     *  When merging the analysis fails.
+     */
+    protected synchronized void mergeAnalysis(Analysis analysis) throws ArtificerException {
+        try {
+            if(this.reportMerger == null) {
+                this.reportMerger = new ReportMerger();
+            }
+            this.reportMerger.addAnalysis(analysis);
+        } catch (IOException e) {
+            throw new ArtificerException("Unable to merge the analysis: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Auxiliary method to discard the merger of the merged report, which deletes its temporary files.
+     */
+    protected synchronized void closeReportMerger() {
+        if(this.reportMerger != null) {
+            try {
+                this.reportMerger.close();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete the temporary files of the merged report: " + e.getMessage(), e);
+            }
+            this.reportMerger = null;
+        }
+    }
+
+    /**
+     * Auxiliary method to verify the output location and filename are set, and the output location is writable.
+     *
+     * @throws ArtificerException
+     *  When the output can not be written.
+     */
+    protected void verifyOutput() throws ArtificerException {
         // Verify output location is set
         if(this.outputLocation == null) {
             throw new ArtificerException("No output location set...");
@@ -67,28 +556,56 @@ public class ArtificerImpl implements Analyser {
         if(this.outputFilename == null || this.outputFilename.isEmpty()) {
             throw new ArtificerException("No output filename set...");
         }
+        // Verify report format is supported
+        if(OutputManager.findReportWriter(this.reportFormat) == null) {
+            throw new ArtificerException("Unsupported report format: " + this.reportFormat);
+        }
+        // Verify graph format is supported
+        if(this.graphFormat != null && OutputManager.findGraphWriter(this.graphFormat) == null) {
+            throw new ArtificerException("Unsupported graph format: " + this.graphFormat);
+        }
         // Verify write permission
         if(!Files.isWritable(this.outputLocation)) {
             throw new ArtificerException("No permission to write to: " + this.outputLocation.toAbsolutePath());
         }
+    }
 
-        // Instantiate model
-        Analysis analysis = new Analysis();
-        analysis.setArtifactName(this.determineArtifactName(inputLocation));
-        analysis.setGeneratedFilename(this.outputFilename);
-        Meta meta = new Meta();
-        meta.setStatus(STATUS_OK);
-        analysis.setMeta(meta);
-
-        // Start analysis
-        LOGGER.debug("Starting analysis...");
-        ArtifactManager artifactManager = new ArtifactManager();
-        artifactManager.analyseArtifact(analysis, inputLocation);
+    /**
+     * Auxiliary method to get the index of the class path, which is built on first use.
+     *
+     * @return
+     *  The class path index.
+     * @throws ArtificerException
+     *  When indexing the class path fails.
+     */
+    protected synchronized ClassPathIndex getClassPathIndex() throws ArtificerException {
+        if(this.classPathIndex == null) {
+            try {
+                this.classPathIndex = ClassPathIndex.build(this.classPath, this.parallelism);
+            } catch (IOException e) {
+                throw new ArtificerException("Unable to index the class path: " + e.getMessage(), e);
+            }
+        }
+        return this.classPathIndex;
+    }
 
-        // Report analysis
-        LOGGER.debug("Writing analysis...");
-        OutputManager outputManager = new OutputManager(this.outputLocation);
-        outputManager.writeReport(analysis);
+    /**
+     * Auxiliary method to get the cache of parse results, which is created on first use.
+     *
+     * @return
+     *  The cache, or null when no cache location is set.
+     * @throws ArtificerException
+     *  When the directory of the cache can not be created.
+     */
+    protected synchronized ClassResultCache getClassResultCache() throws ArtificerException {
+        if(this.classCacheLocation != null && this.classResultCache == null) {
+            try {
+                this.classResultCache = new ClassResultCache(this.classCacheLocation);
+            } catch (IOException e) {
+                throw new ArtificerException("Unable to create the class cache: " + e.getMessage(), e);
+            }
+        }
+        return this.classResultCache;
     }
 
     /**
@@ -0,0 +1,195 @@
+package net.technolords.tools.artificer.analyser;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.dotclass.BytecodeParser;
+import net.technolords.tools.artificer.analyser.dotclass.index.EnterpriseClassIndex;
+import net.technolords.tools.artificer.analyser.dotclass.index.MavenArtifactIndex;
+import net.technolords.tools.artificer.analyser.dotclass.index.StandardClassIndices;
+import net.technolords.tools.artificer.analyser.dotclass.rule.ClassDomainClassifier;
+import net.technolords.tools.artificer.analyser.fingerprint.LibraryFingerprints;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
+import net.technolords.tools.artificer.exception.ArtificerException;
+
+/**
+ * The analysis engine holds the state which is expensive to create and which is shared by all analyses, such as
+ * the java specifications, the class indices of the Java SE releases and of Java EE, the class domain rules, the
+ * (optional) index of Maven artifacts and the (optional) fingerprints of known libraries. The engine is immutable and thread safe, so a single instance can be
+ * used to analyse many artifacts concurrently. The state associated with a single artifact is kept by an AnalysisSession, which
+ * is created by the engine.
+ *
+ * Usage:
+ *
+ * AnalysisEngine engine = AnalysisEngine.getDefaultEngine();
+ * AnalysisSession session = engine.createSession(analysis, parallelism);
+ */
+public class AnalysisEngine {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalysisEngine.class);
+    private final BytecodeParser bytecodeParser;
+    private final StandardClassIndices standardClassIndices;
+    private final EnterpriseClassIndex enterpriseClassIndex;
+    private final ClassDomainClassifier classDomainClassifier;
+    private final MavenArtifactIndex mavenArtifactIndex;
+    private final LibraryFingerprints libraryFingerprints;
+
+    /**
+     * Create an engine, where the enterprise class index is read from the class path (when present).
+     */
+    public AnalysisEngine() {
+        this(null);
+    }
+
+    /**
+     * Create an engine using an enterprise class index, as built by the EnterpriseClassIndexBuilder. The class
+     * domain rules are read from the class path.
+     *
+     * @param pathToEnterpriseClassIndex
+     *  The path to the enterprise class index, or null to read it from the class path.
+     */
+    public AnalysisEngine(Path pathToEnterpriseClassIndex) {
+        this(pathToEnterpriseClassIndex, loadDefaultClassDomainClassifier(), null, null);
+    }
+
+    /**
+     * Create an engine using an enterprise class index and class domain rules.
+     *
+     * @param pathToEnterpriseClassIndex
+     *  The path to the enterprise class index, or null to read it from the class path.
+     * @param pathToClassDomainRules
+     *  The path to the XML file with class domain rules, or null to read them from the class path.
+     * @throws ArtificerException
+     *  When the class domain rules can not be read.
+     */
+    public AnalysisEngine(Path pathToEnterpriseClassIndex, Path pathToClassDomainRules) throws ArtificerException {
+        this(pathToEnterpriseClassIndex, pathToClassDomainRules, null);
+    }
+
+    /**
+     * Create an engine using an enterprise class index, class domain rules and an index of Maven artifacts, as
+     * built by the MavenArtifactIndexBuilder. With the latter, the external classes are resolved to artifacts.
+     *
+     * @param pathToEnterpriseClassIndex
+     *  The path to the enterprise class index, or null to read it from the class path.
+     * @param pathToClassDomainRules
+     *  The path to the XML file with class domain rules, or null to read them from the class path.
+     * @param pathToMavenArtifactIndex
+     *  The path to the Maven artifact index, or null to read it from the class path.
+     * @throws ArtificerException
+     *  When the class domain rules can not be read.
+     */
+    public AnalysisEngine(Path pathToEnterpriseClassIndex, Path pathToClassDomainRules, Path pathToMavenArtifactIndex) throws ArtificerException {
+        this(pathToEnterpriseClassIndex, pathToClassDomainRules, pathToMavenArtifactIndex, null);
+    }
+
+    /**
+     * Create an engine using an enterprise class index, class domain rules, an index of Maven artifacts and a
+     * fingerprint database of known libraries, as built by the FingerprintDatabaseBuilder. With the latter, the
+     * libraries embedded in an artifact (also when shaded) are detected.
+     *
+     * @param pathToEnterpriseClassIndex
+     *  The path to the enterprise class index, or null to read it from the class path.
+     * @param pathToClassDomainRules
+     *  The path to the XML file with class domain rules, or null to read them from the class path.
+     * @param pathToMavenArtifactIndex
+     *  The path to the Maven artifact index, or null to read it from the class path.
+     * @param pathToFingerprintDatabase
+     *  The path to the fingerprint database, or null to read it from the class path.
+     * @throws ArtificerException
+     *  When the class domain rules can not be read.
+     */
+    public AnalysisEngine(Path pathToEnterpriseClassIndex, Path pathToClassDomainRules, Path pathToMavenArtifactIndex, Path pathToFingerprintDatabase) throws ArtificerException {
+        this(pathToEnterpriseClassIndex, pathToClassDomainRules == null ? loadDefaultClassDomainClassifier() : ClassDomainClassifier.load(pathToClassDomainRules),
+            pathToMavenArtifactIndex, pathToFingerprintDatabase);
+    }
+
+    private AnalysisEngine(Path pathToEnterpriseClassIndex, ClassDomainClassifier classDomainClassifier, Path pathToMavenArtifactIndex, Path pathToFingerprintDatabase) {
+        this.bytecodeParser = new BytecodeParser();
+        this.standardClassIndices = new StandardClassIndices();
+        this.enterpriseClassIndex = new EnterpriseClassIndex(pathToEnterpriseClassIndex);
+        this.classDomainClassifier = classDomainClassifier;
+        this.mavenArtifactIndex = new MavenArtifactIndex(pathToMavenArtifactIndex);
+        this.libraryFingerprints = new LibraryFingerprints(pathToFingerprintDatabase);
+    }
+
+    private static ClassDomainClassifier loadDefaultClassDomainClassifier() {
+        try {
+            return ClassDomainClassifier.loadResource(ClassDomainClassifier.DEFAULT_RULES_LOCATION);
+        } catch (ArtificerException e) {
+            LOGGER.error("Unable to load the class domain rules, continuing without: " + e.getMessage(), e);
+            return new ClassDomainClassifier();
+        }
+    }
+
+    /**
+     * Get the default engine, which is created once (lazily) and shared by all callers.
+     *
+     * @return
+     *  The default engine.
+     */
+    public static AnalysisEngine getDefaultEngine() {
+        return DefaultEngineHolder.DEFAULT_ENGINE;
+    }
+
+    /**
+     * Create a session to analyse a single artifact.
+     *
+     * @param analysis
+     *  The model to populate by the session.
+     * @param parallelism
+     *  The number of threads used to analyse the classes of the artifact, where 1 means sequential analysis.
+     * @return
+     *  The session.
+     */
+    public AnalysisSession createSession(Analysis analysis, int parallelism) {
+        return new AnalysisSession(this, analysis, parallelism);
+    }
+
+    /**
+     * Create a session to analyse a single artifact, which only computes the given sections of the report.
+     *
+     * @param analysis
+     *  The model to populate by the session.
+     * @param parallelism
+     *  The number of threads used to analyse the classes of the artifact, where 1 means sequential analysis.
+     * @param reportSections
+     *  The sections to compute, where the sections they require are computed as well (see ReportSection).
+     * @return
+     *  The session.
+     */
+    public AnalysisSession createSession(Analysis analysis, int parallelism, Set<ReportSection> reportSections) {
+        return new AnalysisSession(this, analysis, parallelism, reportSections);
+    }
+
+    public BytecodeParser getBytecodeParser() {
+        return bytecodeParser;
+    }
+
+    public StandardClassIndices getStandardClassIndices() {
+        return standardClassIndices;
+    }
+
+    public EnterpriseClassIndex getEnterpriseClassIndex() {
+        return enterpriseClassIndex;
+    }
+
+    public ClassDomainClassifier getClassDomainClassifier() {
+        return classDomainClassifier;
+    }
+
+    public MavenArtifactIndex getMavenArtifactIndex() {
+        return mavenArtifactIndex;
+    }
+
+    public LibraryFingerprints getLibraryFingerprints() {
+        return libraryFingerprints;
+    }
+
+    private static class DefaultEngineHolder {
+        private static final AnalysisEngine DEFAULT_ENGINE = new AnalysisEngine();
+    }
+}
@@ -0,0 +1,42 @@
+package net.technolords.tools.artificer.analyser;
+
+import java.io.IOException;
+
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * A listener which is notified while an artifact is analysed, so results can be processed (i.e. written to a
+ * report) as they are produced, rather than once the analysis is done.
+ */
+public interface AnalysisListener {
+
+    /**
+     * The number of consecutive resources (by ordinal) which are notified before any resource after them, so a
+     * listener which processes the resources in order never has to keep more than this number of resources.
+     */
+    int WINDOW_SIZE = 1024;
+
+    /**
+     * Notify the resources of the artifact are found and classified in resource groups, and the analysis of the
+     * classes is about to start.
+     *
+     * @param analysis
+     *  The analysis, with its resource groups.
+     * @throws IOException
+     *  When processing the resources fails.
+     */
+    void analysisStarted(Analysis analysis) throws IOException;
+
+    /**
+     * Notify a resource of the java classes is analysed. This can be invoked by concurrent threads (for different
+     * resources), in any order, when the classes are analysed in parallel, but within a window of WINDOW_SIZE
+     * ordinals: the resources of a window are all notified before any resource of the next window.
+     *
+     * @param ordinal
+     *  The position of the resource in the resource group of the java classes.
+     * @param resource
+     *  The analysed resource.
+     */
+    void resourceAnalysed(int ordinal, Resource resource);
+}
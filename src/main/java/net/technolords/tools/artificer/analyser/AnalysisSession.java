@@ -0,0 +1,241 @@
+package net.technolords.tools.artificer.analyser;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+import net.technolords.tools.artificer.analyser.dotclass.ClassDomainAnalyser;
+import net.technolords.tools.artificer.analyser.dotclass.ClassResultCache;
+import net.technolords.tools.artificer.analyser.fingerprint.EmbeddedLibraryAnalyser;
+import net.technolords.tools.artificer.analyser.fingerprint.FingerprintDatabase;
+import net.technolords.tools.artificer.analyser.graph.DependencyGraph;
+import net.technolords.tools.artificer.analyser.graph.PackageCycleAnalyser;
+import net.technolords.tools.artificer.analyser.graph.PackageStructureAnalyser;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+
+/**
+ * The analysis session holds the state associated with the analysis of a single artifact, such as the model and
+ * the classes of the artifact itself (aka 'self'). A session is lightweight, and uses the shared state of the
+ * engine which created it. A session is meant to be used once, for a single artifact.
+ */
+public class AnalysisSession {
+    private final AnalysisEngine analysisEngine;
+    private final Analysis analysis;
+    private final int parallelism;
+    private final Set<ReportSection> reportSections;
+    private final boolean listingReferencedClasses;
+    private AnalysisListener analysisListener;
+    private ClassResultCache classResultCache;
+    private boolean releasingDetails;
+
+    protected AnalysisSession(AnalysisEngine analysisEngine, Analysis analysis, int parallelism) {
+        this(analysisEngine, analysis, parallelism, ReportSection.defaults());
+    }
+
+    protected AnalysisSession(AnalysisEngine analysisEngine, Analysis analysis, int parallelism, Set<ReportSection> reportSections) {
+        this.analysisEngine = analysisEngine;
+        this.analysis = analysis;
+        this.parallelism = Math.max(1, parallelism);
+        this.reportSections = ReportSection.withRequirements(reportSections);
+        this.listingReferencedClasses = ReportSection.requiresReferencedClassList(reportSections);
+    }
+
+    /**
+     * Analyse the resource group representing the java classes. The byte code of each class is analysed to find the
+     * referenced classes, after which the class and its referenced classes are classified right away (so the
+     * resources are visited once). Once all classes are analysed, the 'self' classes are known, and the referenced
+     * classes are added in the appropriate class domains: Self, Standard, Enterprise and External. See also the
+     * enums in the ReferencedClass. When a fingerprint database of known libraries is present, the classes are
+     * fingerprinted as well, to detect embedded (shaded) libraries. Finally, the dependency graph of the classes is
+     * built, to find the packages which depend on each other in a cycle, and to derive the package structure (the
+     * dependency structure matrix and the coupling metrics of the packages).
+     *
+     * Only the sections to compute (see ReportSection) are computed: the byte code is only parsed when a section
+     * needs the referenced classes (otherwise only the version of each class is read, when needed at all), the
+     * referenced classes are only classified when the class domains are needed, and so on. Likewise, the list of
+     * referenced classes is not built when only their summary per package is needed.
+     *
+     * When a listener is set, it is notified of each analysed resource, after which the constant pool of the
+     * resource is released, as it is no longer needed. When releasing details is set as well, the referenced
+     * classes, interfaces and annotations of the resource are released too, unless the dependency graph is built
+     * (see setReleasingDetails).
+     *
+     * When a cache of parse results is set (see ClassResultCache), the byte code of a class is only parsed when its
+     * results are not cached yet, and the results are cached once parsed. A class found in the cache has no
+     * constant pool, so its fingerprint is taken from the cache as well.
+     *
+     * @param javaResourceGroup
+     *  The resource group representing the java classes.
+     * @throws IOException
+     *  When the analysis is interrupted.
+     */
+    public void analyseJavaClasses(ResourceGroup javaResourceGroup) throws IOException {
+        final Meta meta = this.analysis.getMeta();
+        final boolean parsing = ReportSection.requiresBytecode(this.reportSections);
+        final boolean versioning = ReportSection.requiresVersion(this.reportSections);
+        final ClassDomainAnalyser classDomainAnalyser = !this.reportSections.contains(ReportSection.REFERENCED_CLASSES) ? null :
+            new ClassDomainAnalyser(this.analysisEngine.getStandardClassIndices(), this.analysisEngine.getEnterpriseClassIndex(), this.analysisEngine.getClassDomainClassifier(),
+                this.reportSections.contains(ReportSection.EXTERNAL_ARTIFACTS) ? this.analysisEngine.getMavenArtifactIndex() : null,
+                this.reportSections.contains(ReportSection.CLASS_DOMAINS));
+        final FingerprintDatabase fingerprintDatabase = this.reportSections.contains(ReportSection.EMBEDDED_LIBRARIES) ? this.analysisEngine.getLibraryFingerprints().getDatabase() : null;
+        final EmbeddedLibraryAnalyser embeddedLibraryAnalyser = fingerprintDatabase == null ? null : new EmbeddedLibraryAnalyser(fingerprintDatabase);
+        if (!versioning && this.analysisListener == null) {
+            return;
+        }
+        final ClassResultCache classResultCache = parsing ? this.classResultCache : null;
+        final boolean releasing = this.releasingDetails && !this.reportSections.contains(ReportSection.PACKAGE_CYCLES) && !this.reportSections.contains(ReportSection.PACKAGE_STRUCTURE);
+        this.forEachResource(javaResourceGroup.getResources(), (resource, ordinal) -> {
+            ClassResultCache.Key cacheKey = classResultCache == null ? null : classResultCache.keyOf(resource);
+            ClassResultCache.CachedClass cachedClass = cacheKey == null ? null : classResultCache.lookup(cacheKey);
+            if (cachedClass != null) {
+                cachedClass.applyTo(meta, resource);
+            } else if (parsing) {
+                this.analysisEngine.getBytecodeParser().analyseBytecode(meta, resource);
+                if (cacheKey != null) {
+                    classResultCache.store(cacheKey, resource);
+                }
+            } else if (versioning) {
+                this.analysisEngine.getBytecodeParser().analyseVersion(meta, resource);
+            }
+            if (classDomainAnalyser != null) {
+                classDomainAnalyser.analyseReferencedClassForClassDomain(resource);
+            }
+            if (embeddedLibraryAnalyser != null) {
+                if (cachedClass == null) {
+                    embeddedLibraryAnalyser.registerClass(resource);
+                } else if (cachedClass.getFingerprint() != null) {
+                    embeddedLibraryAnalyser.registerFingerprint(resource, cachedClass.getFingerprint());
+                }
+            }
+            if (this.analysisListener != null) {
+                this.analysisListener.resourceAnalysed(ordinal, resource);
+                resource.setConstantPool(null);
+                if (releasing) {
+                    resource.setReferencedClasses(Collections.emptySet());
+                    resource.setInterfaces(Collections.emptyList());
+                    resource.setAnnotations(Collections.emptySet());
+                }
+            }
+        });
+        if (classDomainAnalyser != null) {
+            if (this.listingReferencedClasses) {
+                classDomainAnalyser.populateReferencedClasses(this.analysis);
+            }
+            if (this.reportSections.contains(ReportSection.REFERENCED_PACKAGES)) {
+                classDomainAnalyser.populateReferencedPackages(this.analysis, this.analysis.getTopReferencedClasses());
+            }
+        }
+        if (embeddedLibraryAnalyser != null) {
+            embeddedLibraryAnalyser.populateEmbeddedLibraries(this.analysis);
+        }
+        if (this.reportSections.contains(ReportSection.PACKAGE_CYCLES) || this.reportSections.contains(ReportSection.PACKAGE_STRUCTURE)) {
+            DependencyGraph classGraph = DependencyGraph.of(javaResourceGroup.getResources());
+            if (this.reportSections.contains(ReportSection.PACKAGE_CYCLES)) {
+                new PackageCycleAnalyser().analysePackageCycles(classGraph, javaResourceGroup.getResources(), this.analysis);
+            }
+            if (this.reportSections.contains(ReportSection.PACKAGE_STRUCTURE)) {
+                new PackageStructureAnalyser().analysePackageStructure(classGraph, javaResourceGroup.getResources(), this.analysis);
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method to apply an action on each resource, with the ordinal of the resource (its position in the
+     * list). When the parallelism is larger than 1, the resources are processed by a dedicated fork/join pool,
+     * otherwise they are processed sequentially by the calling thread. The action must be safe to be invoked
+     * concurrently for different resources. When a listener is set, the resources are processed in windows of
+     * AnalysisListener.WINDOW_SIZE ordinals, where a window is complete before the next one starts, so the
+     * resources the listener keeps until it is their turn are bounded.
+     *
+     * @param resources
+     *  The resources to process.
+     * @param action
+     *  The action to apply on each resource and its ordinal.
+     * @throws IOException
+     *  When the processing is interrupted.
+     */
+    protected void forEachResource(List<Resource> resources, ObjIntConsumer<Resource> action) throws IOException {
+        if (this.parallelism == 1 || resources.size() < 2) {
+            for (int ordinal = 0; ordinal < resources.size(); ordinal++) {
+                action.accept(resources.get(ordinal), ordinal);
+            }
+            return;
+        }
+        int windowSize = this.analysisListener == null ? resources.size() : AnalysisListener.WINDOW_SIZE;
+        ForkJoinPool forkJoinPool = new ForkJoinPool(this.parallelism);
+        try {
+            for (int start = 0; start < resources.size(); start += windowSize) {
+                int windowStart = start;
+                int windowEnd = Math.min(resources.size(), start + windowSize);
+                forkJoinPool.submit(() -> IntStream.range(windowStart, windowEnd).parallel().forEach(ordinal -> action.accept(resources.get(ordinal), ordinal))).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while analysing resources", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    public Analysis getAnalysis() {
+        return analysis;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public Set<ReportSection> getReportSections() {
+        return reportSections;
+    }
+
+    public AnalysisListener getAnalysisListener() {
+        return analysisListener;
+    }
+
+    public void setAnalysisListener(AnalysisListener analysisListener) {
+        this.analysisListener = analysisListener;
+    }
+
+    public ClassResultCache getClassResultCache() {
+        return classResultCache;
+    }
+
+    public void setClassResultCache(ClassResultCache classResultCache) {
+        this.classResultCache = classResultCache;
+    }
+
+    public boolean isReleasingDetails() {
+        return releasingDetails;
+    }
+
+    /**
+     * Set whether the details of a resource (the referenced classes, interfaces and annotations) are released once
+     * the listener is notified of the resource, which is only safe when nothing reads them after the analysis (such
+     * as the indices, see ArtificerImpl). The details are kept regardless when the dependency graph is built.
+     *
+     * @param releasingDetails
+     *  True to release the details of the resources.
+     */
+    public void setReleasingDetails(boolean releasingDetails) {
+        this.releasingDetails = releasingDetails;
+    }
+}
@@ -0,0 +1,46 @@
+package net.technolords.tools.artificer.analyser.classpath;
+
+/**
+ * The definition of a class by an entry of the class path, with the CRC and size as found in the central directory
+ * of a jar. For classes of a directory the CRC and size are unknown (-1), as they are not read while indexing.
+ */
+public class ClassDefinition {
+    public static final long UNKNOWN = -1;
+    private final int position;
+    private final long crc;
+    private final long size;
+
+    public ClassDefinition(int position, long crc, long size) {
+        this.position = position;
+        this.crc = crc;
+        this.size = size;
+    }
+
+    /**
+     * Find out whether the definition has the same CRC and size as another definition, which is a cheap indication
+     * (not a proof) of identical content.
+     *
+     * @param other
+     *  The other definition.
+     * @return
+     *  False when both CRCs are known and the CRC or size differs, true otherwise.
+     */
+    public boolean mightBeIdentical(ClassDefinition other) {
+        if (this.crc == UNKNOWN || other.crc == UNKNOWN) {
+            return true;
+        }
+        return this.crc == other.crc && this.size == other.size;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public long getCrc() {
+        return crc;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
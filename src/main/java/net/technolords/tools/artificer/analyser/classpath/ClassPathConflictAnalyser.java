@@ -0,0 +1,198 @@
+package net.technolords.tools.artificer.analyser.classpath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.domain.classpath.ClassPathAnalysis;
+import net.technolords.tools.artificer.domain.classpath.Definition;
+import net.technolords.tools.artificer.domain.classpath.DuplicateClass;
+import net.technolords.tools.artificer.domain.classpath.SplitPackage;
+
+/**
+ * The class path conflict analyser finds the classes which are defined by more than one entry of a class path, and
+ * the packages which are split across entries. A duplicate class is either identical (the same bytes, which is
+ * harmless) or divergent (which class is loaded depends on the order of the class path).
+ *
+ * Telling them apart is done in two steps. First the CRCs and sizes of the central directories of the jars are
+ * compared, which are known from indexing the class path: when those differ, the definitions are divergent and no
+ * bytes are read. Otherwise (or when a definition comes from a directory) the bytes are read and hashed (SHA-256),
+ * where the duplicates are processed in parallel.
+ */
+public class ClassPathConflictAnalyser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassPathConflictAnalyser.class);
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private final int parallelism;
+
+    /**
+     * Create a conflict analyser.
+     *
+     * @param parallelism
+     *  The number of threads used to compare the duplicate classes, where 1 means sequential comparison.
+     */
+    public ClassPathConflictAnalyser(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Analyse the class path for duplicate classes and split packages.
+     *
+     * @param classPathIndex
+     *  The index of the class path.
+     * @param classPathAnalysis
+     *  The model to populate.
+     * @throws IOException
+     *  When the bytes of a class can not be read.
+     */
+    public void analyseClassPath(ClassPathIndex classPathIndex, ClassPathAnalysis classPathAnalysis) throws IOException {
+        final List<Path> entries = classPathIndex.getEntries();
+        classPathAnalysis.setTotalEntries(entries.size());
+        classPathAnalysis.setTotalClasses(classPathIndex.size());
+
+        // Duplicate classes, which are compared in parallel (each in its own slot, so the order is kept)
+        final List<Map.Entry<String, List<ClassDefinition>>> duplicates = new ArrayList<>(classPathIndex.getDuplicateClasses().entrySet());
+        final DuplicateClass[] duplicateClasses = new DuplicateClass[duplicates.size()];
+        final ConcurrentMap<Integer, ZipFile> zipFiles = new ConcurrentHashMap<>();
+        try {
+            ClassPathIndex.forEachPosition(duplicates.size(), this.parallelism, position -> {
+                try {
+                    Map.Entry<String, List<ClassDefinition>> duplicate = duplicates.get(position);
+                    duplicateClasses[position] = this.compareDefinitions(duplicate.getKey(), duplicate.getValue(), entries, zipFiles);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } finally {
+            for (ZipFile zipFile : zipFiles.values()) {
+                zipFile.close();
+            }
+        }
+        for (DuplicateClass duplicateClass : duplicateClasses) {
+            classPathAnalysis.getDuplicateClasses().add(duplicateClass);
+        }
+
+        // Split packages
+        for (Map.Entry<String, List<Integer>> splitPackageEntry : classPathIndex.getSplitPackages().entrySet()) {
+            SplitPackage splitPackage = new SplitPackage();
+            splitPackage.setName(splitPackageEntry.getKey());
+            for (int position : splitPackageEntry.getValue()) {
+                Definition definition = new Definition();
+                definition.setLocation(entries.get(position).toString());
+                splitPackage.getDefinitions().add(definition);
+            }
+            classPathAnalysis.getSplitPackages().add(splitPackage);
+        }
+        LOGGER.debug("Found " + duplicateClasses.length + " duplicate classes and " + classPathIndex.getSplitPackages().size() + " split packages");
+    }
+
+    /**
+     * Auxiliary method to compare the definitions of a duplicate class. The bytes are only read when the CRCs (and
+     * sizes) do not tell the definitions apart.
+     *
+     * @param className
+     *  The class name.
+     * @param classDefinitions
+     *  The definitions, in class path order.
+     * @param entries
+     *  The entries of the class path.
+     * @param zipFiles
+     *  The jars opened so far, by position, which are shared by the comparisons.
+     * @return
+     *  The duplicate class.
+     * @throws IOException
+     *  When the bytes of a class can not be read.
+     */
+    protected DuplicateClass compareDefinitions(String className, List<ClassDefinition> classDefinitions, List<Path> entries, ConcurrentMap<Integer, ZipFile> zipFiles) throws IOException {
+        DuplicateClass duplicateClass = new DuplicateClass();
+        duplicateClass.setName(className);
+        boolean mightBeIdentical = true;
+        for (ClassDefinition classDefinition : classDefinitions) {
+            mightBeIdentical &= classDefinition.mightBeIdentical(classDefinitions.get(0));
+        }
+        String firstDigest = null;
+        boolean identical = mightBeIdentical;
+        for (ClassDefinition classDefinition : classDefinitions) {
+            Definition definition = new Definition();
+            definition.setLocation(entries.get(classDefinition.getPosition()).toString());
+            if (classDefinition.getCrc() != ClassDefinition.UNKNOWN) {
+                definition.setCrc(String.format("%08x", classDefinition.getCrc()));
+            }
+            if (mightBeIdentical) {
+                String digest = this.digest(className, classDefinition.getPosition(), entries, zipFiles);
+                definition.setDigest(digest);
+                firstDigest = firstDigest == null ? digest : firstDigest;
+                identical &= firstDigest.equals(digest);
+            }
+            duplicateClass.getDefinitions().add(definition);
+        }
+        duplicateClass.setIdentical(identical);
+        return duplicateClass;
+    }
+
+    /**
+     * Auxiliary method to calculate the digest of the bytes of a class of an entry.
+     */
+    private String digest(String className, int position, List<Path> entries, ConcurrentMap<Integer, ZipFile> zipFiles) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        Path entry = entries.get(position);
+        String name = className + CLASS_EXTENSION;
+        if (Files.isDirectory(entry)) {
+            messageDigest.update(Files.readAllBytes(entry.resolve(name)));
+        } else {
+            ZipFile zipFile = this.openZipFile(position, entry, zipFiles);
+            ZipEntry zipEntry = zipFile.getEntry(name);
+            if (zipEntry == null) {
+                throw new IOException("Class " + className + " not found in: " + entry);
+            }
+            try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    messageDigest.update(buffer, 0, read);
+                }
+            }
+        }
+        StringBuilder digest = new StringBuilder();
+        for (byte value : messageDigest.digest()) {
+            digest.append(String.format("%02x", value));
+        }
+        return digest.toString();
+    }
+
+    /**
+     * Auxiliary method to open a jar once, where the (thread safe) zip file is shared by the comparisons.
+     */
+    private ZipFile openZipFile(int position, Path entry, ConcurrentMap<Integer, ZipFile> zipFiles) throws IOException {
+        ZipFile zipFile = zipFiles.get(position);
+        if (zipFile == null) {
+            synchronized (zipFiles) {
+                zipFile = zipFiles.get(position);
+                if (zipFile == null) {
+                    zipFile = new ZipFile(entry.toFile());
+                    zipFiles.put(position, zipFile);
+                }
+            }
+        }
+        return zipFile;
+    }
+}
@@ -0,0 +1,369 @@
+package net.technolords.tools.artificer.analyser.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ClassPathEntry;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+
+/**
+ * The class path index tells which entry of a class path (a jar or a directory) provides a class, the same way
+ * the class loader resolves it: the first entry containing the class wins, and classes of later entries with the
+ * same name are shadowed.
+ *
+ * The entries are read in parallel (a jar is read by its central directory, so no class is decompressed), after
+ * which the class names are merged in class path order. The class names of all entries share a single name table,
+ * which maps each class name to the position of the entry providing it, so a class path of hundreds of jars costs
+ * one map entry per distinct class name. Only for classes defined by more than one entry, the definitions of all
+ * entries are kept (with the CRC and size of the central directory), next to the packages which are split across
+ * entries. The index is immutable once built, and can be shared by analyses.
+ */
+public class ClassPathIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassPathIndex.class);
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String META_INF = "META-INF/";
+    private static final String MODULE_INFO = "module-info";
+    private static final EntryClasses NO_CLASSES = new EntryClasses(0);
+    private final List<Path> entries;
+    private final int[] totalClasses;
+    private final Map<String, Integer> providers;
+    private final Map<String, List<ClassDefinition>> duplicateClasses;
+    private final Map<String, List<Integer>> splitPackages;
+
+    private ClassPathIndex(List<Path> entries, int[] totalClasses, Map<String, Integer> providers, Map<String, List<ClassDefinition>> duplicateClasses,
+            Map<String, List<Integer>> splitPackages) {
+        this.entries = entries;
+        this.totalClasses = totalClasses;
+        this.providers = providers;
+        this.duplicateClasses = duplicateClasses;
+        this.splitPackages = splitPackages;
+    }
+
+    /**
+     * Build the index of a class path. Entries which do not exist, or can not be read, are skipped (with a
+     * warning), as the class loader does.
+     *
+     * @param classPath
+     *  The entries of the class path, being jars or directories, in class path order.
+     * @param parallelism
+     *  The number of threads used to read the entries, where 1 means sequential reading.
+     * @return
+     *  The index.
+     * @throws IOException
+     *  When the reading is interrupted.
+     */
+    public static ClassPathIndex build(List<Path> classPath, int parallelism) throws IOException {
+        final List<Path> entries = Collections.unmodifiableList(new ArrayList<>(classPath));
+        final EntryClasses[] classesPerEntry = new EntryClasses[entries.size()];
+        forEachPosition(entries.size(), parallelism, position -> classesPerEntry[position] = findClasses(entries.get(position)));
+
+        // Merge in class path order, where the first entry wins
+        int totalNames = 0;
+        for (EntryClasses entryClasses : classesPerEntry) {
+            totalNames += entryClasses.classNames.size();
+        }
+        Map<String, Integer> providers = new HashMap<>(Math.max(16, totalNames * 4 / 3));
+        Map<String, List<ClassDefinition>> duplicateClasses = new TreeMap<>();
+        Map<String, Integer> packageProviders = new HashMap<>();
+        Map<String, List<Integer>> splitPackages = new TreeMap<>();
+        int[] totalClasses = new int[entries.size()];
+        for (int position = 0; position < entries.size(); position++) {
+            EntryClasses entryClasses = classesPerEntry[position];
+            totalClasses[position] = entryClasses.classNames.size();
+            for (int i = 0; i < entryClasses.classNames.size(); i++) {
+                String className = entryClasses.classNames.get(i);
+                Integer provider = providers.putIfAbsent(className, position);
+                if (provider != null && provider == position) {
+                    // The same class twice in one jar, which is no duplicate on the class path
+                    totalClasses[position]--;
+                    continue;
+                }
+                if (provider != null) {
+                    List<ClassDefinition> classDefinitions = duplicateClasses.get(className);
+                    if (classDefinitions == null) {
+                        classDefinitions = new ArrayList<>();
+                        classDefinitions.add(classesPerEntry[provider].findDefinition(className, provider));
+                        duplicateClasses.put(className, classDefinitions);
+                    }
+                    classDefinitions.add(entryClasses.getDefinition(i, position));
+                }
+                String packageName = toPackageName(className);
+                Integer packageProvider = packageProviders.putIfAbsent(packageName, position);
+                if (packageProvider != null && packageProvider != position) {
+                    List<Integer> positions = splitPackages.computeIfAbsent(packageName, key -> new ArrayList<>(Collections.singletonList(packageProvider)));
+                    if (positions.get(positions.size() - 1) != position) {
+                        positions.add(position);
+                    }
+                }
+            }
+        }
+        LOGGER.debug("Indexed class path with " + entries.size() + " entries and " + providers.size() + " distinct classes, of which "
+            + duplicateClasses.size() + " duplicates, and " + splitPackages.size() + " split packages");
+        return new ClassPathIndex(entries, totalClasses, providers, duplicateClasses, splitPackages);
+    }
+
+    /**
+     * Auxiliary method to apply an action on each position of the class path. When the parallelism is larger than
+     * 1, the positions are processed by a dedicated fork/join pool, otherwise they are processed sequentially by the
+     * calling thread. An UncheckedIOException thrown by the action is rethrown as IOException.
+     *
+     * @param size
+     *  The number of positions.
+     * @param parallelism
+     *  The number of threads.
+     * @param action
+     *  The action to apply on each position.
+     * @throws IOException
+     *  When the action fails, or the processing is interrupted.
+     */
+    protected static void forEachPosition(int size, int parallelism, IntConsumer action) throws IOException {
+        if (parallelism <= 1 || size < 2) {
+            try {
+                IntStream.range(0, size).forEach(action);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return;
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            forkJoinPool.submit(() -> IntStream.range(0, size).parallel().forEach(action)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing the class path", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Find the entry which provides a class.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. org/slf4j/Logger).
+     * @return
+     *  The position of the entry in the class path, or -1 when no entry provides the class.
+     */
+    public int findProvider(String className) {
+        Integer position = this.providers.get(className);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Attribute the referenced classes of an analysis to the entries providing them. The 'Standard' classes are
+     * provided by the runtime, and the 'Self' classes by the artifact itself, so only the other classes are looked
+     * up. A class which no entry provides is flagged as unresolved. The entries of the class path are added to the
+     * analysis, with the number of referenced classes they provide.
+     *
+     * @param analysis
+     *  The (populated) analysis.
+     */
+    public void attributeReferencedClasses(Analysis analysis) {
+        long[] referencedClasses = new long[this.entries.size()];
+        for (ReferencedClass referencedClass : analysis.getDependencies()) {
+            if (referencedClass.getClassDomain() == ReferencedClass.ClassDomain.Standard || referencedClass.getClassDomain() == ReferencedClass.ClassDomain.Self) {
+                continue;
+            }
+            int position = this.findProvider(referencedClass.getPackageWithClass());
+            if (position == -1) {
+                referencedClass.setResolved(Boolean.FALSE);
+            } else {
+                referencedClass.setProvidedBy(this.getLocation(position));
+                referencedClasses[position]++;
+            }
+        }
+        List<ClassPathEntry> classPathEntries = new ArrayList<>();
+        for (int position = 0; position < this.entries.size(); position++) {
+            ClassPathEntry classPathEntry = new ClassPathEntry();
+            classPathEntry.setLocation(this.getLocation(position));
+            classPathEntry.setTotalClasses(this.totalClasses[position]);
+            classPathEntry.setReferencedClasses(referencedClasses[position]);
+            classPathEntries.add(classPathEntry);
+        }
+        analysis.setClassPathEntries(classPathEntries);
+    }
+
+    /**
+     * Auxiliary method to find the classes of an entry of the class path.
+     *
+     * @param entry
+     *  The jar or directory.
+     * @return
+     *  The classes, with their names in internal form (i.e. org/slf4j/Logger).
+     */
+    protected static EntryClasses findClasses(Path entry) {
+        if (!Files.exists(entry)) {
+            LOGGER.warn("Skipping non existing class path entry: " + entry);
+            return NO_CLASSES;
+        }
+        EntryClasses entryClasses = null;
+        try {
+            if (Files.isDirectory(entry)) {
+                EntryClasses directoryClasses = new EntryClasses(EntryClasses.INITIAL_CAPACITY);
+                entryClasses = directoryClasses;
+                try (Stream<Path> paths = Files.walk(entry)) {
+                    paths.filter(Files::isRegularFile).forEach(path -> {
+                        String className = toClassName(entry.relativize(path).toString().replace(File.separatorChar, '/'));
+                        if (className != null) {
+                            directoryClasses.add(className, ClassDefinition.UNKNOWN, ClassDefinition.UNKNOWN);
+                        }
+                    });
+                }
+            } else {
+                try (ZipFile zipFile = new ZipFile(entry.toFile())) {
+                    entryClasses = new EntryClasses(zipFile.size());
+                    Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+                    while (zipEntries.hasMoreElements()) {
+                        ZipEntry zipEntry = zipEntries.nextElement();
+                        String className = toClassName(zipEntry.getName());
+                        if (className != null) {
+                            entryClasses.add(className, zipEntry.getCrc(), zipEntry.getSize());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Skipping unreadable class path entry: " + entry + " (" + e.getMessage() + ")");
+            return NO_CLASSES;
+        }
+        return entryClasses;
+    }
+
+    /**
+     * Auxiliary method to convert the name of an entry (of a jar or directory) into a class name. The entries in
+     * META-INF (i.e. versioned classes of a multi release jar) and the module descriptor are not loaded from the
+     * class path by name, and are ignored.
+     *
+     * @param name
+     *  The name of the entry, relative to the root.
+     * @return
+     *  The class name, or null when the entry is not a loadable class.
+     */
+    protected static String toClassName(String name) {
+        if (!name.endsWith(CLASS_EXTENSION) || name.startsWith(META_INF)) {
+            return null;
+        }
+        String className = name.substring(0, name.length() - CLASS_EXTENSION.length());
+        return className.equals(MODULE_INFO) ? null : className;
+    }
+
+    protected static String toPackageName(String className) {
+        int index = className.lastIndexOf('/');
+        return index == -1 ? "" : className.substring(0, index);
+    }
+
+    public List<Path> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get the classes which are defined by more than one entry.
+     *
+     * @return
+     *  The definitions (in class path order) by class name, sorted by class name.
+     */
+    public Map<String, List<ClassDefinition>> getDuplicateClasses() {
+        return duplicateClasses;
+    }
+
+    /**
+     * Get the packages of which the classes are spread over more than one entry.
+     *
+     * @return
+     *  The positions of the entries (in class path order) by package name, sorted by package name.
+     */
+    public Map<String, List<Integer>> getSplitPackages() {
+        return splitPackages;
+    }
+
+    public int getTotalClasses(int position) {
+        return totalClasses[position];
+    }
+
+    public int size() {
+        return providers.size();
+    }
+
+    private String getLocation(int position) {
+        return this.entries.get(position).toString();
+    }
+
+    /**
+     * The classes of a single entry, as found while reading the entry. The CRCs and sizes are kept in arrays (by
+     * the index of the class name), so an entry takes no objects per class other than its name.
+     */
+    private static class EntryClasses {
+        private static final int INITIAL_CAPACITY = 64;
+        private final List<String> classNames;
+        private long[] crcs;
+        private long[] sizes;
+        private Map<String, Integer> indices;
+
+        private EntryClasses(int capacity) {
+            this.classNames = new ArrayList<>(capacity);
+            this.crcs = new long[capacity];
+            this.sizes = new long[capacity];
+        }
+
+        private void add(String className, long crc, long size) {
+            int index = this.classNames.size();
+            if (index == this.crcs.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, index * 2);
+                this.crcs = Arrays.copyOf(this.crcs, capacity);
+                this.sizes = Arrays.copyOf(this.sizes, capacity);
+            }
+            this.classNames.add(className);
+            this.crcs[index] = crc;
+            this.sizes[index] = size;
+        }
+
+        private ClassDefinition getDefinition(int index, int position) {
+            return new ClassDefinition(position, this.crcs[index], this.sizes[index]);
+        }
+
+        private ClassDefinition findDefinition(String className, int position) {
+            if (this.indices == null) {
+                // Only needed for entries which are shadowing others, and created once per entry
+                this.indices = new HashMap<>();
+                for (int i = 0; i < this.classNames.size(); i++) {
+                    this.indices.putIfAbsent(this.classNames.get(i), i);
+                }
+            }
+            return this.getDefinition(this.indices.get(className), position);
+        }
+    }
+}
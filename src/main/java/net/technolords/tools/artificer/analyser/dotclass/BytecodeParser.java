@@ -35,6 +35,9 @@ import net.technolords.tools.artificer.domain.resource.Resource;
  * javac -target 1.6 ==> CA FE BA BE 00 00 00 32
  * javac -target 1.7 ==> CA FE BA BE 00 00 00 33
  * javac -target 1.8 ==> CA FE BA BE 00 00 00 34
+ * javac --release 9 ==> CA FE BA BE 00 00 00 35
+ * ...
+ * javac --release 17 => CA FE BA BE 00 00 00 3D
  *
  * Legend:
  * - u1: unsigned one byte quantity, to be read as: readUnsignedByte
@@ -47,7 +50,7 @@ import net.technolords.tools.artificer.domain.resource.Resource;
 public class BytecodeParser {
     private static final Logger LOGGER = LoggerFactory.getLogger(BytecodeParser.class);
     private static final String JAVA_SPECIFICATIONS_REFERENCE = "analyser/dotclass/java-specifications.xml";
-    private JavaSpecificationManager javaSpecificationManager;
+    private final JavaSpecificationManager javaSpecificationManager;
 
     public BytecodeParser() {
         // Initialize manager of java compiler versions (for lookup)
@@ -81,6 +84,11 @@ public class BytecodeParser {
      *
      * The constant pool is of particular interest, as this contains references of classes.
      *
+     * This method is safe to be invoked concurrently for different resources, as the parsing only updates the
+     * given resource, and the Meta registration is thread safe.
+     *
+     * @param meta
+     *  The meta associated with the analysis, which registers the found java versions.
      * @param resource
      *  The resource associated with the determination of the referenced classes.
      */
@@ -92,35 +100,40 @@ public class BytecodeParser {
             return;
         }
         try {
+            // The specifications are resolved (inherited and completed) at load time, so any major version has
+            // a complete specification. Only when no specification could be loaded at all, parsing is impossible.
             JavaSpecification javaSpecification = this.javaSpecificationManager.getSpecification(resource);
-            // TODO: if spec not complete, return (else it will fail -> ConstantPoolParser Optional.get()
+            if(javaSpecification == null) {
+                LOGGER.warn("No JVM spec found for: " + resource.getName() + ", skipping byte code analysis.");
+                return;
+            }
             StringBuilder buffer = new StringBuilder();
             buffer.append("About to analyse byte code of: ").append(resource.getName());
-            buffer.append(", for JVM spec: ").append((javaSpecification == null ? "None found" : javaSpecification.getVersion()));
-            buffer.append(", with total mnemonics: ").append((javaSpecification == null ? "None" :
-                (javaSpecification.getMnemonics() == null ? 0 : javaSpecification.getMnemonics().getMnemonics().size())));
+            buffer.append(", for JVM spec: ").append(javaSpecification.getVersion());
+            buffer.append(", with total mnemonics: ").append(javaSpecification.getMnemonics() == null ? 0 : javaSpecification.getMnemonics().getMnemonics().size());
             LOGGER.info(buffer.toString());
-            DataInputStream dataInputStream = new DataInputStream(Files.newInputStream(resource.getPath()));
-            // Extract the magic number
-            MagicNumberParser.extractMagicNumber(dataInputStream);
-            // Extract the minor and major version
-            MinorAndMajorVersionParser.extractMinorAndMajorVersion(dataInputStream);
-            // Extract the constant pool
-            ConstantPoolParser.extractConstantPool(dataInputStream, javaSpecification, resource);
-            // Extract the access flags
-            AccessFlagsParser.extractAccessFlags(dataInputStream, AccessFlagsParser.LOCATION_CLASS_FILE);
-            // Extract the 'this' class reference
-            ClassReferenceParser.extractThisClassReference(dataInputStream);
-            // Extract the 'super' class reference
-            ClassReferenceParser.extractSuperClassReference(dataInputStream);
-            // Extract the interfaces
-            InterfaceParser.extractInterfaces(dataInputStream);
-            // Extract the fields
-            FieldsParser.extractFields(dataInputStream, javaSpecification, resource);
-            // Extract the methods
-            MethodsParser.extractMethods(dataInputStream, javaSpecification, resource);
-            // Extract the attributes
-            AttributesParser.extractAttributesFromClassFile(dataInputStream, javaSpecification, resource);
+            try (DataInputStream dataInputStream = new DataInputStream(Files.newInputStream(resource.getPath()))) {
+                // Extract the magic number
+                MagicNumberParser.extractMagicNumber(dataInputStream);
+                // Extract the minor and major version
+                MinorAndMajorVersionParser.extractMinorAndMajorVersion(dataInputStream);
+                // Extract the constant pool
+                ConstantPoolParser.extractConstantPool(dataInputStream, javaSpecification, resource);
+                // Extract the access flags
+                resource.setAccessFlags(AccessFlagsParser.extractAccessFlags(dataInputStream, AccessFlagsParser.LOCATION_CLASS_FILE));
+                // Extract the 'this' class reference
+                ClassReferenceParser.extractThisClassReference(dataInputStream, resource);
+                // Extract the 'super' class reference
+                ClassReferenceParser.extractSuperClassReference(dataInputStream, resource);
+                // Extract the interfaces
+                InterfaceParser.extractInterfaces(dataInputStream, resource);
+                // Extract the fields
+                FieldsParser.extractFields(dataInputStream, javaSpecification, resource);
+                // Extract the methods
+                MethodsParser.extractMethods(dataInputStream, javaSpecification, resource);
+                // Extract the attributes
+                AttributesParser.extractAttributesFromClassFile(dataInputStream, javaSpecification, resource);
+            }
         } catch (IOException e) {
             LOGGER.error("Unable to parse the class: " + resource.getName(), e);
         }
@@ -132,4 +145,18 @@ public class BytecodeParser {
         LOGGER.debug("Total referenced classes: " + resource.getReferencedClasses().size());
     }
 
+    /**
+     * Analyse the version of the class only (i.e. the first bytes), which determines whether the resource is a valid
+     * class, and registers the java version of the class. This is the part of analyseBytecode which is needed when
+     * the referenced classes are not (see ReportSection).
+     *
+     * @param meta
+     *  The meta associated with the analysis, which registers the found java versions.
+     * @param resource
+     *  The resource associated with the version.
+     */
+    public void analyseVersion(Meta meta, Resource resource) {
+        this.javaSpecificationManager.registerCompiledVersion(meta, resource);
+    }
+
 }
@@ -1,65 +1,325 @@
 package net.technolords.tools.artificer.analyser.dotclass;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.technolords.tools.artificer.analyser.dotclass.index.EnterpriseClassIndex;
+import net.technolords.tools.artificer.analyser.dotclass.index.MavenArtifactIndex;
+import net.technolords.tools.artificer.analyser.dotclass.index.StandardClassIndices;
+import net.technolords.tools.artificer.analyser.dotclass.rule.ClassDomainClassifier;
+import net.technolords.tools.artificer.analyser.dotclass.rule.ClassDomainRule;
 import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ExternalArtifact;
 import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedPackage;
 import net.technolords.tools.artificer.domain.resource.Resource;
-import net.technolords.tools.artificer.domain.resource.ResourceGroup;
 
 /**
  * Created by Technolords on 2016-May-18.
+ *
+ * The class domain analyser divides the referenced classes of an artifact in class domains:
+ *
+ * - Self       : the class is part of the artifact itself
+ * - Standard   : the class is part of the Java SE release the referencing class is compiled for
+ * - Enterprise : the class is part of Java EE or Jakarta EE
+ * - External   : any other class
+ *
+ * The resources are analysed in a single (streaming) step, as soon as each resource is parsed: the class name of
+ * the resource is added to the 'self' classes, and each (distinct) referenced class is classified against the
+ * standard and enterprise indices. Whether a referenced class is part of the artifact itself is only known once
+ * all resources are analysed, so that is decided when the referenced classes are populated.
+ *
+ * Before any of that, the configured class domain rules are checked (by package prefix). A matching rule adds a
+ * custom domain, and when the rule specifies a class domain as well, that class domain applies regardless of the
+ * other lookups.
+ *
+ * A class referenced by several resources can end up in several domains (i.e. a class which is part of java 11,
+ * but not of java 8). In that case the domain with the highest precedence wins, in the order as listed above, so
+ * the result does not depend on the order of analysis.
+ *
+ * When a Maven artifact index is present, the classes which end up as 'External' are resolved to the artifacts
+ * providing them, and the artifacts are added to the analysis (with the number of referenced classes).
+ *
+ * While classifying, the references to each class are counted as well (the number of classes referencing it), so
+ * the referenced classes can be summarized per package and class domain (see populateReferencedPackages) without
+ * visiting the resources again. An instance is associated with a single artifact, and is safe to be used by
+ * concurrent threads.
  */
 public class ClassDomainAnalyser {
     private final Logger LOGGER = LoggerFactory.getLogger(getClass());
-    private Map<String, String> self = new HashMap<>();
-    private Map<String, String> standard = new HashMap<>();
-    private Map<String, String> enterprise = new HashMap<>();
-
-    public ClassDomainAnalyser(ResourceGroup resourceGroup) {
-        // Populate the known class domains
-        // TODO: add fragmentation for java version (1.6, 1.7, 1.8)
-        this.populateSelfClasses(resourceGroup);
-        this.populateStandardClasses();
-        this.populateEnterpriseClasses();
+    private final Set<String> self = ConcurrentHashMap.newKeySet();
+    private final StandardClassIndices standardClassIndices;
+    private final EnterpriseClassIndex enterpriseClassIndex;
+    private final ClassDomainClassifier classDomainClassifier;
+    private final MavenArtifactIndex mavenArtifactIndex;
+    private final boolean classifying;
+    private static final ClassDomainRule NO_RULE = new ClassDomainRule();
+    private final ConcurrentMap<String, ClassDomainRule> matchedRules = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ReferencedClass.ClassDomain> classDomains = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> referenceCounts = new ConcurrentHashMap<>();
+
+    public ClassDomainAnalyser(StandardClassIndices standardClassIndices, EnterpriseClassIndex enterpriseClassIndex) {
+        this(standardClassIndices, enterpriseClassIndex, null);
+    }
+
+    public ClassDomainAnalyser(StandardClassIndices standardClassIndices, EnterpriseClassIndex enterpriseClassIndex, ClassDomainClassifier classDomainClassifier) {
+        this(standardClassIndices, enterpriseClassIndex, classDomainClassifier, null);
+    }
+
+    public ClassDomainAnalyser(StandardClassIndices standardClassIndices, EnterpriseClassIndex enterpriseClassIndex, ClassDomainClassifier classDomainClassifier, MavenArtifactIndex mavenArtifactIndex) {
+        this(standardClassIndices, enterpriseClassIndex, classDomainClassifier, mavenArtifactIndex, true);
     }
 
-    public void analyseReferencedClassForClassDomain(Analysis analysis, Resource resource) {
+    /**
+     * Create a class domain analyser.
+     *
+     * @param standardClassIndices
+     *  The class indices of the Java SE releases.
+     * @param enterpriseClassIndex
+     *  The class index of Java EE and Jakarta EE.
+     * @param classDomainClassifier
+     *  The class domain rules, or null for no rules.
+     * @param mavenArtifactIndex
+     *  The index of Maven artifacts, or null for no index.
+     * @param classifying
+     *  False to only collect the (distinct) referenced classes, without a class domain, as the class domains are not
+     *  part of the report (see ReportSection).
+     */
+    public ClassDomainAnalyser(StandardClassIndices standardClassIndices, EnterpriseClassIndex enterpriseClassIndex, ClassDomainClassifier classDomainClassifier, MavenArtifactIndex mavenArtifactIndex, boolean classifying) {
+        this.standardClassIndices = standardClassIndices;
+        this.enterpriseClassIndex = enterpriseClassIndex;
+        this.classDomainClassifier = classDomainClassifier;
+        this.mavenArtifactIndex = mavenArtifactIndex;
+        this.classifying = classifying;
+    }
+
+    /**
+     * Analyse a parsed resource, which registers the class of the resource as 'self' class and classifies the
+     * referenced classes of the resource.
+     *
+     * @param resource
+     *  The (parsed) resource.
+     */
+    public void analyseReferencedClassForClassDomain(Resource resource) {
         if (resource != null) {
             if (!resource.isValidClass()) {
                 return;
             }
+            if (resource.getClassName() != null) {
+                this.self.add(resource.getClassName());
+            }
+            for (String className : SignatureAnalyser.normalizedClassNames(resource.getReferencedClasses())) {
+                if (!this.classifying) {
+                    this.classDomains.putIfAbsent(className, ReferencedClass.ClassDomain.External);
+                    continue;
+                }
+                LongAdder referenceCount = this.referenceCounts.get(className);
+                if (referenceCount == null) {
+                    referenceCount = this.referenceCounts.computeIfAbsent(className, name -> new LongAdder());
+                }
+                referenceCount.increment();
+                ClassDomainRule classDomainRule = this.findRule(className);
+                if (classDomainRule != null && classDomainRule.getClassDomain() != null) {
+                    // The rule dictates the class domain, so no other lookup is needed
+                    this.classDomains.putIfAbsent(className, classDomainRule.getClassDomain());
+                    continue;
+                }
+                ReferencedClass.ClassDomain current = this.classDomains.get(className);
+                if (current == ReferencedClass.ClassDomain.Standard) {
+                    // Already the highest precedence, until proven 'self'
+                    continue;
+                }
+                ReferencedClass.ClassDomain classDomain = this.findClassDomain(className, resource.getMajorVersion());
+                if (current != classDomain) {
+                    this.classDomains.merge(className, classDomain, ClassDomainAnalyser::withHighestPrecedence);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the classified referenced classes to the analysis. This is done once all resources are analysed, as only
+     * then the 'self' classes are known. The external classes are resolved to artifacts (when an index is present).
+     *
+     * @param analysis
+     *  The analysis associated with the referenced classes.
+     */
+    public void populateReferencedClasses(Analysis analysis) {
+        boolean resolveArtifacts = this.mavenArtifactIndex != null && this.mavenArtifactIndex.isPresent();
+        Map<String, Long> artifactTotals = new TreeMap<>();
+        for (Map.Entry<String, ReferencedClass.ClassDomain> entry : this.classDomains.entrySet()) {
             ReferencedClass referencedClass = new ReferencedClass();
-            referencedClass.setPackageWithClass("java/lang/Object");
-            referencedClass.setClassDomain(ReferencedClass.ClassDomain.Standard);
+            referencedClass.setPackageWithClass(entry.getKey());
+            if (!this.classifying) {
+                analysis.getDependencies().add(referencedClass);
+                continue;
+            }
+            ClassDomainRule classDomainRule = this.findRule(entry.getKey());
+            referencedClass.setClassDomain(this.resolveClassDomain(entry.getKey(), entry.getValue(), classDomainRule));
+            if (classDomainRule != null) {
+                referencedClass.setCustomDomain(classDomainRule.getCustomDomain());
+            }
+            if (resolveArtifacts && referencedClass.getClassDomain() == ReferencedClass.ClassDomain.External) {
+                String artifact = this.mavenArtifactIndex.findArtifact(entry.getKey());
+                if (artifact != null) {
+                    referencedClass.setArtifact(artifact);
+                    artifactTotals.merge(artifact, 1L, Long::sum);
+                }
+            }
             analysis.getDependencies().add(referencedClass);
-
-            ReferencedClass other = new ReferencedClass();
-            other.setPackageWithClass("net/technolords/Cool");
-            other.setClassDomain(ReferencedClass.ClassDomain.External);
-            analysis.getDependencies().add(other);
         }
+        if (resolveArtifacts) {
+            List<ExternalArtifact> externalArtifacts = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : artifactTotals.entrySet()) {
+                externalArtifacts.add(new ExternalArtifact(entry.getKey(), entry.getValue()));
+            }
+            analysis.setExternalArtifacts(externalArtifacts);
+        }
+        LOGGER.debug("Total referenced classes: " + this.classDomains.size() + ", of which self: " + this.self.size());
     }
 
-    protected void populateSelfClasses(ResourceGroup resourceGroup) {
-        if (resourceGroup != null) {
-            for(Resource resource : resourceGroup.getResources()) {
-                // TODO: find and add
+    /**
+     * Add the summary of the classified referenced classes per package and class domain to the analysis, being the
+     * number of classes and references, and the classes referenced most. As the references are counted while
+     * classifying, the summary is derived from the distinct referenced classes only.
+     *
+     * @param analysis
+     *  The analysis associated with the referenced classes.
+     * @param topReferencedClasses
+     *  The number of classes listed per package and class domain, being the classes referenced most.
+     */
+    public void populateReferencedPackages(Analysis analysis, int topReferencedClasses) {
+        Map<String, Map<ReferencedClass.ClassDomain, List<String>>> packages = new TreeMap<>();
+        for (Map.Entry<String, ReferencedClass.ClassDomain> entry : this.classDomains.entrySet()) {
+            String className = entry.getKey();
+            ReferencedClass.ClassDomain classDomain = this.resolveClassDomain(className, entry.getValue(), this.findRule(className));
+            String packageName = className.lastIndexOf('/') < 0 ? "" : className.substring(0, className.lastIndexOf('/'));
+            packages.computeIfAbsent(packageName, name -> new EnumMap<>(ReferencedClass.ClassDomain.class))
+                .computeIfAbsent(classDomain, domain -> new ArrayList<>()).add(className);
+        }
+        List<ReferencedPackage> referencedPackages = new ArrayList<>();
+        for (Map.Entry<String, Map<ReferencedClass.ClassDomain, List<String>>> packageEntry : packages.entrySet()) {
+            for (Map.Entry<ReferencedClass.ClassDomain, List<String>> domainEntry : packageEntry.getValue().entrySet()) {
+                List<String> classNames = domainEntry.getValue();
+                ReferencedPackage referencedPackage = new ReferencedPackage();
+                referencedPackage.setName(packageEntry.getKey());
+                referencedPackage.setClassDomain(domainEntry.getKey());
+                referencedPackage.setTotalClasses(classNames.size());
+                long totalReferences = 0;
+                for (String className : classNames) {
+                    totalReferences += this.getReferenceCount(className);
+                }
+                referencedPackage.setTotalReferences(totalReferences);
+                if (topReferencedClasses > 0) {
+                    classNames.sort((first, second) -> {
+                        int result = Long.compare(this.getReferenceCount(second), this.getReferenceCount(first));
+                        return result != 0 ? result : first.compareTo(second);
+                    });
+                    referencedPackage.getTopClasses().addAll(classNames.subList(0, Math.min(topReferencedClasses, classNames.size())));
+                }
+                referencedPackages.add(referencedPackage);
             }
         }
+        analysis.setReferencedPackages(referencedPackages);
+        LOGGER.debug("Total referenced packages: " + referencedPackages.size());
+    }
+
+    /**
+     * Get the number of (analysed) classes referencing a class.
+     *
+     * @param className
+     *  The class name, in internal form.
+     * @return
+     *  The number of classes referencing the class.
+     */
+    public long getReferenceCount(String className) {
+        LongAdder referenceCount = this.referenceCounts.get(className);
+        return referenceCount == null ? 0 : referenceCount.sum();
     }
 
-    protected void populateStandardClasses() {
-        // TODO: For java 8 source, scan zip file: /usr/lib/jvm/java-8-oracle/src.zip
+    /**
+     * Auxiliary method to resolve the class domain of a referenced class, once all resources are analysed: a rule
+     * with a class domain dictates the class domain, otherwise a class of the artifact itself is 'self'.
+     */
+    private ReferencedClass.ClassDomain resolveClassDomain(String className, ReferencedClass.ClassDomain classDomain, ClassDomainRule classDomainRule) {
+        if (classDomainRule != null && classDomainRule.getClassDomain() != null) {
+            return classDomainRule.getClassDomain();
+        }
+        return this.self.contains(className) ? ReferencedClass.ClassDomain.Self : classDomain;
+    }
+
+    /**
+     * Auxiliary method to find the class domain rule which applies to a class name. The outcome is remembered per
+     * class name, as a class name is typically referenced by many resources.
+     *
+     * @param className
+     *  The class name, in internal form.
+     * @return
+     *  The rule, or null when no rule applies.
+     */
+    protected ClassDomainRule findRule(String className) {
+        if (this.classDomainClassifier == null || this.classDomainClassifier.isEmpty()) {
+            return null;
+        }
+        ClassDomainRule classDomainRule = this.matchedRules.get(className);
+        if (classDomainRule == null) {
+            classDomainRule = this.classDomainClassifier.findRule(className);
+            classDomainRule = classDomainRule == null ? NO_RULE : classDomainRule;
+            this.matchedRules.putIfAbsent(className, classDomainRule);
+        }
+        return classDomainRule == NO_RULE ? null : classDomainRule;
+    }
+
+    /**
+     * Find the class domain of a class, which is either Standard, Enterprise or External (as 'self' is only known
+     * once all resources are analysed).
+     *
+     * @param className
+     *  The class name, in internal form (i.e. java/lang/Object).
+     * @param majorVersion
+     *  The major version of the class referencing the class name.
+     * @return
+     *  The class domain.
+     */
+    public ReferencedClass.ClassDomain findClassDomain(String className, int majorVersion) {
+        if (this.standardClassIndices != null && this.standardClassIndices.contains(className, majorVersion)) {
+            return ReferencedClass.ClassDomain.Standard;
+        }
+        if (this.enterpriseClassIndex != null && this.enterpriseClassIndex.contains(className)) {
+            return ReferencedClass.ClassDomain.Enterprise;
+        }
+        return ReferencedClass.ClassDomain.External;
+    }
+
+    protected static ReferencedClass.ClassDomain withHighestPrecedence(ReferencedClass.ClassDomain first, ReferencedClass.ClassDomain second) {
+        return precedence(first) >= precedence(second) ? first : second;
+    }
+
+    private static int precedence(ReferencedClass.ClassDomain classDomain) {
+        switch (classDomain) {
+            case Self:
+                return 3;
+            case Standard:
+                return 2;
+            case Enterprise:
+                return 1;
+            case External:
+            default:
+                return 0;
+        }
     }
 
-    protected void populateEnterpriseClasses() {
-        // TODO: For EE 7: http://repo1.maven.org/maven2/javax/javaee-api/7.0/
+    public Set<String> getSelf() {
+        return self;
     }
 }
@@ -0,0 +1,350 @@
+package net.technolords.tools.artificer.analyser.dotclass;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.fingerprint.ClassFingerprint;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * An on-disk cache of the results of parsing the byte code of a class (see BytecodeParser), so a new version of an
+ * artifact only has its changed classes parsed again. The results are the version, the class name, the access
+ * flags, the super class, the interfaces, the annotations and the referenced classes, as well as the fingerprint
+ * of the class (see ClassFingerprint), as the constant pool itself is not cached.
+ *
+ * The classes are keyed by their entry in the zip file of the artifact: the CRC and the (uncompressed) size, as
+ * recorded in the central directory, and the name. So a lookup costs no parsing, and an entry with a different
+ * key is never read. As a CRC is no proof of equal content, an entry is validated by a hash (SHA-256) of the
+ * content of the class, which is stored with the results. Only classes of a zip file have a key (see keyOf).
+ *
+ * An entry is a file named [crc]-[size]-[hash of name] in a directory named after the first byte of the CRC:
+ *
+ * - u4     : magic number
+ * - u2     : version of the format (which changes as well when the parser yields other results)
+ * - utf    : name of the zip entry
+ * - u8, u8 : crc and size of the zip entry
+ * - u2, u1 : length and bytes of the hash of the content
+ * - ...    : the results (see writeResults)
+ *
+ * An entry is written to a temporary file first, and moved in place once complete, so the cache can be shared by
+ * concurrent threads (and processes). An entry which can not be read, or is of another version, is a miss, and is
+ * replaced when the class is stored again.
+ */
+public class ClassResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassResultCache.class);
+    public static final int MAGIC = 0x41524343;
+    public static final int VERSION = 1;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String ATTRIBUTE_CRC = "zip:crc";
+    private static final String ATTRIBUTE_SIZE = "zip:size";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private final Path directory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a cache of parse results.
+     *
+     * @param directory
+     *  The directory of the cache, which is created when absent. Existing entries are kept.
+     * @throws IOException
+     *  When the directory can not be created.
+     */
+    public ClassResultCache(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Get the key of a resource, being the CRC, size and name of its zip entry.
+     *
+     * @param resource
+     *  The resource.
+     * @return
+     *  The key, or null when the resource is not an entry of a zip file.
+     */
+    public Key keyOf(Resource resource) {
+        Path path = resource.getPath();
+        if (path == null) {
+            return null;
+        }
+        try {
+            Object crc = Files.getAttribute(path, ATTRIBUTE_CRC);
+            Object size = Files.getAttribute(path, ATTRIBUTE_SIZE);
+            if (crc instanceof Long && size instanceof Long) {
+                return new Key(path, (Long) crc, (Long) size);
+            }
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            LOGGER.debug("No zip entry attributes for: " + path, e);
+        }
+        return null;
+    }
+
+    /**
+     * Look up the results of a class, which are only returned when the hash of the content matches.
+     *
+     * @param key
+     *  The key of the class.
+     * @return
+     *  The cached results, or null on a miss.
+     */
+    public CachedClass lookup(Key key) {
+        Path entry = this.getEntryPath(key);
+        try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (dataInputStream.readInt() != MAGIC || dataInputStream.readUnsignedShort() != VERSION) {
+                this.misses.increment();
+                return null;
+            }
+            String name = dataInputStream.readUTF();
+            long crc = dataInputStream.readLong();
+            long size = dataInputStream.readLong();
+            byte[] contentHash = new byte[dataInputStream.readUnsignedShort()];
+            dataInputStream.readFully(contentHash);
+            if (!name.equals(key.name) || crc != key.crc || size != key.size || !Arrays.equals(contentHash, key.getContentHash())) {
+                this.misses.increment();
+                return null;
+            }
+            CachedClass cachedClass = readResults(dataInputStream);
+            this.hits.increment();
+            return cachedClass;
+        } catch (NoSuchFileException e) {
+            this.misses.increment();
+            return null;
+        } catch (IOException e) {
+            LOGGER.debug("Unable to read the cached class: " + entry, e);
+            this.misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Store the results of a (parsed) class. Failures are logged, as the cache is an optimization only.
+     *
+     * @param key
+     *  The key of the class.
+     * @param resource
+     *  The parsed resource, with its constant pool (for the fingerprint).
+     */
+    public void store(Key key, Resource resource) {
+        Path entry = this.getEntryPath(key);
+        Path temporaryEntry = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            temporaryEntry = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), TEMPORARY_EXTENSION);
+            try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryEntry)))) {
+                dataOutputStream.writeInt(MAGIC);
+                dataOutputStream.writeShort(VERSION);
+                dataOutputStream.writeUTF(key.name);
+                dataOutputStream.writeLong(key.crc);
+                dataOutputStream.writeLong(key.size);
+                byte[] contentHash = key.getContentHash();
+                dataOutputStream.writeShort(contentHash.length);
+                dataOutputStream.write(contentHash);
+                writeResults(dataOutputStream, resource);
+            }
+            try {
+                Files.move(temporaryEntry, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryEntry, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to cache the class: " + key.name + ", " + e.getMessage());
+            if (temporaryEntry != null) {
+                try {
+                    Files.deleteIfExists(temporaryEntry);
+                } catch (IOException ignored) {
+                    // The temporary entry is left behind, which is harmless
+                }
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Auxiliary method to get the path of the entry of a key.
+     */
+    private Path getEntryPath(Key key) {
+        String name = String.format("%08x-%x-%08x", key.crc, key.size, key.name.hashCode());
+        return this.directory.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    /**
+     * Auxiliary method to write the results of a resource:
+     *
+     * - u1, u4       : valid class and major version
+     * - str          : compiled version, class name and super class (a u1 telling whether present, and the utf)
+     * - u4           : access flags
+     * - u4, utf[]    : interfaces, annotations and referenced classes (each as a count and the values)
+     * - u1, u8       : whether the fingerprint is present, and the fingerprint
+     */
+    private static void writeResults(DataOutputStream dataOutputStream, Resource resource) throws IOException {
+        dataOutputStream.writeBoolean(resource.isValidClass());
+        dataOutputStream.writeInt(resource.getMajorVersion());
+        writeString(dataOutputStream, resource.getCompiledVersion());
+        writeString(dataOutputStream, resource.getClassName());
+        writeString(dataOutputStream, resource.getSuperClass());
+        dataOutputStream.writeInt(resource.getAccessFlags());
+        writeStrings(dataOutputStream, resource.getInterfaces());
+        writeStrings(dataOutputStream, resource.getAnnotations());
+        writeStrings(dataOutputStream, resource.getReferencedClasses());
+        dataOutputStream.writeBoolean(resource.getConstantPool() != null);
+        if (resource.getConstantPool() != null) {
+            dataOutputStream.writeLong(ClassFingerprint.of(resource.getConstantPool()));
+        }
+    }
+
+    private static CachedClass readResults(DataInputStream dataInputStream) throws IOException {
+        CachedClass cachedClass = new CachedClass();
+        cachedClass.validClass = dataInputStream.readBoolean();
+        cachedClass.majorVersion = dataInputStream.readInt();
+        cachedClass.compiledVersion = readString(dataInputStream);
+        cachedClass.className = readString(dataInputStream);
+        cachedClass.superClass = readString(dataInputStream);
+        cachedClass.accessFlags = dataInputStream.readInt();
+        cachedClass.interfaces = readStrings(dataInputStream, new ArrayList<>());
+        cachedClass.annotations = readStrings(dataInputStream, new HashSet<>());
+        cachedClass.referencedClasses = readStrings(dataInputStream, new HashSet<>());
+        if (dataInputStream.readBoolean()) {
+            cachedClass.fingerprint = dataInputStream.readLong();
+        }
+        return cachedClass;
+    }
+
+    private static void writeString(DataOutputStream dataOutputStream, String value) throws IOException {
+        dataOutputStream.writeBoolean(value != null);
+        if (value != null) {
+            dataOutputStream.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream dataInputStream) throws IOException {
+        return dataInputStream.readBoolean() ? dataInputStream.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream dataOutputStream, Collection<String> values) throws IOException {
+        dataOutputStream.writeInt(values.size());
+        for (String value : values) {
+            dataOutputStream.writeUTF(value);
+        }
+    }
+
+    private static <T extends Collection<String>> T readStrings(DataInputStream dataInputStream, T values) throws IOException {
+        int count = dataInputStream.readInt();
+        for (int i = 0; i < count; i++) {
+            values.add(dataInputStream.readUTF());
+        }
+        return values;
+    }
+
+    /**
+     * The key of a class, where the hash of the content is calculated on first use (as a lookup without entry
+     * needs no hash).
+     */
+    public static class Key {
+        private final Path path;
+        private final String name;
+        private final long crc;
+        private final long size;
+        private byte[] contentHash;
+
+        Key(Path path, long crc, long size) {
+            this.path = path;
+            this.name = path.toString();
+            this.crc = crc;
+            this.size = size;
+        }
+
+        byte[] getContentHash() throws IOException {
+            if (this.contentHash == null) {
+                try {
+                    this.contentHash = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(Files.readAllBytes(this.path));
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IOException(e);
+                }
+            }
+            return this.contentHash;
+        }
+    }
+
+    /**
+     * The cached results of a class.
+     */
+    public static class CachedClass {
+        private boolean validClass;
+        private int majorVersion;
+        private String compiledVersion;
+        private String className;
+        private String superClass;
+        private int accessFlags;
+        private List<String> interfaces;
+        private Set<String> annotations;
+        private Set<String> referencedClasses;
+        private Long fingerprint;
+
+        /**
+         * Apply the results to a resource, as if its byte code was parsed (except for the constant pool), which
+         * registers the java version of the class as well.
+         *
+         * @param meta
+         *  The meta associated with the analysis, which registers the found java versions.
+         * @param resource
+         *  The resource of the class.
+         */
+        public void applyTo(Meta meta, Resource resource) {
+            resource.setValidClass(this.validClass);
+            resource.setMajorVersion(this.majorVersion);
+            resource.setCompiledVersion(this.compiledVersion);
+            if (this.validClass) {
+                meta.registerCompiledVersion(this.compiledVersion);
+            }
+            resource.setClassName(this.className);
+            resource.setSuperClass(this.superClass);
+            resource.setAccessFlags(this.accessFlags);
+            resource.setInterfaces(this.interfaces);
+            resource.setAnnotations(this.annotations);
+            resource.getReferencedClasses().addAll(this.referencedClasses);
+        }
+
+        /**
+         * Get the fingerprint of the class (see ClassFingerprint).
+         *
+         * @return
+         *  The fingerprint, or null when the class had no constant pool.
+         */
+        public Long getFingerprint() {
+            return fingerprint;
+        }
+    }
+}
@@ -71,6 +71,27 @@ public class ConstantPoolAnalyser {
         return null;
     }
 
+    /**
+     * Auxiliary method to extract the class name by the constant pool index of a constant of type Class.
+     *
+     * @param constantPool
+     *  The ConstantPool reference associated with the extraction of the class name.
+     * @param index
+     *  The constant pool index, referring to a constant of type Class.
+     * @return
+     *  The class name, or null when not found (or when the constant is not of type Class).
+     */
+    public static String extractClassNameByConstantPoolIndex(ConstantPool constantPool, int index) {
+        if(constantPool == null) {
+            return null;
+        }
+        Constant constant = findConstantByIndex(constantPool, index);
+        if(constant != null && "Class".equals(constant.getType())) {
+            return extractReferencedClassFromConstantOfTypeClass(constantPool, constant);
+        }
+        return null;
+    }
+
     public static Constant findConstantByIndex(ConstantPool constantPool, int index) {
         for(Constant constant : constantPool.getConstants()) {
             if(constant.getConstantPoolIndex() == index) {
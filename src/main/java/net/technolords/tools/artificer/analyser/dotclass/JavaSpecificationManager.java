@@ -4,8 +4,16 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -14,10 +22,10 @@ import javax.xml.bind.Unmarshaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.technolords.tools.artificer.analyser.dotclass.specification.ConstantPoolConstant;
+import net.technolords.tools.artificer.analyser.dotclass.specification.ConstantPoolConstants;
 import net.technolords.tools.artificer.analyser.dotclass.specification.JavaSpecification;
 import net.technolords.tools.artificer.analyser.dotclass.specification.JavaSpecifications;
-import net.technolords.tools.artificer.domain.meta.FoundJavaVersion;
-import net.technolords.tools.artificer.domain.meta.FoundJavaVersions;
 import net.technolords.tools.artificer.domain.meta.Meta;
 import net.technolords.tools.artificer.domain.resource.Resource;
 import net.technolords.tools.artificer.exception.ArtificerException;
@@ -29,8 +37,9 @@ public class JavaSpecificationManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(JavaSpecificationManager.class);
     private static final int MAGIC_NUMBER = 0xcafebabe;
     private static final String UNKNOWN_JAVA_VERSION = "unknownJavaVersion";
-    private Map<String, String> lookupMap;
+    private volatile Map<Integer, String> lookupMap;
     private Map<String, JavaSpecification> specificationMap;
+    private NavigableMap<Integer, JavaSpecification> specificationsByMajorVersion;
     private String referenceFile;
 
     /**
@@ -48,22 +57,159 @@ public class JavaSpecificationManager {
      * an inputstream as reference for the XML file and then JAXB will use this to unmarshall this
      * to an instance of the JavaSpecifications class.
      *
+     * Once loaded, the inheritance between the specifications is resolved, so every specification is complete
+     * (as in, has a full constant pool and mnemonics) before any class is parsed. This method is safe to be
+     * invoked concurrently, and only the first invocation loads the specifications.
+     *
      * @throws ArtificerException
-     *  When unmarshalling the XML file fails.
+     *  When unmarshalling the XML file fails, or when the inheritance of the specifications is broken.
      */
     public void initializeLookupMap() throws ArtificerException {
-        try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(JavaSpecifications.class);
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream(this.referenceFile);
-            JavaSpecifications javaSpecifications = (JavaSpecifications) unmarshaller.unmarshal(inputStream);
-            for(JavaSpecification javaSpecification : javaSpecifications.getJavaSpecifications()) {
-                this.lookupMap.put(javaSpecification.getMagicNumber(), javaSpecification.getVersion());
-                this.specificationMap.put(javaSpecification.getVersion(), javaSpecification);
+        // The lookup map is published last (and is volatile), so once set, no locking is required
+        if(this.lookupMap != null) {
+            return;
+        }
+        synchronized (this) {
+            if(this.lookupMap != null) {
+                return;
+            }
+            try {
+                JAXBContext jaxbContext = JAXBContext.newInstance(JavaSpecifications.class);
+                Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+                InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream(this.referenceFile);
+                JavaSpecifications javaSpecifications = (JavaSpecifications) unmarshaller.unmarshal(inputStream);
+                Map<Integer, String> lookupMap = new HashMap<>();
+                Map<String, JavaSpecification> specificationMap = new HashMap<>();
+                NavigableMap<Integer, JavaSpecification> specificationsByMajorVersion = new TreeMap<>();
+                for(JavaSpecification javaSpecification : javaSpecifications.getJavaSpecifications()) {
+                    lookupMap.put(javaSpecification.getMajorVersion(), javaSpecification.getVersion());
+                    specificationMap.put(javaSpecification.getVersion(), javaSpecification);
+                    specificationsByMajorVersion.put(javaSpecification.getMajorVersion(), javaSpecification);
+                }
+                Set<String> resolved = new HashSet<>();
+                for(JavaSpecification javaSpecification : javaSpecifications.getJavaSpecifications()) {
+                    this.resolveSpecification(javaSpecification, specificationMap, resolved, new HashSet<>());
+                }
+                this.completeSpecifications(specificationsByMajorVersion);
+                this.specificationMap = specificationMap;
+                this.specificationsByMajorVersion = specificationsByMajorVersion;
+                this.lookupMap = lookupMap;
+                LOGGER.debug("Total java versions initialized: " + lookupMap.size());
+            } catch (JAXBException | IllegalArgumentException e) {
+                throw new ArtificerException(e);
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method to resolve the inheritance of a specification. The parent (as referenced by the 'extends'
+     * attribute) is resolved first, after which the constant pool constants are merged by tag (the specification
+     * itself takes precedence) and the mnemonics are inherited when absent.
+     *
+     * @param javaSpecification
+     *  The specification to resolve.
+     * @param specificationMap
+     *  The declared specifications, by version.
+     * @param resolved
+     *  The versions which are resolved already.
+     * @param visiting
+     *  The versions currently being resolved, to detect a cycle.
+     * @throws ArtificerException
+     *  When the parent does not exist, or when the inheritance is cyclic.
+     */
+    protected void resolveSpecification(JavaSpecification javaSpecification, Map<String, JavaSpecification> specificationMap, Set<String> resolved, Set<String> visiting) throws ArtificerException {
+        if(resolved.contains(javaSpecification.getVersion())) {
+            return;
+        }
+        if(!visiting.add(javaSpecification.getVersion())) {
+            throw new ArtificerException("Cyclic inheritance of java specification: " + javaSpecification.getVersion());
+        }
+        String extendsVersion = javaSpecification.getExtendsVersion();
+        if(extendsVersion != null) {
+            JavaSpecification parent = specificationMap.get(extendsVersion);
+            if(parent == null) {
+                throw new ArtificerException("Java specification " + javaSpecification.getVersion() + " extends unknown version: " + extendsVersion);
+            }
+            this.resolveSpecification(parent, specificationMap, resolved, visiting);
+            this.inherit(javaSpecification, parent);
+        }
+        resolved.add(javaSpecification.getVersion());
+    }
+
+    /**
+     * Auxiliary method to complete the specifications which are (still) missing parts after the inheritance is
+     * resolved. The missing parts are taken from the nearest specification (by major version) which has them,
+     * preferring the older one. Finally the lookup tables are built, so parsing never has to search.
+     *
+     * @param specificationsByMajorVersion
+     *  The specifications, ordered by major version.
+     */
+    protected void completeSpecifications(NavigableMap<Integer, JavaSpecification> specificationsByMajorVersion) {
+        for(JavaSpecification javaSpecification : specificationsByMajorVersion.values()) {
+            if(!this.isComplete(javaSpecification)) {
+                int majorVersion = javaSpecification.getMajorVersion();
+                for(JavaSpecification nearest : this.nearestSpecifications(specificationsByMajorVersion, majorVersion)) {
+                    this.inherit(javaSpecification, nearest);
+                    if(this.isComplete(javaSpecification)) {
+                        break;
+                    }
+                }
+            }
+            if(javaSpecification.getConstantPoolConstants() != null) {
+                javaSpecification.getConstantPoolConstants().initializeTagLookup();
+            }
+            if(javaSpecification.getMnemonics() != null) {
+                javaSpecification.getMnemonics().initializeOpcodeLookup();
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method to list the other specifications, ordered by distance to the major version. When the
+     * distance is equal, the older specification comes first.
+     */
+    private List<JavaSpecification> nearestSpecifications(NavigableMap<Integer, JavaSpecification> specificationsByMajorVersion, int majorVersion) {
+        List<JavaSpecification> nearest = new ArrayList<>(specificationsByMajorVersion.values());
+        nearest.removeIf(candidate -> candidate.getMajorVersion() == majorVersion);
+        nearest.sort(Comparator
+            .comparingInt((JavaSpecification candidate) -> Math.abs(candidate.getMajorVersion() - majorVersion))
+            .thenComparingInt(JavaSpecification::getMajorVersion));
+        return nearest;
+    }
+
+    private boolean isComplete(JavaSpecification javaSpecification) {
+        return javaSpecification.getConstantPoolConstants() != null
+            && !javaSpecification.getConstantPoolConstants().getConstantPoolConstants().isEmpty()
+            && javaSpecification.getMnemonics() != null
+            && !javaSpecification.getMnemonics().getMnemonics().isEmpty();
+    }
+
+    /**
+     * Auxiliary method to let a specification inherit from another specification. Constant pool constants are
+     * merged by tag, where the constants of the (child) specification take precedence.
+     *
+     * @param javaSpecification
+     *  The specification inheriting.
+     * @param parent
+     *  The specification inherited from.
+     */
+    private void inherit(JavaSpecification javaSpecification, JavaSpecification parent) {
+        if(parent.getConstantPoolConstants() != null) {
+            Map<String, ConstantPoolConstant> constantsByTag = new LinkedHashMap<>();
+            for(ConstantPoolConstant constantPoolConstant : parent.getConstantPoolConstants().getConstantPoolConstants()) {
+                constantsByTag.put(constantPoolConstant.getTag(), constantPoolConstant);
             }
-            LOGGER.debug("Total java versions initialized: " + this.lookupMap.size());
-        } catch (JAXBException | IllegalArgumentException e) {
-            throw new ArtificerException(e);
+            if(javaSpecification.getConstantPoolConstants() != null) {
+                for(ConstantPoolConstant constantPoolConstant : javaSpecification.getConstantPoolConstants().getConstantPoolConstants()) {
+                    constantsByTag.put(constantPoolConstant.getTag(), constantPoolConstant);
+                }
+            }
+            ConstantPoolConstants constantPoolConstants = new ConstantPoolConstants();
+            constantPoolConstants.setConstantPoolConstants(new ArrayList<>(constantsByTag.values()));
+            javaSpecification.setConstantPoolConstants(constantPoolConstants);
+        }
+        if(javaSpecification.getMnemonics() == null || javaSpecification.getMnemonics().getMnemonics().isEmpty()) {
+            javaSpecification.setMnemonics(parent.getMnemonics());
         }
     }
 
@@ -84,6 +230,9 @@ public class JavaSpecificationManager {
      * javac -target 1.6 ==> CA FE BA BE 00 00 00 32
      * javac -target 1.7 ==> CA FE BA BE 00 00 00 33
      * javac -target 1.8 ==> CA FE BA BE 00 00 00 34
+     * javac --release 9 ==> CA FE BA BE 00 00 00 35
+     * ...
+     * javac --release 17 => CA FE BA BE 00 00 00 3D
      *
      * See also: http://stackoverflow.com/questions/698129/how-can-i-find-the-target-java-version-for-a-compiled-class
      *
@@ -97,13 +246,13 @@ public class JavaSpecificationManager {
      *  When the class file is not compliant with the standard Java identification of byte code(i.e. prefixed with CAFEBABE)
      */
     public String getMagicNumber(Resource resource) throws IOException, ArtificerException {
-        DataInputStream dataInputStream = new DataInputStream(Files.newInputStream(resource.getPath()));
-
-        // Get first 4 bytes, as that represents the magic number
-        if (dataInputStream.readInt() != MAGIC_NUMBER) {
-            throw new ArtificerException(resource.getName() + " is not a valid java class!");
+        try (DataInputStream dataInputStream = new DataInputStream(Files.newInputStream(resource.getPath()))) {
+            // Get first 4 bytes, as that represents the magic number
+            if (dataInputStream.readInt() != MAGIC_NUMBER) {
+                throw new ArtificerException(resource.getName() + " is not a valid java class!");
+            }
+            return Integer.toHexString(dataInputStream.readInt());
         }
-        return Integer.toHexString(dataInputStream.readInt());
     }
 
     /**
@@ -118,16 +267,34 @@ public class JavaSpecificationManager {
      *  When loading the XML configuration file for lookup purposes fails.
      */
     public String lookupJavaVersion(String magicNumber) throws ArtificerException {
-        if(this.lookupMap == null) {
-            this.lookupMap = new HashMap<>();
-            this.specificationMap = new HashMap<>();
-            this.initializeLookupMap();
-        }
-        if(!this.lookupMap.containsKey(magicNumber)) {
+        this.initializeLookupMap();
+        int majorVersion = lookupMajorVersion(magicNumber);
+        if(!this.lookupMap.containsKey(majorVersion)) {
             LOGGER.warn("Unable to map magic version: " + magicNumber + ", defaulting to unknown java version: " + UNKNOWN_JAVA_VERSION);
             return UNKNOWN_JAVA_VERSION;
         }
-        return this.lookupMap.get(magicNumber);
+        return this.lookupMap.get(majorVersion);
+    }
+
+    /**
+     * Auxiliary method to extract the major version from the magic number. The magic number is the hexadecimal
+     * representation of the minor and major version (as in, u2 minor followed by u2 major), so the major version
+     * is found in the lower 16 bits. For example, a class compiled with target 1.1 has '3002d' which yields 45.
+     *
+     * @param magicNumber
+     *  The magic number (in hexadecimal, case insensitive).
+     * @return
+     *  The major version, or -1 when the magic number is malformed.
+     */
+    public static int lookupMajorVersion(String magicNumber) {
+        if(magicNumber == null || magicNumber.isEmpty() || magicNumber.length() > 8) {
+            return -1;
+        }
+        try {
+            return (int) (Long.parseLong(magicNumber, 16) & 0xFFFF);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
     /**
@@ -140,11 +307,44 @@ public class JavaSpecificationManager {
      */
     public JavaSpecification getSpecification(Resource resource) {
         if (resource != null) {
-            return this.specificationMap.get(resource.getCompiledVersion());
+            try {
+                this.initializeLookupMap();
+            } catch (ArtificerException e) {
+                LOGGER.error("Unable to initialize the java specifications: " + e.getMessage(), e);
+                return null;
+            }
+            if(resource.getMajorVersion() < 0) {
+                JavaSpecification javaSpecification = this.specificationMap.get(resource.getCompiledVersion());
+                if(javaSpecification != null) {
+                    return javaSpecification;
+                }
+            }
+            return this.getSpecification(resource.getMajorVersion());
         }
         return null;
     }
 
+    /**
+     * Auxiliary method to get a reference of the JavaSpecification associated with the major version. When the
+     * major version is not specified, the nearest older specification is used (as newer class files are mostly
+     * a superset of the older ones). When there is no older one, the oldest specification is used.
+     *
+     * @param majorVersion
+     *  The major version associated with the JavaSpecification.
+     * @return
+     *  A reference of the JavaSpecification (or null when no specifications are loaded).
+     */
+    public JavaSpecification getSpecification(int majorVersion) {
+        if(this.specificationsByMajorVersion == null || this.specificationsByMajorVersion.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Integer, JavaSpecification> entry = this.specificationsByMajorVersion.floorEntry(majorVersion);
+        if(entry == null) {
+            entry = this.specificationsByMajorVersion.firstEntry();
+        }
+        return entry.getValue();
+    }
+
     /**
      * Auxiliary method to register the compiled version of this class. In any event
      * the class is corrupted or non compliant with java, it is marked as invalid so
@@ -163,26 +363,10 @@ public class JavaSpecificationManager {
             String magicNumber = this.getMagicNumber(resource);
             String javaCompilerVersion = this.lookupJavaVersion(magicNumber);
             resource.setCompiledVersion(javaCompilerVersion);
+            resource.setMajorVersion(lookupMajorVersion(magicNumber));
 
             // Register on Meta level
-            FoundJavaVersions foundJavaVersions = meta.getFoundJavaVersions();
-            if(foundJavaVersions == null) {
-                foundJavaVersions = new FoundJavaVersions();
-                meta.setFoundJavaVersions(foundJavaVersions);
-            }
-            FoundJavaVersion foundJavaVersion = null;
-            for(FoundJavaVersion currentJavaVersion : foundJavaVersions.getFoundJavaVersionList()) {
-                if(currentJavaVersion.getFoundJavaVersion().equals(javaCompilerVersion)) {
-                    foundJavaVersion = currentJavaVersion;
-                    break;
-                }
-            }
-            if(foundJavaVersion == null) {
-                foundJavaVersion = new FoundJavaVersion();
-                foundJavaVersion.setFoundJavaVersion(javaCompilerVersion);
-                foundJavaVersions.getFoundJavaVersionList().add(foundJavaVersion);
-            }
-            foundJavaVersion.setTotalClasses(foundJavaVersion.getTotalClasses() + 1);
+            meta.registerCompiledVersion(javaCompilerVersion);
         } catch (IOException | ArtificerException e) {
             // Empty .class files, or .class files not compliant with java intrinsic magic number are marked
             // as invalid (as further processing is not required/not possible)
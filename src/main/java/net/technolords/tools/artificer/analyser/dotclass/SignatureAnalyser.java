@@ -1,5 +1,7 @@
 package net.technolords.tools.artificer.analyser.dotclass;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -18,6 +20,7 @@ public class SignatureAnalyser {
 
     private static Pattern patternForClassReference = Pattern.compile(regexForClassReference);
     private static Pattern patternForCollections = Pattern.compile(regexForCollections);
+    private static final String DESCRIPTOR_PREFIXES = "BCDFIJSZV[+-*";
 
     /**
      * 'Signatures' are specified using a grammar which follows the notation of:
@@ -118,4 +121,71 @@ public class SignatureAnalyser {
             }
         }
     }
+
+    /**
+     * Auxiliary method to normalize a referenced class into plain class names (in internal form). Referenced classes
+     * originate from the constant pool (where arrays are represented by a descriptor, i.e. '[Ljava/lang/String;'
+     * or '[I') and from signatures (which can contain a remainder of the signature, i.e.
+     * 'java/lang/Object;Ljava/io/IOException;)Ljava/lang/String'). The descriptors of arrays, primitives and type
+     * variables are skipped, so only class names remain.
+     *
+     * @param classNames
+     *  The class names to add the normalized class names to.
+     * @param referencedClass
+     *  The referenced class to normalize.
+     */
+    public static void normalizedClassNames(Set<String> classNames, String referencedClass) {
+        if(referencedClass == null || referencedClass.isEmpty()) {
+            return;
+        }
+        int start = 0;
+        boolean first = true;
+        for(int i = 0; i <= referencedClass.length(); i++) {
+            char character = i < referencedClass.length() ? referencedClass.charAt(i) : ';';
+            if(character == ';' || character == '(' || character == ')' || character == '<' || character == '>') {
+                addNormalizedClassName(classNames, referencedClass.substring(start, i), first);
+                start = i + 1;
+                first = false;
+            }
+        }
+    }
+
+    /**
+     * Normalize the referenced classes of a class into plain class names (see normalizedClassNames above), as the
+     * referenced classes of a resource are kept as they are found.
+     *
+     * @param referencedClasses
+     *  The referenced classes, i.e. those of a resource.
+     * @return
+     *  The (distinct) class names, in internal form.
+     */
+    public static Set<String> normalizedClassNames(Collection<String> referencedClasses) {
+        Set<String> classNames = new HashSet<>();
+        for(String referencedClass : referencedClasses) {
+            normalizedClassNames(classNames, referencedClass);
+        }
+        return classNames;
+    }
+
+    /**
+     * Auxiliary method to add a single fragment of a referenced class. The first fragment is a plain class name,
+     * unless it is an array. Any other fragment is a (remainder of a) descriptor, where the class name is preceded
+     * by an 'L' (possibly after array dimensions, primitives or wildcard indicators).
+     */
+    private static void addNormalizedClassName(Set<String> classNames, String fragment, boolean plain) {
+        if(fragment.isEmpty()) {
+            return;
+        }
+        if(plain && fragment.charAt(0) != '[') {
+            classNames.add(fragment);
+            return;
+        }
+        int index = 0;
+        while(index < fragment.length() && DESCRIPTOR_PREFIXES.indexOf(fragment.charAt(index)) >= 0) {
+            index++;
+        }
+        if(index + 1 < fragment.length() && fragment.charAt(index) == 'L') {
+            classNames.add(fragment.substring(index + 1));
+        }
+    }
 }
@@ -115,13 +115,39 @@ public class AccessFlagsParser {
         ).collect(AccessFlagsParser.entriesToMap())
     );
 
-    public static void extractAccessFlags(DataInputStream dataInputStream, String location) throws IOException {
+    /**
+     * Extract the access flags at the current location of the stream.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param location
+     *  The location of the access flags, which determines their semantics.
+     * @return
+     *  The access flags (as a bit mask).
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    public static int extractAccessFlags(DataInputStream dataInputStream, String location) throws IOException {
         StringBuilder buffer = new StringBuilder();
         buffer.append("AccessFlags (for: ").append(location).append("): ");
 
         int accessFlags = dataInputStream.readUnsignedShort();
         buffer.append(String.join(", ", extractAccessFlags(accessFlags, location)));
         LOGGER.debug(buffer.toString());
+        return accessFlags;
+    }
+
+    /**
+     * Find out whether the access flags of a class file are those of an abstract type, being an abstract class, an
+     * interface or an annotation.
+     *
+     * @param accessFlags
+     *  The access flags of the class file.
+     * @return
+     *  True when the class is abstract.
+     */
+    public static boolean isAbstract(int accessFlags) {
+        return (accessFlags & (FLAG_ABSTRACT | FLAG_INTERFACE)) != 0;
     }
 
     protected static List<String> extractAccessFlags(int accessFlags, String location) {
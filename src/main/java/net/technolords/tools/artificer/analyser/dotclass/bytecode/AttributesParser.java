@@ -18,7 +18,11 @@ import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.Inne
 import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.LineNumberTableParser;
 import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.LocalVariableTableParser;
 import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.MethodParametersParser;
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.ModuleParser;
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.NestParser;
 import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.ParameterAnnotationsParser;
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.PermittedSubclassesParser;
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.RecordParser;
 import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.SignatureParser;
 import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.SourceDebugExtensionParser;
 import net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute.SourceFileParser;
@@ -48,6 +52,16 @@ public class AttributesParser {
     private static final String LOCAL_VARIABLE_TABLE = "LocalVariableTable";
     private static final String LOCAL_VARIABLE_TYPE_TABLE = "LocalVariableTypeTable";
     private static final String METHOD_PARAMETERS = "MethodParameters";
+    private static final String MODULE = "Module";
+    private static final String MODULE_HASHES = "ModuleHashes";
+    private static final String MODULE_MAIN_CLASS = "ModuleMainClass";
+    private static final String MODULE_PACKAGES = "ModulePackages";
+    private static final String MODULE_RESOLUTION = "ModuleResolution";
+    private static final String MODULE_TARGET = "ModuleTarget";
+    private static final String NEST_HOST = "NestHost";
+    private static final String NEST_MEMBERS = "NestMembers";
+    private static final String PERMITTED_SUBCLASSES = "PermittedSubclasses";
+    private static final String RECORD = "Record";
     private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
     private static final String RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS = "RuntimeInvisibleParameterAnnotations";
     private static final String RUNTIME_INVISIBLE_TYPE_ANNOTATIONS = "RuntimeInvisibleTypeAnnotations";
@@ -66,6 +80,7 @@ public class AttributesParser {
      * - field_info
      * - method_info
      * - Code
+     * - record_component_info
      *
      * And depending on the location, the value or info has different semantics.
      */
@@ -73,6 +88,7 @@ public class AttributesParser {
     public static final String LOCATION_FIELD_INFO = "LOCATION_FIELD_INFO";
     public static final String LOCATION_METHOD_INFO = "LOCATION_METHOD_INFO";
     public static final String LOCATION_CODE = "LOCATION_CODE";
+    public static final String LOCATION_RECORD_COMPONENT = "LOCATION_RECORD_COMPONENT";
 
     public static void extractAttributesFromClassFile(DataInputStream dataInputStream, JavaSpecification javaSpecification, Resource resource) throws IOException {
         int attributesCount = dataInputStream.readUnsignedShort();
@@ -179,6 +195,17 @@ public class AttributesParser {
      * v StackMapTable                         [location: Code]
      * v Synthetic                             [location: ClassFile, field_info, method_info]
      *
+     * Later specifications added the following attributes:
+     * v Module                                [location: ClassFile]                                   (java 9)
+     * v ModuleMainClass                       [location: ClassFile]                                   (java 9)
+     * v ModulePackages                        [location: ClassFile]                                   (java 9)
+     * v NestHost                              [location: ClassFile]                                   (java 11)
+     * v NestMembers                           [location: ClassFile]                                   (java 11)
+     * v Record                                [location: ClassFile]                                   (java 16)
+     * v PermittedSubclasses                   [location: ClassFile]                                   (java 17)
+     *
+     * Any other attribute (i.e. the JDK specific ModuleHashes) is skipped as a whole.
+     *
      * @param dataInputStream
      *  The byte stream associated with the resource (aka .class file).
      * @param index
@@ -268,9 +295,43 @@ public class AttributesParser {
                 MethodParametersParser.extractMethodParameters(dataInputStream, resource);
                 break;
 
+            case MODULE:                                    // [location: ClassFile]
+            case MODULE_HASHES:                             // [location: ClassFile]
+            case MODULE_PACKAGES:                           // [location: ClassFile]
+            case MODULE_RESOLUTION:                         // [location: ClassFile]
+            case MODULE_TARGET:                             // [location: ClassFile]
+                // Skip the module (delegated)
+                ModuleParser.extractModule(dataInputStream, attributeLength, resource);
+                break;
+
+            case MODULE_MAIN_CLASS:                         // [location: ClassFile]
+                // Parse the module main class (delegated)
+                ModuleParser.extractModuleMainClass(dataInputStream, resource);
+                break;
+
+            case NEST_HOST:                                 // [location: ClassFile]
+                // Parse the nest host (delegated)
+                NestParser.extractNestHost(dataInputStream, resource);
+                break;
+
+            case NEST_MEMBERS:                              // [location: ClassFile]
+                // Parse the nest members (delegated)
+                NestParser.extractNestMembers(dataInputStream, resource);
+                break;
+
+            case PERMITTED_SUBCLASSES:                      // [location: ClassFile]
+                // Parse the permitted subclasses (delegated)
+                PermittedSubclassesParser.extractPermittedSubclasses(dataInputStream, resource);
+                break;
+
+            case RECORD:                                    // [location: ClassFile]
+                // Parse the record components (delegated)
+                RecordParser.extractRecord(dataInputStream, javaSpecification, resource);
+                break;
+
             case RUNTIME_INVISIBLE_ANNOTATIONS:             // [location: ClassFile, field_info, method_info]
                 // Parse the annotations (delegated)
-                AnnotationsParser.extractAnnotations(dataInputStream, resource);
+                AnnotationsParser.extractAnnotations(dataInputStream, resource, location);
                 break;
 
             case RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS:   // [location: method_info]
@@ -285,7 +346,7 @@ public class AttributesParser {
 
             case RUNTIME_VISIBLE_ANNOTATIONS:               // [location: ClassFile, field_info, method_info]
                 // Parse the annotations (delegated)
-                AnnotationsParser.extractAnnotations(dataInputStream, resource);
+                AnnotationsParser.extractAnnotations(dataInputStream, resource, location);
                 break;
 
             case RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS:     // [location: method_info]
@@ -323,10 +384,32 @@ public class AttributesParser {
                 break;
 
             default:
-                LOGGER.debug("TODO: extract attribute details of name: " + attributeName + " for now absorbing bytes...");
-                for(int i = 0; i < attributeLength; i++) {
-                    dataInputStream.readUnsignedByte();
-                }
+                LOGGER.debug("Unsupported attribute: " + attributeName + ", skipping " + attributeLength + " bytes...");
+                skipAttribute(dataInputStream, attributeLength);
+        }
+    }
+
+    /**
+     * Auxiliary method to skip the (remaining) bytes of an attribute, without reading them one by one. Note that
+     * the underlying stream may skip less than requested, in which case skipping is repeated. When nothing can
+     * be skipped a single byte is read, so the end of the stream is detected.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param attributeLength
+     *  The total bytes to skip.
+     * @throws IOException
+     *  When skipping bytes from the stream fails, or when the stream ends prematurely.
+     */
+    public static void skipAttribute(DataInputStream dataInputStream, int attributeLength) throws IOException {
+        int remaining = attributeLength;
+        while(remaining > 0) {
+            int skipped = dataInputStream.skipBytes(remaining);
+            if(skipped <= 0) {
+                dataInputStream.readUnsignedByte();
+                skipped = 1;
+            }
+            remaining -= skipped;
         }
     }
 
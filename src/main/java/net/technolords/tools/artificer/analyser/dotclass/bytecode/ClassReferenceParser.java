@@ -6,6 +6,9 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.technolords.tools.artificer.analyser.dotclass.ConstantPoolAnalyser;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
 /**
  * Created by Technolords on 2016-Mar-22.
  *
@@ -34,14 +37,20 @@ public class ClassReferenceParser {
      *      'constant_pool' entry at that index must be a 'CONSTANT_Class_info' structure representing the class or
      *      interface defined by this class file.
      *
+     * The class name is resolved from the constant pool, and set on the resource.
+     *
      * @param dataInputStream
      *  The byte stream associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the class (which has a populated constant pool).
      * @throws IOException
      *  When reading bytes from the stream fails.
      */
-    public static void extractThisClassReference(DataInputStream dataInputStream) throws IOException {
+    public static void extractThisClassReference(DataInputStream dataInputStream, Resource resource) throws IOException {
         int thisClassReference = dataInputStream.readUnsignedShort();
-        LOGGER.debug("ConstantPool index for thisClassReference: " + thisClassReference);
+        String className = ConstantPoolAnalyser.extractClassNameByConstantPoolIndex(resource.getConstantPool(), thisClassReference);
+        LOGGER.debug("ConstantPool index for thisClassReference: " + thisClassReference + ", with class name: " + className);
+        resource.setClassName(className);
     }
 
     /**
@@ -69,13 +78,19 @@ public class ClassReferenceParser {
      *      table. The 'constant_pool' entry at that index must be a 'CONSTANT_Class_info' structure representing
      *      the class Object.
      *
+     * The superclass name is resolved from the constant pool (when the index is nonzero), and set on the resource.
+     *
      * @param dataInputStream
      *  The byte stream associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the class (which has a populated constant pool).
      * @throws IOException
      *  When reading bytes from the stream fails.
      */
-    public static void extractSuperClassReference(DataInputStream dataInputStream) throws IOException {
+    public static void extractSuperClassReference(DataInputStream dataInputStream, Resource resource) throws IOException {
         int superClassReference = dataInputStream.readUnsignedShort();
-        LOGGER.debug("ConstantPool index for superClassReference: " + superClassReference);
+        String superClassName = superClassReference == 0 ? null : ConstantPoolAnalyser.extractClassNameByConstantPoolIndex(resource.getConstantPool(), superClassReference);
+        LOGGER.debug("ConstantPool index for superClassReference: " + superClassReference + ", with class name: " + superClassName);
+        resource.setSuperClass(superClassName);
     }
 }
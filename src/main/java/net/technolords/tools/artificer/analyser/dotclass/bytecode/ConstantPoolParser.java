@@ -2,7 +2,6 @@ package net.technolords.tools.artificer.analyser.dotclass.bytecode;
 
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -115,6 +114,12 @@ public class ConstantPoolParser {
      * - MethodType         16
      * - InvokeDynamic      18
      *
+     * Later specifications added the following tags:
+     *
+     * - Module             19 (java 9)
+     * - Package            20 (java 9)
+     * - Dynamic            17 (java 11)
+     *
      * Each tag byte must be followed by two or more bytes giving information about the specific constant. The format
      * of the additional information varies with the tag value.
      *
@@ -134,6 +139,10 @@ public class ConstantPoolParser {
         int tag = dataInputStream.readUnsignedByte();
         // Find associated constant pool constant
         ConstantPoolConstant constantPoolConstant = findConstantPoolConstantByValue(tag, javaSpecification);
+        if(constantPoolConstant == null) {
+            throw new IOException("Unsupported constant pool tag: " + tag + " (index: " + constantPoolIndex + ") for JVM spec: "
+                + (javaSpecification == null ? "None" : javaSpecification.getVersion()));
+        }
         // Instantiate constant
         Constant constant = new Constant();
         constant.setConstantPoolIndex(constantPoolIndex);
@@ -154,21 +163,16 @@ public class ConstantPoolParser {
      * @param javaSpecification
      *  The Java specification associated with the compiled version associated with the resource (aka .class file).
      * @return
-     *  The constant pool constant.
+     *  The constant pool constant, or null when the tag is not supported by the specification.
      */
     protected static ConstantPoolConstant findConstantPoolConstantByValue(int tag, JavaSpecification javaSpecification) {
-        Optional<ConstantPoolConstant> optionalConstantPoolConstant = Optional.ofNullable(null);
-
         if(javaSpecification != null) {
             ConstantPoolConstants constantPoolConstants = javaSpecification.getConstantPoolConstants();
             if(constantPoolConstants != null) {
-                optionalConstantPoolConstant = constantPoolConstants.getConstantPoolConstants().
-                    stream().
-                    filter( cp -> Integer.valueOf(cp.getTag()) == tag ).
-                    findFirst();
+                return constantPoolConstants.findByTag(tag);
             }
         }
-        return optionalConstantPoolConstant.get();
+        return null;
     }
 
     /**
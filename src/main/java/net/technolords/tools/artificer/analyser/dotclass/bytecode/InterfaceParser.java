@@ -6,6 +6,9 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.technolords.tools.artificer.analyser.dotclass.ConstantPoolAnalyser;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
 /**
  * Created by Technolords on 2016-Mar-22.
  *
@@ -39,17 +42,23 @@ public class InterfaceParser {
      *      'CONSTANT_Class_info' structure representing an interface that is a direct superinterface of this
      *      class or interface type, in the left-to-right order given in the source for the type.
      *
+     * The interface names are resolved from the constant pool, and added to the resource.
+     *
      * @param dataInputStream
      *  The byte stream associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the class (which has a populated constant pool).
      * @throws IOException
      *  When reading bytes from the stream fails.
      */
-    public static void extractInterfaces(DataInputStream dataInputStream) throws IOException {
+    public static void extractInterfaces(DataInputStream dataInputStream, Resource resource) throws IOException {
         int interfacesCount = dataInputStream.readUnsignedShort();
         LOGGER.debug("InterfacesCount: " + interfacesCount);
-        if(interfacesCount != 0) {
-            int interfaces = dataInputStream.readUnsignedShort();
-            LOGGER.debug("Interfaces: " + interfaces);
+        for(int index = 0; index < interfacesCount; index++) {
+            int interfaceReference = dataInputStream.readUnsignedShort();
+            String interfaceName = ConstantPoolAnalyser.extractClassNameByConstantPoolIndex(resource.getConstantPool(), interfaceReference);
+            LOGGER.debug("ConstantPool index for interface (index: " + index + "): " + interfaceReference + ", with class name: " + interfaceName);
+            resource.getInterfaces().add(interfaceName);
         }
     }
 }
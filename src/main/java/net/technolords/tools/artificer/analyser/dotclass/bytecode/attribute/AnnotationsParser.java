@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 
 import net.technolords.tools.artificer.analyser.dotclass.ConstantPoolAnalyser;
 import net.technolords.tools.artificer.analyser.dotclass.SignatureAnalyser;
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.AttributesParser;
 import net.technolords.tools.artificer.domain.dotclass.Constant;
 import net.technolords.tools.artificer.domain.dotclass.ConstantInfo;
 import net.technolords.tools.artificer.domain.dotclass.ConstantPool;
@@ -58,11 +59,31 @@ public class AnnotationsParser {
      *  When reading bytes from the stream fails.
      */
     public static void extractAnnotations(DataInputStream dataInputStream, Resource resource) throws IOException {
+        extractAnnotations(dataInputStream, resource, null);
+    }
+
+    /**
+     * Auxiliary method to extract the annotations associated with the resource, where the types of the annotations
+     * of the class itself (the location being the ClassFile) are added to the annotations of the resource.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the attribute.
+     * @param location
+     *  The location of the attribute (see AttributesParser), or null when unknown.
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    public static void extractAnnotations(DataInputStream dataInputStream, Resource resource, String location) throws IOException {
         int annotationsCount = dataInputStream.readUnsignedShort();
         LOGGER.debug("Total annotations: " + annotationsCount);
 
         for(int index = 0; index < annotationsCount; index++) {
-            extractAnnotation(dataInputStream, index, resource);
+            String descriptor = extractAnnotation(dataInputStream, index, resource);
+            if(AttributesParser.LOCATION_CLASS_FILE.equals(location) && descriptor != null && descriptor.startsWith("L") && descriptor.endsWith(";")) {
+                resource.getAnnotations().add(descriptor.substring(1, descriptor.length() - 1));
+            }
         }
     }
 
@@ -90,10 +111,12 @@ public class AnnotationsParser {
      *  The annotation index, used for precise data logging.
      * @param resource
      *  The resource associated with the attribute.
+     * @return
+     *  The field descriptor of the type of the annotation (i.e. Ljavax/ejb/Stateless;).
      * @throws IOException
      *  When reading bytes from the stream fails.
      */
-    protected static void extractAnnotation(DataInputStream dataInputStream, int index, Resource resource) throws IOException {
+    protected static String extractAnnotation(DataInputStream dataInputStream, int index, Resource resource) throws IOException {
         StringBuilder buffer = new StringBuilder();
         buffer.append("Annotation (index: ").append(index).append(")");
 
@@ -109,6 +132,7 @@ public class AnnotationsParser {
         // Read the element value pairs
         int numberOfElementValuePairs = dataInputStream.readUnsignedShort();
         extractElementValuePairs(dataInputStream, numberOfElementValuePairs, resource);
+        return descriptor;
     }
 
     public static void extractElementValuePairs(DataInputStream dataInputStream, int numberOfElementValuePairs, Resource resource) throws IOException {
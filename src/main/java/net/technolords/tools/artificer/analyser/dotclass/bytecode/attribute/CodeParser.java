@@ -2,7 +2,6 @@ package net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute;
 
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import net.technolords.tools.artificer.analyser.dotclass.bytecode.AttributesParser;
 import net.technolords.tools.artificer.analyser.dotclass.specification.JavaSpecification;
 import net.technolords.tools.artificer.analyser.dotclass.specification.Mnemonic;
+import net.technolords.tools.artificer.analyser.dotclass.specification.Mnemonics;
 import net.technolords.tools.artificer.domain.resource.Resource;
 
 /**
@@ -124,7 +124,9 @@ public class CodeParser {
         // u1              code[code_length];
         for(int codeIndex = 0; codeIndex < codelength; codeIndex++) {
             int opcode = dataInputStream.readUnsignedByte();
-            LOGGER.debug("Opcode (index: " + codeIndex + "): " + opcode + ", with mnemonic: " + extractMnemonic(opcode, javaSpecification.getMnemonics().getMnemonics()));
+            if(LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Opcode (index: " + codeIndex + "): " + opcode + ", with mnemonic: " + extractMnemonic(opcode, javaSpecification.getMnemonics()));
+            }
         }
 
         // Sample from main with hello world
@@ -169,12 +171,8 @@ public class CodeParser {
         AttributesParser.extractAttributes(dataInputStream, attributesCount, javaSpecification, resource, AttributesParser.LOCATION_CODE);
     }
 
-    protected static String extractMnemonic(int opcode, List<Mnemonic> mnemonics) {
-        for(Mnemonic mnemonic : mnemonics) {
-            if(String.valueOf(opcode).equals(mnemonic.getOpcode())) {
-                return mnemonic.getId();
-            }
-        }
-        return MNEMONIC_NOT_FOUND;
+    protected static String extractMnemonic(int opcode, Mnemonics mnemonics) {
+        Mnemonic mnemonic = (mnemonics == null ? null : mnemonics.findByOpcode(opcode));
+        return mnemonic == null ? MNEMONIC_NOT_FOUND : mnemonic.getId();
     }
 }
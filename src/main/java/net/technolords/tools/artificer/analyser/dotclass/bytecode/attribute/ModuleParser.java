@@ -0,0 +1,95 @@
+package net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.dotclass.ConstantPoolAnalyser;
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.AttributesParser;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * Legend:
+ * u1: java: readUnsignedByte
+ * u2: java: readUnsignedShort
+ * u4: java, readInt + readFloat
+ * u8: java, readLong + readDouble
+ */
+public class ModuleParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModuleParser.class);
+
+    /**
+     * Auxiliary method to skip the module associated with the resource (aka module-info.class). This is fetched
+     * from the 'Module_attribute' structure, which has the following format:
+     *
+     * [java 9]
+     * Module_attribute {
+     *      u2          attribute_name_index;
+     *      u4          attribute_length;
+     *      u2          module_name_index;
+     *      u2          module_flags;
+     *      u2          module_version_index;
+     *      u2          requires_count;
+     *      { ... }     requires[requires_count];
+     *      u2          exports_count;
+     *      { ... }     exports[exports_count];
+     *      u2          opens_count;
+     *      { ... }     opens[opens_count];
+     *      u2          uses_count;
+     *      u2          uses_index[uses_count];
+     *      u2          provides_count;
+     *      { ... }     provides[provides_count];
+     * }
+     *
+     * The classes referenced by a module (the services it uses and provides) are 'CONSTANT_Class_info' structures,
+     * which are added regardless by the constant pool analysis. Therefore the attribute is skipped as a whole,
+     * as are the 'ModulePackages' attribute and the JDK specific 'ModuleHashes', 'ModuleResolution' and
+     * 'ModuleTarget' attributes.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param attributeLength
+     *  The length of the attribute.
+     * @param resource
+     *  The resource associated with the attribute.
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    public static void extractModule(DataInputStream dataInputStream, int attributeLength, Resource resource) throws IOException {
+        LOGGER.debug("Skipping module details of: " + resource.getName() + " (length: " + attributeLength + ")");
+        AttributesParser.skipAttribute(dataInputStream, attributeLength);
+    }
+
+    /**
+     * Auxiliary method to extract the main class of the module associated with the resource. This is fetched from
+     * the 'ModuleMainClass_attribute' structure, which has the following format:
+     *
+     * [java 9]
+     * ModuleMainClass_attribute {
+     *      u2          attribute_name_index;
+     *      u4          attribute_length;
+     *      u2          main_class_index;
+     * }
+     *
+     * - main_class_index:
+     *      The 'constant_pool' entry at that index must be a 'CONSTANT_Class_info' structure representing the
+     *      main class of the current module.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the attribute.
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    public static void extractModuleMainClass(DataInputStream dataInputStream, Resource resource) throws IOException {
+        int mainClassIndex = dataInputStream.readUnsignedShort();
+        String mainClass = ConstantPoolAnalyser.extractClassNameByConstantPoolIndex(resource.getConstantPool(), mainClassIndex);
+        LOGGER.debug("Module main class: " + mainClass);
+        if(mainClass != null) {
+            resource.getReferencedClasses().add(mainClass);
+        }
+    }
+}
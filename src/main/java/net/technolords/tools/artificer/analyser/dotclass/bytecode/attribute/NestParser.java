@@ -0,0 +1,100 @@
+package net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.dotclass.ConstantPoolAnalyser;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * Legend:
+ * u1: java: readUnsignedByte
+ * u2: java: readUnsignedShort
+ * u4: java, readInt + readFloat
+ * u8: java, readLong + readDouble
+ */
+public class NestParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NestParser.class);
+
+    /**
+     * Auxiliary method to extract the nest host associated with the resource. This is fetched from the
+     * 'NestHost_attribute' structure, which has the following format:
+     *
+     * [java 11]
+     * NestHost_attribute {
+     *      u2          attribute_name_index;
+     *      u4          attribute_length;
+     *      u2          host_class_index;
+     * }
+     *
+     * - host_class_index:
+     *      The value in the 'host_class_index' item must be a valid index into the 'constant_pool' table. The
+     *      'constant_pool' entry at that index must be a 'CONSTANT_Class_info' structure representing a class or
+     *      interface which is the nest host for the current class or interface.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the attribute.
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    public static void extractNestHost(DataInputStream dataInputStream, Resource resource) throws IOException {
+        int hostClassIndex = dataInputStream.readUnsignedShort();
+        String hostClass = ConstantPoolAnalyser.extractClassNameByConstantPoolIndex(resource.getConstantPool(), hostClassIndex);
+        LOGGER.debug("Nest host: " + hostClass);
+        addReferencedClass(resource, hostClass);
+    }
+
+    /**
+     * Auxiliary method to extract the nest members associated with the resource. This is fetched from the
+     * 'NestMembers_attribute' structure, which has the following format:
+     *
+     * [java 11]
+     * NestMembers_attribute {
+     *      u2          attribute_name_index;
+     *      u4          attribute_length;
+     *      u2          number_of_classes;
+     *      u2          classes[number_of_classes];
+     * }
+     *
+     * - number_of_classes:
+     *      The value of the 'number_of_classes' item indicates the number of entries in the 'classes' array.
+     * - classes[]:
+     *      Each value in the 'classes' array must be a valid index into the 'constant_pool' table. The
+     *      'constant_pool' entry at that index must be a 'CONSTANT_Class_info' structure representing a class or
+     *      interface which is a member of the nest hosted by the current class or interface.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the attribute.
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    public static void extractNestMembers(DataInputStream dataInputStream, Resource resource) throws IOException {
+        int numberOfClasses = dataInputStream.readUnsignedShort();
+        LOGGER.debug("Nest members count: " + numberOfClasses);
+        for(int index = 0; index < numberOfClasses; index++) {
+            int classIndex = dataInputStream.readUnsignedShort();
+            addReferencedClass(resource, ConstantPoolAnalyser.extractClassNameByConstantPoolIndex(resource.getConstantPool(), classIndex));
+        }
+    }
+
+    /**
+     * Auxiliary method to add a class (when resolved) to the referenced classes of the resource.
+     *
+     * @param resource
+     *  The resource associated with the referenced class.
+     * @param referencedClass
+     *  The referenced class, or null when it could not be resolved.
+     */
+    protected static void addReferencedClass(Resource resource, String referencedClass) {
+        if(referencedClass != null) {
+            resource.getReferencedClasses().add(referencedClass);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.dotclass.ConstantPoolAnalyser;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * Legend:
+ * u1: java: readUnsignedByte
+ * u2: java: readUnsignedShort
+ * u4: java, readInt + readFloat
+ * u8: java, readLong + readDouble
+ */
+public class PermittedSubclassesParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PermittedSubclassesParser.class);
+
+    /**
+     * Auxiliary method to extract the permitted subclasses associated with the resource. This is fetched from the
+     * 'PermittedSubclasses_attribute' structure, which has the following format:
+     *
+     * [java 17]
+     * PermittedSubclasses_attribute {
+     *      u2          attribute_name_index;
+     *      u4          attribute_length;
+     *      u2          number_of_classes;
+     *      u2          classes[number_of_classes];
+     * }
+     *
+     * - number_of_classes:
+     *      The value of the 'number_of_classes' item indicates the number of entries in the 'classes' array.
+     * - classes[]:
+     *      Each value in the 'classes' array must be a valid index into the 'constant_pool' table. The
+     *      'constant_pool' entry at that index must be a 'CONSTANT_Class_info' structure representing a class or
+     *      interface which is authorized to directly extend or implement the current class or interface.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the attribute.
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    public static void extractPermittedSubclasses(DataInputStream dataInputStream, Resource resource) throws IOException {
+        int numberOfClasses = dataInputStream.readUnsignedShort();
+        LOGGER.debug("Permitted subclasses count: " + numberOfClasses);
+        for(int index = 0; index < numberOfClasses; index++) {
+            int classIndex = dataInputStream.readUnsignedShort();
+            String permittedSubclass = ConstantPoolAnalyser.extractClassNameByConstantPoolIndex(resource.getConstantPool(), classIndex);
+            if(permittedSubclass != null) {
+                resource.getReferencedClasses().add(permittedSubclass);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package net.technolords.tools.artificer.analyser.dotclass.bytecode.attribute;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.dotclass.ConstantPoolAnalyser;
+import net.technolords.tools.artificer.analyser.dotclass.SignatureAnalyser;
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.AttributesParser;
+import net.technolords.tools.artificer.analyser.dotclass.specification.JavaSpecification;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * Legend:
+ * u1: java: readUnsignedByte
+ * u2: java: readUnsignedShort
+ * u4: java, readInt + readFloat
+ * u8: java, readLong + readDouble
+ */
+public class RecordParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecordParser.class);
+
+    /**
+     * Auxiliary method to extract the record components associated with the resource. This is fetched from the
+     * 'Record_attribute' structure, which has the following format:
+     *
+     * [java 16]
+     * Record_attribute {
+     *      u2                      attribute_name_index;
+     *      u4                      attribute_length;
+     *      u2                      components_count;
+     *      record_component_info   components[components_count];
+     * }
+     *
+     * - components_count:
+     *      The value of the 'components_count' item indicates the number of entries in the 'components' table.
+     * - components[]:
+     *      Each entry in the 'components' table specifies a record component of the current class, in the order
+     *      the record components were declared.
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param javaSpecification
+     *  The Java specification associated with the compiled version associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the attribute.
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    public static void extractRecord(DataInputStream dataInputStream, JavaSpecification javaSpecification, Resource resource) throws IOException {
+        int componentsCount = dataInputStream.readUnsignedShort();
+        LOGGER.debug("Record components count: " + componentsCount);
+        for(int index = 0; index < componentsCount; index++) {
+            extractRecordComponent(dataInputStream, index, javaSpecification, resource);
+        }
+    }
+
+    /**
+     * Auxiliary method to extract a record component, which has the following format:
+     *
+     * [java 16]
+     * record_component_info {
+     *      u2              name_index;
+     *      u2              descriptor_index;
+     *      u2              attributes_count;
+     *      attribute_info  attributes[attributes_count];
+     * }
+     *
+     * - name_index:
+     *      The 'constant_pool' entry at that index must be a 'CONSTANT_Utf8_info' structure representing a valid
+     *      unqualified name denoting the record component.
+     * - descriptor_index:
+     *      The 'constant_pool' entry at that index must be a 'CONSTANT_Utf8_info' structure representing a field
+     *      descriptor which encodes the type of the record component.
+     * - attributes[]:
+     *      The attributes of the record component (i.e. Signature and annotations).
+     *
+     * @param dataInputStream
+     *  The byte stream associated with the resource (aka .class file).
+     * @param index
+     *  The component index, used for precise data logging.
+     * @param javaSpecification
+     *  The Java specification associated with the compiled version associated with the resource (aka .class file).
+     * @param resource
+     *  The resource associated with the attribute.
+     * @throws IOException
+     *  When reading bytes from the stream fails.
+     */
+    protected static void extractRecordComponent(DataInputStream dataInputStream, int index, JavaSpecification javaSpecification, Resource resource) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("Record component (index: ").append(index).append(")");
+
+        // Read the name index
+        int nameIndex = dataInputStream.readUnsignedShort();
+        buffer.append(", with name: ").append(ConstantPoolAnalyser.extractStringValueByConstantPoolIndex(resource.getConstantPool(), nameIndex));
+
+        // Read the descriptor index
+        int descriptorIndex = dataInputStream.readUnsignedShort();
+        String descriptor = ConstantPoolAnalyser.extractStringValueByConstantPoolIndex(resource.getConstantPool(), descriptorIndex);
+        buffer.append(", with descriptor: ").append(descriptor);
+
+        // Read the number of attributes
+        int attributesCount = dataInputStream.readUnsignedShort();
+        buffer.append(" and total attributes: ").append(attributesCount);
+        LOGGER.debug(buffer.toString());
+
+        // Add descriptor (when applicable) to the referenced classes
+        SignatureAnalyser.referencedClasses(resource.getReferencedClasses(), descriptor);
+
+        // Read the attributes
+        AttributesParser.extractAttributes(dataInputStream, attributesCount, javaSpecification, resource, AttributesParser.LOCATION_RECORD_COMPONENT);
+    }
+}
@@ -6,6 +6,7 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.AttributesParser;
 import net.technolords.tools.artificer.domain.resource.Resource;
 
 /**
@@ -47,9 +48,8 @@ public class SourceDebugExtensionParser {
      *  When reading bytes from the stream fails.
      */
     public static void extractSourceDebugExtension(DataInputStream dataInputStream, int attributeLength, Resource resource) throws IOException {
-        int debug;
-        for(int index = 0; index < attributeLength; index++) {
-            debug = dataInputStream.readUnsignedByte();
-        }
+        // Skip the debug extension, as it has no semantic effect
+        LOGGER.debug("Skipping source debug extension (length: " + attributeLength + ")");
+        AttributesParser.skipAttribute(dataInputStream, attributeLength);
     }
 }
@@ -0,0 +1,101 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * A bloom filter of class names, which is used as pre-filter of a class index. Most referenced classes are not
+ * part of a (small) index, and a miss of the bloom filter avoids probing the index. The bloom filter is stored as
+ * section of the class index extension, with the following layout (big endian):
+ *
+ * BloomFilter {
+ *     u4               bit_count
+ *     u1               hash_count
+ *     u1               reserved[3]
+ *     u8               words[bit_count / 64]
+ * }
+ *
+ * The bit positions are derived by double hashing, from the hash of the class index and the hash of the string.
+ * With (at least) 10 bits per class name and 7 hashes, the false positive rate is below 1%.
+ */
+public class BloomFilter {
+    public static final int HEADER_SIZE = 8;
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_COUNT = 7;
+    private final ByteBuffer buffer;
+    private final int bitMask;
+    private final int hashCount;
+
+    /**
+     * Create a bloom filter on top of a buffer.
+     *
+     * @param buffer
+     *  The buffer containing the bloom filter.
+     */
+    public BloomFilter(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bitMask = buffer.getInt(0) - 1;
+        this.hashCount = buffer.get(4) & 0xFF;
+    }
+
+    /**
+     * Find out whether the bloom filter might contain a class name. When false, the class name is definitely not
+     * contained.
+     *
+     * @param hash
+     *  The hash of the class name, as calculated by the class index.
+     * @param className
+     *  The class name.
+     * @return
+     *  False when the class name is not contained, true when it might be.
+     */
+    public boolean mightContain(int hash, String className) {
+        int secondHash = secondHash(className);
+        for(int i = 0; i < this.hashCount; i++) {
+            int bit = (hash + i * secondHash) & this.bitMask;
+            long word = this.buffer.getLong(HEADER_SIZE + ((bit >>> 6) << 3));
+            if((word & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create the bloom filter of class names.
+     *
+     * @param classNames
+     *  The class names.
+     * @return
+     *  The bloom filter, in its serialized form.
+     */
+    public static byte[] create(Collection<String> classNames) {
+        int bitCount = Math.max(64, Integer.highestOneBit(Math.max(1, classNames.size() * BITS_PER_ENTRY - 1)) << 1);
+        long[] words = new long[bitCount >>> 6];
+        for(String className : classNames) {
+            int hash = ClassIndex.hash(className);
+            int secondHash = secondHash(className);
+            for(int i = 0; i < HASH_COUNT; i++) {
+                int bit = (hash + i * secondHash) & (bitCount - 1);
+                words[bit >>> 6] |= 1L << (bit & 63);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (words.length << 3));
+        buffer.putInt(bitCount);
+        buffer.put((byte) HASH_COUNT);
+        buffer.put(new byte[3]);
+        for(long word : words) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Auxiliary method to calculate the second hash, based on the (cached) hash code of the string. The result is
+     * odd, so the bit positions of the hashes differ.
+     */
+    private static int secondHash(String className) {
+        int hash = className.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 15)) | 1;
+    }
+}
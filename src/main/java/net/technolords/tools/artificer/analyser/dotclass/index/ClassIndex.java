@@ -0,0 +1,431 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * A read only index of class names (in internal form, i.e. java/lang/Object), backed by a (memory mapped) buffer.
+ * The index is created by the ClassIndexWriter, and has the following layout (big endian):
+ *
+ * ClassIndex {
+ *     u4               magic (0x41434958, 'ACIX')
+ *     u2               version
+ *     u2               flags
+ *     u4               entry_count
+ *     u4               slot_count
+ *     u4               slots_offset
+ *     u4               names_offset
+ *     u4               names_length
+ *     u4               extension_offset
+ *     u4               slots[slot_count]
+ *     name_info        names[entry_count]
+ * }
+ *
+ * name_info {
+ *     u2               length
+ *     u1               bytes[length]
+ *     u4               value               (only when FLAG_VALUES is set)
+ * }
+ *
+ * extension {
+ *     u2               section_count
+ *     section_info     sections[section_count]
+ * }
+ *
+ * section_info {
+ *     u2               type
+ *     u4               length
+ *     u1               data[length]
+ * }
+ *
+ * - slots[]:
+ *      An open addressing hash table (with linear probing) of the class names. A slot contains the offset of the
+ *      name (relative to names_offset) plus one, or zero when the slot is empty. The slot count is a power of two.
+ * - names[]:
+ *      The class names, sorted, in UTF-8.
+ * - extension_offset:
+ *      The offset of the optional extension, or zero when absent. The extension consists of sections.
+ * - flags:
+ *      When FLAG_BLOOM_FILTER is set, the extension has a section with a bloom filter (see BloomFilter), which is
+ *      consulted before the slots are probed. When FLAG_VALUES is set, each class name has a value, which is the
+ *      position of a string in the values section of the extension (i.e. the Maven coordinates of the artifact
+ *      containing the class):
+ *
+ *      values {
+ *          u4          value_count
+ *          value_info  values[value_count]     (with the same layout as name_info, without a value)
+ *      }
+ *
+ * A lookup hashes the class name once and compares the name of the (few) probed slots, so no class names are
+ * materialized. The buffer is only read with absolute methods, so the index is thread safe.
+ */
+public class ClassIndex {
+    public static final int MAGIC = 0x41434958;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int FLAG_BLOOM_FILTER = 0x0001;
+    public static final int FLAG_VALUES = 0x0002;
+    public static final int SECTION_BLOOM_FILTER = 1;
+    public static final int SECTION_VALUES = 2;
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    private final ByteBuffer buffer;
+    private final int flags;
+    private final int entryCount;
+    private final int slotMask;
+    private final int slotsOffset;
+    private final int namesOffset;
+    private final int extensionOffset;
+    private final BloomFilter bloomFilter;
+    private final int[] valueOffsets;
+    private final String[] values;
+
+    /**
+     * Create an index on top of a buffer.
+     *
+     * @param buffer
+     *  The buffer containing the index.
+     * @throws IOException
+     *  When the buffer does not contain a valid index.
+     */
+    public ClassIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if(this.buffer.limit() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a class index");
+        }
+        int version = this.buffer.getShort(4) & 0xFFFF;
+        if(version != VERSION) {
+            throw new IOException("Unsupported class index version: " + version);
+        }
+        this.flags = this.buffer.getShort(6) & 0xFFFF;
+        this.entryCount = this.buffer.getInt(8);
+        int slotCount = this.buffer.getInt(12);
+        if(slotCount <= 0 || Integer.bitCount(slotCount) != 1) {
+            throw new IOException("Invalid slot count: " + slotCount);
+        }
+        this.slotMask = slotCount - 1;
+        this.slotsOffset = this.buffer.getInt(16);
+        this.namesOffset = this.buffer.getInt(20);
+        this.extensionOffset = this.buffer.getInt(28);
+        if((long) this.namesOffset + this.buffer.getInt(24) > this.buffer.limit() || (long) this.slotsOffset + 4L * slotCount > this.buffer.limit()) {
+            throw new IOException("Truncated class index");
+        }
+        int bloomFilterOffset = this.findSection(SECTION_BLOOM_FILTER);
+        if((this.flags & FLAG_BLOOM_FILTER) != 0 && bloomFilterOffset != -1) {
+            ByteBuffer bloomFilterBuffer = this.buffer.duplicate();
+            bloomFilterBuffer.position(bloomFilterOffset);
+            this.bloomFilter = new BloomFilter(bloomFilterBuffer.slice().order(ByteOrder.BIG_ENDIAN));
+        } else {
+            this.bloomFilter = null;
+        }
+        int valuesOffset = this.findSection(SECTION_VALUES);
+        if((this.flags & FLAG_VALUES) != 0) {
+            if(valuesOffset == -1) {
+                throw new IOException("Class index without values section");
+            }
+            int valueCount = this.buffer.getInt(valuesOffset);
+            this.valueOffsets = new int[valueCount];
+            this.values = new String[valueCount];
+            int position = valuesOffset + 4;
+            for(int i = 0; i < valueCount; i++) {
+                this.valueOffsets[i] = position;
+                position += 2 + (this.buffer.getShort(position) & 0xFFFF);
+            }
+        } else {
+            this.valueOffsets = new int[0];
+            this.values = new String[0];
+        }
+    }
+
+    /**
+     * Load an index from a file, by mapping the file in memory.
+     *
+     * @param path
+     *  The path to the index file.
+     * @return
+     *  The index.
+     * @throws IOException
+     *  When the file can not be read, or is not a valid index.
+     */
+    public static ClassIndex load(Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ClassIndex(fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()));
+        }
+    }
+
+    /**
+     * Load an index from a stream, by reading it into memory.
+     *
+     * @param inputStream
+     *  The stream containing the index.
+     * @return
+     *  The index.
+     * @throws IOException
+     *  When the stream can not be read, or is not a valid index.
+     */
+    public static ClassIndex load(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while((read = inputStream.read(chunk)) != -1) {
+            outputStream.write(chunk, 0, read);
+        }
+        return new ClassIndex(ByteBuffer.wrap(outputStream.toByteArray()));
+    }
+
+    /**
+     * Load an index from the class path. When the resource is a plain file, it is mapped in memory, otherwise
+     * (i.e. when it is part of a jar file) it is read into memory.
+     *
+     * @param resourceName
+     *  The name of the resource.
+     * @return
+     *  The index, or null when the resource does not exist.
+     * @throws IOException
+     *  When the resource can not be read, or is not a valid index.
+     */
+    public static ClassIndex loadResource(String resourceName) throws IOException {
+        URL url = ClassIndex.class.getClassLoader().getResource(resourceName);
+        if(url == null) {
+            return null;
+        }
+        if("file".equals(url.getProtocol())) {
+            try {
+                return load(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream inputStream = url.openStream()) {
+            return load(inputStream);
+        }
+    }
+
+    /**
+     * Find out whether the index contains a class.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. java/lang/Object).
+     * @return
+     *  True when the index contains the class.
+     */
+    public boolean contains(String className) {
+        return this.findEntry(className) >= 0;
+    }
+
+    /**
+     * Find the value of a class, for an index with values.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. org/slf4j/Logger).
+     * @return
+     *  The value (i.e. the Maven coordinates), or null when the index does not contain the class or has no values.
+     */
+    public String findValue(String className) {
+        if((this.flags & FLAG_VALUES) == 0) {
+            return null;
+        }
+        int position = this.findEntry(className);
+        if(position < 0) {
+            return null;
+        }
+        int length = this.buffer.getShort(position) & 0xFFFF;
+        return this.getValue(this.buffer.getInt(position + 2 + length));
+    }
+
+    /**
+     * Get a value by its position in the values section. The value is decoded once, and then reused.
+     *
+     * @param index
+     *  The position of the value.
+     * @return
+     *  The value, or null when the position is invalid.
+     */
+    public String getValue(int index) {
+        if(index < 0 || index >= this.values.length) {
+            return null;
+        }
+        String value = this.values[index];
+        if(value == null) {
+            value = this.readString(this.valueOffsets[index]);
+            // Strings are immutable, so a concurrent decode of the same value is harmless
+            this.values[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Auxiliary method to find the entry of a class name.
+     *
+     * @param className
+     *  The class name.
+     * @return
+     *  The absolute position of the name_info, or -1 when not found.
+     */
+    protected int findEntry(String className) {
+        if(className == null) {
+            return -1;
+        }
+        int hash = hash(className);
+        if(this.bloomFilter != null && !this.bloomFilter.mightContain(hash, className)) {
+            return -1;
+        }
+        int slot = spread(hash) & this.slotMask;
+        while(true) {
+            int value = this.buffer.getInt(this.slotsOffset + (slot << 2));
+            if(value == 0) {
+                return -1;
+            }
+            int position = this.namesOffset + value - 1;
+            if(this.nameEquals(position, className)) {
+                return position;
+            }
+            slot = (slot + 1) & this.slotMask;
+        }
+    }
+
+    /**
+     * Iterate the class names of the index, in sorted order.
+     *
+     * @param consumer
+     *  The consumer of the class names.
+     */
+    public void forEach(Consumer<String> consumer) {
+        int position = this.namesOffset;
+        int valueSize = (this.flags & FLAG_VALUES) != 0 ? 4 : 0;
+        for(int i = 0; i < this.entryCount; i++) {
+            consumer.accept(this.readString(position));
+            position += 2 + (this.buffer.getShort(position) & 0xFFFF) + valueSize;
+        }
+    }
+
+    private String readString(int position) {
+        int length = this.buffer.getShort(position) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = this.buffer.get(position + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return this.entryCount;
+    }
+
+    public int getFlags() {
+        return this.flags;
+    }
+
+    /**
+     * Auxiliary method to find a section of the extension.
+     *
+     * @param type
+     *  The type of the section.
+     * @return
+     *  The offset of the section data, or -1 when absent.
+     * @throws IOException
+     *  When the section exceeds the buffer.
+     */
+    private int findSection(int type) throws IOException {
+        if(this.extensionOffset == 0) {
+            return -1;
+        }
+        int sectionCount = this.buffer.getShort(this.extensionOffset) & 0xFFFF;
+        int position = this.extensionOffset + 2;
+        for(int i = 0; i < sectionCount; i++) {
+            int sectionType = this.buffer.getShort(position) & 0xFFFF;
+            int length = this.buffer.getInt(position + 2);
+            if((long) position + 6 + length > this.buffer.limit()) {
+                throw new IOException("Truncated class index section: " + sectionType);
+            }
+            if(sectionType == type) {
+                return position + 6;
+            }
+            position += 6 + length;
+        }
+        return -1;
+    }
+
+    /**
+     * Auxiliary method to compare the name at the given position with a class name. Class names are mostly ASCII,
+     * which is compared byte by byte, and only names with non ASCII characters are encoded first. An ASCII name has
+     * as many bytes as characters, so it never matches a stored name of another length.
+     */
+    private boolean nameEquals(int position, String className) {
+        int length = this.buffer.getShort(position) & 0xFFFF;
+        int start = position + 2;
+        if(length != className.length()) {
+            if(isAscii(className)) {
+                return false;
+            }
+        } else {
+            boolean ascii = true;
+            for(int i = 0; i < length; i++) {
+                char expected = className.charAt(i);
+                if(expected >= 0x80) {
+                    ascii = false;
+                    break;
+                }
+                if(this.buffer.get(start + i) != expected) {
+                    return false;
+                }
+            }
+            if(ascii) {
+                return true;
+            }
+        }
+        // Non ASCII characters, which are compared by their UTF-8 encoding
+        byte[] expected = className.getBytes(StandardCharsets.UTF_8);
+        if(expected.length != length) {
+            return false;
+        }
+        for(int i = 0; i < length; i++) {
+            if(this.buffer.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAscii(String className) {
+        for(int i = 0; i < className.length(); i++) {
+            if(className.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Auxiliary method to calculate the hash of a class name (FNV-1a over the characters). The writer uses the
+     * same hash to populate the slots.
+     *
+     * @param className
+     *  The class name to hash.
+     * @return
+     *  The hash.
+     */
+    public static int hash(CharSequence className) {
+        int hash = FNV_OFFSET_BASIS;
+        for(int i = 0; i < className.length(); i++) {
+            hash ^= className.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    protected static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
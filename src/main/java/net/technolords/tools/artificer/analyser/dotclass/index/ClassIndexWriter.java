@@ -0,0 +1,190 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Writer of the class index, see the ClassIndex for the layout. The class names (and values) are sorted and
+ * de-duplicated, so the same names always result in the same index.
+ */
+public class ClassIndexWriter {
+
+    /**
+     * Write an index of class names to a file.
+     *
+     * @param classNames
+     *  The class names, in internal form (i.e. java/lang/Object).
+     * @param path
+     *  The path of the index file.
+     * @throws IOException
+     *  When writing the file fails.
+     */
+    public static void write(Collection<String> classNames, Path path) throws IOException {
+        write(classNames, path, false);
+    }
+
+    /**
+     * Write an index of class names to a file, optionally with a bloom filter as pre-filter for lookups. The bloom
+     * filter pays off when most lookups are misses.
+     *
+     * @param classNames
+     *  The class names, in internal form (i.e. java/lang/Object).
+     * @param path
+     *  The path of the index file.
+     * @param withBloomFilter
+     *  Whether to include a bloom filter.
+     * @throws IOException
+     *  When writing the file fails.
+     */
+    public static void write(Collection<String> classNames, Path path, boolean withBloomFilter) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            write(classNames, null, withBloomFilter, outputStream);
+        }
+    }
+
+    /**
+     * Write an index of class names with a value per class name to a file, optionally with a bloom filter. The
+     * values are de-duplicated, so a value shared by many class names (i.e. the Maven coordinates of an artifact)
+     * is stored once.
+     *
+     * @param classValues
+     *  The values by class name, where the class names are in internal form (i.e. org/slf4j/Logger).
+     * @param path
+     *  The path of the index file.
+     * @param withBloomFilter
+     *  Whether to include a bloom filter.
+     * @throws IOException
+     *  When writing the file fails.
+     */
+    public static void write(Map<String, String> classValues, Path path, boolean withBloomFilter) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            write(classValues.keySet(), classValues, withBloomFilter, outputStream);
+        }
+    }
+
+    /**
+     * Write an index of class names to a stream.
+     *
+     * @param classNames
+     *  The class names, in internal form (i.e. java/lang/Object).
+     * @param classValues
+     *  The values by class name, or null when the index has no values. When present, each class name must have
+     *  a value.
+     * @param withBloomFilter
+     *  Whether to include a bloom filter.
+     * @param outputStream
+     *  The stream to write to.
+     * @throws IOException
+     *  When writing to the stream fails.
+     */
+    public static void write(Collection<String> classNames, Map<String, String> classValues, boolean withBloomFilter, OutputStream outputStream) throws IOException {
+        TreeSet<String> sortedClassNames = new TreeSet<>(classNames);
+
+        // Values, sorted, where the position of a value is its ordinal
+        Map<String, Integer> valueOrdinals = new HashMap<>();
+        List<String> sortedValues = new ArrayList<>();
+        if(classValues != null) {
+            for(String className : sortedClassNames) {
+                String value = classValues.get(className);
+                if(value == null) {
+                    throw new IOException("Missing value for class: " + className);
+                }
+                valueOrdinals.put(value, 0);
+            }
+            sortedValues.addAll(new TreeSet<>(valueOrdinals.keySet()));
+            for(int i = 0; i < sortedValues.size(); i++) {
+                valueOrdinals.put(sortedValues.get(i), i);
+            }
+        }
+
+        // Names, where the offset of each name is registered in its slot
+        int slotCount = Integer.highestOneBit(Math.max(2, sortedClassNames.size() * 2 - 1)) << 1;
+        int[] slots = new int[slotCount];
+        ByteArrayOutputStream names = new ByteArrayOutputStream();
+        DataOutputStream namesOutput = new DataOutputStream(names);
+        for(String className : sortedClassNames) {
+            int slot = ClassIndex.spread(ClassIndex.hash(className)) & (slotCount - 1);
+            while(slots[slot] != 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = namesOutput.size() + 1;
+            writeString(namesOutput, className);
+            if(classValues != null) {
+                namesOutput.writeInt(valueOrdinals.get(classValues.get(className)));
+            }
+        }
+        namesOutput.flush();
+
+        // Extension, with a section per feature
+        int flags = 0;
+        ByteArrayOutputStream extension = new ByteArrayOutputStream();
+        DataOutputStream extensionOutput = new DataOutputStream(extension);
+        int sectionCount = (withBloomFilter ? 1 : 0) + (classValues != null ? 1 : 0);
+        extensionOutput.writeShort(sectionCount);
+        if(withBloomFilter) {
+            flags |= ClassIndex.FLAG_BLOOM_FILTER;
+            writeSection(extensionOutput, ClassIndex.SECTION_BLOOM_FILTER, BloomFilter.create(sortedClassNames));
+        }
+        if(classValues != null) {
+            flags |= ClassIndex.FLAG_VALUES;
+            ByteArrayOutputStream values = new ByteArrayOutputStream();
+            DataOutputStream valuesOutput = new DataOutputStream(values);
+            valuesOutput.writeInt(sortedValues.size());
+            for(String value : sortedValues) {
+                writeString(valuesOutput, value);
+            }
+            valuesOutput.flush();
+            writeSection(extensionOutput, ClassIndex.SECTION_VALUES, values.toByteArray());
+        }
+        extensionOutput.flush();
+
+        // Header, slots, names and extension
+        int slotsOffset = ClassIndex.HEADER_SIZE;
+        int namesOffset = slotsOffset + 4 * slotCount;
+        int extensionOffset = sectionCount == 0 ? 0 : namesOffset + names.size();
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(ClassIndex.MAGIC);
+        dataOutputStream.writeShort(ClassIndex.VERSION);
+        dataOutputStream.writeShort(flags);
+        dataOutputStream.writeInt(sortedClassNames.size());
+        dataOutputStream.writeInt(slotCount);
+        dataOutputStream.writeInt(slotsOffset);
+        dataOutputStream.writeInt(namesOffset);
+        dataOutputStream.writeInt(names.size());
+        dataOutputStream.writeInt(extensionOffset);
+        for(int slot : slots) {
+            dataOutputStream.writeInt(slot);
+        }
+        names.writeTo(dataOutputStream);
+        if(sectionCount > 0) {
+            extension.writeTo(dataOutputStream);
+        }
+        dataOutputStream.flush();
+    }
+
+    private static void writeString(DataOutputStream dataOutputStream, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if(bytes.length > 0xFFFF) {
+            throw new IOException("Name too long: " + value);
+        }
+        dataOutputStream.writeShort(bytes.length);
+        dataOutputStream.write(bytes);
+    }
+
+    private static void writeSection(DataOutputStream dataOutputStream, int type, byte[] data) throws IOException {
+        dataOutputStream.writeShort(type);
+        dataOutputStream.writeInt(data.length);
+        dataOutputStream.write(data);
+    }
+}
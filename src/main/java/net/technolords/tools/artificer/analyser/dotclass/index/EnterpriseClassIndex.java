@@ -0,0 +1,42 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.nio.file.Path;
+
+/**
+ * The class index of Java EE and Jakarta EE, which is built offline (see EnterpriseClassIndexBuilder). The index
+ * is loaded when it is first needed (see LazyClassIndex), and is either a file, or a resource on the class path.
+ * When there is no index, no class is classified as enterprise.
+ */
+public class EnterpriseClassIndex extends LazyClassIndex {
+    public static final String DEFAULT_INDEX_LOCATION = "analyser/dotclass/index/enterprise.idx";
+
+    /**
+     * Create an enterprise index which is read from the class path (at the default location), when present.
+     */
+    public EnterpriseClassIndex() {
+        this(null);
+    }
+
+    /**
+     * Create an enterprise index which is read from a file.
+     *
+     * @param pathToIndex
+     *  The path to the index, or null to use the class path.
+     */
+    public EnterpriseClassIndex(Path pathToIndex) {
+        super(pathToIndex, DEFAULT_INDEX_LOCATION, "enterprise class index");
+    }
+
+    /**
+     * Find out whether a class is part of Java EE or Jakarta EE.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. javax/servlet/Servlet).
+     * @return
+     *  True when the class is part of the enterprise index.
+     */
+    public boolean contains(String className) {
+        ClassIndex classIndex = this.getIndex();
+        return classIndex != null && classIndex.contains(className);
+    }
+}
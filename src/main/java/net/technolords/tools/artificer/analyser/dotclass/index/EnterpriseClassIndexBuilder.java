@@ -0,0 +1,129 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builder of the class index of Java EE and Jakarta EE, which is used to classify referenced classes as
+ * 'Enterprise'. The index is built (offline) from locally supplied API jars, such as javaee-api, jakarta.jakartaee-api
+ * or the individual specification jars (i.e. javax.servlet-api). Only the classes of the javax and jakarta packages
+ * are indexed, as API jars tend to contain implementation classes as well. As most referenced classes are not part
+ * of the enterprise domain, the index contains a bloom filter to reject those quickly.
+ *
+ * The index is picked up from the class path (see EnterpriseClassIndex), or can be passed to the AnalysisEngine.
+ * To build an index, use for example (where a directory is scanned for jars):
+ *
+ * java -cp target/classes:... net.technolords.tools.artificer.analyser.dotclass.index.EnterpriseClassIndexBuilder \
+ *      enterprise.idx javaee-api-7.0.jar /path/to/jakarta/api/jars
+ */
+public class EnterpriseClassIndexBuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnterpriseClassIndexBuilder.class);
+    private static final String[] ENTERPRISE_PACKAGE_PREFIXES = { "javax/", "jakarta/" };
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String JAR_EXTENSION = ".jar";
+    private static final String VERSIONED_CLASS_ROOT = "META-INF/versions/";
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: EnterpriseClassIndexBuilder <output file> <jar | directory>...");
+            System.exit(1);
+        }
+        List<Path> locations = new ArrayList<>();
+        for(int i = 1; i < args.length; i++) {
+            locations.add(Paths.get(args[i]));
+        }
+        Set<String> classNames = findClassNames(locations);
+        ClassIndexWriter.write(classNames, Paths.get(args[0]), true);
+        LOGGER.info("Written index with " + classNames.size() + " classes to: " + args[0]);
+    }
+
+    /**
+     * Find the enterprise class names of the API jars.
+     *
+     * @param locations
+     *  The API jars, or directories which are scanned (recursively) for jars.
+     * @return
+     *  The class names, in internal form.
+     * @throws IOException
+     *  When reading a jar fails.
+     */
+    public static Set<String> findClassNames(List<Path> locations) throws IOException {
+        Set<String> classNames = new TreeSet<>();
+        for(Path location : locations) {
+            if(Files.isDirectory(location)) {
+                List<Path> jars = new ArrayList<>();
+                try (Stream<Path> paths = Files.walk(location)) {
+                    paths.filter(path -> path.toString().endsWith(JAR_EXTENSION)).sorted().forEach(jars::add);
+                }
+                for(Path jar : jars) {
+                    classNames.addAll(findClassNamesOfJar(jar));
+                }
+            } else {
+                classNames.addAll(findClassNamesOfJar(location));
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Auxiliary method to find the enterprise class names of a single jar.
+     */
+    private static Set<String> findClassNamesOfJar(Path jar) throws IOException {
+        Set<String> classNames = new TreeSet<>();
+        try (FileSystem fileSystem = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+            final Path root = fileSystem.getPath("/");
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.forEach(path -> {
+                    String className = toClassName(root.relativize(path).toString());
+                    if(className != null && isEnterprisePackage(className)) {
+                        classNames.add(className);
+                    }
+                });
+            }
+        }
+        LOGGER.debug("Found " + classNames.size() + " enterprise classes in: " + jar);
+        return classNames;
+    }
+
+    /**
+     * Auxiliary method to convert the location of a jar entry into a class name, where classes of a multi release
+     * jar (in META-INF/versions/N) are mapped to their base name.
+     *
+     * @param location
+     *  The location of the entry, relative to the root of the jar.
+     * @return
+     *  The class name, or null when the entry is not a class.
+     */
+    static String toClassName(String location) {
+        if(!location.endsWith(CLASS_EXTENSION)) {
+            return null;
+        }
+        String className = location.substring(0, location.length() - CLASS_EXTENSION.length());
+        if(className.startsWith(VERSIONED_CLASS_ROOT)) {
+            int index = className.indexOf('/', VERSIONED_CLASS_ROOT.length());
+            className = index > 0 ? className.substring(index + 1) : className;
+        }
+        return className;
+    }
+
+    private static boolean isEnterprisePackage(String className) {
+        for(String prefix : ENTERPRISE_PACKAGE_PREFIXES) {
+            if(className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A class index which is built offline, and loaded (once) when it is first needed, by mapping it in memory. It is
+ * safe to be shared by threads. The index is either a file, or a resource on the class path (at a default
+ * location). A failure to load the index is remembered as well, so it is neither retried nor logged for every
+ * class, and the index is then absent.
+ *
+ * The index is checked once loaded (see accept), so an index of the wrong kind can be ignored.
+ */
+public abstract class LazyClassIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyClassIndex.class);
+    private final Path pathToIndex;
+    private final String defaultLocation;
+    private final String description;
+    private volatile ClassIndex classIndex;
+    private volatile boolean loaded;
+
+    /**
+     * Create a lazily loaded index.
+     *
+     * @param pathToIndex
+     *  The path to the index, or null to use the class path.
+     * @param defaultLocation
+     *  The location of the index on the class path.
+     * @param description
+     *  The description of the index, as logged (i.e. enterprise class index).
+     */
+    protected LazyClassIndex(Path pathToIndex, String defaultLocation, String description) {
+        this.pathToIndex = pathToIndex;
+        this.defaultLocation = defaultLocation;
+        this.description = description;
+    }
+
+    /**
+     * Get the index, which is loaded on first use.
+     *
+     * @return
+     *  The index, or null when there is no index.
+     */
+    public ClassIndex getIndex() {
+        if(!this.loaded) {
+            this.loadIndex();
+        }
+        return this.classIndex;
+    }
+
+    /**
+     * Find out whether a loaded index can be used, which is the case unless overridden.
+     *
+     * @param classIndex
+     *  The loaded index.
+     * @return
+     *  True when the index can be used.
+     */
+    protected boolean accept(ClassIndex classIndex) {
+        return true;
+    }
+
+    private synchronized void loadIndex() {
+        if(this.loaded) {
+            return;
+        }
+        try {
+            ClassIndex classIndex = null;
+            if(this.pathToIndex != null) {
+                if(Files.exists(this.pathToIndex)) {
+                    classIndex = ClassIndex.load(this.pathToIndex);
+                } else {
+                    LOGGER.warn("No " + this.description + " found at: " + this.pathToIndex);
+                }
+            } else {
+                classIndex = ClassIndex.loadResource(this.defaultLocation);
+            }
+            if(classIndex != null && !this.accept(classIndex)) {
+                classIndex = null;
+            }
+            if(classIndex != null) {
+                LOGGER.debug("Loaded " + this.description + " with total classes: " + classIndex.size());
+            }
+            this.classIndex = classIndex;
+        } catch (IOException e) {
+            LOGGER.error("Unable to load the " + this.description + ": " + e.getMessage(), e);
+        }
+        this.loaded = true;
+    }
+}
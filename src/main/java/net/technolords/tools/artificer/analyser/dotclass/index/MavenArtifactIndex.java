@@ -0,0 +1,73 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The index of class names to Maven coordinates, which is built offline from a local Maven repository (see
+ * MavenArtifactIndexBuilder). The index is loaded when it is first needed (see LazyClassIndex), and is either a
+ * file, or a resource on the class path. When there is no index, the external classes are not resolved to artifacts.
+ */
+public class MavenArtifactIndex extends LazyClassIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MavenArtifactIndex.class);
+    public static final String DEFAULT_INDEX_LOCATION = "analyser/dotclass/index/maven-artifacts.idx";
+
+    /**
+     * Create an artifact index which is read from the class path (at the default location), when present.
+     */
+    public MavenArtifactIndex() {
+        this(null);
+    }
+
+    /**
+     * Create an artifact index which is read from a file.
+     *
+     * @param pathToIndex
+     *  The path to the index, or null to use the class path.
+     */
+    public MavenArtifactIndex(Path pathToIndex) {
+        super(pathToIndex, DEFAULT_INDEX_LOCATION, "maven artifact index");
+    }
+
+    /**
+     * Find the Maven coordinates of the artifact containing a class.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. org/slf4j/Logger).
+     * @return
+     *  The Maven coordinates (i.e. org.slf4j:slf4j-api:1.7.6), or null when the class is unknown.
+     */
+    public String findArtifact(String className) {
+        ClassIndex classIndex = this.getIndex();
+        return classIndex == null ? null : classIndex.findValue(className);
+    }
+
+    /**
+     * Find out whether an index is present.
+     *
+     * @return
+     *  True when the index is present.
+     */
+    public boolean isPresent() {
+        return this.getIndex() != null;
+    }
+
+    /**
+     * Find out whether a loaded index can be used, which is the case when it has the artifacts of the classes.
+     *
+     * @param classIndex
+     *  The loaded index.
+     * @return
+     *  True when the index has artifacts.
+     */
+    @Override
+    protected boolean accept(ClassIndex classIndex) {
+        if((classIndex.getFlags() & ClassIndex.FLAG_VALUES) == 0) {
+            LOGGER.error("The maven artifact index has no artifacts, ignoring it");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,200 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builder of the index of class names to Maven coordinates (groupId:artifactId:version), which is used to resolve
+ * the 'External' referenced classes to the artifacts providing them. The index is built (offline) from a local Maven
+ * repository (i.e. ~/.m2/repository), where the coordinates are derived from the layout of the repository:
+ *
+ * [group path]/[artifactId]/[version]/[artifactId]-[version].jar
+ *
+ * Jars with a classifier (i.e. sources, javadoc or tests) are skipped. A class can be part of several artifacts,
+ * in which case the choice is deterministic:
+ *
+ * - within the same groupId:artifactId, the highest version wins
+ * - across artifacts, the first groupId:artifactId (in alphabetical order) wins
+ *
+ * The index is picked up from the class path (see MavenArtifactIndex), or can be passed to the AnalysisEngine.
+ * To build an index, use for example:
+ *
+ * java -cp target/classes:... net.technolords.tools.artificer.analyser.dotclass.index.MavenArtifactIndexBuilder \
+ *      maven-artifacts.idx ~/.m2/repository
+ */
+public class MavenArtifactIndexBuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MavenArtifactIndexBuilder.class);
+    private static final String JAR_EXTENSION = ".jar";
+    private static final Pattern VERSION_PART = Pattern.compile("\\d+|[^\\d.\\-_]+");
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.err.println("Usage: MavenArtifactIndexBuilder <output file> <repository directory>");
+            System.exit(1);
+        }
+        Map<String, String> classArtifacts = findClassArtifacts(Paths.get(args[1]));
+        ClassIndexWriter.write(classArtifacts, Paths.get(args[0]), true);
+        LOGGER.info("Written index with " + classArtifacts.size() + " classes to: " + args[0]);
+    }
+
+    /**
+     * Find the Maven coordinates of the classes of all artifacts of a repository.
+     *
+     * @param repository
+     *  The root directory of the repository.
+     * @return
+     *  The Maven coordinates (groupId:artifactId:version) by class name, where the class name is in internal form.
+     * @throws IOException
+     *  When reading the repository fails.
+     */
+    public static Map<String, String> findClassArtifacts(Path repository) throws IOException {
+        // Find the highest version per groupId:artifactId, sorted by groupId:artifactId
+        Map<String, String> versions = new TreeMap<>();
+        Map<String, Path> jars = new TreeMap<>();
+        List<Path> candidates = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(repository)) {
+            paths.filter(path -> path.toString().endsWith(JAR_EXTENSION)).sorted().forEach(candidates::add);
+        }
+        for(Path candidate : candidates) {
+            String[] coordinates = toCoordinates(repository.relativize(candidate));
+            if(coordinates == null) {
+                continue;
+            }
+            String groupAndArtifact = coordinates[0] + ":" + coordinates[1];
+            String version = versions.get(groupAndArtifact);
+            if(version == null || compareVersions(coordinates[2], version) > 0) {
+                versions.put(groupAndArtifact, coordinates[2]);
+                jars.put(groupAndArtifact, candidate);
+            }
+        }
+
+        // Register the classes, where the first artifact wins
+        Map<String, String> classArtifacts = new TreeMap<>();
+        for(Map.Entry<String, Path> entry : jars.entrySet()) {
+            String artifact = entry.getKey() + ":" + versions.get(entry.getKey());
+            for(String className : findClassNamesOfJar(entry.getValue())) {
+                classArtifacts.putIfAbsent(className, artifact);
+            }
+        }
+        LOGGER.debug("Found " + classArtifacts.size() + " classes in " + jars.size() + " artifacts");
+        return classArtifacts;
+    }
+
+    /**
+     * Auxiliary method to derive the Maven coordinates from the location of a jar in the repository.
+     *
+     * @param location
+     *  The location of the jar, relative to the root of the repository.
+     * @return
+     *  The groupId, artifactId and version, or null when the location does not match the repository layout (or
+     *  when the jar has a classifier).
+     */
+    protected static String[] toCoordinates(Path location) {
+        int count = location.getNameCount();
+        if(count < 4) {
+            return null;
+        }
+        String artifactId = location.getName(count - 3).toString();
+        String version = location.getName(count - 2).toString();
+        if(!location.getName(count - 1).toString().equals(artifactId + "-" + version + JAR_EXTENSION)) {
+            return null;
+        }
+        StringBuilder groupId = new StringBuilder();
+        for(int i = 0; i < count - 3; i++) {
+            if(i > 0) {
+                groupId.append('.');
+            }
+            groupId.append(location.getName(i).toString());
+        }
+        return new String[] { groupId.toString(), artifactId, version };
+    }
+
+    /**
+     * Auxiliary method to compare versions, which are split in numeric and textual parts (i.e. 1.10-RC1 consists
+     * of 1, 10, RC and 1). Numeric parts are compared by value, and a textual part (a qualifier) is considered
+     * older than no part at all, so 1.0 is newer than 1.0-SNAPSHOT.
+     *
+     * @param first
+     *  The first version.
+     * @param second
+     *  The second version.
+     * @return
+     *  A negative number, zero or a positive number when the first version is older, equal or newer.
+     */
+    protected static int compareVersions(String first, String second) {
+        List<String> firstParts = splitVersion(first);
+        List<String> secondParts = splitVersion(second);
+        for(int i = 0; i < Math.max(firstParts.size(), secondParts.size()); i++) {
+            String firstPart = i < firstParts.size() ? firstParts.get(i) : null;
+            String secondPart = i < secondParts.size() ? secondParts.get(i) : null;
+            int result = comparePart(firstPart, secondPart);
+            if(result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static List<String> splitVersion(String version) {
+        List<String> parts = new ArrayList<>();
+        Matcher matcher = VERSION_PART.matcher(version);
+        while(matcher.find()) {
+            parts.add(matcher.group());
+        }
+        return parts;
+    }
+
+    private static int comparePart(String first, String second) {
+        boolean firstNumeric = first != null && first.chars().allMatch(Character::isDigit);
+        boolean secondNumeric = second != null && second.chars().allMatch(Character::isDigit);
+        if(first == null) {
+            return secondNumeric ? -1 : 1;
+        }
+        if(second == null) {
+            return firstNumeric ? 1 : -1;
+        }
+        if(firstNumeric && secondNumeric) {
+            return new BigInteger(first).compareTo(new BigInteger(second));
+        }
+        if(firstNumeric != secondNumeric) {
+            return firstNumeric ? 1 : -1;
+        }
+        return first.compareToIgnoreCase(second);
+    }
+
+    /**
+     * Auxiliary method to find the class names of a single jar.
+     */
+    private static List<String> findClassNamesOfJar(Path jar) throws IOException {
+        List<String> classNames = new ArrayList<>();
+        try (FileSystem fileSystem = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+            final Path root = fileSystem.getPath("/");
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.forEach(path -> {
+                    String className = EnterpriseClassIndexBuilder.toClassName(root.relativize(path).toString());
+                    if(className != null) {
+                        classNames.add(className);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Skipping unreadable jar: " + jar + " (" + e.getMessage() + ")");
+        }
+        return classNames;
+    }
+}
@@ -0,0 +1,107 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builder of the class index of a Java SE release, which is used to classify referenced classes as 'Standard'.
+ * The index is built from a java installation, either from the runtime image (jrt:/, java 9 and later) or from
+ * the rt.jar (java 8 and earlier). Only the classes of the public API packages (java, javax and the endorsed
+ * org packages) are indexed, and for the runtime image only the modules of Java SE (java.*).
+ *
+ * The indices are prebuilt and shipped as resources (see StandardClassIndices), so no scan of the JDK is needed
+ * at runtime. To (re)build an index, use for example (note that the runtime image of a newer release requires the
+ * builder to run on java 9 or later):
+ *
+ * java -cp target/classes:... net.technolords.tools.artificer.analyser.dotclass.index.StandardClassIndexBuilder \
+ *      /path/to/jdk-17 src/main/resources/analyser/dotclass/index/java-17.idx
+ */
+public class StandardClassIndexBuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandardClassIndexBuilder.class);
+    private static final String[] API_PACKAGE_PREFIXES = { "java/", "javax/", "org/ietf/", "org/omg/", "org/w3c/", "org/xml/" };
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String JAVA_SE_MODULE_PREFIX = "java.";
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.err.println("Usage: StandardClassIndexBuilder <java home | rt.jar> <output file>");
+            System.exit(1);
+        }
+        Set<String> classNames = findClassNames(Paths.get(args[0]));
+        ClassIndexWriter.write(classNames, Paths.get(args[1]));
+        LOGGER.info("Written index with " + classNames.size() + " classes to: " + args[1]);
+    }
+
+    /**
+     * Find the class names of the Java SE API of a java installation.
+     *
+     * @param location
+     *  The java home, or the rt.jar itself.
+     * @return
+     *  The class names, in internal form.
+     * @throws IOException
+     *  When reading the installation fails.
+     */
+    public static Set<String> findClassNames(Path location) throws IOException {
+        Path runtimeJar = Files.isDirectory(location) ? location.resolve("jre/lib/rt.jar") : location;
+        if(Files.isRegularFile(runtimeJar)) {
+            try (FileSystem fileSystem = FileSystems.newFileSystem(runtimeJar, (ClassLoader) null)) {
+                return findApiClassNames(fileSystem.getPath("/"));
+            }
+        }
+        if(Files.isRegularFile(location.resolve("lib/rt.jar"))) {
+            try (FileSystem fileSystem = FileSystems.newFileSystem(location.resolve("lib/rt.jar"), (ClassLoader) null)) {
+                return findApiClassNames(fileSystem.getPath("/"));
+            }
+        }
+        // A runtime image, where the classes are grouped by module
+        Set<String> classNames = new TreeSet<>();
+        try (FileSystem fileSystem = FileSystems.newFileSystem(URI.create("jrt:/"), Collections.singletonMap("java.home", location.toString()))) {
+            try (Stream<Path> modules = Files.list(fileSystem.getPath("/modules"))) {
+                for(Path module : (Iterable<Path>) modules::iterator) {
+                    if(module.getFileName().toString().startsWith(JAVA_SE_MODULE_PREFIX)) {
+                        classNames.addAll(findApiClassNames(module));
+                    }
+                }
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Auxiliary method to find the class names of the API packages, below a root.
+     */
+    private static Set<String> findApiClassNames(Path root) throws IOException {
+        Set<String> classNames = new TreeSet<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.forEach(path -> {
+                String className = root.relativize(path).toString();
+                if(className.endsWith(CLASS_EXTENSION) && isApiPackage(className)) {
+                    classNames.add(className.substring(0, className.length() - CLASS_EXTENSION.length()));
+                }
+            });
+        }
+        return classNames;
+    }
+
+    private static boolean isApiPackage(String className) {
+        for(String prefix : API_PACKAGE_PREFIXES) {
+            if(className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
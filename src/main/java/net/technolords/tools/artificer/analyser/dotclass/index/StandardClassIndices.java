@@ -0,0 +1,111 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The class indices of the Java SE releases, which are prebuilt (see StandardClassIndexBuilder) and shipped as
+ * resources. An index is loaded (once) when it is first needed, and the indices are safe to be shared by threads. A
+ * failure to load an index is remembered as well, so it is neither retried nor logged for every class.
+ *
+ * A class is checked against the index of the release it is compiled for. As only some releases are shipped, a
+ * release in between two shipped releases is checked against both (i.e. a java 9 class uses the java 8 and java 11
+ * indices), as it has the classes of the earlier release which are not yet removed, as well as some of the later
+ * release. Classes older than the oldest shipped release use the oldest index, and classes newer than the newest
+ * shipped release use the newest index.
+ */
+public class StandardClassIndices {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandardClassIndices.class);
+    private static final String INDEX_LOCATION = "analyser/dotclass/index/java-%d.idx";
+    private static final int[] RELEASES = { 8, 11, 17, 21 };
+    private static final int MAJOR_VERSION_OFFSET = 44;
+    private final AtomicReferenceArray<ClassIndex> classIndices = new AtomicReferenceArray<>(RELEASES.length);
+    private final AtomicIntegerArray loaded = new AtomicIntegerArray(RELEASES.length);
+
+    /**
+     * Find out whether a class is part of the Java SE release, as associated with the major version.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. java/lang/Object).
+     * @param majorVersion
+     *  The major version of the class referencing the class name.
+     * @return
+     *  True when the class is part of the Java SE release.
+     */
+    public boolean contains(String className, int majorVersion) {
+        int release = majorVersion - MAJOR_VERSION_OFFSET;
+        int slot = selectRelease(release);
+        ClassIndex classIndex = this.getIndexAt(slot);
+        if(classIndex != null && classIndex.contains(className)) {
+            return true;
+        }
+        if(release > RELEASES[slot] && slot + 1 < RELEASES.length) {
+            // In between two shipped releases, so the index of the next release is checked as well
+            classIndex = this.getIndexAt(slot + 1);
+            return classIndex != null && classIndex.contains(className);
+        }
+        return false;
+    }
+
+    /**
+     * Get the index of the nearest shipped release at or before the release associated with the major version.
+     *
+     * @param majorVersion
+     *  The major version of a class.
+     * @return
+     *  The index, or null when the index can not be loaded.
+     */
+    public ClassIndex getIndex(int majorVersion) {
+        return this.getIndexAt(selectRelease(majorVersion - MAJOR_VERSION_OFFSET));
+    }
+
+    /**
+     * Auxiliary method to select the nearest shipped release at or before the given release, or the oldest
+     * shipped release when the given release is older.
+     *
+     * @param release
+     *  The java release (i.e. 8, 11 or 17).
+     * @return
+     *  The position of the selected release.
+     */
+    protected static int selectRelease(int release) {
+        for(int i = RELEASES.length - 1; i > 0; i--) {
+            if(release >= RELEASES[i]) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private ClassIndex getIndexAt(int slot) {
+        ClassIndex classIndex = this.classIndices.get(slot);
+        if(classIndex == null && this.loaded.get(slot) == 0) {
+            classIndex = this.loadIndex(slot);
+        }
+        return classIndex;
+    }
+
+    private synchronized ClassIndex loadIndex(int slot) {
+        ClassIndex classIndex = this.classIndices.get(slot);
+        if(classIndex == null && this.loaded.get(slot) == 0) {
+            String location = String.format(INDEX_LOCATION, RELEASES[slot]);
+            try {
+                classIndex = ClassIndex.loadResource(location);
+            } catch (IOException e) {
+                LOGGER.error("Unable to load the class index: " + location, e);
+            }
+            if(classIndex == null) {
+                LOGGER.warn("No class index found for java " + RELEASES[slot] + ", classes are not classified as standard");
+            } else {
+                LOGGER.debug("Loaded class index: " + location + ", with total classes: " + classIndex.size());
+                this.classIndices.set(slot, classIndex);
+            }
+            this.loaded.set(slot, 1);
+        }
+        return classIndex;
+    }
+}
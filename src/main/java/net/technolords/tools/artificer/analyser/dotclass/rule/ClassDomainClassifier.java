@@ -0,0 +1,117 @@
+package net.technolords.tools.artificer.analyser.dotclass.rule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.exception.ArtificerException;
+
+/**
+ * The classifier which matches class names with the configured class domain rules, by the longest package prefix.
+ * The rules are loaded from an XML file (see ClassDomainRules), either a file or a resource on the class path.
+ * The classifier is immutable once loaded, and is safe to be shared by threads.
+ */
+public class ClassDomainClassifier {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassDomainClassifier.class);
+    public static final String DEFAULT_RULES_LOCATION = "analyser/dotclass/class-domain-rules.xml";
+    private final PrefixTrie<ClassDomainRule> prefixTrie = new PrefixTrie<>();
+
+    /**
+     * Create a classifier without rules.
+     */
+    public ClassDomainClassifier() {
+    }
+
+    /**
+     * Create a classifier using rules.
+     *
+     * @param classDomainRules
+     *  The rules.
+     * @throws ArtificerException
+     *  When a rule has no prefix, or neither a custom domain nor a class domain.
+     */
+    public ClassDomainClassifier(ClassDomainRules classDomainRules) throws ArtificerException {
+        if(classDomainRules != null) {
+            for(ClassDomainRule classDomainRule : classDomainRules.getClassDomainRules()) {
+                if(classDomainRule.getPrefix() == null || classDomainRule.getPrefix().isEmpty()) {
+                    throw new ArtificerException("A class domain rule requires a prefix");
+                }
+                if(classDomainRule.getCustomDomain() == null && classDomainRule.getClassDomain() == null) {
+                    throw new ArtificerException("The class domain rule with prefix: " + classDomainRule.getPrefix() + ", has no domain");
+                }
+                this.prefixTrie.put(classDomainRule.getPrefix(), classDomainRule);
+            }
+        }
+        LOGGER.debug("Total class domain rules: " + this.prefixTrie.size());
+    }
+
+    /**
+     * Load a classifier from the rules of an XML file.
+     *
+     * @param path
+     *  The path to the XML file.
+     * @return
+     *  The classifier.
+     * @throws ArtificerException
+     *  When the XML file can not be read, or contains invalid rules.
+     */
+    public static ClassDomainClassifier load(Path path) throws ArtificerException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return new ClassDomainClassifier(unmarshall(inputStream));
+        } catch (IOException e) {
+            throw new ArtificerException("Unable to read the class domain rules: " + path, e);
+        }
+    }
+
+    /**
+     * Load a classifier from the rules of an XML file on the class path.
+     *
+     * @param resourceName
+     *  The name of the resource.
+     * @return
+     *  The classifier, which has no rules when the resource does not exist.
+     * @throws ArtificerException
+     *  When the XML file can not be read, or contains invalid rules.
+     */
+    public static ClassDomainClassifier loadResource(String resourceName) throws ArtificerException {
+        try (InputStream inputStream = ClassDomainClassifier.class.getClassLoader().getResourceAsStream(resourceName)) {
+            return new ClassDomainClassifier(inputStream == null ? null : unmarshall(inputStream));
+        } catch (IOException e) {
+            throw new ArtificerException("Unable to read the class domain rules: " + resourceName, e);
+        }
+    }
+
+    private static ClassDomainRules unmarshall(InputStream inputStream) throws ArtificerException {
+        try {
+            JAXBContext jaxbContext = JAXBContext.newInstance(ClassDomainRules.class);
+            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+            return (ClassDomainRules) unmarshaller.unmarshal(inputStream);
+        } catch (JAXBException e) {
+            throw new ArtificerException(e);
+        }
+    }
+
+    /**
+     * Find the rule which applies to a class name.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. org/springframework/context/ApplicationContext).
+     * @return
+     *  The rule with the longest matching prefix, or null when no rule applies.
+     */
+    public ClassDomainRule findRule(String className) {
+        return this.prefixTrie.findLongestPrefix(className);
+    }
+
+    public boolean isEmpty() {
+        return this.prefixTrie.size() == 0;
+    }
+}
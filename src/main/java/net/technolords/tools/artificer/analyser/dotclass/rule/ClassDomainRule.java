@@ -0,0 +1,48 @@
+package net.technolords.tools.artificer.analyser.dotclass.rule;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+
+/**
+ * A rule which assigns a class domain to the classes with a package prefix, and has the following attributes:
+ *
+ * - prefix         : The prefix of the class names, in internal form (i.e. 'org/springframework/')
+ * - custom-domain  : The (organisation specific) domain, which is added to the referenced class
+ * - class-domain   : Optional, the class domain (Standard, Enterprise, Self or External). When absent, the class
+ *                    domain is determined as usual (by the self classes and the standard and enterprise indices)
+ *
+ * When several rules match a class name, the rule with the longest prefix applies.
+ */
+public class ClassDomainRule {
+    private String prefix;
+    private String customDomain;
+    private ReferencedClass.ClassDomain classDomain;
+
+    @XmlAttribute(name = "prefix", required = true)
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @XmlAttribute(name = "custom-domain")
+    public String getCustomDomain() {
+        return customDomain;
+    }
+
+    public void setCustomDomain(String customDomain) {
+        this.customDomain = customDomain;
+    }
+
+    @XmlAttribute(name = "class-domain")
+    public ReferencedClass.ClassDomain getClassDomain() {
+        return classDomain;
+    }
+
+    public void setClassDomain(ReferencedClass.ClassDomain classDomain) {
+        this.classDomain = classDomain;
+    }
+}
@@ -0,0 +1,33 @@
+package net.technolords.tools.artificer.analyser.dotclass.rule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * The rules which assign a class domain by package prefix, as configured in an XML file:
+ *
+ * <class-domain-rules>
+ *     <rule prefix="com/acme/" custom-domain="Self-org" class-domain="Self"/>
+ *     <rule prefix="org/springframework/" custom-domain="Framework"/>
+ * </class-domain-rules>
+ */
+@XmlRootElement(name = "class-domain-rules")
+public class ClassDomainRules {
+    private List<ClassDomainRule> classDomainRules;
+
+    public ClassDomainRules() {
+        this.classDomainRules = new ArrayList<>();
+    }
+
+    @XmlElement(name = "rule")
+    public List<ClassDomainRule> getClassDomainRules() {
+        return classDomainRules;
+    }
+
+    public void setClassDomainRules(List<ClassDomainRule> classDomainRules) {
+        this.classDomainRules = classDomainRules;
+    }
+}
@@ -0,0 +1,97 @@
+package net.technolords.tools.artificer.analyser.dotclass.rule;
+
+import java.util.Arrays;
+
+/**
+ * A trie of prefixes (by character), which finds the value associated with the longest prefix of a name. The cost
+ * of a lookup depends on the length of the name, and not on the number of prefixes. The children of a node are
+ * kept in sorted arrays (as there are only a few per node), which are searched by binary search.
+ *
+ * The trie is populated before it is shared, after which it is only read, so it is safe to be used by threads.
+ *
+ * @param <V>
+ *  The type of the values associated with the prefixes.
+ */
+public class PrefixTrie<V> {
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    /**
+     * Associate a value with a prefix, which replaces the value of the same prefix (if any).
+     *
+     * @param prefix
+     *  The prefix.
+     * @param value
+     *  The value associated with the prefix.
+     */
+    public void put(String prefix, V value) {
+        Node<V> node = this.root;
+        for(int i = 0; i < prefix.length(); i++) {
+            node = node.getOrCreateChild(prefix.charAt(i));
+        }
+        if(node.value == null) {
+            this.size++;
+        }
+        node.value = value;
+    }
+
+    /**
+     * Find the value associated with the longest prefix of a name.
+     *
+     * @param name
+     *  The name to match.
+     * @return
+     *  The value of the longest matching prefix, or null when no prefix matches.
+     */
+    public V findLongestPrefix(CharSequence name) {
+        Node<V> node = this.root;
+        V value = node.value;
+        for(int i = 0; i < name.length() && node != null; i++) {
+            node = node.getChild(name.charAt(i));
+            if(node != null && node.value != null) {
+                value = node.value;
+            }
+        }
+        return value;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private static class Node<V> {
+        private char[] keys = new char[0];
+        private Node<V>[] children = newChildren(0);
+        private V value;
+
+        private Node<V> getChild(char key) {
+            int index = Arrays.binarySearch(this.keys, key);
+            return index >= 0 ? this.children[index] : null;
+        }
+
+        private Node<V> getOrCreateChild(char key) {
+            int index = Arrays.binarySearch(this.keys, key);
+            if(index >= 0) {
+                return this.children[index];
+            }
+            int insertion = -(index + 1);
+            char[] keys = new char[this.keys.length + 1];
+            Node<V>[] children = newChildren(this.children.length + 1);
+            System.arraycopy(this.keys, 0, keys, 0, insertion);
+            System.arraycopy(this.children, 0, children, 0, insertion);
+            System.arraycopy(this.keys, insertion, keys, insertion + 1, this.keys.length - insertion);
+            System.arraycopy(this.children, insertion, children, insertion + 1, this.children.length - insertion);
+            Node<V> child = new Node<>();
+            keys[insertion] = key;
+            children[insertion] = child;
+            this.keys = keys;
+            this.children = children;
+            return child;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newChildren(int length) {
+            return (Node<V>[]) new Node<?>[length];
+        }
+    }
+}
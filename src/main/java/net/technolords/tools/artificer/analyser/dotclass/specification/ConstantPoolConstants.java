@@ -8,7 +8,9 @@ import java.util.List;
  * Created by Technolords on 2015-Dec-02.
  */
 public class ConstantPoolConstants {
+    private static final int MAX_TAG = 255;
     private List<ConstantPoolConstant> constantPoolConstants;
+    private ConstantPoolConstant[] constantPoolConstantsByTag;
 
     public ConstantPoolConstants() {
         this.constantPoolConstants = new ArrayList<>();
@@ -21,5 +23,40 @@ public class ConstantPoolConstants {
 
     public void setConstantPoolConstants(List<ConstantPoolConstant> constantPoolConstants) {
         this.constantPoolConstants = constantPoolConstants;
+        this.constantPoolConstantsByTag = null;
+    }
+
+    /**
+     * Auxiliary method to find the constant pool constant by tag. The tag is an unsigned byte, so the constants
+     * are indexed by tag in an array (once), which makes the lookup a single array access.
+     *
+     * @param tag
+     *  The tag associated with the constant pool constant.
+     * @return
+     *  The constant pool constant, or null when the tag is not supported.
+     */
+    public ConstantPoolConstant findByTag(int tag) {
+        if(this.constantPoolConstantsByTag == null) {
+            this.initializeTagLookup();
+        }
+        if(tag < 0 || tag > MAX_TAG) {
+            return null;
+        }
+        return this.constantPoolConstantsByTag[tag];
+    }
+
+    /**
+     * Auxiliary method to (re)build the lookup by tag. This is invoked when the specifications are loaded, so
+     * the lookup is complete before parsing starts.
+     */
+    public void initializeTagLookup() {
+        ConstantPoolConstant[] lookup = new ConstantPoolConstant[MAX_TAG + 1];
+        for(ConstantPoolConstant constantPoolConstant : this.constantPoolConstants) {
+            int tag = Integer.parseInt(constantPoolConstant.getTag());
+            if(tag >= 0 && tag <= MAX_TAG) {
+                lookup[tag] = constantPoolConstant;
+            }
+        }
+        this.constantPoolConstantsByTag = lookup;
     }
 }
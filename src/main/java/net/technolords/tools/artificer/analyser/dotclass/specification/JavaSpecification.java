@@ -2,13 +2,23 @@ package net.technolords.tools.artificer.analyser.dotclass.specification;
 
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlTransient;
 
 /**
  * Created by Technolords on 2015-Dec-02.
+ *
+ * A specification can extend another specification (by version), in which case the missing parts are inherited.
+ * For example:
+ *
+ * <java-specification magic-number="32" version="1.6" extends="1.7"/>
+ *
+ * The constant pool constants are merged by tag (where the specification itself takes precedence) and the
+ * mnemonics are inherited when not specified.
  */
 public class JavaSpecification {
     private String magicNumber;
     private String version;
+    private String extendsVersion;
     private ConstantPoolConstants constantPoolConstants;
     private Mnemonics mnemonics;
 
@@ -30,6 +40,30 @@ public class JavaSpecification {
         this.version = version;
     }
 
+    @XmlAttribute(name = "extends")
+    public String getExtendsVersion() {
+        return extendsVersion;
+    }
+
+    public void setExtendsVersion(String extendsVersion) {
+        this.extendsVersion = extendsVersion;
+    }
+
+    /**
+     * Auxiliary method to get the major version, which is the (hexadecimal) magic number represented as number.
+     *
+     * @return
+     *  The major version, or -1 when the magic number is absent or malformed.
+     */
+    @XmlTransient
+    public int getMajorVersion() {
+        try {
+            return this.magicNumber == null ? -1 : Integer.parseInt(this.magicNumber, 16);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     @XmlElement(name = "constant-pool-constants")
     public ConstantPoolConstants getConstantPoolConstants() {
         return constantPoolConstants;
@@ -8,7 +8,9 @@ import java.util.List;
  * Created by Technolords on 2016-Apr-12.
  */
 public class Mnemonics {
+    private static final int MAX_OPCODE = 255;
     private List<Mnemonic> mnemonics;
+    private Mnemonic[] mnemonicsByOpcode;
 
     public Mnemonics() {
         this.mnemonics = new ArrayList<>();
@@ -21,5 +23,40 @@ public class Mnemonics {
 
     public void setMnemonics(List<Mnemonic> mnemonics) {
         this.mnemonics = mnemonics;
+        this.mnemonicsByOpcode = null;
+    }
+
+    /**
+     * Auxiliary method to find the mnemonic by opcode. An opcode is an unsigned byte, so the mnemonics are
+     * indexed by opcode in an array (once), which makes the lookup a single array access.
+     *
+     * @param opcode
+     *  The opcode associated with the mnemonic.
+     * @return
+     *  The mnemonic, or null when not found.
+     */
+    public Mnemonic findByOpcode(int opcode) {
+        if(this.mnemonicsByOpcode == null) {
+            this.initializeOpcodeLookup();
+        }
+        if(opcode < 0 || opcode > MAX_OPCODE) {
+            return null;
+        }
+        return this.mnemonicsByOpcode[opcode];
+    }
+
+    /**
+     * Auxiliary method to (re)build the lookup by opcode. This is invoked when the specifications are loaded, so
+     * the lookup is complete before parsing starts.
+     */
+    public void initializeOpcodeLookup() {
+        Mnemonic[] lookup = new Mnemonic[MAX_OPCODE + 1];
+        for(Mnemonic mnemonic : this.mnemonics) {
+            int opcode = Integer.parseInt(mnemonic.getOpcode());
+            if(opcode >= 0 && opcode <= MAX_OPCODE) {
+                lookup[opcode] = mnemonic;
+            }
+        }
+        this.mnemonicsByOpcode = lookup;
     }
 }
@@ -0,0 +1,85 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import net.technolords.tools.artificer.domain.dotclass.Constant;
+import net.technolords.tools.artificer.domain.dotclass.ConstantPool;
+
+/**
+ * The fingerprint of a class, which is a 64 bit hash of its content that survives relocation (shading). A shaded
+ * class differs from the original only in the package names of the class names in its constant pool, so the
+ * fingerprint is calculated over the Utf8 constants of the constant pool (the names, descriptors, signatures and
+ * string literals) where every package path is stripped, i.e.:
+ *
+ * - com/google/common/collect/ImmutableList                    becomes ImmutableList
+ * - (Lshaded/com/google/common/base/Function;)V                becomes (LFunction;)V
+ *
+ * The constants are de-duplicated and sorted before hashing, as relocation tools may rebuild the constant pool in a
+ * different order.
+ */
+public class ClassFingerprint {
+    private static final Pattern PACKAGE_PATH = Pattern.compile("(?:[A-Za-z_$][A-Za-z0-9_$]*/)+");
+    private static final String UTF8 = "Utf8";
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * Calculate the fingerprint of a class.
+     *
+     * @param constantPool
+     *  The constant pool of the class.
+     * @return
+     *  The fingerprint.
+     */
+    public static long of(ConstantPool constantPool) {
+        TreeSet<String> normalizedConstants = new TreeSet<>();
+        for (Constant constant : constantPool.getConstants()) {
+            if (UTF8.equals(constant.getType()) && !constant.getConstantInfoList().isEmpty()) {
+                String value = constant.getConstantInfoList().get(0).getStringValue();
+                if (value != null) {
+                    normalizedConstants.add(normalize(value));
+                }
+            }
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (String normalizedConstant : normalizedConstants) {
+            for (int i = 0; i < normalizedConstant.length(); i++) {
+                hash ^= normalizedConstant.charAt(i);
+                hash *= FNV_PRIME;
+            }
+            // Separator, so the boundaries of the constants count
+            hash ^= 0xFFFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Auxiliary method to strip the package paths of a constant.
+     *
+     * @param value
+     *  The value of the Utf8 constant.
+     * @return
+     *  The value without package paths.
+     */
+    protected static String normalize(String value) {
+        if (value.indexOf('/') == -1) {
+            return value;
+        }
+        return PACKAGE_PATH.matcher(value).replaceAll("");
+    }
+
+    /**
+     * Find the package of a class.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. com/google/common/collect/ImmutableList).
+     * @return
+     *  The package, in internal form (i.e. com/google/common/collect), or an empty string for the default package.
+     */
+    public static String packageOf(String className) {
+        int index = className.lastIndexOf('/');
+        return index == -1 ? "" : className.substring(0, index);
+    }
+}
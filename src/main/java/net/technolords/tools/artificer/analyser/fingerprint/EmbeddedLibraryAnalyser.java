@@ -0,0 +1,90 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.EmbeddedLibrary;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * The embedded library analyser detects the packages of an artifact which are (copies of) packages of known
+ * libraries, also when they are shaded. Each parsed class is fingerprinted (see ClassFingerprint) and registered by
+ * package. Once all classes are analysed, the MinHash signature of each package is looked up in the fingerprint
+ * database, which only compares the packages sharing a band (LSH), so the cost does not grow with the size of the
+ * database. An instance is associated with a single artifact, and is safe to be used by concurrent threads.
+ */
+public class EmbeddedLibraryAnalyser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedLibraryAnalyser.class);
+    public static final double MIN_SIMILARITY = 0.6;
+    private final FingerprintDatabase fingerprintDatabase;
+    private final ConcurrentMap<String, Set<Long>> fingerprintsByPackage = new ConcurrentHashMap<>();
+
+    public EmbeddedLibraryAnalyser(FingerprintDatabase fingerprintDatabase) {
+        this.fingerprintDatabase = fingerprintDatabase;
+    }
+
+    /**
+     * Register the fingerprint of a parsed resource.
+     *
+     * @param resource
+     *  The (parsed) resource.
+     */
+    public void registerClass(Resource resource) {
+        if (resource == null || !resource.isValidClass() || resource.getConstantPool() == null || resource.getClassName() == null) {
+            return;
+        }
+        this.registerFingerprint(resource, ClassFingerprint.of(resource.getConstantPool()));
+    }
+
+    /**
+     * Register the fingerprint of a resource which is known already, i.e. from a cache of parse results (see
+     * ClassResultCache), as the resource has no constant pool then.
+     *
+     * @param resource
+     *  The resource, with its class name.
+     * @param fingerprint
+     *  The fingerprint of the class.
+     */
+    public void registerFingerprint(Resource resource, long fingerprint) {
+        if (resource == null || !resource.isValidClass() || resource.getClassName() == null) {
+            return;
+        }
+        this.fingerprintsByPackage.computeIfAbsent(ClassFingerprint.packageOf(resource.getClassName()), key -> ConcurrentHashMap.newKeySet())
+            .add(fingerprint);
+    }
+
+    /**
+     * Add the embedded libraries to the analysis, which is done once all resources are analysed. The packages are
+     * sorted by name.
+     *
+     * @param analysis
+     *  The analysis associated with the embedded libraries.
+     */
+    public void populateEmbeddedLibraries(Analysis analysis) {
+        List<EmbeddedLibrary> embeddedLibraries = new ArrayList<>();
+        for (PackageFingerprint packageFingerprint : PackageFingerprint.of(null, new TreeMap<>(this.fingerprintsByPackage))) {
+            LibraryMatch libraryMatch = this.fingerprintDatabase.findBestMatch(packageFingerprint.getSignature(), MIN_SIMILARITY);
+            if (libraryMatch != null) {
+                EmbeddedLibrary embeddedLibrary = new EmbeddedLibrary();
+                embeddedLibrary.setPackageName(packageFingerprint.getPackageName());
+                embeddedLibrary.setTotalClasses(packageFingerprint.getTotalClasses());
+                embeddedLibrary.setLibrary(libraryMatch.getLibrary());
+                embeddedLibrary.setLibraryPackageName(libraryMatch.getPackageName());
+                embeddedLibrary.setSimilarity(Math.round(libraryMatch.getSimilarity() * 100) / 100.0);
+                embeddedLibrary.setRelocated(!packageFingerprint.getPackageName().equals(libraryMatch.getPackageName()));
+                embeddedLibraries.add(embeddedLibrary);
+            }
+        }
+        LOGGER.debug("Found " + embeddedLibraries.size() + " embedded packages of known libraries, out of " + this.fingerprintsByPackage.size() + " packages");
+        analysis.setEmbeddedLibraries(embeddedLibraries);
+    }
+}
@@ -0,0 +1,173 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A database of the package fingerprints of known libraries, where each package is represented by the MinHash
+ * signature of the fingerprints of its classes (see ClassFingerprint). The database is built offline (see
+ * FingerprintDatabaseBuilder), and has the following layout (big endian):
+ *
+ * FingerprintDatabase {
+ *     u4               magic (0x41465044, 'AFPD')
+ *     u2               version
+ *     u2               signature_size
+ *     u4               entry_count
+ *     entry_info       entries[entry_count]
+ * }
+ *
+ * entry_info {
+ *     u2 + u1[]        library             (modified UTF-8, as written by DataOutputStream.writeUTF)
+ *     u2 + u1[]        package
+ *     u4               total_classes
+ *     u8               signature[signature_size]
+ * }
+ *
+ * When loaded, the band hashes of the signatures are put in buckets (LSH, see MinHash), so a lookup only compares
+ * the signatures of the packages sharing a band, instead of all packages. The database is immutable once loaded,
+ * and safe to be shared by threads.
+ */
+public class FingerprintDatabase {
+    public static final int MAGIC = 0x41465044;
+    public static final int VERSION = 1;
+    public static final int MIN_CLASSES_PER_PACKAGE = 3;
+    private static final int[] NO_ENTRIES = new int[0];
+    private final String[] libraries;
+    private final String[] packageNames;
+    private final int[] totalClasses;
+    private final long[][] signatures;
+    private final Map<Long, int[]> buckets = new HashMap<>();
+
+    /**
+     * Create a database from the entries, and put the entries in buckets.
+     */
+    private FingerprintDatabase(String[] libraries, String[] packageNames, int[] totalClasses, long[][] signatures) {
+        this.libraries = libraries;
+        this.packageNames = packageNames;
+        this.totalClasses = totalClasses;
+        this.signatures = signatures;
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        for (int entry = 0; entry < signatures.length; entry++) {
+            for (int band = 0; band < MinHash.BANDS; band++) {
+                buckets.computeIfAbsent(MinHash.bandHash(signatures[entry], band), key -> new ArrayList<>()).add(entry);
+            }
+        }
+        for (Map.Entry<Long, List<Integer>> bucket : buckets.entrySet()) {
+            this.buckets.put(bucket.getKey(), bucket.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    /**
+     * Load a database from a stream.
+     *
+     * @param inputStream
+     *  The stream containing the database.
+     * @return
+     *  The database.
+     * @throws IOException
+     *  When the stream can not be read, or is not a valid database.
+     */
+    public static FingerprintDatabase load(InputStream inputStream) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(inputStream));
+        if (dataInputStream.readInt() != MAGIC) {
+            throw new IOException("Not a fingerprint database");
+        }
+        int version = dataInputStream.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported fingerprint database version: " + version);
+        }
+        int signatureSize = dataInputStream.readUnsignedShort();
+        if (signatureSize != MinHash.SIGNATURE_SIZE) {
+            throw new IOException("Unsupported signature size: " + signatureSize);
+        }
+        int entryCount = dataInputStream.readInt();
+        String[] libraries = new String[entryCount];
+        String[] packageNames = new String[entryCount];
+        int[] totalClasses = new int[entryCount];
+        long[][] signatures = new long[entryCount][signatureSize];
+        for (int entry = 0; entry < entryCount; entry++) {
+            libraries[entry] = dataInputStream.readUTF();
+            packageNames[entry] = dataInputStream.readUTF();
+            totalClasses[entry] = dataInputStream.readInt();
+            for (int i = 0; i < signatureSize; i++) {
+                signatures[entry][i] = dataInputStream.readLong();
+            }
+        }
+        return new FingerprintDatabase(libraries, packageNames, totalClasses, signatures);
+    }
+
+    /**
+     * Write the package fingerprints of libraries as database.
+     *
+     * @param entries
+     *  The package fingerprints.
+     * @param outputStream
+     *  The stream to write to.
+     * @throws IOException
+     *  When writing to the stream fails.
+     */
+    public static void write(List<PackageFingerprint> entries, OutputStream outputStream) throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream));
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeShort(VERSION);
+        dataOutputStream.writeShort(MinHash.SIGNATURE_SIZE);
+        dataOutputStream.writeInt(entries.size());
+        for (PackageFingerprint entry : entries) {
+            dataOutputStream.writeUTF(entry.getLibrary());
+            dataOutputStream.writeUTF(entry.getPackageName());
+            dataOutputStream.writeInt(entry.getTotalClasses());
+            for (long value : entry.getSignature()) {
+                dataOutputStream.writeLong(value);
+            }
+        }
+        dataOutputStream.flush();
+    }
+
+    /**
+     * Find the package of a known library which matches a signature best. Only the packages sharing a band with
+     * the signature are compared.
+     *
+     * @param signature
+     *  The signature of a package.
+     * @param minSimilarity
+     *  The minimal (estimated) similarity of a match.
+     * @return
+     *  The best match, or null when no package matches. When matches are equally similar, the match of the first
+     *  library (in alphabetical order) wins.
+     */
+    public LibraryMatch findBestMatch(long[] signature, double minSimilarity) {
+        int bestEntry = -1;
+        double bestSimilarity = minSimilarity;
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            for (int entry : this.buckets.getOrDefault(MinHash.bandHash(signature, band), NO_ENTRIES)) {
+                double similarity = MinHash.similarity(signature, this.signatures[entry]);
+                if (similarity > bestSimilarity || (similarity == bestSimilarity && (bestEntry == -1 || this.isBefore(entry, bestEntry)))) {
+                    bestEntry = entry;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        if (bestEntry == -1) {
+            return null;
+        }
+        return new LibraryMatch(this.libraries[bestEntry], this.packageNames[bestEntry], this.totalClasses[bestEntry], bestSimilarity);
+    }
+
+    private boolean isBefore(int entry, int other) {
+        int result = this.libraries[entry].compareTo(this.libraries[other]);
+        return result != 0 ? result < 0 : this.packageNames[entry].compareTo(this.packageNames[other]) < 0;
+    }
+
+    public int size() {
+        return signatures.length;
+    }
+}
@@ -0,0 +1,119 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.dotclass.BytecodeParser;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * Builder of the fingerprint database of known libraries (see FingerprintDatabase), which is used to detect
+ * libraries embedded in an artifact, also when they are shaded (relocated to other packages). The database is built
+ * (offline) from the jars of the libraries, i.e. guava, jackson-databind or netty-common, where the name of the jar
+ * (without extension) is the name of the library.
+ *
+ * The database is picked up from the class path (see LibraryFingerprints), or can be passed to the AnalysisEngine.
+ * To build a database, use for example (where a directory is scanned for jars):
+ *
+ * java -cp target/classes:... net.technolords.tools.artificer.analyser.fingerprint.FingerprintDatabaseBuilder \
+ *      libraries.fpd guava-31.1-jre.jar /path/to/library/jars
+ */
+public class FingerprintDatabaseBuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FingerprintDatabaseBuilder.class);
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String JAR_EXTENSION = ".jar";
+    private static final String META_INF = "META-INF/";
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: FingerprintDatabaseBuilder <output file> <jar | directory>...");
+            System.exit(1);
+        }
+        List<Path> locations = new ArrayList<>();
+        for(int i = 1; i < args.length; i++) {
+            locations.add(Paths.get(args[i]));
+        }
+        List<PackageFingerprint> packageFingerprints = findPackageFingerprints(locations);
+        try (OutputStream outputStream = Files.newOutputStream(Paths.get(args[0]))) {
+            FingerprintDatabase.write(packageFingerprints, outputStream);
+        }
+        LOGGER.info("Written database with " + packageFingerprints.size() + " packages to: " + args[0]);
+    }
+
+    /**
+     * Find the package fingerprints of the library jars.
+     *
+     * @param locations
+     *  The library jars, or directories which are scanned (recursively) for jars.
+     * @return
+     *  The package fingerprints.
+     * @throws IOException
+     *  When reading a jar fails.
+     */
+    public static List<PackageFingerprint> findPackageFingerprints(List<Path> locations) throws IOException {
+        BytecodeParser bytecodeParser = new BytecodeParser();
+        List<PackageFingerprint> packageFingerprints = new ArrayList<>();
+        for(Path location : locations) {
+            List<Path> jars = new ArrayList<>();
+            if(Files.isDirectory(location)) {
+                try (Stream<Path> paths = Files.walk(location)) {
+                    paths.filter(path -> path.toString().endsWith(JAR_EXTENSION)).sorted().forEach(jars::add);
+                }
+            } else {
+                jars.add(location);
+            }
+            for(Path jar : jars) {
+                String fileName = jar.getFileName().toString();
+                String library = fileName.endsWith(JAR_EXTENSION) ? fileName.substring(0, fileName.length() - JAR_EXTENSION.length()) : fileName;
+                packageFingerprints.addAll(PackageFingerprint.of(library, findClassFingerprints(bytecodeParser, jar)));
+            }
+        }
+        return packageFingerprints;
+    }
+
+    /**
+     * Auxiliary method to find the class fingerprints of a jar, by package.
+     */
+    private static Map<String, Set<Long>> findClassFingerprints(BytecodeParser bytecodeParser, Path jar) throws IOException {
+        Map<String, Set<Long>> fingerprintsByPackage = new TreeMap<>();
+        Meta meta = new Meta();
+        try (FileSystem fileSystem = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+            final Path root = fileSystem.getPath("/");
+            List<Path> classFiles = new ArrayList<>();
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.filter(path -> {
+                    String name = root.relativize(path).toString();
+                    return name.endsWith(CLASS_EXTENSION) && !name.startsWith(META_INF);
+                }).forEach(classFiles::add);
+            }
+            for(Path classFile : classFiles) {
+                Resource resource = new Resource();
+                resource.setName(classFile.getFileName().toString());
+                resource.setPath(classFile);
+                bytecodeParser.analyseBytecode(meta, resource);
+                if(resource.isValidClass() && resource.getConstantPool() != null && resource.getClassName() != null) {
+                    fingerprintsByPackage.computeIfAbsent(ClassFingerprint.packageOf(resource.getClassName()), key -> new HashSet<>())
+                        .add(ClassFingerprint.of(resource.getConstantPool()));
+                }
+            }
+        }
+        LOGGER.debug("Found " + fingerprintsByPackage.size() + " packages in: " + jar);
+        return fingerprintsByPackage;
+    }
+}
@@ -0,0 +1,81 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The fingerprints of known libraries, which are built offline (see FingerprintDatabaseBuilder). The database is
+ * loaded (once) when it is first needed, and is safe to be shared by threads. The database is either a file, or a
+ * resource on the class path. When there is no database, no embedded libraries are detected.
+ */
+public class LibraryFingerprints {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibraryFingerprints.class);
+    public static final String DEFAULT_DATABASE_LOCATION = "analyser/fingerprint/libraries.fpd";
+    private final Path pathToDatabase;
+    private volatile FingerprintDatabase fingerprintDatabase;
+    private volatile boolean loaded;
+
+    /**
+     * Create the library fingerprints which are read from the class path (at the default location), when present.
+     */
+    public LibraryFingerprints() {
+        this(null);
+    }
+
+    /**
+     * Create the library fingerprints which are read from a file.
+     *
+     * @param pathToDatabase
+     *  The path to the database, or null to use the class path.
+     */
+    public LibraryFingerprints(Path pathToDatabase) {
+        this.pathToDatabase = pathToDatabase;
+    }
+
+    /**
+     * Get the database, which is loaded on first use.
+     *
+     * @return
+     *  The database, or null when there is no database.
+     */
+    public FingerprintDatabase getDatabase() {
+        if(!this.loaded) {
+            this.loadDatabase();
+        }
+        return this.fingerprintDatabase;
+    }
+
+    private synchronized void loadDatabase() {
+        if(this.loaded) {
+            return;
+        }
+        try {
+            if(this.pathToDatabase != null) {
+                if(Files.exists(this.pathToDatabase)) {
+                    try (InputStream inputStream = Files.newInputStream(this.pathToDatabase)) {
+                        this.fingerprintDatabase = FingerprintDatabase.load(inputStream);
+                    }
+                } else {
+                    LOGGER.warn("No fingerprint database found at: " + this.pathToDatabase);
+                }
+            } else {
+                try (InputStream inputStream = LibraryFingerprints.class.getClassLoader().getResourceAsStream(DEFAULT_DATABASE_LOCATION)) {
+                    if(inputStream != null) {
+                        this.fingerprintDatabase = FingerprintDatabase.load(inputStream);
+                    }
+                }
+            }
+            if(this.fingerprintDatabase != null) {
+                LOGGER.debug("Loaded fingerprint database with total packages: " + this.fingerprintDatabase.size());
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unable to load the fingerprint database: " + e.getMessage(), e);
+        }
+        this.loaded = true;
+    }
+}
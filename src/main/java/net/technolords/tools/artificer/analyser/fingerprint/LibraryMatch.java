@@ -0,0 +1,34 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+/**
+ * A package of a known library which matches a package of an artifact, with the estimated similarity.
+ */
+public class LibraryMatch {
+    private final String library;
+    private final String packageName;
+    private final int totalClasses;
+    private final double similarity;
+
+    public LibraryMatch(String library, String packageName, int totalClasses, double similarity) {
+        this.library = library;
+        this.packageName = packageName;
+        this.totalClasses = totalClasses;
+        this.similarity = similarity;
+    }
+
+    public String getLibrary() {
+        return library;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public int getTotalClasses() {
+        return totalClasses;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+}
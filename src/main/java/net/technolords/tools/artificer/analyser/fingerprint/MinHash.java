@@ -0,0 +1,99 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * MinHash signatures of sets of class fingerprints, which estimate the Jaccard similarity of two sets (the share of
+ * common fingerprints) by the share of equal positions of their signatures. A signature has a fixed size, regardless
+ * of the size of the set, so packages of any size are compared at the same cost.
+ *
+ * For locality sensitive hashing (LSH), the signature is divided in bands of a few rows. Two sets with a high
+ * similarity very likely have at least one identical band, so a lookup of the band hashes finds the candidates
+ * without comparing all signatures. With 16 bands of 4 rows, a pair with a similarity of 0.8 is found with a
+ * probability over 0.99, and a pair with a similarity of 0.3 with a probability below 0.13.
+ */
+public class MinHash {
+    public static final int SIGNATURE_SIZE = 64;
+    public static final int BANDS = 16;
+    public static final int ROWS = SIGNATURE_SIZE / BANDS;
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+
+    static {
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix(seed);
+        }
+    }
+
+    /**
+     * Create the signature of a set of class fingerprints.
+     *
+     * @param fingerprints
+     *  The (distinct) class fingerprints.
+     * @return
+     *  The signature.
+     */
+    public static long[] signature(Collection<Long> fingerprints) {
+        long[] signature = new long[SIGNATURE_SIZE];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long fingerprint : fingerprints) {
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                long hash = mix(fingerprint ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimate the Jaccard similarity of the sets of two signatures.
+     *
+     * @param first
+     *  The first signature.
+     * @param second
+     *  The second signature.
+     * @return
+     *  The estimated similarity, between 0 and 1.
+     */
+    public static double similarity(long[] first, long[] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    /**
+     * Calculate the hash of a band of a signature, where the band is part of the hash, so equal rows of different
+     * bands do not collide.
+     *
+     * @param signature
+     *  The signature.
+     * @param band
+     *  The band, from 0 to BANDS - 1.
+     * @return
+     *  The band hash.
+     */
+    public static long bandHash(long[] signature, int band) {
+        long hash = mix(band + 1);
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            hash = mix(hash ^ signature[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Auxiliary method to mix the bits of a value (the finalizer of SplitMix64).
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
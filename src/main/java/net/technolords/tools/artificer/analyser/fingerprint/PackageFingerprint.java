@@ -0,0 +1,60 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fingerprint of a package of a library, being the MinHash signature of the fingerprints of its classes.
+ */
+public class PackageFingerprint {
+    private final String library;
+    private final String packageName;
+    private final int totalClasses;
+    private final long[] signature;
+
+    public PackageFingerprint(String library, String packageName, int totalClasses, long[] signature) {
+        this.library = library;
+        this.packageName = packageName;
+        this.totalClasses = totalClasses;
+        this.signature = signature;
+    }
+
+    /**
+     * Create the package fingerprints of a library, from the class fingerprints by package. Packages with fewer
+     * classes than FingerprintDatabase.MIN_CLASSES_PER_PACKAGE are skipped, as their matches are not meaningful.
+     *
+     * @param library
+     *  The name of the library.
+     * @param fingerprintsByPackage
+     *  The (distinct) class fingerprints by package name.
+     * @return
+     *  The package fingerprints.
+     */
+    public static List<PackageFingerprint> of(String library, Map<String, ? extends Collection<Long>> fingerprintsByPackage) {
+        List<PackageFingerprint> packageFingerprints = new ArrayList<>();
+        for (Map.Entry<String, ? extends Collection<Long>> entry : fingerprintsByPackage.entrySet()) {
+            if (entry.getValue().size() >= FingerprintDatabase.MIN_CLASSES_PER_PACKAGE) {
+                packageFingerprints.add(new PackageFingerprint(library, entry.getKey(), entry.getValue().size(), MinHash.signature(entry.getValue())));
+            }
+        }
+        return packageFingerprints;
+    }
+
+    public String getLibrary() {
+        return library;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public int getTotalClasses() {
+        return totalClasses;
+    }
+
+    public long[] getSignature() {
+        return signature;
+    }
+}
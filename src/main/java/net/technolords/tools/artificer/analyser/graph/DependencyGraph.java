@@ -0,0 +1,320 @@
+package net.technolords.tools.artificer.analyser.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.technolords.tools.artificer.analyser.dotclass.SignatureAnalyser;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * A directed dependency graph, where the nodes are classes (or packages) and an edge means 'references'. The nodes
+ * are identified by a dense id (0 .. size - 1), and the edges are stored in compressed sparse row (CSR) form: the
+ * successors of node n are the targets at positions offsets[n] (inclusive) up to offsets[n + 1] (exclusive), and the
+ * weights of those edges are at the same positions. So the graph takes three int arrays (offsets, targets and
+ * weights), regardless of the number of nodes, which keeps a graph of millions of edges compact and fast to traverse.
+ * The edges of a node are sorted and unique, and self references are left out. The weight of an edge is the number
+ * of times it was added, i.e. the number of class references between two packages.
+ *
+ * A graph is immutable and created by a Builder, for example:
+ *
+ * DependencyGraph.Builder builder = new DependencyGraph.Builder();
+ * builder.addEdge("org/acme/A", "org/acme/B");
+ * DependencyGraph graph = builder.build();
+ */
+public class DependencyGraph {
+    private final Map<String, Integer> ids;
+    private final String[] names;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    private DependencyGraph(Map<String, Integer> ids, String[] names, int[] offsets, int[] targets, int[] weights) {
+        this.ids = ids;
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Build the class dependency graph of (parsed) resources, from the referenced classes of each class. The classes
+     * of the resources get the lowest ids (in order of name), so the graph does not depend on the order in which the
+     * resources were analysed. The referenced classes are normalized first (see SignatureAnalyser), so descriptors
+     * of arrays and remainders of signatures end up as the classes they mention. The referenced classes of other
+     * artifacts are nodes without edges, as their own references are unknown.
+     *
+     * @param resources
+     *  The resources, of which the invalid classes are skipped.
+     * @return
+     *  The class dependency graph.
+     */
+    public static DependencyGraph of(List<Resource> resources) {
+        List<Resource> classes = new ArrayList<>();
+        for (Resource resource : resources) {
+            if (resource.isValidClass() && resource.getClassName() != null) {
+                classes.add(resource);
+            }
+        }
+        classes.sort(Comparator.comparing(Resource::getClassName));
+        Builder builder = new Builder();
+        for (Resource resource : classes) {
+            builder.addNode(resource.getClassName());
+        }
+        for (Resource resource : classes) {
+            int source = builder.addNode(resource.getClassName());
+            for (String referencedClass : SignatureAnalyser.normalizedClassNames(resource.getReferencedClasses())) {
+                builder.addEdge(source, builder.addNode(referencedClass));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return
+     *  The number of nodes.
+     */
+    public int size() {
+        return this.names.length;
+    }
+
+    /**
+     * Get the number of edges.
+     *
+     * @return
+     *  The number of edges.
+     */
+    public int getEdgeCount() {
+        return this.offsets[this.names.length];
+    }
+
+    /**
+     * Get the name of a node.
+     *
+     * @param node
+     *  The id of the node.
+     * @return
+     *  The name, i.e. the class name in internal form.
+     */
+    public String getName(int node) {
+        return this.names[node];
+    }
+
+    /**
+     * Find the id of a node.
+     *
+     * @param name
+     *  The name of the node.
+     * @return
+     *  The id, or -1 when the node is not part of the graph.
+     */
+    public int findNode(String name) {
+        Integer id = this.ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the position of the first edge of a node, where the edges of a node are at the positions of
+     * getFirstEdge(node) (inclusive) up to getFirstEdge(node + 1) (exclusive).
+     *
+     * @param node
+     *  The id of the node, or size() for the end of the last node.
+     * @return
+     *  The position of the first edge.
+     */
+    public int getFirstEdge(int node) {
+        return this.offsets[node];
+    }
+
+    /**
+     * Get the target of an edge.
+     *
+     * @param edge
+     *  The position of the edge.
+     * @return
+     *  The id of the target node.
+     */
+    public int getTarget(int edge) {
+        return this.targets[edge];
+    }
+
+    /**
+     * Get the weight of an edge.
+     *
+     * @param edge
+     *  The position of the edge.
+     * @return
+     *  The number of times the edge was added.
+     */
+    public int getWeight(int edge) {
+        return this.weights[edge];
+    }
+
+    /**
+     * Create the package graph of this (class) graph, where each package is a node, and a package references
+     * another package when one of its classes references a class of the other package (where the weight is the
+     * number of such class references). The packages are in order of first appearance of their classes.
+     *
+     * @return
+     *  The package graph.
+     */
+    public DependencyGraph toPackageGraph() {
+        Builder builder = new Builder();
+        int[] packages = new int[this.names.length];
+        for (int node = 0; node < this.names.length; node++) {
+            packages[node] = builder.addNode(packageOf(this.names[node]));
+        }
+        for (int node = 0; node < this.names.length; node++) {
+            for (int edge = this.offsets[node]; edge < this.offsets[node + 1]; edge++) {
+                builder.addEdge(packages[node], packages[this.targets[edge]], this.weights[edge]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Auxiliary method to find the package of a class.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. java/lang/Object).
+     * @return
+     *  The package (i.e. java/lang), or an empty string for the default package.
+     */
+    public static String packageOf(String className) {
+        int index = className.lastIndexOf('/');
+        return index < 0 ? "" : className.substring(0, index);
+    }
+
+    /**
+     * The builder of a graph, which collects the edges as pairs (in two growing arrays) and sorts them by source
+     * once, when the graph is built. A builder is not safe to be used by concurrent threads.
+     */
+    public static class Builder {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private int[] weights = new int[1024];
+        private int edgeCount;
+
+        /**
+         * Add a node, when not already present.
+         *
+         * @param name
+         *  The name of the node.
+         * @return
+         *  The id of the node.
+         */
+        public int addNode(String name) {
+            Integer id = this.ids.get(name);
+            if (id == null) {
+                id = this.names.size();
+                this.ids.put(name, id);
+                this.names.add(name);
+            }
+            return id;
+        }
+
+        /**
+         * Add an edge, where the nodes are added when not already present.
+         *
+         * @param source
+         *  The name of the source node.
+         * @param target
+         *  The name of the target node.
+         */
+        public void addEdge(String source, String target) {
+            this.addEdge(this.addNode(source), this.addNode(target));
+        }
+
+        /**
+         * Add an edge between nodes which are already present. Self references and duplicates are dropped when the
+         * graph is built.
+         *
+         * @param source
+         *  The id of the source node.
+         * @param target
+         *  The id of the target node.
+         */
+        public void addEdge(int source, int target) {
+            this.addEdge(source, target, 1);
+        }
+
+        /**
+         * Add an edge with a weight between nodes which are already present, where the weights of duplicates are
+         * summed when the graph is built.
+         *
+         * @param source
+         *  The id of the source node.
+         * @param target
+         *  The id of the target node.
+         * @param weight
+         *  The weight of the edge.
+         */
+        public void addEdge(int source, int target, int weight) {
+            if (source == target) {
+                return;
+            }
+            if (this.edgeCount == this.sources.length) {
+                this.sources = Arrays.copyOf(this.sources, this.edgeCount * 2);
+                this.targets = Arrays.copyOf(this.targets, this.edgeCount * 2);
+                this.weights = Arrays.copyOf(this.weights, this.edgeCount * 2);
+            }
+            this.sources[this.edgeCount] = source;
+            this.targets[this.edgeCount] = target;
+            this.weights[this.edgeCount] = weight;
+            this.edgeCount++;
+        }
+
+        /**
+         * Build the graph. The edges are distributed by source (a counting sort), after which the edges of each
+         * node are sorted and made unique (summing the weights of duplicates).
+         *
+         * @return
+         *  The graph.
+         */
+        public DependencyGraph build() {
+            int size = this.names.size();
+            int[] offsets = new int[size + 1];
+            for (int i = 0; i < this.edgeCount; i++) {
+                offsets[this.sources[i] + 1]++;
+            }
+            for (int node = 0; node < size; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            // The target and weight of an edge are packed in a long, so sorting by target keeps the weight with it
+            int[] positions = Arrays.copyOf(offsets, size);
+            long[] sortedEdges = new long[this.edgeCount];
+            for (int i = 0; i < this.edgeCount; i++) {
+                sortedEdges[positions[this.sources[i]]++] = ((long) this.targets[i] << 32) | (this.weights[i] & 0xFFFFFFFFL);
+            }
+
+            // Sort and compact the edges of each node, where the weights of duplicates are summed
+            int[] sortedTargets = new int[this.edgeCount];
+            int[] summedWeights = new int[this.edgeCount];
+            int count = 0;
+            int start = 0;
+            for (int node = 0; node < size; node++) {
+                int end = offsets[node + 1];
+                Arrays.sort(sortedEdges, start, end);
+                offsets[node] = count;
+                for (int edge = start; edge < end; edge++) {
+                    int target = (int) (sortedEdges[edge] >>> 32);
+                    if (edge == start || target != sortedTargets[count - 1]) {
+                        sortedTargets[count++] = target;
+                    }
+                    summedWeights[count - 1] += (int) sortedEdges[edge];
+                }
+                start = end;
+            }
+            offsets[size] = count;
+            return new DependencyGraph(new HashMap<>(this.ids), this.names.toArray(new String[size]), offsets,
+                Arrays.copyOf(sortedTargets, count), Arrays.copyOf(summedWeights, count));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package net.technolords.tools.artificer.analyser.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.PackageCycle;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * The package cycle analyser derives the package graph from the dependency graph of the classes of an artifact, and
+ * reports the packages which depend on each other in a cycle. The referenced classes of other artifacts are part of
+ * the graph, but as their own references are unknown, the cycles are always within the artifact.
+ */
+public class PackageCycleAnalyser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PackageCycleAnalyser.class);
+
+    /**
+     * Add the package cycles to the analysis, where the largest cycles come first.
+     *
+     * @param classGraph
+     *  The class dependency graph of the resources.
+     * @param resources
+     *  The (parsed) resources of the artifact.
+     * @param analysis
+     *  The analysis associated with the package cycles.
+     */
+    public void analysePackageCycles(DependencyGraph classGraph, List<Resource> resources, Analysis analysis) {
+        DependencyGraph packageGraph = classGraph.toPackageGraph();
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(packageGraph);
+
+        // Collect the packages and count the classes of each cycle
+        List<PackageCycle> packageCycles = new ArrayList<>();
+        PackageCycle[] cyclesByComponent = new PackageCycle[components.getCount()];
+        for (int node = 0; node < packageGraph.size(); node++) {
+            int component = components.getComponent(node);
+            if (components.getSize(component) > 1) {
+                if (cyclesByComponent[component] == null) {
+                    cyclesByComponent[component] = new PackageCycle();
+                    packageCycles.add(cyclesByComponent[component]);
+                }
+                cyclesByComponent[component].getPackages().add(packageGraph.getName(node));
+            }
+        }
+        Map<String, PackageCycle> cyclesByPackage = new HashMap<>();
+        for (PackageCycle packageCycle : packageCycles) {
+            for (String packageName : packageCycle.getPackages()) {
+                cyclesByPackage.put(packageName, packageCycle);
+            }
+        }
+        for (Resource resource : resources) {
+            PackageCycle packageCycle = resource.isValidClass() && resource.getClassName() != null
+                ? cyclesByPackage.get(DependencyGraph.packageOf(resource.getClassName())) : null;
+            if (packageCycle != null) {
+                packageCycle.setTotalClasses(packageCycle.getTotalClasses() + 1);
+            }
+        }
+        for (PackageCycle packageCycle : packageCycles) {
+            Collections.sort(packageCycle.getPackages());
+            packageCycle.setTotalPackages(packageCycle.getPackages().size());
+        }
+        packageCycles.sort(Comparator.comparingLong(PackageCycle::getTotalPackages).reversed()
+            .thenComparing(packageCycle -> packageCycle.getPackages().get(0)));
+        LOGGER.debug("Found " + packageCycles.size() + " package cycles in a graph of " + classGraph.size() + " classes and "
+            + classGraph.getEdgeCount() + " references");
+        analysis.setPackageCycles(packageCycles);
+    }
+}
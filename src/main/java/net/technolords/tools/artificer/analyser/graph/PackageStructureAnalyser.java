@@ -0,0 +1,159 @@
+package net.technolords.tools.artificer.analyser.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.dotclass.bytecode.AccessFlagsParser;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.PackageDependency;
+import net.technolords.tools.artificer.domain.dependencies.PackageMetrics;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+/**
+ * The package structure analyser computes the dependency structure matrix (DSM) of the packages of an artifact, and
+ * the coupling metrics of each package (as defined by Robert C. Martin, and used by tools like JDepend). A cell of
+ * the matrix is the number of class level references from one package to another. Only the packages of the artifact
+ * are part of the matrix, and references within a package (the diagonal) are left out. The efferent coupling (Ce)
+ * does count the packages outside the artifact (i.e. java/lang or those of libraries), as in Martin's definition, so
+ * it can be larger than the number of cells of the row. These packages are those of the normalized referenced
+ * classes (see DependencyGraph.of), so a signature does not count as a package of its own.
+ *
+ * The matrix is never held as a whole (which takes N * N cells for N packages), instead it is aggregated one row at
+ * a time from the class dependency graph, with a sparse accumulator: a single array of counters (one per package)
+ * with a list of the counters touched by the row, so the cost is proportional to the number of references, and only
+ * the non empty cells are reported.
+ */
+public class PackageStructureAnalyser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PackageStructureAnalyser.class);
+
+    /**
+     * Add the package structure to the analysis, where the packages are sorted by name.
+     *
+     * @param classGraph
+     *  The class dependency graph of the resources.
+     * @param resources
+     *  The (parsed) resources of the artifact.
+     * @param analysis
+     *  The analysis associated with the package structure.
+     */
+    public void analysePackageStructure(DependencyGraph classGraph, List<Resource> resources, Analysis analysis) {
+        // Count the (abstract) classes of the packages of the artifact
+        Map<String, PackageMetrics> metricsByName = new TreeMap<>();
+        for (Resource resource : resources) {
+            if (resource.isValidClass() && resource.getClassName() != null) {
+                PackageMetrics packageMetrics = metricsByName.computeIfAbsent(DependencyGraph.packageOf(resource.getClassName()), name -> {
+                    PackageMetrics metrics = new PackageMetrics();
+                    metrics.setName(name);
+                    return metrics;
+                });
+                packageMetrics.setTotalClasses(packageMetrics.getTotalClasses() + 1);
+                if (AccessFlagsParser.isAbstract(resource.getAccessFlags())) {
+                    packageMetrics.setAbstractClasses(packageMetrics.getAbstractClasses() + 1);
+                }
+            }
+        }
+        List<PackageMetrics> packages = new ArrayList<>(metricsByName.values());
+        Map<String, Integer> packageIds = new HashMap<>();
+        for (int id = 0; id < packages.size(); id++) {
+            packageIds.put(packages.get(id).getName(), id);
+        }
+
+        // Group the classes by package (a counting sort), where classes of other artifacts are left out (and their
+        // packages get an id of their own, for the efferent coupling)
+        int[] packageOfClass = new int[classGraph.size()];
+        int[] externalPackageOfClass = new int[classGraph.size()];
+        Map<String, Integer> externalPackageIds = new HashMap<>();
+        int[] classOffsets = new int[packages.size() + 1];
+        for (int node = 0; node < classGraph.size(); node++) {
+            String packageName = DependencyGraph.packageOf(classGraph.getName(node));
+            Integer id = packageIds.get(packageName);
+            packageOfClass[node] = id == null ? -1 : id;
+            if (id != null) {
+                classOffsets[id + 1]++;
+                externalPackageOfClass[node] = -1;
+            } else {
+                externalPackageOfClass[node] = externalPackageIds.computeIfAbsent(packageName, name -> externalPackageIds.size());
+            }
+        }
+        for (int id = 0; id < packages.size(); id++) {
+            classOffsets[id + 1] += classOffsets[id];
+        }
+        int[] classes = new int[classOffsets[packages.size()]];
+        int[] positions = Arrays.copyOf(classOffsets, packages.size());
+        for (int node = 0; node < classGraph.size(); node++) {
+            if (packageOfClass[node] >= 0) {
+                classes[positions[packageOfClass[node]]++] = node;
+            }
+        }
+
+        // Aggregate the rows of the matrix, with a sparse accumulator, where the external packages of a row are marked
+        // with the row (plus one), so the marks need no reset
+        int[] counters = new int[packages.size()];
+        int[] touched = new int[packages.size()];
+        int[] afferentCouplings = new int[packages.size()];
+        int[] externalMarks = new int[externalPackageIds.size()];
+        long cells = 0;
+        for (int id = 0; id < packages.size(); id++) {
+            int touchedCount = 0;
+            int externalCount = 0;
+            for (int position = classOffsets[id]; position < classOffsets[id + 1]; position++) {
+                int node = classes[position];
+                for (int edge = classGraph.getFirstEdge(node); edge < classGraph.getFirstEdge(node + 1); edge++) {
+                    int target = packageOfClass[classGraph.getTarget(edge)];
+                    if (target < 0) {
+                        int externalTarget = externalPackageOfClass[classGraph.getTarget(edge)];
+                        if (externalMarks[externalTarget] != id + 1) {
+                            externalMarks[externalTarget] = id + 1;
+                            externalCount++;
+                        }
+                        continue;
+                    }
+                    if (target == id) {
+                        continue;
+                    }
+                    if (counters[target]++ == 0) {
+                        touched[touchedCount++] = target;
+                    }
+                }
+            }
+            Arrays.sort(touched, 0, touchedCount);
+            PackageMetrics packageMetrics = packages.get(id);
+            for (int i = 0; i < touchedCount; i++) {
+                int target = touched[i];
+                PackageDependency packageDependency = new PackageDependency();
+                packageDependency.setPackageName(packages.get(target).getName());
+                packageDependency.setReferences(counters[target]);
+                packageMetrics.getDependencies().add(packageDependency);
+                afferentCouplings[target]++;
+                counters[target] = 0;
+            }
+            packageMetrics.setEfferentCoupling(touchedCount + externalCount);
+            cells += touchedCount;
+        }
+
+        // Derive the metrics
+        for (int id = 0; id < packages.size(); id++) {
+            PackageMetrics packageMetrics = packages.get(id);
+            packageMetrics.setAfferentCoupling(afferentCouplings[id]);
+            long coupling = packageMetrics.getAfferentCoupling() + packageMetrics.getEfferentCoupling();
+            double instability = coupling == 0 ? 0 : (double) packageMetrics.getEfferentCoupling() / coupling;
+            double abstractness = (double) packageMetrics.getAbstractClasses() / packageMetrics.getTotalClasses();
+            packageMetrics.setInstability(round(instability));
+            packageMetrics.setAbstractness(round(abstractness));
+            packageMetrics.setDistance(round(Math.abs(abstractness + instability - 1)));
+        }
+        LOGGER.debug("Found " + cells + " package dependencies between " + packages.size() + " packages");
+        analysis.setPackageStructure(packages);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,129 @@
+package net.technolords.tools.artificer.analyser.graph;
+
+import java.util.Arrays;
+
+/**
+ * The strongly connected components of a dependency graph, which are found with the algorithm of Tarjan. A strongly
+ * connected component is a maximal set of nodes which can all reach each other, so a component of more than one
+ * node is a cycle. The algorithm is iterative (with explicit stacks, rather than recursive), so deep graphs do not
+ * exhaust the stack of the thread, and it visits each node and edge once.
+ *
+ * The components are numbered in reverse topological order: a component only depends on components with a lower
+ * number.
+ */
+public class StronglyConnectedComponents {
+    private final int[] components;
+    private final int[] sizes;
+
+    private StronglyConnectedComponents(int[] components, int[] sizes) {
+        this.components = components;
+        this.sizes = sizes;
+    }
+
+    /**
+     * Find the strongly connected components of a graph.
+     *
+     * @param graph
+     *  The graph.
+     * @return
+     *  The components.
+     */
+    public static StronglyConnectedComponents of(DependencyGraph graph) {
+        int size = graph.size();
+        int[] indices = new int[size];
+        int[] lowLinks = new int[size];
+        int[] components = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int[] callStack = new int[size];
+        int[] nextEdges = new int[size];
+        int[] sizes = new int[Math.max(size, 1)];
+        Arrays.fill(indices, -1);
+        int index = 0;
+        int stackSize = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (indices[root] != -1) {
+                continue;
+            }
+            // Visit the root
+            int callDepth = 0;
+            indices[root] = lowLinks[root] = index++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[callDepth] = root;
+            nextEdges[callDepth++] = graph.getFirstEdge(root);
+            while (callDepth > 0) {
+                int node = callStack[callDepth - 1];
+                int edge = nextEdges[callDepth - 1];
+                if (edge < graph.getFirstEdge(node + 1)) {
+                    nextEdges[callDepth - 1]++;
+                    int target = graph.getTarget(edge);
+                    if (indices[target] == -1) {
+                        // Visit the target (the 'recursive call')
+                        indices[target] = lowLinks[target] = index++;
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        callStack[callDepth] = target;
+                        nextEdges[callDepth++] = graph.getFirstEdge(target);
+                    } else if (onStack[target]) {
+                        lowLinks[node] = Math.min(lowLinks[node], indices[target]);
+                    }
+                    continue;
+                }
+                // All edges are visited, so the node is the root of a component when its low link is its own index
+                callDepth--;
+                if (lowLinks[node] == indices[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = componentCount;
+                        sizes[componentCount]++;
+                    } while (member != node);
+                    componentCount++;
+                }
+                if (callDepth > 0) {
+                    int caller = callStack[callDepth - 1];
+                    lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[node]);
+                }
+            }
+        }
+        return new StronglyConnectedComponents(components, Arrays.copyOf(sizes, componentCount));
+    }
+
+    /**
+     * Get the number of components.
+     *
+     * @return
+     *  The number of components.
+     */
+    public int getCount() {
+        return this.sizes.length;
+    }
+
+    /**
+     * Get the component of a node.
+     *
+     * @param node
+     *  The id of the node.
+     * @return
+     *  The number of the component.
+     */
+    public int getComponent(int node) {
+        return this.components[node];
+    }
+
+    /**
+     * Get the number of nodes of a component.
+     *
+     * @param component
+     *  The number of the component.
+     * @return
+     *  The number of nodes.
+     */
+    public int getSize(int component) {
+        return this.sizes[component];
+    }
+}
@@ -1,19 +1,27 @@
 package net.technolords.tools.artificer.domain;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.bind.annotation.XmlType;
 
+import net.technolords.tools.artificer.domain.dependencies.ClassPathEntry;
+import net.technolords.tools.artificer.domain.dependencies.EmbeddedLibrary;
+import net.technolords.tools.artificer.domain.dependencies.ExternalArtifact;
+import net.technolords.tools.artificer.domain.dependencies.PackageCycle;
+import net.technolords.tools.artificer.domain.dependencies.PackageMetrics;
 import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedPackage;
 import net.technolords.tools.artificer.domain.meta.Meta;
 import net.technolords.tools.artificer.domain.resource.ResourceGroup;
 
@@ -25,20 +33,66 @@ import net.technolords.tools.artificer.domain.resource.ResourceGroup;
  * Happy and Unhappy flow:
  *
  * <analysed-artifact artifact-name="xxx.jar">
+ *     <class-path>
+ *         ...
+ *     </class-path>
+ *     <referenced-classes>
+ *         ...
+ *     </referenced-classes>
+ *     <embedded-libraries>
+ *         ...
+ *     </embedded-libraries>
+ *     <external-artifacts>
+ *         ...
+ *     </external-artifacts>
  *     <meta>
  *         ...
  *     </meta>
+ *     <package-cycles>
+ *         ...
+ *     </package-cycles>
+ *     <package-structure>
+ *         ...
+ *     </package-structure>
+ *     <referenced-packages>
+ *         ...
+ *     </referenced-packages>
  *     <resources>
  *         ...
  *     </resources>
+ *
+ * The order of the elements is pinned (see propOrder), where the resources come last, so the aggregated sections
+ * can be written ahead of them when the report is streamed (see StreamingReportWriter).
+ *
+ * The referenced classes are kept in a concurrent set, ordered by name, so resources can be analysed in parallel
+ * while the report remains identical to a sequential analysis. The external artifacts are only present when the
+ * external classes are resolved with a Maven artifact index, and the class path entries only when the artifact is
+ * analysed against a class path, and the embedded libraries only when a fingerprint database is present.
+ *
+ * The referenced packages (the summary of the referenced classes per package and class domain) are only present
+ * when requested, where the number of classes listed per referenced package is given by the top referenced classes.
+ *
+ * The report sections tell which sections are written (see ReportSection), which are the default sections unless
+ * specified otherwise.
  */
 @XmlRootElement (name = "analysed-artifact")
+@XmlType(propOrder = { "classPathEntries", "dependencies", "embeddedLibraries", "externalArtifacts", "meta", "packageCycles",
+    "packageStructure", "referencedPackages", "resourcesAsGroups" })
 public class Analysis {
     private String artifactName;
     private String generatedFilename;
     private Meta meta;
     private Map<String, ResourceGroup> resourceGroups = new HashMap<>();
-    private Set<ReferencedClass> dependencies = new HashSet<>();
+    private Set<ReferencedClass> dependencies = new ConcurrentSkipListSet<>(
+            Comparator.comparing(ReferencedClass::getPackageWithClass, Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+    private List<ExternalArtifact> externalArtifacts;
+    private List<ClassPathEntry> classPathEntries;
+    private List<EmbeddedLibrary> embeddedLibraries;
+    private List<PackageCycle> packageCycles;
+    private List<PackageMetrics> packageStructure;
+    private List<ReferencedPackage> referencedPackages;
+    private Set<ReportSection> reportSections = ReportSection.defaults();
+    private int topReferencedClasses;
 
     public Analysis() {
     }
@@ -89,9 +143,87 @@ public class Analysis {
         this.dependencies = dependencies;
     }
 
+    @XmlElementWrapper(name = "external-artifacts")
+    @XmlElement(name = "external-artifact")
+    public List<ExternalArtifact> getExternalArtifacts() {
+        return externalArtifacts;
+    }
+
+    public void setExternalArtifacts(List<ExternalArtifact> externalArtifacts) {
+        this.externalArtifacts = externalArtifacts;
+    }
+
+    @XmlElementWrapper(name = "class-path")
+    @XmlElement(name = "class-path-entry")
+    public List<ClassPathEntry> getClassPathEntries() {
+        return classPathEntries;
+    }
+
+    public void setClassPathEntries(List<ClassPathEntry> classPathEntries) {
+        this.classPathEntries = classPathEntries;
+    }
+
+    @XmlElementWrapper(name = "embedded-libraries")
+    @XmlElement(name = "embedded-library")
+    public List<EmbeddedLibrary> getEmbeddedLibraries() {
+        return embeddedLibraries;
+    }
+
+    public void setEmbeddedLibraries(List<EmbeddedLibrary> embeddedLibraries) {
+        this.embeddedLibraries = embeddedLibraries;
+    }
+
+    @XmlElementWrapper(name = "package-cycles")
+    @XmlElement(name = "package-cycle")
+    public List<PackageCycle> getPackageCycles() {
+        return packageCycles;
+    }
+
+    public void setPackageCycles(List<PackageCycle> packageCycles) {
+        this.packageCycles = packageCycles;
+    }
+
+    @XmlElementWrapper(name = "package-structure")
+    @XmlElement(name = "package")
+    public List<PackageMetrics> getPackageStructure() {
+        return packageStructure;
+    }
+
+    public void setPackageStructure(List<PackageMetrics> packageStructure) {
+        this.packageStructure = packageStructure;
+    }
+
+    @XmlElementWrapper(name = "referenced-packages")
+    @XmlElement(name = "referenced-package")
+    public List<ReferencedPackage> getReferencedPackages() {
+        return referencedPackages;
+    }
+
+    public void setReferencedPackages(List<ReferencedPackage> referencedPackages) {
+        this.referencedPackages = referencedPackages;
+    }
+
+    @XmlTransient
+    public int getTopReferencedClasses() {
+        return topReferencedClasses;
+    }
+
+    public void setTopReferencedClasses(int topReferencedClasses) {
+        this.topReferencedClasses = topReferencedClasses;
+    }
+
+    @XmlTransient
+    public Set<ReportSection> getReportSections() {
+        return reportSections;
+    }
+
+    public void setReportSections(Set<ReportSection> reportSections) {
+        this.reportSections = reportSections;
+    }
+
     @XmlElementWrapper (name = "resources")
     @XmlElement (name ="resource-group")
     public List<ResourceGroup> getResourcesAsGroups() {
-        return new ArrayList(this.resourceGroups.values());
+        return this.resourceGroups == null ? null : new ArrayList(this.resourceGroups.values());
     }
 }
@@ -0,0 +1,164 @@
+package net.technolords.tools.artificer.domain;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The sections of the report of an analysis. The projection of a report (see Analyser.setReportSections) tells
+ * which sections are written, and the sections which are not needed for the projection are not computed either.
+ * A section can depend on other sections, as its computation needs their outcome:
+ *
+ * - resource-groups     : the resource groups, with the total number of resources per group
+ * - resources           : the resources of each group (requires resource-groups)
+ * - java-versions       : the java versions the classes are compiled for (part of meta)
+ * - referenced-classes  : the classes referenced by the classes of the artifact (requires the byte code)
+ * - class-domains       : the class domain (and custom domain) of each referenced class (requires referenced-classes)
+ * - referenced-packages : the referenced classes summarized per package and class domain (requires class-domains)
+ * - external-artifacts  : the artifacts providing the external classes (requires class-domains)
+ * - class-path          : the class path entries providing the referenced classes (requires class-domains)
+ * - embedded-libraries  : the libraries embedded in the artifact (requires the byte code)
+ * - package-cycles      : the packages which depend on each other in a cycle (requires the byte code)
+ * - package-structure   : the dependency structure matrix of the packages (requires the byte code)
+ *
+ * The meta element (with the status) is always written. Note that the requirement of a section is about what is
+ * computed, not about what is written: a projection with class-domains only writes the referenced classes with
+ * just their class domains, when referenced-classes is not part of the projection. Likewise, a projection with
+ * referenced-packages (and without referenced-classes and class-domains) writes the summary instead of the list of
+ * referenced classes. The summary is not part of the default sections (see defaults), which are all other sections.
+ * As the summary is derived from the classified referenced classes directly, the list of referenced classes is only
+ * built when a section of the projection needs it (see requiresReferencedClassList).
+ */
+public enum ReportSection {
+    RESOURCE_GROUPS("resource-groups"),
+    RESOURCES("resources", RESOURCE_GROUPS),
+    JAVA_VERSIONS("java-versions"),
+    REFERENCED_CLASSES("referenced-classes"),
+    CLASS_DOMAINS("class-domains", REFERENCED_CLASSES),
+    REFERENCED_PACKAGES("referenced-packages", CLASS_DOMAINS),
+    EXTERNAL_ARTIFACTS("external-artifacts", CLASS_DOMAINS),
+    CLASS_PATH("class-path", CLASS_DOMAINS),
+    EMBEDDED_LIBRARIES("embedded-libraries"),
+    PACKAGE_CYCLES("package-cycles"),
+    PACKAGE_STRUCTURE("package-structure");
+
+    private static final Set<ReportSection> BYTECODE_SECTIONS = EnumSet.of(REFERENCED_CLASSES, EMBEDDED_LIBRARIES, PACKAGE_CYCLES, PACKAGE_STRUCTURE);
+    private static final Set<ReportSection> REFERENCED_CLASS_LIST_SECTIONS = EnumSet.of(REFERENCED_CLASSES, CLASS_DOMAINS, EXTERNAL_ARTIFACTS, CLASS_PATH);
+    private final String name;
+    private final List<ReportSection> requirements;
+
+    ReportSection(String name, ReportSection... requirements) {
+        this.name = name;
+        this.requirements = Arrays.asList(requirements);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<ReportSection> getRequirements() {
+        return requirements;
+    }
+
+    /**
+     * Get the default sections, being all sections except the referenced packages.
+     *
+     * @return
+     *  The default sections.
+     */
+    public static Set<ReportSection> defaults() {
+        return EnumSet.complementOf(EnumSet.of(REFERENCED_PACKAGES));
+    }
+
+    /**
+     * Find a section by its name.
+     *
+     * @param name
+     *  The name of the section, i.e. referenced-classes.
+     * @return
+     *  The section, or null when no section has the given name.
+     */
+    public static ReportSection findByName(String name) {
+        for (ReportSection reportSection : values()) {
+            if (reportSection.name.equalsIgnoreCase(name)) {
+                return reportSection;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the sections to compute for a projection, being the sections of the projection and (transitively) the
+     * sections they require.
+     *
+     * @param reportSections
+     *  The sections of the projection.
+     * @return
+     *  The sections to compute.
+     */
+    public static Set<ReportSection> withRequirements(Collection<ReportSection> reportSections) {
+        Set<ReportSection> result = EnumSet.noneOf(ReportSection.class);
+        Deque<ReportSection> pending = new ArrayDeque<>(reportSections);
+        while (!pending.isEmpty()) {
+            ReportSection reportSection = pending.pop();
+            if (result.add(reportSection)) {
+                pending.addAll(reportSection.requirements);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tell whether the byte code of the classes must be parsed to compute the sections.
+     *
+     * @param reportSections
+     *  The sections to compute.
+     * @return
+     *  True when the byte code must be parsed.
+     */
+    public static boolean requiresBytecode(Set<ReportSection> reportSections) {
+        for (ReportSection reportSection : reportSections) {
+            if (BYTECODE_SECTIONS.contains(reportSection)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tell whether the list of referenced classes (see Analysis.getDependencies) must be built for the sections of
+     * a projection, which is not the case for the summary of the referenced classes (referenced-packages) on its own.
+     * Note the sections are those of the projection, and not the sections to compute (see withRequirements), as the
+     * summary requires the referenced classes, but not their list.
+     *
+     * @param reportSections
+     *  The sections of the projection.
+     * @return
+     *  True when the list of referenced classes must be built.
+     */
+    public static boolean requiresReferencedClassList(Collection<ReportSection> reportSections) {
+        for (ReportSection reportSection : reportSections) {
+            if (REFERENCED_CLASS_LIST_SECTIONS.contains(reportSection)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tell whether the version of the classes must be read to compute the sections, which is the case for the java
+     * versions, and for the resources (as the version tells whether a resource is a valid class).
+     *
+     * @param reportSections
+     *  The sections to compute.
+     * @return
+     *  True when the versions must be read.
+     */
+    public static boolean requiresVersion(Set<ReportSection> reportSections) {
+        return reportSections.contains(JAVA_VERSIONS) || reportSections.contains(RESOURCES) || requiresBytecode(reportSections);
+    }
+}
@@ -0,0 +1,105 @@
+package net.technolords.tools.artificer.domain.classpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.bind.annotation.XmlType;
+
+import net.technolords.tools.artificer.domain.meta.Meta;
+
+/**
+ * This class represents the analysed-class-path element, which is the root of the report of a class path analysis,
+ * and contains the following attributes:
+ *
+ * - total-entries      : The number of entries (jars and directories) of the class path
+ * - total-classes      : The number of distinct classes of the class path
+ *
+ * <analysed-class-path total-entries="2" total-classes="120">
+ *     <meta>
+ *         ...
+ *     </meta>
+ *     <duplicate-classes>
+ *         <duplicate-class name="org/acme/Shared" identical="false">
+ *             <defined-by location="lib/first.jar" crc="1c291ca3"/>
+ *             <defined-by location="lib/second.jar" crc="09b6c4d2"/>
+ *         </duplicate-class>
+ *     </duplicate-classes>
+ *     <split-packages>
+ *         <split-package name="org/acme">
+ *             <defined-by location="lib/first.jar"/>
+ *             <defined-by location="lib/second.jar"/>
+ *         </split-package>
+ *     </split-packages>
+ * </analysed-class-path>
+ */
+@XmlRootElement(name = "analysed-class-path")
+@XmlType(propOrder = { "meta", "duplicateClasses", "splitPackages" })
+public class ClassPathAnalysis {
+    private String generatedFilename;
+    private Meta meta;
+    private long totalEntries;
+    private long totalClasses;
+    private List<DuplicateClass> duplicateClasses = new ArrayList<>();
+    private List<SplitPackage> splitPackages = new ArrayList<>();
+
+    @XmlTransient
+    public String getGeneratedFilename() {
+        return generatedFilename;
+    }
+
+    public void setGeneratedFilename(String generatedFilename) {
+        this.generatedFilename = generatedFilename;
+    }
+
+    @XmlElement(name = "meta")
+    public Meta getMeta() {
+        return meta;
+    }
+
+    public void setMeta(Meta meta) {
+        this.meta = meta;
+    }
+
+    @XmlAttribute(name = "total-entries")
+    public long getTotalEntries() {
+        return totalEntries;
+    }
+
+    public void setTotalEntries(long totalEntries) {
+        this.totalEntries = totalEntries;
+    }
+
+    @XmlAttribute(name = "total-classes")
+    public long getTotalClasses() {
+        return totalClasses;
+    }
+
+    public void setTotalClasses(long totalClasses) {
+        this.totalClasses = totalClasses;
+    }
+
+    @XmlElementWrapper(name = "duplicate-classes")
+    @XmlElement(name = "duplicate-class")
+    public List<DuplicateClass> getDuplicateClasses() {
+        return duplicateClasses;
+    }
+
+    public void setDuplicateClasses(List<DuplicateClass> duplicateClasses) {
+        this.duplicateClasses = duplicateClasses;
+    }
+
+    @XmlElementWrapper(name = "split-packages")
+    @XmlElement(name = "split-package")
+    public List<SplitPackage> getSplitPackages() {
+        return splitPackages;
+    }
+
+    public void setSplitPackages(List<SplitPackage> splitPackages) {
+        this.splitPackages = splitPackages;
+    }
+}
@@ -0,0 +1,44 @@
+package net.technolords.tools.artificer.domain.classpath;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * This class represents the definition of a class (or package) by an entry of the class path, with the following
+ * attributes:
+ *
+ * - location   : The location of the entry (a jar or a directory)
+ * - crc        : The CRC-32 of the class (hexadecimal), when known from the central directory of the jar
+ * - digest     : The SHA-256 of the class bytes (hexadecimal), only present when the bytes had to be compared
+ */
+public class Definition {
+    private String location;
+    private String crc;
+    private String digest;
+
+    @XmlAttribute(name = "location")
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    @XmlAttribute(name = "crc")
+    public String getCrc() {
+        return crc;
+    }
+
+    public void setCrc(String crc) {
+        this.crc = crc;
+    }
+
+    @XmlAttribute(name = "digest")
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+}
@@ -0,0 +1,49 @@
+package net.technolords.tools.artificer.domain.classpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * This class represents a class which is defined by more than one entry of the class path, with the following
+ * attributes:
+ *
+ * - name       : The class name, in internal form
+ * - identical  : Whether all definitions have the same bytes, in which case the duplicate is harmless
+ *
+ * The definitions are listed in class path order, so the first one is the definition which is loaded.
+ */
+public class DuplicateClass {
+    private String name;
+    private boolean identical;
+    private List<Definition> definitions = new ArrayList<>();
+
+    @XmlAttribute(name = "name")
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @XmlAttribute(name = "identical")
+    public boolean isIdentical() {
+        return identical;
+    }
+
+    public void setIdentical(boolean identical) {
+        this.identical = identical;
+    }
+
+    @XmlElement(name = "defined-by")
+    public List<Definition> getDefinitions() {
+        return definitions;
+    }
+
+    public void setDefinitions(List<Definition> definitions) {
+        this.definitions = definitions;
+    }
+}
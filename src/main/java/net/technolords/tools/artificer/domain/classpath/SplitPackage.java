@@ -0,0 +1,38 @@
+package net.technolords.tools.artificer.domain.classpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * This class represents a package of which the classes are spread over more than one entry of the class path,
+ * with the following attributes:
+ *
+ * - name       : The package name, in internal form (i.e. org/acme)
+ *
+ * The entries are listed in class path order.
+ */
+public class SplitPackage {
+    private String name;
+    private List<Definition> definitions = new ArrayList<>();
+
+    @XmlAttribute(name = "name")
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @XmlElement(name = "defined-by")
+    public List<Definition> getDefinitions() {
+        return definitions;
+    }
+
+    public void setDefinitions(List<Definition> definitions) {
+        this.definitions = definitions;
+    }
+}
@@ -0,0 +1,45 @@
+package net.technolords.tools.artificer.domain.dependencies;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * This class represents an entry of the class path the artifact is analysed against, with the following attributes:
+ *
+ * - location           : The location of the entry (a jar or a directory)
+ * - total-classes      : The number of classes of the entry (including shadowed classes)
+ * - referenced-classes : The number of referenced classes provided by the entry
+ *
+ * <class-path-entry location="lib/slf4j-api-1.7.6.jar" total-classes="28" referenced-classes="2"/>
+ */
+public class ClassPathEntry {
+    private String location;
+    private long totalClasses = 0;
+    private long referencedClasses = 0;
+
+    @XmlAttribute(name = "location")
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    @XmlAttribute(name = "total-classes")
+    public long getTotalClasses() {
+        return totalClasses;
+    }
+
+    public void setTotalClasses(long totalClasses) {
+        this.totalClasses = totalClasses;
+    }
+
+    @XmlAttribute(name = "referenced-classes")
+    public long getReferencedClasses() {
+        return referencedClasses;
+    }
+
+    public void setReferencedClasses(long referencedClasses) {
+        this.referencedClasses = referencedClasses;
+    }
+}
@@ -0,0 +1,80 @@
+package net.technolords.tools.artificer.domain.dependencies;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * This class represents a package of the artifact which is a (possibly shaded) copy of a package of a known
+ * library, with the following attributes:
+ *
+ * - package            : The package of the artifact
+ * - total-classes      : The number of classes of the package
+ * - library            : The known library
+ * - library-package    : The package of the known library
+ * - similarity         : The estimated share of classes in common, between 0 and 1
+ * - relocated          : Whether the package differs from the package of the library (i.e. when shaded)
+ *
+ * <embedded-library package="shaded/com/google/common/base" total-classes="82" library="guava-31.1-jre"
+ *     library-package="com/google/common/base" similarity="0.97" relocated="true"/>
+ */
+public class EmbeddedLibrary {
+    private String packageName;
+    private long totalClasses;
+    private String library;
+    private String libraryPackageName;
+    private double similarity;
+    private boolean relocated;
+
+    @XmlAttribute(name = "package")
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public void setPackageName(String packageName) {
+        this.packageName = packageName;
+    }
+
+    @XmlAttribute(name = "total-classes")
+    public long getTotalClasses() {
+        return totalClasses;
+    }
+
+    public void setTotalClasses(long totalClasses) {
+        this.totalClasses = totalClasses;
+    }
+
+    @XmlAttribute(name = "library")
+    public String getLibrary() {
+        return library;
+    }
+
+    public void setLibrary(String library) {
+        this.library = library;
+    }
+
+    @XmlAttribute(name = "library-package")
+    public String getLibraryPackageName() {
+        return libraryPackageName;
+    }
+
+    public void setLibraryPackageName(String libraryPackageName) {
+        this.libraryPackageName = libraryPackageName;
+    }
+
+    @XmlAttribute(name = "similarity")
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    public void setSimilarity(double similarity) {
+        this.similarity = similarity;
+    }
+
+    @XmlAttribute(name = "relocated")
+    public boolean isRelocated() {
+        return relocated;
+    }
+
+    public void setRelocated(boolean relocated) {
+        this.relocated = relocated;
+    }
+}
@@ -0,0 +1,76 @@
+package net.technolords.tools.artificer.domain.dependencies;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * This class represents an artifact (as found in a Maven repository) which provides some of the external
+ * referenced classes, with the following attributes:
+ *
+ * - group-id       : The groupId of the artifact
+ * - artifact-id    : The artifactId of the artifact
+ * - version        : The version of the artifact
+ * - total-classes  : The number of referenced classes provided by the artifact
+ *
+ * <external-artifact group-id="org.slf4j" artifact-id="slf4j-api" version="1.7.6" total-classes="2"/>
+ */
+public class ExternalArtifact {
+    private String groupId;
+    private String artifactId;
+    private String version;
+    private long totalClasses = 0;
+
+    public ExternalArtifact() {
+    }
+
+    /**
+     * Create an external artifact from its coordinates.
+     *
+     * @param coordinates
+     *  The Maven coordinates, as groupId:artifactId:version.
+     * @param totalClasses
+     *  The number of referenced classes provided by the artifact.
+     */
+    public ExternalArtifact(String coordinates, long totalClasses) {
+        String[] parts = coordinates.split(":");
+        this.groupId = parts[0];
+        this.artifactId = parts.length > 1 ? parts[1] : null;
+        this.version = parts.length > 2 ? parts[2] : null;
+        this.totalClasses = totalClasses;
+    }
+
+    @XmlAttribute(name = "group-id")
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    @XmlAttribute(name = "artifact-id")
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    @XmlAttribute(name = "version")
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    @XmlAttribute(name = "total-classes")
+    public long getTotalClasses() {
+        return totalClasses;
+    }
+
+    public void setTotalClasses(long totalClasses) {
+        this.totalClasses = totalClasses;
+    }
+}
@@ -0,0 +1,52 @@
+package net.technolords.tools.artificer.domain.dependencies;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * This class represents a cycle of packages of the artifact, where each package (directly or indirectly) depends on
+ * every other package of the cycle, with the following attributes:
+ *
+ * - total-packages     : The number of packages of the cycle
+ * - total-classes      : The number of classes of the packages of the cycle
+ *
+ * <package-cycle total-packages="2" total-classes="7">
+ *     <package>org/acme/api</package>
+ *     <package>org/acme/impl</package>
+ * </package-cycle>
+ */
+public class PackageCycle {
+    private long totalPackages;
+    private long totalClasses;
+    private List<String> packages = new ArrayList<>();
+
+    @XmlAttribute(name = "total-packages")
+    public long getTotalPackages() {
+        return totalPackages;
+    }
+
+    public void setTotalPackages(long totalPackages) {
+        this.totalPackages = totalPackages;
+    }
+
+    @XmlAttribute(name = "total-classes")
+    public long getTotalClasses() {
+        return totalClasses;
+    }
+
+    public void setTotalClasses(long totalClasses) {
+        this.totalClasses = totalClasses;
+    }
+
+    @XmlElement(name = "package")
+    public List<String> getPackages() {
+        return packages;
+    }
+
+    public void setPackages(List<String> packages) {
+        this.packages = packages;
+    }
+}
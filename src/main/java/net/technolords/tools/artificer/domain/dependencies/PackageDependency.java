@@ -0,0 +1,36 @@
+package net.technolords.tools.artificer.domain.dependencies;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * This class represents a cell of the dependency structure matrix, being the dependency of a package on another
+ * package of the artifact, with the following attributes:
+ *
+ * - package            : The package which is depended upon
+ * - references         : The number of class level references, i.e. the number of pairs of classes where a class
+ *                        of the depending package references a class of the other package
+ *
+ * <dependency package="org/acme/api" references="12"/>
+ */
+public class PackageDependency {
+    private String packageName;
+    private long references;
+
+    @XmlAttribute(name = "package")
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public void setPackageName(String packageName) {
+        this.packageName = packageName;
+    }
+
+    @XmlAttribute(name = "references")
+    public long getReferences() {
+        return references;
+    }
+
+    public void setReferences(long references) {
+        this.references = references;
+    }
+}
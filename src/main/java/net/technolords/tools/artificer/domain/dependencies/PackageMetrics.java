@@ -0,0 +1,120 @@
+package net.technolords.tools.artificer.domain.dependencies;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * This class represents a package of the artifact, with its row of the dependency structure matrix (the packages it
+ * depends on) and its coupling metrics, with the following attributes:
+ *
+ * - name               : The name of the package
+ * - total-classes      : The number of classes
+ * - abstract-classes   : The number of abstract classes and interfaces
+ * - afferent-coupling  : The number of packages depending on this package (Ca)
+ * - efferent-coupling  : The number of packages this package depends on (Ce), including the packages outside the
+ *                        artifact (which are not part of the dependencies)
+ * - instability        : Ce / (Ca + Ce), between 0 (stable) and 1 (instable)
+ * - abstractness       : The share of abstract classes, between 0 and 1
+ * - distance           : The distance from the main sequence, |abstractness + instability - 1|
+ *
+ * <package name="org/acme/impl" total-classes="8" abstract-classes="1" afferent-coupling="1"
+ *     efferent-coupling="2" instability="0.67" abstractness="0.13" distance="0.2">
+ *     <dependency package="org/acme/api" references="12"/>
+ *     ...
+ * </package>
+ */
+public class PackageMetrics {
+    private String name;
+    private long totalClasses;
+    private long abstractClasses;
+    private long afferentCoupling;
+    private long efferentCoupling;
+    private double instability;
+    private double abstractness;
+    private double distance;
+    private List<PackageDependency> dependencies = new ArrayList<>();
+
+    @XmlAttribute(name = "name")
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @XmlAttribute(name = "total-classes")
+    public long getTotalClasses() {
+        return totalClasses;
+    }
+
+    public void setTotalClasses(long totalClasses) {
+        this.totalClasses = totalClasses;
+    }
+
+    @XmlAttribute(name = "abstract-classes")
+    public long getAbstractClasses() {
+        return abstractClasses;
+    }
+
+    public void setAbstractClasses(long abstractClasses) {
+        this.abstractClasses = abstractClasses;
+    }
+
+    @XmlAttribute(name = "afferent-coupling")
+    public long getAfferentCoupling() {
+        return afferentCoupling;
+    }
+
+    public void setAfferentCoupling(long afferentCoupling) {
+        this.afferentCoupling = afferentCoupling;
+    }
+
+    @XmlAttribute(name = "efferent-coupling")
+    public long getEfferentCoupling() {
+        return efferentCoupling;
+    }
+
+    public void setEfferentCoupling(long efferentCoupling) {
+        this.efferentCoupling = efferentCoupling;
+    }
+
+    @XmlAttribute(name = "instability")
+    public double getInstability() {
+        return instability;
+    }
+
+    public void setInstability(double instability) {
+        this.instability = instability;
+    }
+
+    @XmlAttribute(name = "abstractness")
+    public double getAbstractness() {
+        return abstractness;
+    }
+
+    public void setAbstractness(double abstractness) {
+        this.abstractness = abstractness;
+    }
+
+    @XmlAttribute(name = "distance")
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    @XmlElement(name = "dependency")
+    public List<PackageDependency> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<PackageDependency> dependencies) {
+        this.dependencies = dependencies;
+    }
+}
@@ -10,6 +10,10 @@ public class ReferencedClass {
     private static final int DEFAULT_HASH_CODE = 92821;
     private String packageWithClass;
     private ClassDomain classDomain;
+    private String customDomain;
+    private String artifact;
+    private String providedBy;
+    private Boolean resolved;
 
     @XmlEnum(String.class)
     public enum ClassDomain {
@@ -58,4 +62,44 @@ public class ReferencedClass {
     public void setClassDomain(ClassDomain classDomain) {
         this.classDomain = classDomain;
     }
+
+    @XmlAttribute (name = "custom-domain")
+    public String getCustomDomain() {
+        return customDomain;
+    }
+
+    public void setCustomDomain(String customDomain) {
+        this.customDomain = customDomain;
+    }
+
+    @XmlAttribute (name = "artifact")
+    public String getArtifact() {
+        return artifact;
+    }
+
+    public void setArtifact(String artifact) {
+        this.artifact = artifact;
+    }
+
+    @XmlAttribute (name = "provided-by")
+    public String getProvidedBy() {
+        return providedBy;
+    }
+
+    public void setProvidedBy(String providedBy) {
+        this.providedBy = providedBy;
+    }
+
+    /**
+     * Whether the class is provided by the class path, which is only set (to false) for classes no entry of the
+     * class path provides.
+     */
+    @XmlAttribute (name = "resolved")
+    public Boolean getResolved() {
+        return resolved;
+    }
+
+    public void setResolved(Boolean resolved) {
+        this.resolved = resolved;
+    }
 }
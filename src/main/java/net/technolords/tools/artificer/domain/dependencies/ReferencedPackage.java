@@ -0,0 +1,77 @@
+package net.technolords.tools.artificer.domain.dependencies;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * This class represents the summary of the referenced classes of a package and a class domain, which is the compact
+ * alternative of the referenced classes (see ReportSection), with the following attributes:
+ *
+ * - package          : The name of the package, in internal form (i.e. java/util)
+ * - class-domain     : The class domain of the referenced classes
+ * - total-classes    : The number of (distinct) referenced classes of the package and class domain
+ * - total-references : The number of references, being the number of classes referencing a class summed over the
+ *                      referenced classes
+ *
+ * Optionally, the classes referenced most are listed (by number of references, and by name when equal):
+ *
+ * <referenced-package package="java/util" class-domain="Standard" total-classes="12" total-references="84">
+ *     <class>java/util/List</class>
+ *     <class>java/util/Map</class>
+ * </referenced-package>
+ */
+public class ReferencedPackage {
+    private String name;
+    private ReferencedClass.ClassDomain classDomain;
+    private long totalClasses;
+    private long totalReferences;
+    private List<String> topClasses = new ArrayList<>();
+
+    @XmlAttribute(name = "package")
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @XmlAttribute(name = "class-domain")
+    public ReferencedClass.ClassDomain getClassDomain() {
+        return classDomain;
+    }
+
+    public void setClassDomain(ReferencedClass.ClassDomain classDomain) {
+        this.classDomain = classDomain;
+    }
+
+    @XmlAttribute(name = "total-classes")
+    public long getTotalClasses() {
+        return totalClasses;
+    }
+
+    public void setTotalClasses(long totalClasses) {
+        this.totalClasses = totalClasses;
+    }
+
+    @XmlAttribute(name = "total-references")
+    public long getTotalReferences() {
+        return totalReferences;
+    }
+
+    public void setTotalReferences(long totalReferences) {
+        this.totalReferences = totalReferences;
+    }
+
+    @XmlElement(name = "class")
+    public List<String> getTopClasses() {
+        return topClasses;
+    }
+
+    public void setTopClasses(List<String> topClasses) {
+        this.topClasses = topClasses;
+    }
+}
@@ -23,4 +23,32 @@ public class FoundJavaVersions {
     public void setFoundJavaVersionList(List<FoundJavaVersion> foundJavaVersionList) {
         this.foundJavaVersionList = foundJavaVersionList;
     }
+
+    /**
+     * Auxiliary method to compare two java versions, such that 1.7 &lt; 1.8 &lt; 9 &lt; 17. The legacy versions
+     * (i.e. 1.8) are compared by their second part, and versions which are not numeric (i.e. unknown) come last.
+     *
+     * @param first
+     *  The first java version.
+     * @param second
+     *  The second java version.
+     * @return
+     *  A negative number, zero or a positive number when the first version is older, equal or newer.
+     */
+    public static int compareVersions(String first, String second) {
+        int result = Integer.compare(toFeatureVersion(first), toFeatureVersion(second));
+        return result != 0 ? result : String.valueOf(first).compareTo(String.valueOf(second));
+    }
+
+    private static int toFeatureVersion(String version) {
+        if(version == null) {
+            return Integer.MAX_VALUE;
+        }
+        String feature = version.startsWith("1.") ? version.substring(2) : version;
+        try {
+            return Integer.parseInt(feature);
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
 }
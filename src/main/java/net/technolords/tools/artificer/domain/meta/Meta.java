@@ -1,5 +1,12 @@
 package net.technolords.tools.artificer.domain.meta;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 
@@ -27,11 +34,14 @@ import javax.xml.bind.annotation.XmlElement;
  *
  * <meta status="500" error-message="No compiled classes found">
  * </meta>
+ *
+ * The found java versions are registered as counters (one per version), which can be updated concurrently
+ * without locking. The counters are converted into the java-versions element when the report is written.
  */
 public class Meta {
     private String status;
     private String errorMessage;
-    private FoundJavaVersions foundJavaVersions;
+    private final ConcurrentMap<String, LongAdder> compiledVersionCounters = new ConcurrentHashMap<>();
 
     @XmlAttribute(name = "status", required = true)
     public String getStatus() {
@@ -51,13 +61,60 @@ public class Meta {
         this.errorMessage = errorMessage;
     }
 
+    /**
+     * Register a class compiled with the given java version, which increments the counter of that version.
+     * This is safe to be called by concurrent threads.
+     *
+     * @param compiledVersion
+     *  The java version of the class.
+     */
+    public void registerCompiledVersion(String compiledVersion) {
+        LongAdder counter = this.compiledVersionCounters.get(compiledVersion);
+        if(counter == null) {
+            counter = this.compiledVersionCounters.computeIfAbsent(compiledVersion, version -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Get the found java versions, as a snapshot of the counters ordered by java version.
+     *
+     * @return
+     *  The found java versions, or null when no version is registered.
+     */
     @XmlElement(name = "java-versions")
     public FoundJavaVersions getFoundJavaVersions() {
+        if(this.compiledVersionCounters.isEmpty()) {
+            return null;
+        }
+        List<FoundJavaVersion> foundJavaVersionList = new ArrayList<>();
+        for(Map.Entry<String, LongAdder> entry : this.compiledVersionCounters.entrySet()) {
+            FoundJavaVersion foundJavaVersion = new FoundJavaVersion();
+            foundJavaVersion.setFoundJavaVersion(entry.getKey());
+            foundJavaVersion.setTotalClasses(entry.getValue().sum());
+            foundJavaVersionList.add(foundJavaVersion);
+        }
+        foundJavaVersionList.sort((first, second) -> FoundJavaVersions.compareVersions(first.getFoundJavaVersion(), second.getFoundJavaVersion()));
+        FoundJavaVersions foundJavaVersions = new FoundJavaVersions();
+        foundJavaVersions.setFoundJavaVersionList(foundJavaVersionList);
         return foundJavaVersions;
     }
 
+    /**
+     * Set the found java versions, which replaces the counters.
+     *
+     * @param foundJavaVersions
+     *  The found java versions.
+     */
     public void setFoundJavaVersions(FoundJavaVersions foundJavaVersions) {
-        this.foundJavaVersions = foundJavaVersions;
+        this.compiledVersionCounters.clear();
+        if(foundJavaVersions != null) {
+            for(FoundJavaVersion foundJavaVersion : foundJavaVersions.getFoundJavaVersionList()) {
+                LongAdder counter = new LongAdder();
+                counter.add(foundJavaVersion.getTotalClasses());
+                this.compiledVersionCounters.put(foundJavaVersion.getFoundJavaVersion(), counter);
+            }
+        }
     }
 
 }
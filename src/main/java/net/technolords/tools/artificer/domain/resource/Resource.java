@@ -1,7 +1,9 @@
 package net.technolords.tools.artificer.domain.resource;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.xml.bind.annotation.XmlAttribute;
@@ -14,9 +16,15 @@ import net.technolords.tools.artificer.domain.dotclass.ConstantPool;
  */
 public class Resource {
     private String name;
+    private String className;
     private Path path;
     private Set<String> referencedClasses = new HashSet<>();
     private String compiledVersion;
+    private int majorVersion = -1;
+    private int accessFlags;
+    private String superClass;
+    private List<String> interfaces = new ArrayList<>();
+    private Set<String> annotations = new HashSet<>();
     boolean validClass = true;
     private ConstantPool constantPool;
 
@@ -32,6 +40,22 @@ public class Resource {
         this.name = name;
     }
 
+    /**
+     * The name of the class (in internal form, i.e. java/lang/Object) as defined by the class file itself, which
+     * is known once the class is parsed.
+     *
+     * @return
+     *  The class name, or null when not (yet) known.
+     */
+    @XmlTransient
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
     @XmlTransient
     public Path getPath() {
         return path;
@@ -59,6 +83,78 @@ public class Resource {
         this.compiledVersion = compiledVersion;
     }
 
+    @XmlTransient
+    public int getMajorVersion() {
+        return majorVersion;
+    }
+
+    public void setMajorVersion(int majorVersion) {
+        this.majorVersion = majorVersion;
+    }
+
+    /**
+     * The access flags of the class (i.e. public, abstract or interface, see AccessFlagsParser), which are known
+     * once the class is parsed.
+     *
+     * @return
+     *  The access flags (as a bit mask), or 0 when not (yet) known.
+     */
+    @XmlTransient
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    public void setAccessFlags(int accessFlags) {
+        this.accessFlags = accessFlags;
+    }
+
+    /**
+     * The direct superclass of the class (in internal form, i.e. java/lang/Object), which is known once the class
+     * is parsed.
+     *
+     * @return
+     *  The superclass, or null when not (yet) known, or when the class is java/lang/Object.
+     */
+    @XmlTransient
+    public String getSuperClass() {
+        return superClass;
+    }
+
+    public void setSuperClass(String superClass) {
+        this.superClass = superClass;
+    }
+
+    /**
+     * The direct superinterfaces of the class (in internal form), in the order of the class file.
+     *
+     * @return
+     *  The interfaces.
+     */
+    @XmlTransient
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    public void setInterfaces(List<String> interfaces) {
+        this.interfaces = interfaces;
+    }
+
+    /**
+     * The types of the annotations of the class itself (in internal form, i.e. javax/ejb/Stateless), being both
+     * the run-time visible and invisible annotations. Annotations of fields and methods are not included.
+     *
+     * @return
+     *  The annotation types.
+     */
+    @XmlTransient
+    public Set<String> getAnnotations() {
+        return annotations;
+    }
+
+    public void setAnnotations(Set<String> annotations) {
+        this.annotations = annotations;
+    }
+
     @XmlTransient
     public boolean isValidClass() {
         return validClass;
@@ -8,10 +8,14 @@ import javax.xml.bind.annotation.XmlElement;
 
 /**
  * Created by Technolords on 2015-Sep-09.
+ *
+ * The total is the number of resources, unless it is set explicitly, which is the case when the group is written
+ * without its resources (see ReportSection).
  */
 public class ResourceGroup {
     private String groupType;
     private List<Resource> resources = new ArrayList<>();
+    private Integer size;
 
     @XmlAttribute (name = "type")
     public String getGroupType() {
@@ -33,6 +37,10 @@ public class ResourceGroup {
 
     @XmlAttribute (name = "total")
     public int getSize() {
-        return this.resources.size();
+        return this.size != null ? this.size : this.resources.size();
+    }
+
+    public void setSize(int size) {
+        this.size = size;
     }
 }
@@ -5,18 +5,21 @@ import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.zip.ZipError;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.technolords.tools.artificer.Analyser;
-import net.technolords.tools.artificer.analyser.dotclass.BytecodeParser;
-import net.technolords.tools.artificer.analyser.dotclass.ClassDomainAnalyser;
-import net.technolords.tools.artificer.analyser.dotclass.ConstantPoolAnalyser;
+import net.technolords.tools.artificer.analyser.AnalysisEngine;
+import net.technolords.tools.artificer.analyser.AnalysisListener;
+import net.technolords.tools.artificer.analyser.AnalysisSession;
+import net.technolords.tools.artificer.analyser.dotclass.ClassResultCache;
 import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
 import net.technolords.tools.artificer.domain.meta.Meta;
-import net.technolords.tools.artificer.domain.resource.Resource;
 import net.technolords.tools.artificer.domain.resource.ResourceGroup;
 
 /**
@@ -26,11 +29,76 @@ public class ArtifactManager {
     private final Logger LOGGER = LoggerFactory.getLogger(getClass());
     public static final String CLASSIFICATION_UNDEFINED = "_classification_undefined_";
     public static final String CLASSIFICATION_JAVA_CLASSES = ".class";
-    private BytecodeParser bytecodeParser;
-    private ConstantPoolAnalyser constantPoolAnalyser;
-    private ClassDomainAnalyser classDomainAnalyser;
+    private final AnalysisEngine analysisEngine;
+    private final int parallelism;
+    private final Set<ReportSection> reportSections;
+    private ClassResultCache classResultCache;
+    private boolean releasingDetails;
 
     public ArtifactManager() {
+        this(AnalysisEngine.getDefaultEngine(), 1);
+    }
+
+    /**
+     * Create an artifact manager which analyses the classes of an artifact with the given number of threads.
+     *
+     * @param parallelism
+     *  The number of threads, where 1 means sequential analysis.
+     */
+    public ArtifactManager(int parallelism) {
+        this(AnalysisEngine.getDefaultEngine(), parallelism);
+    }
+
+    /**
+     * Create an artifact manager using the given engine. The manager keeps no state of the analysed artifacts, so
+     * it can be reused for many artifacts (also concurrently), where each artifact is analysed by its own session.
+     *
+     * @param analysisEngine
+     *  The engine holding the shared state.
+     * @param parallelism
+     *  The number of threads used to analyse the classes of an artifact, where 1 means sequential analysis.
+     */
+    public ArtifactManager(AnalysisEngine analysisEngine, int parallelism) {
+        this(analysisEngine, parallelism, ReportSection.defaults());
+    }
+
+    /**
+     * Create an artifact manager using the given engine, which only computes the given sections of the report.
+     *
+     * @param analysisEngine
+     *  The engine holding the shared state.
+     * @param parallelism
+     *  The number of threads used to analyse the classes of an artifact, where 1 means sequential analysis.
+     * @param reportSections
+     *  The sections to compute, where the sections they require are computed as well (see ReportSection).
+     */
+    public ArtifactManager(AnalysisEngine analysisEngine, int parallelism, Set<ReportSection> reportSections) {
+        this.analysisEngine = analysisEngine;
+        this.parallelism = Math.max(1, parallelism);
+        this.reportSections = EnumSet.noneOf(ReportSection.class);
+        this.reportSections.addAll(reportSections);
+    }
+
+    /**
+     * Set the cache of parse results, which is shared by the artifacts analysed by this manager, so the classes
+     * which are unchanged since an earlier analysis are not parsed again (see ClassResultCache).
+     *
+     * @param classResultCache
+     *  The cache of parse results, or null for no cache.
+     */
+    public void setClassResultCache(ClassResultCache classResultCache) {
+        this.classResultCache = classResultCache;
+    }
+
+    /**
+     * Set whether the details of the resources are released once the listener is notified of them, as nothing
+     * reads them after the analysis (see AnalysisSession.setReleasingDetails).
+     *
+     * @param releasingDetails
+     *  True to release the details of the resources.
+     */
+    public void setReleasingDetails(boolean releasingDetails) {
+        this.releasingDetails = releasingDetails;
     }
 
     /**
@@ -46,42 +114,37 @@ public class ArtifactManager {
      *  Te path to the zip file.
      */
     public void analyseArtifact(Analysis analysis, Path pathToZipFile) {
-        try {
+        this.analyseArtifact(analysis, pathToZipFile, null);
+    }
+
+    /**
+     * Analyse the artifact, where a listener is notified while the artifact is analysed (see AnalysisListener).
+     *
+     * @param analysis
+     *  A reference of the model to populate.
+     * @param pathToZipFile
+     *  Te path to the zip file.
+     * @param analysisListener
+     *  The listener, or null for no listener.
+     */
+    public void analyseArtifact(Analysis analysis, Path pathToZipFile, AnalysisListener analysisListener) {
+        // The file system is closed once the analysis is done, as the resources are not read afterwards
+        try (FileSystem fileSystem = FileSystems.newFileSystem(pathToZipFile, null)) {
             // Walk the tree for initial scan, and classify the resources
             ArtifactResourceVisitor artifactResourceVisitor = new ArtifactResourceVisitor(analysis);
-            FileSystem fileSystem = FileSystems.newFileSystem(pathToZipFile, null);
             Files.walkFileTree(fileSystem.getPath("/"), artifactResourceVisitor);
-
-            // Initialize manager of byte code analysis (for referenced classes)
-            if (this.bytecodeParser == null) {
-                this.bytecodeParser = new BytecodeParser();
-            }
-
-            // Initialize constant pool analyser
-            if (this.constantPoolAnalyser == null) {
-                this.constantPoolAnalyser = new ConstantPoolAnalyser();
+            if (analysisListener != null) {
+                analysisListener.analysisStarted(analysis);
             }
 
             // Analyse the resource group representing java classes
             ResourceGroup javaResourceGroup = analysis.getResourceGroups().get(CLASSIFICATION_JAVA_CLASSES);
             if (javaResourceGroup != null) {
-                // Analyse each resource individually
-                for (Resource resource : javaResourceGroup.getResources()) {
-                    // Determine the references classes by the resource
-                    this.bytecodeParser.analyseBytecode(analysis.getMeta(), resource);
-                }
-                // Now that all java classes are analysed, the 'self' classes are known. At this point we can divide
-                // the resources in the appropriate groups. In other words: Self, Standard, Enterprise and External
-                // See also the enums in the ReferencedClass.
-
-                // Initialize class domain analyser, note that when there is no java resource group this is skipped.
-                if (this.classDomainAnalyser == null) {
-                    this.classDomainAnalyser = new ClassDomainAnalyser(javaResourceGroup);
-                }
-                for (Resource resource : javaResourceGroup.getResources()) {
-                    this.classDomainAnalyser.analyseReferencedClassForClassDomain(analysis, resource);
-                }
-
+                AnalysisSession analysisSession = this.analysisEngine.createSession(analysis, this.parallelism, this.reportSections);
+                analysisSession.setAnalysisListener(analysisListener);
+                analysisSession.setClassResultCache(this.classResultCache);
+                analysisSession.setReleasingDetails(this.releasingDetails);
+                analysisSession.analyseJavaClasses(javaResourceGroup);
             }
             // TODO: chart packages and classes into visual groups using graphviz/gephi
 
@@ -0,0 +1,125 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The reader of a report in the binary format (see BinaryReportWriter), which replays the report as events for a
+ * ReportEncoder. For example, to convert a binary report to JSON:
+ *
+ * BinaryReportReader.read(inputStream, new JsonReportWriter.JsonReportEncoder(writer));
+ */
+public class BinaryReportReader {
+    private final DataInputStream dataInputStream;
+    private final List<String> strings = new ArrayList<>();
+
+    private BinaryReportReader(DataInputStream dataInputStream) {
+        this.dataInputStream = dataInputStream;
+    }
+
+    /**
+     * Read a binary report.
+     *
+     * @param inputStream
+     *  The stream to read the report from, which is not closed.
+     * @param reportEncoder
+     *  The encoder receiving the events.
+     * @throws IOException
+     *  When reading fails, or the report is not a (supported) binary report.
+     */
+    public static void read(InputStream inputStream, ReportEncoder reportEncoder) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(inputStream));
+        if (dataInputStream.readInt() != BinaryReportWriter.MAGIC) {
+            throw new IOException("Not a binary report");
+        }
+        int version = dataInputStream.readUnsignedByte();
+        if (version != BinaryReportWriter.VERSION) {
+            throw new IOException("Unsupported version of binary report: " + version);
+        }
+        new BinaryReportReader(dataInputStream).readValue(dataInputStream.readUnsignedByte(), false, reportEncoder);
+    }
+
+    /**
+     * Auxiliary method to read a value, of which the tag is read already.
+     *
+     * @param tag
+     *  The tag of the value.
+     * @param named
+     *  Whether the value is named, being a member of an object.
+     * @param reportEncoder
+     *  The encoder receiving the events.
+     * @throws IOException
+     *  When reading fails.
+     */
+    private void readValue(int tag, boolean named, ReportEncoder reportEncoder) throws IOException {
+        String name = named ? this.readString() : null;
+        switch (tag) {
+            case BinaryReportWriter.TAG_OBJECT:
+                reportEncoder.startObject(name);
+                for (int memberTag = this.dataInputStream.readUnsignedByte(); memberTag != BinaryReportWriter.TAG_END; memberTag = this.dataInputStream.readUnsignedByte()) {
+                    this.readValue(memberTag, true, reportEncoder);
+                }
+                reportEncoder.endObject();
+                break;
+            case BinaryReportWriter.TAG_ARRAY:
+                int size = (int) this.readVarint();
+                reportEncoder.startArray(name, size);
+                for (int i = 0; i < size; i++) {
+                    this.readValue(this.dataInputStream.readUnsignedByte(), false, reportEncoder);
+                }
+                reportEncoder.endArray();
+                break;
+            case BinaryReportWriter.TAG_STRING:
+                reportEncoder.value(name, this.readString());
+                break;
+            case BinaryReportWriter.TAG_LONG:
+                long number = this.readVarint();
+                reportEncoder.value(name, (number >>> 1) ^ -(number & 1));
+                break;
+            case BinaryReportWriter.TAG_DOUBLE:
+                reportEncoder.value(name, this.dataInputStream.readDouble());
+                break;
+            case BinaryReportWriter.TAG_TRUE:
+            case BinaryReportWriter.TAG_FALSE:
+                reportEncoder.value(name, tag == BinaryReportWriter.TAG_TRUE);
+                break;
+            default:
+                throw new IOException("Unknown tag in binary report: " + tag);
+        }
+    }
+
+    /**
+     * Auxiliary method to read a string, which is either new (and added to the string table) or a reference.
+     */
+    private String readString() throws IOException {
+        int reference = (int) this.readVarint();
+        if (reference > 0) {
+            if (reference > this.strings.size()) {
+                throw new IOException("Unknown string reference in binary report: " + reference);
+            }
+            return this.strings.get(reference - 1);
+        }
+        byte[] bytes = new byte[(int) this.readVarint()];
+        this.dataInputStream.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        this.strings.add(value);
+        return value;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int current;
+        do {
+            current = this.dataInputStream.readUnsignedByte();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,147 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The binary format of a report, which is compact and fast to parse, as all values are length prefixed (so no
+ * escaping or scanning is needed) and every string (i.e. a class name, or the name of a member) is written once,
+ * after which it is referred to by its number. The report is written while the model is walked (see ReportModel),
+ * and can be read back with the BinaryReportReader (i.e. to convert it to JSON). The layout is:
+ *
+ * report {
+ *     u4 magic             ('ARPT')
+ *     u1 version           (1)
+ *     value root           (an object)
+ * }
+ * value {
+ *     u1 tag
+ *     string name          only for the members of an object (not for the items of an array, nor the root)
+ *     ...                  depending on the tag:
+ *                          - TAG_OBJECT: the members (being values), up to a TAG_END
+ *                          - TAG_ARRAY : varint count, followed by count values
+ *                          - TAG_STRING: string
+ *                          - TAG_LONG  : varint (zigzag encoded, so small negative numbers are small as well)
+ *                          - TAG_DOUBLE: u8 (IEEE 754)
+ *                          - TAG_TRUE, TAG_FALSE: nothing
+ * }
+ * string {
+ *     varint reference     the number of the string (starting at 1), or 0 for a new string which follows as:
+ *     varint length        the number of bytes, followed by the bytes (UTF-8), and which gets the next number
+ * }
+ *
+ * A varint is an unsigned number, written 7 bits at a time (least significant first), where the high bit of a
+ * byte tells whether more bytes follow.
+ */
+public class BinaryReportWriter implements ReportWriter {
+    public static final String FORMAT = "binary";
+    public static final int MAGIC = 0x41525054;
+    public static final int VERSION = 1;
+    public static final int TAG_END = 0;
+    public static final int TAG_OBJECT = 1;
+    public static final int TAG_ARRAY = 2;
+    public static final int TAG_STRING = 3;
+    public static final int TAG_LONG = 4;
+    public static final int TAG_DOUBLE = 5;
+    public static final int TAG_TRUE = 6;
+    public static final int TAG_FALSE = 7;
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public void writeReport(Object report, OutputStream outputStream) throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream));
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeByte(VERSION);
+        ReportModel.encode(report, new BinaryReportEncoder(dataOutputStream));
+        dataOutputStream.flush();
+    }
+
+    /**
+     * The encoder writing the binary format, which holds the string table of a single report.
+     */
+    protected static class BinaryReportEncoder implements ReportEncoder {
+        private final DataOutputStream dataOutputStream;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        protected BinaryReportEncoder(DataOutputStream dataOutputStream) {
+            this.dataOutputStream = dataOutputStream;
+        }
+
+        @Override
+        public void startObject(String name) throws IOException {
+            this.writeTag(TAG_OBJECT, name);
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            this.dataOutputStream.writeByte(TAG_END);
+        }
+
+        @Override
+        public void startArray(String name, int size) throws IOException {
+            this.writeTag(TAG_ARRAY, name);
+            writeVarint(this.dataOutputStream, size);
+        }
+
+        @Override
+        public void endArray() {
+        }
+
+        @Override
+        public void value(String name, Object value) throws IOException {
+            if (value instanceof String) {
+                this.writeTag(TAG_STRING, name);
+                this.writeString((String) value);
+            } else if (value instanceof Boolean) {
+                this.writeTag((Boolean) value ? TAG_TRUE : TAG_FALSE, name);
+            } else if (value instanceof Double) {
+                this.writeTag(TAG_DOUBLE, name);
+                this.dataOutputStream.writeDouble((Double) value);
+            } else {
+                long number = (Long) value;
+                this.writeTag(TAG_LONG, name);
+                writeVarint(this.dataOutputStream, (number << 1) ^ (number >> 63));
+            }
+        }
+
+        private void writeTag(int tag, String name) throws IOException {
+            this.dataOutputStream.writeByte(tag);
+            if (name != null) {
+                this.writeString(name);
+            }
+        }
+
+        /**
+         * Auxiliary method to write a string, by reference when it was written before.
+         */
+        private void writeString(String value) throws IOException {
+            Integer reference = this.strings.get(value);
+            if (reference != null) {
+                writeVarint(this.dataOutputStream, reference);
+                return;
+            }
+            this.strings.put(value, this.strings.size() + 1);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(this.dataOutputStream, 0);
+            writeVarint(this.dataOutputStream, bytes.length);
+            this.dataOutputStream.write(bytes);
+        }
+    }
+
+    private static void writeVarint(DataOutputStream dataOutputStream, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            dataOutputStream.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        dataOutputStream.writeByte((int) value);
+    }
+}
@@ -0,0 +1,131 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * The JSON format of a report, which is written while the model is walked (see ReportModel), without building a
+ * tree. The report is a single object, holding the attributes and elements of the root element:
+ *
+ * {"artifact-name":"xxx.jar","meta":{"status":"200",...},"referenced-classes":[{"class-domain":"Standard",...},...]}
+ *
+ * Numbers and booleans are written as such, and the output is not indented.
+ */
+public class JsonReportWriter implements ReportWriter {
+    public static final String FORMAT = "json";
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public void writeReport(Object report, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ReportModel.encode(report, new JsonReportEncoder(writer));
+        writer.flush();
+    }
+
+    /**
+     * The encoder writing JSON, which can also be used to convert a binary report (see BinaryReportReader).
+     */
+    public static class JsonReportEncoder implements ReportEncoder {
+        private final Writer writer;
+        private final Deque<Boolean> firstMembers = new ArrayDeque<>();
+
+        public JsonReportEncoder(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void startObject(String name) throws IOException {
+            this.writeName(name);
+            this.writer.write('{');
+            this.firstMembers.push(true);
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            this.firstMembers.pop();
+            this.writer.write('}');
+        }
+
+        @Override
+        public void startArray(String name, int size) throws IOException {
+            this.writeName(name);
+            this.writer.write('[');
+            this.firstMembers.push(true);
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            this.firstMembers.pop();
+            this.writer.write(']');
+        }
+
+        @Override
+        public void value(String name, Object value) throws IOException {
+            this.writeName(name);
+            if (value instanceof String) {
+                this.writeString((String) value);
+            } else if (value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite())) {
+                this.writer.write("null");
+            } else {
+                this.writer.write(String.valueOf(value));
+            }
+        }
+
+        /**
+         * Auxiliary method to write the separator (when not the first member) and the name (when present).
+         */
+        private void writeName(String name) throws IOException {
+            if (!this.firstMembers.isEmpty()) {
+                if (!this.firstMembers.pop()) {
+                    this.writer.write(',');
+                }
+                this.firstMembers.push(false);
+            }
+            if (name != null) {
+                this.writeString(name);
+                this.writer.write(':');
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            this.writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char character = value.charAt(i);
+                switch (character) {
+                    case '"':
+                        this.writer.write("\\\"");
+                        break;
+                    case '\\':
+                        this.writer.write("\\\\");
+                        break;
+                    case '\n':
+                        this.writer.write("\\n");
+                        break;
+                    case '\r':
+                        this.writer.write("\\r");
+                        break;
+                    case '\t':
+                        this.writer.write("\\t");
+                        break;
+                    default:
+                        if (character < 0x20) {
+                            this.writer.write(String.format("\\u%04x", (int) character));
+                        } else {
+                            this.writer.write(character);
+                        }
+                }
+            }
+            this.writer.write('"');
+        }
+    }
+}
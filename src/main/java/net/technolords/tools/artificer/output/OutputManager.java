@@ -1,45 +1,122 @@
 package net.technolords.tools.artificer.output;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.Calendar;
-
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamWriter;
+import java.util.ServiceLoader;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.technolords.tools.artificer.domain.Analysis;
-import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.classpath.ClassPathAnalysis;
 import net.technolords.tools.artificer.exception.ArtificerException;
+import net.technolords.tools.artificer.output.graph.GraphExport;
+import net.technolords.tools.artificer.output.graph.GraphWriter;
+import net.technolords.tools.artificer.output.merge.ReportMerger;
 
 /**
  * Created by Technolords on 2015-Sep-09.
+ *
+ * The output manager writes the reports in the selected format, where each format is a ReportWriter (which is
+ * looked up with a ServiceLoader, see ReportWriter). The default format is XML.
+ *
+ * With a report parallelism larger than 1, the XML report of an analysis is serialized in parallel chunks (see
+ * XmlReportWriter). When the reports are compressed, they are written with gzip (in parallel blocks, see
+ * ParallelGzipOutputStream), where the name of the report gets the extension '.gz'.
  */
-public class OutputManager extends Marshaller.Listener {
+public class OutputManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(OutputManager.class);
     private static final String UTF8 = "UTF-8";
     private static final Charset CHARSET = Charset.forName(UTF8);
+    public static final String GZIP_EXTENSION = ".gz";
 
     private Path outputLocation;
-    private XMLStreamWriter xmlStreamWriter;
+    private String reportFormat;
+    private int reportParallelism = 1;
+    private boolean compressedReport;
 
     public OutputManager(Path outputLocation) {
+        this(outputLocation, XmlReportWriter.FORMAT);
+    }
+
+    /**
+     * Create an output manager writing the reports in the given format.
+     *
+     * @param outputLocation
+     *  The location the reports are written to.
+     * @param reportFormat
+     *  The format of the reports, i.e. xml, json or binary.
+     */
+    public OutputManager(Path outputLocation, String reportFormat) {
         this.outputLocation = outputLocation;
+        this.reportFormat = reportFormat;
+    }
+
+    /**
+     * Set the number of threads used to write a report.
+     *
+     * @param reportParallelism
+     *  The number of threads, where 1 means the report is written sequentially.
+     */
+    public void setReportParallelism(int reportParallelism) {
+        this.reportParallelism = Math.max(1, reportParallelism);
+    }
+
+    /**
+     * Set whether the reports are compressed with gzip.
+     *
+     * @param compressedReport
+     *  True to compress the reports.
+     */
+    public void setCompressedReport(boolean compressedReport) {
+        this.compressedReport = compressedReport;
+    }
+
+    /**
+     * Find the report writer of a format.
+     *
+     * @param reportFormat
+     *  The format, i.e. xml, json or binary.
+     * @return
+     *  The report writer, or null when the format is not supported.
+     */
+    public static ReportWriter findReportWriter(String reportFormat) {
+        for (ReportWriter reportWriter : ServiceLoader.load(ReportWriter.class, OutputManager.class.getClassLoader())) {
+            if (reportWriter.getFormat().equalsIgnoreCase(reportFormat)) {
+                return reportWriter;
+            }
+        }
+        return null;
     }
 
     /**
-     * Write the analysis as report to stream.
+     * Find the graph writer of a format.
+     *
+     * @param graphFormat
+     *  The format, i.e. gexf, graphml or dot.
+     * @return
+     *  The graph writer, or null when the format is not supported.
+     */
+    public static GraphWriter findGraphWriter(String graphFormat) {
+        for (GraphWriter graphWriter : ServiceLoader.load(GraphWriter.class, OutputManager.class.getClassLoader())) {
+            if (graphWriter.getFormat().equalsIgnoreCase(graphFormat)) {
+                return graphWriter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write the analysis as report to stream, where only the report sections of the analysis are written (see
+     * ReportProjection).
      *
      * @param analysis
      *  The analysis to be written out as report.
@@ -47,47 +124,136 @@ public class OutputManager extends Marshaller.Listener {
      *  When writing a report fails.
      */
     public void writeReport(final Analysis analysis) throws ArtificerException {
+        this.writeReport(analysis, Analysis.class, analysis.getGeneratedFilename());
+    }
+
+    /**
+     * Write the class path analysis as report to stream.
+     *
+     * @param classPathAnalysis
+     *  The class path analysis to be written out as report.
+     * @throws ArtificerException
+     *  When writing a report fails.
+     */
+    public void writeReport(final ClassPathAnalysis classPathAnalysis) throws ArtificerException {
+        this.writeReport(classPathAnalysis, ClassPathAnalysis.class, classPathAnalysis.getGeneratedFilename());
+    }
+
+    /**
+     * Write the dependency graph of an analysis, next to the report. The name of the graph is the name of the report,
+     * with the format as extension (i.e. report.gexf for report.xml).
+     *
+     * @param analysis
+     *  The analysis with the dependency graph.
+     * @param graphFormat
+     *  The format of the graph, i.e. gexf, graphml or dot.
+     * @param granularity
+     *  The granularity of the graph, i.e. class or package (see GraphExport).
+     * @throws ArtificerException
+     *  When writing the graph fails.
+     */
+    public void writeGraph(final Analysis analysis, String graphFormat, String granularity) throws ArtificerException {
+        GraphWriter graphWriter = findGraphWriter(graphFormat);
+        if (graphWriter == null) {
+            throw new ArtificerException("Unsupported graph format: " + graphFormat);
+        }
+        String generatedFilename = analysis.getGeneratedFilename();
+        int extension = generatedFilename.lastIndexOf('.');
+        String graphFilename = (extension > 0 ? generatedFilename.substring(0, extension) : generatedFilename) + "." + graphWriter.getFormat();
+        Path outputFile = FileSystems.getDefault().getPath(this.outputLocation.toAbsolutePath() + "/" + graphFilename);
+        try (OutputStream outputStream = Files.newOutputStream(outputFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            graphWriter.writeGraph(GraphExport.of(analysis, granularity), outputStream);
+        } catch (IOException exception) {
+            LOGGER.error("Failed to create graph" + exception.getMessage(), exception);
+            throw new ArtificerException("Error writing data to a graph: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Create a writer which streams the report of an analysis while the artifact is analysed (see
+     * StreamingReportWriter), rather than writing the model once the analysis is done.
+     *
+     * @param analysis
+     *  The analysis to be written out as report.
+     * @return
+     *  The streaming report writer, which must be finished and closed by the caller.
+     * @throws ArtificerException
+     *  When creating the report fails.
+     */
+    public StreamingReportWriter createStreamingReportWriter(final Analysis analysis) throws ArtificerException {
         try {
-            // Initialize output stream
-            Path outputFile = FileSystems.getDefault().getPath(this.outputLocation.toAbsolutePath() + "/" + analysis.getGeneratedFilename());
-            BufferedWriter writer = Files.newBufferedWriter(outputFile, CHARSET, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            this.xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(writer);
-
-            // Initialize data and a listener
-            JAXBContext context = JAXBContext.newInstance(Analysis.class);
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
-            marshaller.setProperty(Marshaller.JAXB_ENCODING, UTF8);
-            marshaller.setListener(this);
-
-            // Write data
-            marshaller.marshal(analysis, this.xmlStreamWriter);
-        } catch (IOException | XMLStreamException | JAXBException exception) {
+            return new StreamingReportWriter(new BufferedWriter(new OutputStreamWriter(this.openReport(analysis.getGeneratedFilename()), CHARSET)));
+        } catch (IOException exception) {
             LOGGER.error("Failed to create report" + exception.getMessage(), exception);
             throw new ArtificerException("Error writing data to a report: " + exception.getMessage(), exception);
         }
     }
 
-    @Override
-    public void afterMarshal(Object source) {
-//        try {
-//            if(source instanceof Analysis) {
-//                this.xmlStreamWriter.writeComment("Output generated at: " + Calendar.getInstance().getTime().toString());
-//            }
-//        } catch (XMLStreamException e) {
-//            LOGGER.error("Failed to add a comment: " + e.getMessage(), e);
-//        }
+    /**
+     * Write the merged report of the artifacts added to a merger (see ReportMerger), which is always XML.
+     *
+     * @param reportMerger
+     *  The merger of the reports.
+     * @param generatedFilename
+     *  The filename of the merged report.
+     * @throws ArtificerException
+     *  When writing the merged report fails.
+     */
+    public void writeMergedReport(final ReportMerger reportMerger, String generatedFilename) throws ArtificerException {
+        try (OutputStream outputStream = this.openReport(generatedFilename)) {
+            reportMerger.writeMergedReport(outputStream);
+        } catch (IOException exception) {
+            LOGGER.error("Failed to create merged report" + exception.getMessage(), exception);
+            throw new ArtificerException("Error writing data to a merged report: " + exception.getMessage(), exception);
+        }
     }
 
-    @Override
-    public void beforeMarshal(Object source) {
-        try {
-            if(source instanceof Meta) {
-                this.xmlStreamWriter.writeComment("Output generated at: " + Calendar.getInstance().getTime().toString());
-            }
-        } catch (XMLStreamException e) {
-            LOGGER.error("Failed to add a comment: " + e.getMessage(), e);
+    /**
+     * Auxiliary method to write a model (being the root element) as report to stream.
+     *
+     * @param report
+     *  The model to be written out as report.
+     * @param reportType
+     *  The type of the model.
+     * @param generatedFilename
+     *  The filename of the report.
+     * @throws ArtificerException
+     *  When writing a report fails.
+     */
+    protected void writeReport(final Object report, Class<?> reportType, String generatedFilename) throws ArtificerException {
+        ReportWriter reportWriter = findReportWriter(this.reportFormat);
+        if (reportWriter == null) {
+            throw new ArtificerException("Unsupported report format: " + this.reportFormat);
+        }
+        if (this.reportParallelism > 1 && reportWriter instanceof XmlReportWriter) {
+            reportWriter = new XmlReportWriter(this.reportParallelism);
+        }
+        try (OutputStream outputStream = this.openReport(generatedFilename)) {
+            Object projection = report instanceof Analysis && reportWriter.isProjected() ? ReportProjection.project((Analysis) report) : report;
+            reportWriter.writeReport(reportType.cast(projection), outputStream);
+        } catch (IOException exception) {
+            LOGGER.error("Failed to create report" + exception.getMessage(), exception);
+            throw new ArtificerException("Error writing data to a report: " + exception.getMessage(), exception);
         }
     }
 
+    /**
+     * Auxiliary method to open the file of a report, which is compressed when the reports are compressed.
+     *
+     * @param generatedFilename
+     *  The filename of the report, which gets the extension '.gz' when compressed.
+     * @return
+     *  The stream to write the report to.
+     * @throws IOException
+     *  When the file can not be opened.
+     */
+    protected OutputStream openReport(String generatedFilename) throws IOException {
+        String filename = this.compressedReport && !generatedFilename.endsWith(GZIP_EXTENSION) ? generatedFilename + GZIP_EXTENSION : generatedFilename;
+        Path outputFile = FileSystems.getDefault().getPath(this.outputLocation.toAbsolutePath() + "/" + filename);
+        OutputStream outputStream = Files.newOutputStream(outputFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (this.compressedReport) {
+            return new ParallelGzipOutputStream(new BufferedOutputStream(outputStream), this.reportParallelism);
+        }
+        return outputStream;
+    }
 }
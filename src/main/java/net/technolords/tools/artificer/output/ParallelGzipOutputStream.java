@@ -0,0 +1,163 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An output stream which compresses the data with gzip, where blocks of the data are compressed in parallel. Each
+ * block is written as a gzip member of its own, in the order of the data, which is a valid gzip file (a gzip file
+ * is a series of members, as supported by gunzip and GZIPInputStream). Compressing a block independently costs a
+ * little in compression ratio, which is negligible for blocks of 1 MB.
+ *
+ * The number of blocks being compressed is bounded (twice the parallelism), so the memory used is constant. With a
+ * parallelism of 1, the blocks are compressed by the calling thread. Closing the stream closes the underlying stream.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+    protected static final int BLOCK_SIZE = 1 << 20;
+    private final OutputStream outputStream;
+    private final int parallelism;
+    private final ExecutorService executorService;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int position;
+    private boolean written;
+    private boolean closed;
+
+    /**
+     * Create a compressing output stream.
+     *
+     * @param outputStream
+     *  The stream the compressed data is written to.
+     * @param parallelism
+     *  The number of threads compressing the blocks, where 1 means sequential compression.
+     */
+    public ParallelGzipOutputStream(OutputStream outputStream, int parallelism) {
+        this.outputStream = outputStream;
+        this.parallelism = Math.max(1, parallelism);
+        this.executorService = this.parallelism == 1 ? null : Executors.newFixedThreadPool(this.parallelism);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (this.position == BLOCK_SIZE) {
+            this.submitBlock();
+        }
+        this.block[this.position++] = (byte) value;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (this.position == BLOCK_SIZE) {
+                this.submitBlock();
+            }
+            int size = Math.min(length, BLOCK_SIZE - this.position);
+            System.arraycopy(bytes, offset, this.block, this.position, size);
+            this.position += size;
+            offset += size;
+            length -= size;
+        }
+    }
+
+    /**
+     * Flush the underlying stream. The data of the current block is not compressed before the block is full (or
+     * the stream is closed), as that would end a member early.
+     *
+     * @throws IOException
+     *  When writing fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        this.outputStream.flush();
+    }
+
+    /**
+     * Compress the remaining data, write the compressed blocks and close the underlying stream.
+     *
+     * @throws IOException
+     *  When writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (this.position > 0 || !this.written) {
+                // An empty stream is still a gzip file, being a single empty member
+                this.submitBlock();
+            }
+            while (!this.pendingBlocks.isEmpty()) {
+                this.writeBlock(this.pendingBlocks.removeFirst());
+            }
+            this.outputStream.flush();
+        } finally {
+            if (this.executorService != null) {
+                this.executorService.shutdownNow();
+            }
+            this.outputStream.close();
+        }
+    }
+
+    /**
+     * Auxiliary method to compress the current block (in the background, when parallel), after which the oldest
+     * blocks are written when too many blocks are pending.
+     */
+    private void submitBlock() throws IOException {
+        final byte[] data = this.block;
+        final int length = this.position;
+        this.written = true;
+        if (this.executorService == null) {
+            this.outputStream.write(compress(data, length));
+            this.position = 0;
+            return;
+        }
+        this.pendingBlocks.addLast(this.executorService.submit(() -> compress(data, length)));
+        this.block = new byte[BLOCK_SIZE];
+        this.position = 0;
+        while (this.pendingBlocks.size() >= this.parallelism * 2) {
+            this.writeBlock(this.pendingBlocks.removeFirst());
+        }
+    }
+
+    private void writeBlock(Future<byte[]> pendingBlock) throws IOException {
+        try {
+            this.outputStream.write(pendingBlock.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to compress: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Compress a block as a gzip member.
+     *
+     * @param data
+     *  The data of the block.
+     * @param length
+     *  The length of the data.
+     * @return
+     *  The gzip member.
+     * @throws IOException
+     *  When compressing fails.
+     */
+    protected static byte[] compress(byte[] data, int length) throws IOException {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 4 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(member)) {
+            gzipOutputStream.write(data, 0, length);
+        }
+        return member.toByteArray();
+    }
+}
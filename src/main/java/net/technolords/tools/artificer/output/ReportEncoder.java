@@ -0,0 +1,49 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.IOException;
+
+/**
+ * The encoder of a report, which receives the structure of a report as a stream of events (see ReportModel), so a
+ * report is written without building an intermediate tree. Within an object, the events carry the name of the
+ * member, and within an array the name is null.
+ */
+public interface ReportEncoder {
+
+    /**
+     * Start an object, which ends with endObject.
+     *
+     * @param name
+     *  The name of the object, or null for the root or an item of an array.
+     * @throws IOException
+     *  When writing fails.
+     */
+    void startObject(String name) throws IOException;
+
+    void endObject() throws IOException;
+
+    /**
+     * Start an array, which ends with endArray.
+     *
+     * @param name
+     *  The name of the array.
+     * @param size
+     *  The number of items of the array.
+     * @throws IOException
+     *  When writing fails.
+     */
+    void startArray(String name, int size) throws IOException;
+
+    void endArray() throws IOException;
+
+    /**
+     * Write a value.
+     *
+     * @param name
+     *  The name of the value, or null for an item of an array.
+     * @param value
+     *  The value, being a String, a Long, a Double or a Boolean.
+     * @throws IOException
+     *  When writing fails.
+     */
+    void value(String name, Object value) throws IOException;
+}
@@ -0,0 +1,171 @@
+package net.technolords.tools.artificer.output;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * The report model walks a report (a model annotated for JAXB) and translates it into events for a ReportEncoder,
+ * so formats other than XML have the same structure and names as the XML report, without a schema of their own:
+ *
+ * - an @XmlAttribute becomes a value
+ * - an @XmlElement becomes an object (or a value, for simple types)
+ * - a collection becomes an array, named after its @XmlElementWrapper when present, otherwise after its element
+ *
+ * The members are in the order of JAXB: attributes first, then the elements in the order of @XmlType(propOrder)
+ * when present, otherwise in alphabetical order of the properties. Null values are left out. The properties of a
+ * class are found (by reflection) once, and are cached.
+ */
+public class ReportModel {
+    private static final String DEFAULT_NAME = "##default";
+    private static final ConcurrentMap<Class<?>, List<Property>> PROPERTIES_BY_CLASS = new ConcurrentHashMap<>();
+
+    /**
+     * Encode a report, as an object (without a name) holding the attributes and elements of the root element.
+     *
+     * @param report
+     *  The model to encode.
+     * @param reportEncoder
+     *  The encoder receiving the events.
+     * @throws IOException
+     *  When encoding fails.
+     */
+    public static void encode(Object report, ReportEncoder reportEncoder) throws IOException {
+        reportEncoder.startObject(null);
+        encodeProperties(report, reportEncoder);
+        reportEncoder.endObject();
+    }
+
+    private static void encodeProperties(Object object, ReportEncoder reportEncoder) throws IOException {
+        for (Property property : findProperties(object.getClass())) {
+            Object value = property.getValue(object);
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Collection) {
+                Collection<?> items = (Collection<?>) value;
+                reportEncoder.startArray(property.wrapperName != null ? property.wrapperName : property.name, items.size());
+                for (Object item : items) {
+                    encodeValue(null, item, reportEncoder);
+                }
+                reportEncoder.endArray();
+            } else {
+                encodeValue(property.name, value, reportEncoder);
+            }
+        }
+    }
+
+    private static void encodeValue(String name, Object value, ReportEncoder reportEncoder) throws IOException {
+        if (value instanceof String || value instanceof Boolean) {
+            reportEncoder.value(name, value);
+        } else if (value instanceof Double || value instanceof Float) {
+            reportEncoder.value(name, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            reportEncoder.value(name, ((Number) value).longValue());
+        } else if (value instanceof Enum) {
+            reportEncoder.value(name, ((Enum<?>) value).name());
+        } else {
+            reportEncoder.startObject(name);
+            encodeProperties(value, reportEncoder);
+            reportEncoder.endObject();
+        }
+    }
+
+    /**
+     * Auxiliary method to find the (annotated) properties of a class, in the order of JAXB.
+     *
+     * @param type
+     *  The class.
+     * @return
+     *  The properties.
+     */
+    protected static List<Property> findProperties(Class<?> type) {
+        List<Property> properties = PROPERTIES_BY_CLASS.get(type);
+        if (properties == null) {
+            properties = PROPERTIES_BY_CLASS.computeIfAbsent(type, ReportModel::introspect);
+        }
+        return properties;
+    }
+
+    private static List<Property> introspect(Class<?> type) {
+        List<Property> properties = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 0 || method.isAnnotationPresent(XmlTransient.class)) {
+                continue;
+            }
+            String propertyName = toPropertyName(method.getName());
+            XmlAttribute xmlAttribute = method.getAnnotation(XmlAttribute.class);
+            XmlElement xmlElement = method.getAnnotation(XmlElement.class);
+            XmlElementWrapper xmlElementWrapper = method.getAnnotation(XmlElementWrapper.class);
+            if (propertyName == null || (xmlAttribute == null && xmlElement == null && xmlElementWrapper == null)) {
+                continue;
+            }
+            String name = xmlAttribute != null ? xmlAttribute.name() : xmlElement != null ? xmlElement.name() : DEFAULT_NAME;
+            String wrapperName = xmlElementWrapper == null ? null : xmlElementWrapper.name();
+            properties.add(new Property(propertyName, DEFAULT_NAME.equals(name) ? propertyName : name,
+                DEFAULT_NAME.equals(wrapperName) ? propertyName : wrapperName, xmlAttribute != null, method));
+        }
+        XmlType xmlType = type.getAnnotation(XmlType.class);
+        List<String> propOrder = xmlType == null ? new ArrayList<>() : Arrays.asList(xmlType.propOrder());
+        properties.sort(Comparator.<Property, Boolean>comparing(property -> !property.attribute)
+            .thenComparing(property -> propOrder.contains(property.propertyName) ? propOrder.indexOf(property.propertyName) : propOrder.size())
+            .thenComparing(property -> property.propertyName));
+        return properties;
+    }
+
+    private static String toPropertyName(String methodName) {
+        if (methodName.startsWith("get") && methodName.length() > 3) {
+            return Introspector.decapitalize(methodName.substring(3));
+        }
+        if (methodName.startsWith("is") && methodName.length() > 2) {
+            return Introspector.decapitalize(methodName.substring(2));
+        }
+        return null;
+    }
+
+    /**
+     * A property of a class, with its name in the report.
+     */
+    protected static class Property {
+        private final String propertyName;
+        private final String name;
+        private final String wrapperName;
+        private final boolean attribute;
+        private final Method getter;
+
+        private Property(String propertyName, String name, String wrapperName, boolean attribute, Method getter) {
+            this.propertyName = propertyName;
+            this.name = name;
+            this.wrapperName = wrapperName;
+            this.attribute = attribute;
+            this.getter = getter;
+        }
+
+        private Object getValue(Object object) throws IOException {
+            try {
+                return this.getter.invoke(object);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IOException("Unable to read property " + this.propertyName + " of " + object.getClass().getName(), e);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package net.technolords.tools.artificer.output;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+
+/**
+ * The report projection derives the analysis to write from the analysis as computed, by leaving out the sections
+ * which are not part of the report (see Analysis.getReportSections). The sections which are computed, but not
+ * written, are the sections required by other sections, or by the dependency graph or an index. The projection is
+ * a (shallow) copy, so the analysis itself is left as is.
+ */
+public class ReportProjection {
+
+    private ReportProjection() {
+    }
+
+    /**
+     * Project an analysis on its report sections.
+     *
+     * @param analysis
+     *  The analysis as computed.
+     * @return
+     *  The analysis to write, which is the analysis itself when all (computed) sections are written.
+     */
+    public static Analysis project(Analysis analysis) {
+        Set<ReportSection> reportSections = analysis.getReportSections();
+        if (reportSections == null || reportSections.size() == ReportSection.values().length
+                || (reportSections.equals(ReportSection.defaults()) && analysis.getReferencedPackages() == null)) {
+            return analysis;
+        }
+        Analysis projection = new Analysis();
+        projection.setArtifactName(analysis.getArtifactName());
+        projection.setGeneratedFilename(analysis.getGeneratedFilename());
+        projection.setReportSections(reportSections);
+        projection.setMeta(projectMeta(analysis.getMeta(), reportSections));
+        projection.setResourceGroups(projectResourceGroups(analysis.getResourceGroups(), reportSections));
+        if (reportSections.contains(ReportSection.REFERENCED_CLASSES) || reportSections.contains(ReportSection.CLASS_DOMAINS) || reportSections.contains(ReportSection.CLASS_PATH)) {
+            for (ReferencedClass referencedClass : analysis.getDependencies()) {
+                projection.getDependencies().add(projectReferencedClass(referencedClass, reportSections));
+            }
+        } else {
+            projection.setDependencies(null);
+        }
+        projection.setReferencedPackages(reportSections.contains(ReportSection.REFERENCED_PACKAGES) ? analysis.getReferencedPackages() : null);
+        projection.setExternalArtifacts(reportSections.contains(ReportSection.EXTERNAL_ARTIFACTS) ? analysis.getExternalArtifacts() : null);
+        projection.setClassPathEntries(reportSections.contains(ReportSection.CLASS_PATH) ? analysis.getClassPathEntries() : null);
+        projection.setEmbeddedLibraries(reportSections.contains(ReportSection.EMBEDDED_LIBRARIES) ? analysis.getEmbeddedLibraries() : null);
+        projection.setPackageCycles(reportSections.contains(ReportSection.PACKAGE_CYCLES) ? analysis.getPackageCycles() : null);
+        projection.setPackageStructure(reportSections.contains(ReportSection.PACKAGE_STRUCTURE) ? analysis.getPackageStructure() : null);
+        return projection;
+    }
+
+    /**
+     * Project a resource group, which is the group itself when the resources are written, or a copy with just the
+     * total otherwise.
+     *
+     * @param resourceGroup
+     *  The resource group.
+     * @param reportSections
+     *  The report sections.
+     * @return
+     *  The resource group to write.
+     */
+    public static ResourceGroup projectResourceGroup(ResourceGroup resourceGroup, Set<ReportSection> reportSections) {
+        if (reportSections.contains(ReportSection.RESOURCES)) {
+            return resourceGroup;
+        }
+        ResourceGroup projection = new ResourceGroup();
+        projection.setGroupType(resourceGroup.getGroupType());
+        projection.setSize(resourceGroup.getSize());
+        projection.setResources(null);
+        return projection;
+    }
+
+    /**
+     * Auxiliary method to project the resource groups, which are left out when the resource groups are not written.
+     */
+    private static Map<String, ResourceGroup> projectResourceGroups(Map<String, ResourceGroup> resourceGroups, Set<ReportSection> reportSections) {
+        if (resourceGroups == null || !reportSections.contains(ReportSection.RESOURCE_GROUPS)) {
+            return null;
+        }
+        Map<String, ResourceGroup> projection = new LinkedHashMap<>();
+        for (Map.Entry<String, ResourceGroup> entry : resourceGroups.entrySet()) {
+            projection.put(entry.getKey(), projectResourceGroup(entry.getValue(), reportSections));
+        }
+        return projection;
+    }
+
+    /**
+     * Auxiliary method to project the meta, where the java versions are left out when they are not written.
+     */
+    private static Meta projectMeta(Meta meta, Set<ReportSection> reportSections) {
+        if (meta == null || reportSections.contains(ReportSection.JAVA_VERSIONS)) {
+            return meta;
+        }
+        Meta projection = new Meta();
+        projection.setStatus(meta.getStatus());
+        projection.setErrorMessage(meta.getErrorMessage());
+        return projection;
+    }
+
+    /**
+     * Auxiliary method to project a referenced class, where the attributes of the sections which are not written
+     * are left out.
+     */
+    private static ReferencedClass projectReferencedClass(ReferencedClass referencedClass, Set<ReportSection> reportSections) {
+        ReferencedClass projection = new ReferencedClass();
+        projection.setPackageWithClass(referencedClass.getPackageWithClass());
+        if (reportSections.contains(ReportSection.CLASS_DOMAINS)) {
+            projection.setClassDomain(referencedClass.getClassDomain());
+            projection.setCustomDomain(referencedClass.getCustomDomain());
+        }
+        if (reportSections.contains(ReportSection.EXTERNAL_ARTIFACTS)) {
+            projection.setArtifact(referencedClass.getArtifact());
+        }
+        if (reportSections.contains(ReportSection.CLASS_PATH)) {
+            projection.setProvidedBy(referencedClass.getProvidedBy());
+            projection.setResolved(referencedClass.getResolved());
+        }
+        return projection;
+    }
+}
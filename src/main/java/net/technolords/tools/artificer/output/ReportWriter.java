@@ -0,0 +1,49 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The service provider interface of a report format. The formats are looked up by the OutputManager with a
+ * ServiceLoader, so a format is added by implementing this interface and listing the implementation in:
+ *
+ * META-INF/services/net.technolords.tools.artificer.output.ReportWriter
+ *
+ * The provided formats are 'xml' (the default), 'json', 'binary' and 'index' (see AnalysisIndex). A report is a
+ * model with a root element (i.e. an Analysis or a ClassPathAnalysis), annotated for JAXB. Formats other than XML
+ * can walk the model with a ReportModel, which translates the annotations into events for a ReportEncoder. An
+ * implementation must be safe to be used by concurrent threads.
+ */
+public interface ReportWriter {
+
+    /**
+     * Get the name of the format, which is how the format is selected (see Analyser.setReportFormat).
+     *
+     * @return
+     *  The name of the format, i.e. json.
+     */
+    String getFormat();
+
+    /**
+     * Write a report.
+     *
+     * @param report
+     *  The model to be written out as report.
+     * @param outputStream
+     *  The stream to write the report to, which is not closed.
+     * @throws IOException
+     *  When writing the report fails.
+     */
+    void writeReport(Object report, OutputStream outputStream) throws IOException;
+
+    /**
+     * Tell whether the format writes the projection of an analysis (see ReportProjection), which is the case for
+     * a report. A format which needs the analysis as computed (i.e. an index) is given the analysis itself.
+     *
+     * @return
+     *  True when the projection of an analysis is written.
+     */
+    default boolean isProjected() {
+        return true;
+    }
+}
@@ -0,0 +1,369 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.AnalysisListener;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.exception.ArtificerException;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+/**
+ * The streaming report writer writes the report of an analysis while the artifact is analysed, rather than
+ * marshalling the whole model at the end. It is notified by the analysis (see AnalysisListener) and writes:
+ *
+ * - the resource groups, once the resources are found, where the resources of the java classes are written as
+ *   each class is analysed (in the order of the resource group, also when the classes are analysed in parallel,
+ *   as the resources analysed ahead of their turn are kept until it is their turn)
+ * - the aggregated sections (meta, referenced classes, etc), once the analysis is done (see finish)
+ *
+ * A resource is marshalled by the thread which analysed it (outside the lock), into a fragment which is kept by
+ * its ordinal until it is its turn. As the resources are notified within a window of ordinals (see
+ * AnalysisListener.WINDOW_SIZE), at most that number of fragments is kept, and the resources themselves are not
+ * kept at all, so the memory of the writer does not grow with the size of the artifact.
+ *
+ * The elements are the same as those of the report written by the OutputManager, in the same order (see Analysis),
+ * where the resources come last. As the aggregated sections are only known once the analysis is done, the
+ * resources are written to a temporary file while analysing, which is appended to the report once the aggregated
+ * sections are written.
+ *
+ * The elements are written by a JAXB marshaller (as fragments), so they are serialized the same way. Only the
+ * report sections of the analysis are written (see ReportProjection), where the resources are written as they
+ * are analysed only when the resources are part of the report.
+ */
+public class StreamingReportWriter implements AnalysisListener, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingReportWriter.class);
+    private static final String UTF8 = "UTF-8";
+    private final Writer writer;
+    private final XMLStreamWriter xmlStreamWriter;
+    private final Path resources;
+    private final Writer resourcesWriter;
+    private final XMLStreamWriter resourcesStreamWriter;
+    private final JAXBContext jaxbContext;
+    private final Marshaller marshaller;
+    private final ThreadLocal<Marshaller> fragmentMarshallers = new ThreadLocal<>();
+    private final String[] pendingFragments = new String[AnalysisListener.WINDOW_SIZE];
+    private final List<ResourceGroup> remainingGroups = new ArrayList<>();
+    private ResourceGroup javaResourceGroup;
+    private volatile int resourceCount;
+    private int nextOrdinal;
+    private boolean started;
+    private boolean resourcesStarted;
+    private Exception failure;
+
+    /**
+     * Create a streaming report writer.
+     *
+     * @param writer
+     *  The writer of the report, which is closed when this writer is closed (or right away, when the report can
+     *  not be created).
+     * @throws ArtificerException
+     *  When the report (or the temporary file of the resources) can not be created.
+     */
+    public StreamingReportWriter(Writer writer) throws ArtificerException {
+        this.writer = writer;
+        Path resources = null;
+        Writer resourcesWriter = null;
+        try {
+            this.xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(writer);
+            this.jaxbContext = JAXBContext.newInstance(Analysis.class);
+            this.marshaller = this.createMarshaller();
+            resources = Files.createTempFile("artificer-", ".resources");
+            resourcesWriter = Files.newBufferedWriter(resources, StandardCharsets.UTF_8);
+            this.resourcesStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(resourcesWriter);
+            this.resources = resources;
+            this.resourcesWriter = resourcesWriter;
+        } catch (XMLStreamException | JAXBException | IOException exception) {
+            try {
+                writer.close();
+                if (resourcesWriter != null) {
+                    resourcesWriter.close();
+                }
+                if (resources != null) {
+                    Files.deleteIfExists(resources);
+                }
+            } catch (IOException closeException) {
+                exception.addSuppressed(closeException);
+            }
+            throw new ArtificerException("Error creating a report: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Write the resource groups (to the temporary file of the resources), where the resource group of the java
+     * classes is kept open, so its resources can be written as they are analysed. When the resources are not part
+     * of the report, the resource groups are written right away (with just their totals).
+     *
+     * @param analysis
+     *  The analysis, with its resource groups.
+     * @throws IOException
+     *  When writing the report fails.
+     */
+    @Override
+    public synchronized void analysisStarted(Analysis analysis) throws IOException {
+        if (this.started) {
+            return;
+        }
+        this.started = true;
+        try {
+            Set<ReportSection> reportSections = analysis.getReportSections();
+            if (!reportSections.contains(ReportSection.RESOURCE_GROUPS)) {
+                return;
+            }
+            this.resourcesStarted = true;
+            this.resourcesStreamWriter.writeStartElement("resources");
+            for (ResourceGroup resourceGroup : analysis.getResourcesAsGroups()) {
+                if (!reportSections.contains(ReportSection.RESOURCES)) {
+                    this.writeElement(this.resourcesStreamWriter, "resource-group", ReportProjection.projectResourceGroup(resourceGroup, reportSections));
+                } else if (this.javaResourceGroup != null) {
+                    this.remainingGroups.add(resourceGroup);
+                } else if (ArtifactManager.CLASSIFICATION_JAVA_CLASSES.equals(resourceGroup.getGroupType())) {
+                    this.javaResourceGroup = resourceGroup;
+                    this.resourcesStreamWriter.writeStartElement("resource-group");
+                    this.resourcesStreamWriter.writeAttribute("type", resourceGroup.getGroupType());
+                    this.resourcesStreamWriter.writeAttribute("total", String.valueOf(resourceGroup.getSize()));
+                    // Close the start tag, as the fragments of the resources are written to the writer directly
+                    this.resourcesStreamWriter.writeCharacters("");
+                    this.resourcesStreamWriter.flush();
+                    this.resourceCount = resourceGroup.getResources().size();
+                } else {
+                    this.writeElement(this.resourcesStreamWriter, "resource-group", resourceGroup);
+                }
+            }
+        } catch (XMLStreamException | JAXBException exception) {
+            throw new IOException("Error writing data to a report: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Write an analysed resource of the java classes, when it is its turn (otherwise its fragment is kept until it
+     * is). The resource is marshalled by the calling thread, before the lock is taken. Failures are reported when
+     * the report is finished, so the analysis is not interrupted.
+     *
+     * @param ordinal
+     *  The position of the resource in the resource group of the java classes.
+     * @param resource
+     *  The analysed resource.
+     */
+    @Override
+    public void resourceAnalysed(int ordinal, Resource resource) {
+        if (ordinal < 0 || ordinal >= this.resourceCount) {
+            return;
+        }
+        String fragment;
+        try {
+            fragment = this.marshalFragment(resource);
+        } catch (JAXBException exception) {
+            synchronized (this) {
+                this.failure = this.failure == null ? exception : this.failure;
+            }
+            return;
+        }
+        synchronized (this) {
+            if (this.failure != null) {
+                return;
+            }
+            if (ordinal >= this.nextOrdinal + this.pendingFragments.length) {
+                this.failure = new IllegalStateException("Resource " + ordinal + " is notified ahead of its window, which starts at " + this.nextOrdinal);
+                return;
+            }
+            this.pendingFragments[ordinal % this.pendingFragments.length] = fragment;
+            this.writePendingFragments();
+        }
+    }
+
+    /**
+     * Finish the report, by writing the remaining resources and resource groups, and then the report itself: the
+     * aggregated sections followed by the resources written so far.
+     *
+     * @param analysis
+     *  The (completed) analysis.
+     * @throws ArtificerException
+     *  When writing the report failed.
+     */
+    public synchronized void finish(Analysis analysis) throws ArtificerException {
+        try {
+            this.analysisStarted(analysis);
+            if (this.javaResourceGroup != null) {
+                // Resources which were not analysed (i.e. as the analysis was aborted) are written as they are
+                while (this.failure == null && this.nextOrdinal < this.resourceCount) {
+                    int slot = this.nextOrdinal % this.pendingFragments.length;
+                    if (this.pendingFragments[slot] == null) {
+                        this.pendingFragments[slot] = this.marshalFragment(this.javaResourceGroup.getResources().get(this.nextOrdinal));
+                    }
+                    this.writePendingFragments();
+                }
+                this.resourcesStreamWriter.writeEndElement();
+            }
+            for (ResourceGroup resourceGroup : this.remainingGroups) {
+                this.writeElement(this.resourcesStreamWriter, "resource-group", resourceGroup);
+            }
+            if (this.resourcesStarted) {
+                this.resourcesStreamWriter.writeEndElement();
+            }
+            this.resourcesStreamWriter.flush();
+            this.resourcesWriter.flush();
+            if (this.failure != null) {
+                throw this.failure;
+            }
+
+            // Aggregated sections, in the order of the report (see Analysis)
+            this.xmlStreamWriter.writeStartDocument();
+            this.xmlStreamWriter.writeStartElement("analysed-artifact");
+            if (analysis.getArtifactName() != null) {
+                this.xmlStreamWriter.writeAttribute("artifact-name", analysis.getArtifactName());
+            }
+            Analysis projection = ReportProjection.project(analysis);
+            this.writeElements("class-path", "class-path-entry", projection.getClassPathEntries());
+            this.writeElements("referenced-classes", "referenced-class", projection.getDependencies());
+            this.writeElements("embedded-libraries", "embedded-library", projection.getEmbeddedLibraries());
+            this.writeElements("external-artifacts", "external-artifact", projection.getExternalArtifacts());
+            if (projection.getMeta() != null) {
+                this.xmlStreamWriter.writeComment("Output generated at: " + Calendar.getInstance().getTime().toString());
+                this.writeElement(this.xmlStreamWriter, "meta", projection.getMeta());
+            }
+            this.writeElements("package-cycles", "package-cycle", projection.getPackageCycles());
+            this.writeElements("package-structure", "package", projection.getPackageStructure());
+            this.writeElements("referenced-packages", "referenced-package", projection.getReferencedPackages());
+
+            // Resources, as written while analysing
+            this.xmlStreamWriter.writeCharacters("");
+            this.xmlStreamWriter.flush();
+            this.appendResources();
+            this.xmlStreamWriter.writeEndElement();
+            this.xmlStreamWriter.writeEndDocument();
+            this.xmlStreamWriter.flush();
+        } catch (Exception exception) {
+            LOGGER.error("Failed to create report" + exception.getMessage(), exception);
+            throw new ArtificerException("Error writing data to a report: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Close the report, and delete the temporary file of the resources.
+     *
+     * @throws ArtificerException
+     *  When closing the report fails.
+     */
+    @Override
+    public void close() throws ArtificerException {
+        try {
+            try {
+                this.xmlStreamWriter.close();
+                this.writer.close();
+            } finally {
+                this.resourcesStreamWriter.close();
+                this.resourcesWriter.close();
+                Files.deleteIfExists(this.resources);
+            }
+        } catch (XMLStreamException | IOException exception) {
+            throw new ArtificerException("Error closing a report: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Auxiliary method to append the resources written to the temporary file to the report.
+     */
+    private void appendResources() throws IOException {
+        char[] buffer = new char[8192];
+        try (BufferedReader reader = Files.newBufferedReader(this.resources, StandardCharsets.UTF_8)) {
+            for (int length = reader.read(buffer); length >= 0; length = reader.read(buffer)) {
+                this.writer.write(buffer, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method to write the pending fragments which are in turn, where the first failure is kept. A
+     * fragment is released once written.
+     */
+    private void writePendingFragments() {
+        while (this.failure == null && this.nextOrdinal < this.resourceCount) {
+            int slot = this.nextOrdinal % this.pendingFragments.length;
+            String fragment = this.pendingFragments[slot];
+            if (fragment == null) {
+                return;
+            }
+            try {
+                this.resourcesWriter.write(fragment);
+                this.pendingFragments[slot] = null;
+                this.nextOrdinal++;
+            } catch (IOException exception) {
+                this.failure = exception;
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method to marshal a resource into a fragment, by the marshaller of the calling thread (as a
+     * marshaller is not thread safe).
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private String marshalFragment(Resource resource) throws JAXBException {
+        Marshaller fragmentMarshaller = this.fragmentMarshallers.get();
+        if (fragmentMarshaller == null) {
+            fragmentMarshaller = this.createMarshaller();
+            this.fragmentMarshallers.set(fragmentMarshaller);
+        }
+        StringWriter fragment = new StringWriter();
+        fragmentMarshaller.marshal(new JAXBElement(new QName("resource"), Resource.class, resource), fragment);
+        return fragment.toString();
+    }
+
+    /**
+     * Auxiliary method to create a marshaller of fragments.
+     */
+    private Marshaller createMarshaller() throws JAXBException {
+        Marshaller marshaller = this.jaxbContext.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, UTF8);
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        return marshaller;
+    }
+
+    /**
+     * Auxiliary method to write a list of elements within a wrapper element, when the list is present.
+     */
+    private void writeElements(String wrapperName, String elementName, Iterable<?> elements) throws XMLStreamException, JAXBException {
+        if (elements == null) {
+            return;
+        }
+        this.xmlStreamWriter.writeStartElement(wrapperName);
+        for (Object element : elements) {
+            this.writeElement(this.xmlStreamWriter, elementName, element);
+        }
+        this.xmlStreamWriter.writeEndElement();
+    }
+
+    /**
+     * Auxiliary method to write an element (as a fragment) with the given name, to the report or the resources.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void writeElement(XMLStreamWriter streamWriter, String elementName, Object element) throws JAXBException {
+        this.marshaller.marshal(new JAXBElement(new QName(elementName), element.getClass(), element), streamWriter);
+    }
+}
@@ -0,0 +1,308 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+
+/**
+ * The XML format of a report (the default), which is written by a JAXB marshaller, with a comment holding the time
+ * of generation in front of the meta element.
+ *
+ * With a parallelism larger than 1, the report of an analysis is written in chunks, which are serialized in
+ * parallel: the referenced classes and the resources of each resource group are split in chunks (of CHUNK_SIZE
+ * elements), and each chunk is marshalled (as fragment) into a buffer of its own. The rest of the report (the
+ * skeleton) is marshalled with the referenced classes and resources left out, after which the chunks are inserted
+ * in order, right before the end tags of the (emptied) elements they belong to. As the elements are marshalled by
+ * the same marshaller and stream writer either way, the report is byte identical to the sequential report.
+ */
+public class XmlReportWriter implements ReportWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(XmlReportWriter.class);
+    public static final String FORMAT = "xml";
+    private static final String UTF8 = "UTF-8";
+    protected static final int CHUNK_SIZE = 1024;
+    private static final String REFERENCED_CLASSES_END = "</referenced-classes>";
+    private static final String RESOURCE_GROUP_END = "</resource-group>";
+    private final int parallelism;
+
+    /**
+     * Create a writer which writes the report sequentially.
+     */
+    public XmlReportWriter() {
+        this(1);
+    }
+
+    /**
+     * Create a writer which writes the report of an analysis in chunks, using the given number of threads.
+     *
+     * @param parallelism
+     *  The number of threads, where 1 means the report is written sequentially.
+     */
+    public XmlReportWriter(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public void writeReport(Object report, OutputStream outputStream) throws IOException {
+        if (this.parallelism > 1 && report instanceof Analysis) {
+            this.writeReportInChunks((Analysis) report, outputStream);
+            return;
+        }
+        try {
+            this.marshalReport(JAXBContext.newInstance(report.getClass()), report, outputStream);
+        } catch (JAXBException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Write the report of an analysis in chunks, which are serialized in parallel.
+     *
+     * @param analysis
+     *  The analysis to be written out as report.
+     * @param outputStream
+     *  The stream to write the report to, which is not closed.
+     * @throws IOException
+     *  When writing the report fails.
+     */
+    protected void writeReportInChunks(Analysis analysis, OutputStream outputStream) throws IOException {
+        try {
+            final JAXBContext context = JAXBContext.newInstance(Analysis.class);
+
+            // The skeleton, being the analysis with the referenced classes and the resources left out
+            Analysis skeleton = new Analysis();
+            skeleton.setArtifactName(analysis.getArtifactName());
+            skeleton.setMeta(analysis.getMeta());
+            skeleton.setReferencedPackages(analysis.getReferencedPackages());
+            skeleton.setExternalArtifacts(analysis.getExternalArtifacts());
+            skeleton.setClassPathEntries(analysis.getClassPathEntries());
+            skeleton.setEmbeddedLibraries(analysis.getEmbeddedLibraries());
+            skeleton.setPackageCycles(analysis.getPackageCycles());
+            skeleton.setPackageStructure(analysis.getPackageStructure());
+            skeleton.setDependencies(analysis.getDependencies() == null ? null : new HashSet<>());
+            List<Container> containers = new ArrayList<>();
+            if (analysis.getDependencies() != null) {
+                containers.add(new Container(REFERENCED_CLASSES_END, "referenced-class", new ArrayList<>(analysis.getDependencies())));
+            }
+            if (analysis.getResourceGroups() == null) {
+                skeleton.setResourceGroups(null);
+            } else {
+                Map<String, ResourceGroup> resourceGroups = new LinkedHashMap<>();
+                for (Map.Entry<String, ResourceGroup> entry : analysis.getResourceGroups().entrySet()) {
+                    ResourceGroup resourceGroup = new ResourceGroup();
+                    resourceGroup.setGroupType(entry.getValue().getGroupType());
+                    resourceGroup.setSize(entry.getValue().getSize());
+                    resourceGroups.put(entry.getKey(), resourceGroup);
+                    List<?> resources = entry.getValue().getResources();
+                    containers.add(new Container(RESOURCE_GROUP_END, "resource", resources == null ? Collections.emptyList() : resources));
+                }
+                skeleton.setResourceGroups(resourceGroups);
+            }
+            ByteArrayOutputStream skeletonBuffer = new ByteArrayOutputStream();
+            this.marshalReport(context, skeleton, skeletonBuffer);
+            byte[] skeletonBytes = skeletonBuffer.toByteArray();
+
+            // The chunks, which are serialized in parallel (each in its own slot, so the order is kept)
+            final List<List<?>> chunks = new ArrayList<>();
+            final List<String> elementNames = new ArrayList<>();
+            for (Container container : containers) {
+                container.firstChunk = chunks.size();
+                for (int start = 0; start < container.elements.size(); start += CHUNK_SIZE) {
+                    chunks.add(container.elements.subList(start, Math.min(container.elements.size(), start + CHUNK_SIZE)));
+                    elementNames.add(container.elementName);
+                }
+                container.lastChunk = chunks.size();
+            }
+            final byte[][] fragments = new byte[chunks.size()][];
+            this.forEachChunk(chunks.size(), position -> {
+                try {
+                    fragments[position] = this.marshalFragment(context, elementNames.get(position), chunks.get(position));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            // Concatenate, where the chunks are inserted before the end tags of the elements they belong to
+            int nextResourceGroup = 0;
+            for (Container container : containers) {
+                boolean resourceGroup = RESOURCE_GROUP_END.equals(container.endTag);
+                container.offset = indexOf(skeletonBytes, container.endTag.getBytes(StandardCharsets.UTF_8), resourceGroup ? nextResourceGroup : 0);
+                if (container.offset < 0) {
+                    throw new IOException("No element found for the " + container.elementName + " elements in the report");
+                }
+                nextResourceGroup = resourceGroup ? container.offset + 1 : nextResourceGroup;
+            }
+            containers.sort((first, second) -> Integer.compare(first.offset, second.offset));
+            int position = 0;
+            for (Container container : containers) {
+                outputStream.write(skeletonBytes, position, container.offset - position);
+                for (int chunk = container.firstChunk; chunk < container.lastChunk; chunk++) {
+                    outputStream.write(fragments[chunk]);
+                }
+                position = container.offset;
+            }
+            outputStream.write(skeletonBytes, position, skeletonBytes.length - position);
+            outputStream.flush();
+            LOGGER.debug("Written report in " + chunks.size() + " chunks, using " + this.parallelism + " threads");
+        } catch (JAXBException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Auxiliary method to marshal a report, with a comment holding the time of generation in front of the meta.
+     */
+    private void marshalReport(JAXBContext context, Object report, OutputStream outputStream) throws IOException, JAXBException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            final XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(writer);
+
+            // Initialize data and a listener
+            Marshaller marshaller = context.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, UTF8);
+            marshaller.setListener(new Marshaller.Listener() {
+                @Override
+                public void beforeMarshal(Object source) {
+                    try {
+                        if(source instanceof Meta) {
+                            xmlStreamWriter.writeComment("Output generated at: " + Calendar.getInstance().getTime().toString());
+                        }
+                    } catch (XMLStreamException e) {
+                        LOGGER.error("Failed to add a comment: " + e.getMessage(), e);
+                    }
+                }
+            });
+
+            // Write data
+            marshaller.marshal(report, xmlStreamWriter);
+            xmlStreamWriter.flush();
+            xmlStreamWriter.close();
+            writer.flush();
+        } catch (XMLStreamException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Auxiliary method to marshal a chunk of elements (as fragments) with the given name into a buffer.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private byte[] marshalFragment(JAXBContext context, String elementName, List<?> elements) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(elements.size() * 128);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8));
+        try {
+            XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(writer);
+            Marshaller marshaller = context.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, UTF8);
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            for (Object element : elements) {
+                marshaller.marshal(new JAXBElement(new QName(elementName), element.getClass(), element), xmlStreamWriter);
+            }
+            xmlStreamWriter.flush();
+            writer.flush();
+        } catch (XMLStreamException | JAXBException exception) {
+            throw new IOException("Error writing data to a report: " + exception.getMessage(), exception);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Auxiliary method to apply an action on each chunk, by a dedicated fork/join pool. An UncheckedIOException
+     * thrown by the action is rethrown as IOException.
+     */
+    private void forEachChunk(int size, IntConsumer action) throws IOException {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(this.parallelism);
+        try {
+            forkJoinPool.submit(() -> IntStream.range(0, size).parallel().forEach(action)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing a report", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Auxiliary method to find the position of a sequence of bytes.
+     */
+    private static int indexOf(byte[] bytes, byte[] sequence, int from) {
+        for (int i = from; i <= bytes.length - sequence.length; i++) {
+            int j = 0;
+            while (j < sequence.length && bytes[i + j] == sequence[j]) {
+                j++;
+            }
+            if (j == sequence.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * An element of the skeleton, which is emptied, and the elements it contains (which are written in chunks).
+     */
+    private static class Container {
+        private final String endTag;
+        private final String elementName;
+        private final List<?> elements;
+        private int firstChunk;
+        private int lastChunk;
+        private int offset;
+
+        private Container(String endTag, String elementName, List<?> elements) {
+            this.endTag = endTag;
+            this.elementName = elementName;
+            this.elements = elements;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package net.technolords.tools.artificer.output.graph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import net.technolords.tools.artificer.analyser.graph.DependencyGraph;
+
+/**
+ * The DOT format of a graph, which is rendered by Graphviz. The nodes are filled with a color per class domain, and
+ * the other attributes are written as (custom) attributes, which are kept by Graphviz:
+ *
+ * digraph "xxx.jar" {
+ *     n0 [label="org/acme/Main", class_domain="Self", java_version="1.8", classes=1, style=filled, fillcolor="..."];
+ *     n0 -> n1 [weight=1];
+ * }
+ */
+public class DotGraphWriter implements GraphWriter {
+    public static final String FORMAT = "dot";
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public void writeGraph(GraphExport graphExport, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        DependencyGraph graph = graphExport.getGraph();
+        writer.write("digraph ");
+        this.writeString(writer, graphExport.getName() == null ? "graph" : graphExport.getName());
+        writer.write(" {\n");
+
+        // Nodes
+        for (int node = 0; node < graph.size(); node++) {
+            writer.write("    n");
+            writer.write(String.valueOf(node));
+            writer.write(" [label=");
+            this.writeString(writer, graph.getName(node));
+            String classDomain = graphExport.getClassDomain(node);
+            if (classDomain != null) {
+                writer.write(", class_domain=");
+                this.writeString(writer, classDomain);
+                writer.write(", style=filled, fillcolor=");
+                this.writeString(writer, this.getColor(classDomain));
+            }
+            if (graphExport.getJavaVersion(node) != null) {
+                writer.write(", java_version=");
+                this.writeString(writer, graphExport.getJavaVersion(node));
+            }
+            writer.write(", classes=");
+            writer.write(String.valueOf(graphExport.getClasses(node)));
+            writer.write("];\n");
+        }
+
+        // Edges
+        for (int node = 0; node < graph.size(); node++) {
+            for (int edge = graph.getFirstEdge(node); edge < graph.getFirstEdge(node + 1); edge++) {
+                writer.write("    n");
+                writer.write(String.valueOf(node));
+                writer.write(" -> n");
+                writer.write(String.valueOf(graph.getTarget(edge)));
+                writer.write(" [weight=");
+                writer.write(String.valueOf(graph.getWeight(edge)));
+                writer.write("];\n");
+            }
+        }
+        writer.write("}\n");
+        writer.flush();
+    }
+
+    /**
+     * Auxiliary method to get the fill color of a class domain.
+     */
+    private String getColor(String classDomain) {
+        switch (classDomain) {
+            case "Self":
+                return "lightblue";
+            case "Standard":
+                return "lightgrey";
+            case "Enterprise":
+                return "khaki";
+            default:
+                return "lightsalmon";
+        }
+    }
+
+    private void writeString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,118 @@
+package net.technolords.tools.artificer.output.graph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import net.technolords.tools.artificer.analyser.graph.DependencyGraph;
+
+/**
+ * The GEXF format (version 1.2) of a graph, which is imported by Gephi:
+ *
+ * <gexf xmlns="http://www.gexf.net/1.2draft" version="1.2">
+ *     <graph mode="static" defaultedgetype="directed">
+ *         <attributes class="node">
+ *             <attribute id="class-domain" title="class-domain" type="string"/>
+ *             ...
+ *         </attributes>
+ *         <nodes>
+ *             <node id="0" label="org/acme/Main">
+ *                 <attvalues>
+ *                     <attvalue for="class-domain" value="Self"/>
+ *                     ...
+ *                 </attvalues>
+ *             </node>
+ *         </nodes>
+ *         <edges>
+ *             <edge id="0" source="0" target="1" weight="1"/>
+ *         </edges>
+ *     </graph>
+ * </gexf>
+ */
+public class GexfGraphWriter implements GraphWriter {
+    public static final String FORMAT = "gexf";
+    private static final String NAMESPACE = "http://www.gexf.net/1.2draft";
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public void writeGraph(GraphExport graphExport, OutputStream outputStream) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        DependencyGraph graph = graphExport.getGraph();
+        try {
+            XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(writer);
+            xmlStreamWriter.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xmlStreamWriter.writeStartElement("gexf");
+            xmlStreamWriter.writeDefaultNamespace(NAMESPACE);
+            xmlStreamWriter.writeAttribute("version", "1.2");
+            xmlStreamWriter.writeStartElement("graph");
+            xmlStreamWriter.writeAttribute("mode", "static");
+            xmlStreamWriter.writeAttribute("defaultedgetype", "directed");
+            xmlStreamWriter.writeStartElement("attributes");
+            xmlStreamWriter.writeAttribute("class", "node");
+            this.writeAttributeDefinition(xmlStreamWriter, "class-domain", "string");
+            this.writeAttributeDefinition(xmlStreamWriter, "java-version", "string");
+            this.writeAttributeDefinition(xmlStreamWriter, "classes", "integer");
+            xmlStreamWriter.writeEndElement();
+
+            // Nodes
+            xmlStreamWriter.writeStartElement("nodes");
+            for (int node = 0; node < graph.size(); node++) {
+                xmlStreamWriter.writeStartElement("node");
+                xmlStreamWriter.writeAttribute("id", String.valueOf(node));
+                xmlStreamWriter.writeAttribute("label", graph.getName(node));
+                xmlStreamWriter.writeStartElement("attvalues");
+                this.writeAttributeValue(xmlStreamWriter, "class-domain", graphExport.getClassDomain(node));
+                this.writeAttributeValue(xmlStreamWriter, "java-version", graphExport.getJavaVersion(node));
+                this.writeAttributeValue(xmlStreamWriter, "classes", String.valueOf(graphExport.getClasses(node)));
+                xmlStreamWriter.writeEndElement();
+                xmlStreamWriter.writeEndElement();
+            }
+            xmlStreamWriter.writeEndElement();
+
+            // Edges
+            xmlStreamWriter.writeStartElement("edges");
+            for (int node = 0; node < graph.size(); node++) {
+                for (int edge = graph.getFirstEdge(node); edge < graph.getFirstEdge(node + 1); edge++) {
+                    xmlStreamWriter.writeEmptyElement("edge");
+                    xmlStreamWriter.writeAttribute("id", String.valueOf(edge));
+                    xmlStreamWriter.writeAttribute("source", String.valueOf(node));
+                    xmlStreamWriter.writeAttribute("target", String.valueOf(graph.getTarget(edge)));
+                    xmlStreamWriter.writeAttribute("weight", String.valueOf(graph.getWeight(edge)));
+                }
+            }
+            xmlStreamWriter.writeEndElement();
+            xmlStreamWriter.writeEndElement();
+            xmlStreamWriter.writeEndElement();
+            xmlStreamWriter.writeEndDocument();
+            xmlStreamWriter.flush();
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write the graph: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeAttributeDefinition(XMLStreamWriter xmlStreamWriter, String name, String type) throws XMLStreamException {
+        xmlStreamWriter.writeEmptyElement("attribute");
+        xmlStreamWriter.writeAttribute("id", name);
+        xmlStreamWriter.writeAttribute("title", name);
+        xmlStreamWriter.writeAttribute("type", type);
+    }
+
+    private void writeAttributeValue(XMLStreamWriter xmlStreamWriter, String name, String value) throws XMLStreamException {
+        if (value != null) {
+            xmlStreamWriter.writeEmptyElement("attvalue");
+            xmlStreamWriter.writeAttribute("for", name);
+            xmlStreamWriter.writeAttribute("value", value);
+        }
+    }
+}
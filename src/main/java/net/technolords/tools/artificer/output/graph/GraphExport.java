@@ -0,0 +1,145 @@
+package net.technolords.tools.artificer.output.graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.technolords.tools.artificer.analyser.graph.DependencyGraph;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.meta.FoundJavaVersions;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+/**
+ * The export of a dependency graph, being the graph (at class or package granularity) with the attributes of its
+ * nodes, which are written by a GraphWriter:
+ *
+ * - class-domain       : The class domain (Self, Standard, Enterprise or External), where a package has the domain
+ *                        of its first class
+ * - java-version       : The java version the class is compiled with (only known for the classes of the artifact),
+ *                        where a package has the highest version of its classes
+ * - classes            : The number of classes (being 1 for a class)
+ *
+ * The weight of an edge is the number of class references (being 1 for an edge between classes). The attributes
+ * are held in arrays by node id, next to the graph (which is in CSR form), so the export takes little memory
+ * beyond the graph itself.
+ */
+public class GraphExport {
+    public static final String GRANULARITY_CLASS = "class";
+    public static final String GRANULARITY_PACKAGE = "package";
+    private final String name;
+    private final DependencyGraph graph;
+    private final String[] classDomains;
+    private final String[] javaVersions;
+    private final int[] classes;
+
+    private GraphExport(String name, DependencyGraph graph, String[] classDomains, String[] javaVersions, int[] classes) {
+        this.name = name;
+        this.graph = graph;
+        this.classDomains = classDomains;
+        this.javaVersions = javaVersions;
+        this.classes = classes;
+    }
+
+    /**
+     * Create the export of the dependency graph of an (analysed) artifact.
+     *
+     * @param analysis
+     *  The analysis of the artifact.
+     * @param granularity
+     *  The granularity, being GRANULARITY_CLASS or GRANULARITY_PACKAGE.
+     * @return
+     *  The export.
+     */
+    public static GraphExport of(Analysis analysis, String granularity) {
+        ResourceGroup javaResourceGroup = analysis.getResourceGroups().get(ArtifactManager.CLASSIFICATION_JAVA_CLASSES);
+        List<Resource> resources = javaResourceGroup == null ? Collections.<Resource>emptyList() : javaResourceGroup.getResources();
+        DependencyGraph classGraph = DependencyGraph.of(resources);
+
+        // The attributes of the classes, where the classes of the artifact are Self (also when not referenced)
+        String[] classDomains = new String[classGraph.size()];
+        String[] javaVersions = new String[classGraph.size()];
+        for (Resource resource : resources) {
+            int node = resource.getClassName() == null ? -1 : classGraph.findNode(resource.getClassName());
+            if (node >= 0) {
+                classDomains[node] = ReferencedClass.ClassDomain.Self.name();
+                javaVersions[node] = resource.getCompiledVersion();
+            }
+        }
+        for (ReferencedClass referencedClass : analysis.getDependencies()) {
+            int node = referencedClass.getPackageWithClass() == null ? -1 : classGraph.findNode(referencedClass.getPackageWithClass());
+            if (node >= 0 && referencedClass.getClassDomain() != null) {
+                classDomains[node] = referencedClass.getClassDomain().name();
+            }
+        }
+        if (!GRANULARITY_PACKAGE.equals(granularity)) {
+            int[] classes = new int[classGraph.size()];
+            Arrays.fill(classes, 1);
+            return new GraphExport(analysis.getArtifactName(), classGraph, classDomains, javaVersions, classes);
+        }
+
+        // The attributes of the packages, derived from their classes
+        DependencyGraph packageGraph = classGraph.toPackageGraph();
+        String[] packageDomains = new String[packageGraph.size()];
+        String[] packageVersions = new String[packageGraph.size()];
+        int[] classes = new int[packageGraph.size()];
+        for (int node = 0; node < classGraph.size(); node++) {
+            int packageNode = packageGraph.findNode(DependencyGraph.packageOf(classGraph.getName(node)));
+            classes[packageNode]++;
+            if (packageDomains[packageNode] == null) {
+                packageDomains[packageNode] = classDomains[node];
+            }
+            if (javaVersions[node] != null && (packageVersions[packageNode] == null
+                    || FoundJavaVersions.compareVersions(javaVersions[node], packageVersions[packageNode]) > 0)) {
+                packageVersions[packageNode] = javaVersions[node];
+            }
+        }
+        return new GraphExport(analysis.getArtifactName(), packageGraph, packageDomains, packageVersions, classes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DependencyGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Get the class domain of a node.
+     *
+     * @param node
+     *  The id of the node.
+     * @return
+     *  The class domain, or null when unknown.
+     */
+    public String getClassDomain(int node) {
+        return this.classDomains[node];
+    }
+
+    /**
+     * Get the java version of a node.
+     *
+     * @param node
+     *  The id of the node.
+     * @return
+     *  The java version, or null when unknown.
+     */
+    public String getJavaVersion(int node) {
+        return this.javaVersions[node];
+    }
+
+    /**
+     * Get the number of classes of a node.
+     *
+     * @param node
+     *  The id of the node.
+     * @return
+     *  The number of classes.
+     */
+    public int getClasses(int node) {
+        return this.classes[node];
+    }
+}
@@ -0,0 +1,107 @@
+package net.technolords.tools.artificer.output.graph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import net.technolords.tools.artificer.analyser.graph.DependencyGraph;
+
+/**
+ * The GraphML format of a graph:
+ *
+ * <graphml xmlns="http://graphml.graphdrawing.org/xmlns">
+ *     <key id="label" for="node" attr.name="label" attr.type="string"/>
+ *     ...
+ *     <graph id="xxx.jar" edgedefault="directed">
+ *         <node id="n0">
+ *             <data key="label">org/acme/Main</data>
+ *             <data key="class-domain">Self</data>
+ *             ...
+ *         </node>
+ *         <edge source="n0" target="n1">
+ *             <data key="weight">1</data>
+ *         </edge>
+ *     </graph>
+ * </graphml>
+ */
+public class GraphMlGraphWriter implements GraphWriter {
+    public static final String FORMAT = "graphml";
+    private static final String NAMESPACE = "http://graphml.graphdrawing.org/xmlns";
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public void writeGraph(GraphExport graphExport, OutputStream outputStream) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        DependencyGraph graph = graphExport.getGraph();
+        try {
+            XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(writer);
+            xmlStreamWriter.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xmlStreamWriter.writeStartElement("graphml");
+            xmlStreamWriter.writeDefaultNamespace(NAMESPACE);
+            this.writeKey(xmlStreamWriter, "label", "node", "string");
+            this.writeKey(xmlStreamWriter, "class-domain", "node", "string");
+            this.writeKey(xmlStreamWriter, "java-version", "node", "string");
+            this.writeKey(xmlStreamWriter, "classes", "node", "int");
+            this.writeKey(xmlStreamWriter, "weight", "edge", "int");
+            xmlStreamWriter.writeStartElement("graph");
+            xmlStreamWriter.writeAttribute("id", graphExport.getName() == null ? "graph" : graphExport.getName());
+            xmlStreamWriter.writeAttribute("edgedefault", "directed");
+
+            // Nodes
+            for (int node = 0; node < graph.size(); node++) {
+                xmlStreamWriter.writeStartElement("node");
+                xmlStreamWriter.writeAttribute("id", "n" + node);
+                this.writeData(xmlStreamWriter, "label", graph.getName(node));
+                this.writeData(xmlStreamWriter, "class-domain", graphExport.getClassDomain(node));
+                this.writeData(xmlStreamWriter, "java-version", graphExport.getJavaVersion(node));
+                this.writeData(xmlStreamWriter, "classes", String.valueOf(graphExport.getClasses(node)));
+                xmlStreamWriter.writeEndElement();
+            }
+
+            // Edges
+            for (int node = 0; node < graph.size(); node++) {
+                for (int edge = graph.getFirstEdge(node); edge < graph.getFirstEdge(node + 1); edge++) {
+                    xmlStreamWriter.writeStartElement("edge");
+                    xmlStreamWriter.writeAttribute("source", "n" + node);
+                    xmlStreamWriter.writeAttribute("target", "n" + graph.getTarget(edge));
+                    this.writeData(xmlStreamWriter, "weight", String.valueOf(graph.getWeight(edge)));
+                    xmlStreamWriter.writeEndElement();
+                }
+            }
+            xmlStreamWriter.writeEndElement();
+            xmlStreamWriter.writeEndElement();
+            xmlStreamWriter.writeEndDocument();
+            xmlStreamWriter.flush();
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write the graph: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeKey(XMLStreamWriter xmlStreamWriter, String name, String domain, String type) throws XMLStreamException {
+        xmlStreamWriter.writeEmptyElement("key");
+        xmlStreamWriter.writeAttribute("id", name);
+        xmlStreamWriter.writeAttribute("for", domain);
+        xmlStreamWriter.writeAttribute("attr.name", name);
+        xmlStreamWriter.writeAttribute("attr.type", type);
+    }
+
+    private void writeData(XMLStreamWriter xmlStreamWriter, String key, String value) throws XMLStreamException {
+        if (value != null) {
+            xmlStreamWriter.writeStartElement("data");
+            xmlStreamWriter.writeAttribute("key", key);
+            xmlStreamWriter.writeCharacters(value);
+            xmlStreamWriter.writeEndElement();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package net.technolords.tools.artificer.output.graph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The writer of a graph format. A graph is written incrementally (node by node, and edge by edge), so no document
+ * is built in memory, regardless of the size of the graph. The provided formats are:
+ *
+ * - gexf               : The format of Gephi (see design/graph-generation.txt)
+ * - graphml            : The format of yEd, Cytoscape and most graph libraries
+ * - dot                : The format of Graphviz
+ *
+ * The writers are looked up with a ServiceLoader (see OutputManager.findGraphWriter), so other formats can be added
+ * by registering them in META-INF/services.
+ */
+public interface GraphWriter {
+
+    /**
+     * Get the name of the format, which is also the extension of the file.
+     *
+     * @return
+     *  The name of the format, i.e. gexf.
+     */
+    String getFormat();
+
+    /**
+     * Write a graph.
+     *
+     * @param graphExport
+     *  The graph with the attributes of its nodes.
+     * @param outputStream
+     *  The stream to write the graph to, which is not closed.
+     * @throws IOException
+     *  When writing the graph fails.
+     */
+    void writeGraph(GraphExport graphExport, OutputStream outputStream) throws IOException;
+}
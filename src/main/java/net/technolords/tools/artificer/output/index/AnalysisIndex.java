@@ -0,0 +1,347 @@
+package net.technolords.tools.artificer.output.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A read only index of an analysis, backed by a (memory mapped) buffer, which answers questions such as "which
+ * classes reference X" or "which classes extend Y" without deserializing the analysis. The index is created by
+ * the AnalysisIndexWriter (as the 'index' report format), and has the following layout (big endian):
+ *
+ * AnalysisIndex {
+ *     u4               magic (0x41414958, 'AAIX')
+ *     u2               version
+ *     u2               flags               (reserved, zero)
+ *     u4               class_count
+ *     u4               artifact_name_offset
+ *     u4               strings_offset
+ *     u4               classes_offset
+ *     u4               relation_count
+ *     u4               relation_offsets[relation_count]
+ *     u2               artifact_name_length
+ *     u1               artifact_name[artifact_name_length]
+ *     u4               string_offsets[class_count + 1]
+ *     u1               strings[]
+ *     class_info       classes[class_count]
+ *     relation_info    relations[relation_count]
+ * }
+ *
+ * class_info {
+ *     u2               access_flags        (only known for the classes of the artifact)
+ *     u2               class_flags
+ *     u4               super_class         (the id of the superclass plus one, or zero when unknown)
+ * }
+ *
+ * relation_info {
+ *     u4               target_offsets[class_count + 1]
+ *     u4               targets[]
+ * }
+ *
+ * - strings[]:
+ *      The class names (in internal form, i.e. java/lang/Object) in UTF-8, sorted by their bytes. The id of a
+ *      class is its position in this table, so a class is found by a binary search over the names. The name of
+ *      class i spans string_offsets[i] up to string_offsets[i + 1] (relative to the end of string_offsets).
+ * - classes[]:
+ *      All classes known to the analysis, being the classes of the artifact (class_flags has CLASS_FLAG_SELF set)
+ *      and the classes they refer to.
+ * - relations[]:
+ *      The relations between classes (see the RELATION constants), in compressed sparse row form: the targets of
+ *      class i are targets[target_offsets[i]] up to targets[target_offsets[i + 1]] (in units of u4), sorted by id.
+ *
+ * The buffer is only read with absolute methods, so the index is thread safe, and opening an index only reads
+ * the header, so a query on one of many indices costs a few page reads.
+ */
+public class AnalysisIndex {
+    public static final int MAGIC = 0x41414958;
+    public static final int VERSION = 1;
+    public static final int CLASS_FLAG_SELF = 0x0001;
+    public static final int RELATION_INTERFACES = 0;
+    public static final int RELATION_SUBTYPES = 1;
+    public static final int RELATION_REFERENCES = 2;
+    public static final int RELATION_REFERENCED_BY = 3;
+    public static final int RELATION_ANNOTATIONS = 4;
+    public static final int RELATION_ANNOTATED_CLASSES = 5;
+    public static final int RELATION_COUNT = 6;
+    public static final int HEADER_SIZE = 28 + 4 * RELATION_COUNT;
+    protected static final int CLASS_INFO_SIZE = 8;
+    private final ByteBuffer buffer;
+    private final int classCount;
+    private final int artifactNameOffset;
+    private final int stringsOffset;
+    private final int classesOffset;
+    private final int[] relationOffsets = new int[RELATION_COUNT];
+
+    /**
+     * Create an index on top of a buffer.
+     *
+     * @param buffer
+     *  The buffer containing the index.
+     * @throws IOException
+     *  When the buffer does not contain a valid index.
+     */
+    public AnalysisIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if(this.buffer.limit() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an analysis index");
+        }
+        int version = this.buffer.getShort(4) & 0xFFFF;
+        if(version != VERSION) {
+            throw new IOException("Unsupported analysis index version: " + version);
+        }
+        this.classCount = this.buffer.getInt(8);
+        this.artifactNameOffset = this.buffer.getInt(12);
+        this.stringsOffset = this.buffer.getInt(16);
+        this.classesOffset = this.buffer.getInt(20);
+        if(this.buffer.getInt(24) < RELATION_COUNT) {
+            throw new IOException("Missing relations: " + this.buffer.getInt(24));
+        }
+        for(int relation = 0; relation < RELATION_COUNT; relation++) {
+            this.relationOffsets[relation] = this.buffer.getInt(28 + 4 * relation);
+        }
+        long end = (long) this.relationOffsets[RELATION_COUNT - 1] + 4L * (this.classCount + 1);
+        if(this.classCount < 0 || end > this.buffer.limit() || (long) this.classesOffset + (long) CLASS_INFO_SIZE * this.classCount > this.buffer.limit()) {
+            throw new IOException("Truncated analysis index");
+        }
+    }
+
+    /**
+     * Load an index from a file, by mapping the file in memory.
+     *
+     * @param path
+     *  The path to the index file.
+     * @return
+     *  The index.
+     * @throws IOException
+     *  When the file can not be read, or is not a valid index.
+     */
+    public static AnalysisIndex load(Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new AnalysisIndex(fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()));
+        }
+    }
+
+    public String getArtifactName() {
+        int length = this.buffer.getShort(this.artifactNameOffset) & 0xFFFF;
+        return this.readString(this.artifactNameOffset + 2, length);
+    }
+
+    /**
+     * Get the number of classes, being the classes of the artifact and the classes they refer to.
+     *
+     * @return
+     *  The number of classes, where the ids of the classes range from 0 up to this number.
+     */
+    public int size() {
+        return this.classCount;
+    }
+
+    /**
+     * Find the id of a class, by a binary search over the (sorted) class names.
+     *
+     * @param className
+     *  The class name, in internal form (i.e. java/lang/Object).
+     * @return
+     *  The id of the class, or -1 when the index does not contain the class.
+     */
+    public int findClass(String className) {
+        if(className == null) {
+            return -1;
+        }
+        byte[] expected = className.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = this.classCount - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = this.compareName(middle, expected);
+            if(result < 0) {
+                low = middle + 1;
+            } else if(result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the name of a class.
+     *
+     * @param id
+     *  The id of the class.
+     * @return
+     *  The class name, in internal form.
+     */
+    public String getName(int id) {
+        int start = this.getStringStart(id);
+        return this.readString(start, this.getStringStart(id + 1) - start);
+    }
+
+    /**
+     * Find out whether a class is defined by the artifact (rather than referred to).
+     *
+     * @param id
+     *  The id of the class.
+     * @return
+     *  True when the class is defined by the artifact.
+     */
+    public boolean isSelf(int id) {
+        return ((this.buffer.getShort(this.classesOffset + CLASS_INFO_SIZE * id + 2) & 0xFFFF) & CLASS_FLAG_SELF) != 0;
+    }
+
+    /**
+     * Get the access flags of a class (see AccessFlagsParser), which are only known for the classes of the artifact.
+     *
+     * @param id
+     *  The id of the class.
+     * @return
+     *  The access flags, or 0 when unknown.
+     */
+    public int getAccessFlags(int id) {
+        return this.buffer.getShort(this.classesOffset + CLASS_INFO_SIZE * id) & 0xFFFF;
+    }
+
+    /**
+     * Get the direct superclass of a class, which is only known for the classes of the artifact.
+     *
+     * @param id
+     *  The id of the class.
+     * @return
+     *  The id of the superclass, or -1 when unknown.
+     */
+    public int getSuperClass(int id) {
+        return this.buffer.getInt(this.classesOffset + CLASS_INFO_SIZE * id + 4) - 1;
+    }
+
+    /**
+     * Get the targets of a relation of a class, i.e. the classes referenced by a class (RELATION_REFERENCES).
+     *
+     * @param relation
+     *  The relation, being one of the RELATION constants.
+     * @param id
+     *  The id of the class.
+     * @return
+     *  The ids of the targets, sorted.
+     */
+    public int[] getRelated(int relation, int id) {
+        int relationOffset = this.relationOffsets[relation];
+        int first = this.buffer.getInt(relationOffset + 4 * id);
+        int last = this.buffer.getInt(relationOffset + 4 * (id + 1));
+        int targetsOffset = relationOffset + 4 * (this.classCount + 1);
+        int[] targets = new int[last - first];
+        for(int i = 0; i < targets.length; i++) {
+            targets[i] = this.buffer.getInt(targetsOffset + 4 * (first + i));
+        }
+        return targets;
+    }
+
+    /**
+     * Find the classes of the artifact referencing a class ("who references X").
+     *
+     * @param className
+     *  The class name, in internal form.
+     * @return
+     *  The names of the referencing classes, sorted, or an empty list when the class is unknown.
+     */
+    public List<String> findReferencingClasses(String className) {
+        return this.findRelated(RELATION_REFERENCED_BY, className);
+    }
+
+    /**
+     * Find the classes of the artifact annotated with an annotation.
+     *
+     * @param annotationName
+     *  The name of the annotation type, in internal form (i.e. javax/ejb/Stateless).
+     * @return
+     *  The names of the annotated classes, sorted, or an empty list when the annotation is unknown.
+     */
+    public List<String> findAnnotatedClasses(String annotationName) {
+        return this.findRelated(RELATION_ANNOTATED_CLASSES, annotationName);
+    }
+
+    /**
+     * Find the classes of the artifact extending or implementing a class, directly or indirectly ("subclasses of
+     * Y"), as far as the hierarchy is part of the artifact.
+     *
+     * @param className
+     *  The name of the class or interface, in internal form.
+     * @return
+     *  The names of the subtypes, sorted, or an empty list when the class is unknown.
+     */
+    public List<String> findSubtypes(String className) {
+        List<String> names = new ArrayList<>();
+        int id = this.findClass(className);
+        if(id < 0) {
+            return names;
+        }
+        BitSet visited = new BitSet(this.classCount);
+        int[] stack = new int[] { id };
+        int top = 1;
+        while(top > 0) {
+            for(int subtype : this.getRelated(RELATION_SUBTYPES, stack[--top])) {
+                if(!visited.get(subtype)) {
+                    visited.set(subtype);
+                    if(top == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = subtype;
+                }
+            }
+        }
+        for(int subtype = visited.nextSetBit(0); subtype >= 0; subtype = visited.nextSetBit(subtype + 1)) {
+            names.add(this.getName(subtype));
+        }
+        return names;
+    }
+
+    /**
+     * Auxiliary method to find the names of the targets of a relation of a class.
+     */
+    private List<String> findRelated(int relation, String className) {
+        List<String> names = new ArrayList<>();
+        int id = this.findClass(className);
+        if(id >= 0) {
+            for(int target : this.getRelated(relation, id)) {
+                names.add(this.getName(target));
+            }
+        }
+        return names;
+    }
+
+    private int getStringStart(int id) {
+        return this.stringsOffset + 4 * (this.classCount + 1) + this.buffer.getInt(this.stringsOffset + 4 * id);
+    }
+
+    /**
+     * Auxiliary method to compare the name of a class with a name (both in UTF-8), byte by byte (unsigned), which
+     * is the order the writer sorts the names in.
+     */
+    private int compareName(int id, byte[] expected) {
+        int start = this.getStringStart(id);
+        int length = this.getStringStart(id + 1) - start;
+        for(int i = 0; i < Math.min(length, expected.length); i++) {
+            int result = (this.buffer.get(start + i) & 0xFF) - (expected[i] & 0xFF);
+            if(result != 0) {
+                return result;
+            }
+        }
+        return length - expected.length;
+    }
+
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = this.buffer.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,239 @@
+package net.technolords.tools.artificer.output.index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.technolords.tools.artificer.analyser.dotclass.SignatureAnalyser;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.input.ArtifactManager;
+import net.technolords.tools.artificer.output.ReportWriter;
+
+/**
+ * Writer of the analysis index (the 'index' report format), see the AnalysisIndex for the layout. The index holds
+ * the classes of the artifact with their hierarchy, references and annotations, and applies to the analysis of an
+ * artifact only (not to the analysis of a class path). The referenced classes are normalized (see SignatureAnalyser),
+ * so the classes mentioned in descriptors and signatures are indexed by their own names.
+ *
+ * The relations are gathered as pairs of ids, packed in a long (source in the high bits), so sorting the pairs
+ * groups them by source with the targets in order, which is the compressed sparse row form of the index.
+ */
+public class AnalysisIndexWriter implements ReportWriter {
+    public static final String FORMAT = "index";
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    /**
+     * The index is built from the analysis as computed, as it is not a report of sections.
+     *
+     * @return
+     *  False.
+     */
+    @Override
+    public boolean isProjected() {
+        return false;
+    }
+
+    @Override
+    public void writeReport(Object report, OutputStream outputStream) throws IOException {
+        if (!(report instanceof Analysis)) {
+            throw new IOException("The index format applies to the analysis of an artifact only");
+        }
+        Analysis analysis = (Analysis) report;
+        ResourceGroup javaResourceGroup = analysis.getResourceGroups().get(ArtifactManager.CLASSIFICATION_JAVA_CLASSES);
+        List<Resource> resources = new ArrayList<>();
+        if (javaResourceGroup != null) {
+            for (Resource resource : javaResourceGroup.getResources()) {
+                if (resource.getClassName() != null) {
+                    resources.add(resource);
+                }
+            }
+        }
+
+        // The class names, sorted by their bytes, where the position is the id
+        Set<String> classNames = new HashSet<>();
+        List<Set<String>> referencedClasses = new ArrayList<>();
+        for (Resource resource : resources) {
+            classNames.add(resource.getClassName());
+            if (resource.getSuperClass() != null) {
+                classNames.add(resource.getSuperClass());
+            }
+            classNames.addAll(resource.getInterfaces());
+            referencedClasses.add(SignatureAnalyser.normalizedClassNames(resource.getReferencedClasses()));
+            classNames.addAll(referencedClasses.get(referencedClasses.size() - 1));
+            classNames.addAll(resource.getAnnotations());
+        }
+        byte[][] names = new byte[classNames.size()][];
+        int position = 0;
+        for (String className : classNames) {
+            names[position++] = className.getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(names, AnalysisIndexWriter::compareBytes);
+        Map<String, Integer> ids = new HashMap<>();
+        for (int id = 0; id < names.length; id++) {
+            ids.put(new String(names[id], StandardCharsets.UTF_8), id);
+        }
+
+        // The classes and their relations
+        int[] accessFlags = new int[names.length];
+        int[] classFlags = new int[names.length];
+        int[] superClasses = new int[names.length];
+        LongList[] relations = new LongList[AnalysisIndex.RELATION_COUNT];
+        for (int relation = 0; relation < relations.length; relation++) {
+            relations[relation] = new LongList();
+        }
+        for (int index = 0; index < resources.size(); index++) {
+            Resource resource = resources.get(index);
+            int id = ids.get(resource.getClassName());
+            accessFlags[id] = resource.getAccessFlags() & 0xFFFF;
+            classFlags[id] |= AnalysisIndex.CLASS_FLAG_SELF;
+            if (resource.getSuperClass() != null) {
+                superClasses[id] = ids.get(resource.getSuperClass()) + 1;
+                relations[AnalysisIndex.RELATION_SUBTYPES].add(ids.get(resource.getSuperClass()), id);
+            }
+            for (String interfaceName : resource.getInterfaces()) {
+                relations[AnalysisIndex.RELATION_INTERFACES].add(id, ids.get(interfaceName));
+                relations[AnalysisIndex.RELATION_SUBTYPES].add(ids.get(interfaceName), id);
+            }
+            for (String referencedClass : referencedClasses.get(index)) {
+                int target = ids.get(referencedClass);
+                if (target != id) {
+                    relations[AnalysisIndex.RELATION_REFERENCES].add(id, target);
+                    relations[AnalysisIndex.RELATION_REFERENCED_BY].add(target, id);
+                }
+            }
+            for (String annotation : resource.getAnnotations()) {
+                relations[AnalysisIndex.RELATION_ANNOTATIONS].add(id, ids.get(annotation));
+                relations[AnalysisIndex.RELATION_ANNOTATED_CLASSES].add(ids.get(annotation), id);
+            }
+        }
+        for (LongList relation : relations) {
+            relation.sortAndDeduplicate();
+        }
+
+        // The offsets of the sections
+        byte[] artifactName = analysis.getArtifactName() == null ? new byte[0] : analysis.getArtifactName().getBytes(StandardCharsets.UTF_8);
+        int artifactNameOffset = AnalysisIndex.HEADER_SIZE;
+        int stringsOffset = artifactNameOffset + 2 + artifactName.length;
+        int stringsLength = 0;
+        for (byte[] name : names) {
+            stringsLength += name.length;
+        }
+        int classesOffset = stringsOffset + 4 * (names.length + 1) + stringsLength;
+        int[] relationOffsets = new int[relations.length];
+        int offset = classesOffset + AnalysisIndex.CLASS_INFO_SIZE * names.length;
+        for (int relation = 0; relation < relations.length; relation++) {
+            relationOffsets[relation] = offset;
+            offset += 4 * (names.length + 1) + 4 * relations[relation].size();
+        }
+
+        DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream, 1 << 16));
+        dataOutputStream.writeInt(AnalysisIndex.MAGIC);
+        dataOutputStream.writeShort(AnalysisIndex.VERSION);
+        dataOutputStream.writeShort(0);
+        dataOutputStream.writeInt(names.length);
+        dataOutputStream.writeInt(artifactNameOffset);
+        dataOutputStream.writeInt(stringsOffset);
+        dataOutputStream.writeInt(classesOffset);
+        dataOutputStream.writeInt(relations.length);
+        for (int relationOffset : relationOffsets) {
+            dataOutputStream.writeInt(relationOffset);
+        }
+        dataOutputStream.writeShort(artifactName.length);
+        dataOutputStream.write(artifactName);
+
+        // Strings
+        int stringOffset = 0;
+        for (byte[] name : names) {
+            dataOutputStream.writeInt(stringOffset);
+            stringOffset += name.length;
+        }
+        dataOutputStream.writeInt(stringOffset);
+        for (byte[] name : names) {
+            dataOutputStream.write(name);
+        }
+
+        // Classes
+        for (int id = 0; id < names.length; id++) {
+            dataOutputStream.writeShort(accessFlags[id]);
+            dataOutputStream.writeShort(classFlags[id]);
+            dataOutputStream.writeInt(superClasses[id]);
+        }
+
+        // Relations
+        for (LongList relation : relations) {
+            int index = 0;
+            for (int id = 0; id <= names.length; id++) {
+                while (index < relation.size() && (int) (relation.get(index) >>> 32) < id) {
+                    index++;
+                }
+                dataOutputStream.writeInt(index);
+            }
+            for (int i = 0; i < relation.size(); i++) {
+                dataOutputStream.writeInt((int) relation.get(i));
+            }
+        }
+        dataOutputStream.flush();
+    }
+
+    /**
+     * Auxiliary method to compare names by their (unsigned) bytes, which is the order of the index.
+     */
+    protected static int compareBytes(byte[] first, byte[] second) {
+        for (int i = 0; i < Math.min(first.length, second.length); i++) {
+            int result = (first[i] & 0xFF) - (second[i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return first.length - second.length;
+    }
+
+    /**
+     * A growable list of pairs of ids, packed in a long.
+     */
+    private static class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(int source, int target) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = ((long) source << 32) | (target & 0xFFFFFFFFL);
+        }
+
+        void sortAndDeduplicate() {
+            Arrays.sort(this.values, 0, this.size);
+            int unique = 0;
+            for (int i = 0; i < this.size; i++) {
+                if (unique == 0 || this.values[unique - 1] != this.values[i]) {
+                    this.values[unique++] = this.values[i];
+                }
+            }
+            this.size = unique;
+        }
+
+        long get(int index) {
+            return this.values[index];
+        }
+
+        int size() {
+            return this.size;
+        }
+    }
+}
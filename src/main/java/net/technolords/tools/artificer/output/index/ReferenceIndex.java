@@ -0,0 +1,126 @@
+package net.technolords.tools.artificer.output.index;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read only, inverted index of the references of many analysed artifacts: from a referenced class (or package)
+ * to the artifacts and classes referencing it. This answers questions such as "which artifacts use
+ * org/apache/logging/log4j/core/lookup/JndiLookup" without analysing (or reading the reports of) the artifacts
+ * again. The index is built incrementally by a ReferenceIndexWriter (see Analyser.setReferenceIndexLocation), and
+ * consists of the segments in a directory (see ReferenceIndexSegment for the layout).
+ *
+ * The segments are memory mapped, and a lookup is a binary search over the terms of each segment, followed by
+ * decoding the (compressed) posting list of the term. The index reflects the segments present when it is opened.
+ */
+public class ReferenceIndex {
+    private final List<ReferenceIndexSegment> segments;
+
+    private ReferenceIndex(List<ReferenceIndexSegment> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Open the index of a directory.
+     *
+     * @param directory
+     *  The directory of the index.
+     * @return
+     *  The index, which is empty when the directory has no segments.
+     * @throws IOException
+     *  When a segment can not be read, or is not valid.
+     */
+    public static ReferenceIndex open(Path directory) throws IOException {
+        List<ReferenceIndexSegment> segments = new ArrayList<>();
+        for (Path segment : ReferenceIndexWriter.findSegments(directory)) {
+            segments.add(ReferenceIndexSegment.load(segment));
+        }
+        return new ReferenceIndex(segments);
+    }
+
+    /**
+     * Get the number of artifacts in the index.
+     *
+     * @return
+     *  The number of artifacts.
+     */
+    public int getArtifactCount() {
+        int artifactCount = 0;
+        for (ReferenceIndexSegment segment : this.segments) {
+            artifactCount += segment.getArtifactCount();
+        }
+        return artifactCount;
+    }
+
+    /**
+     * Get the number of segments, which is at most (MERGE_FACTOR - 1) per tier.
+     *
+     * @return
+     *  The number of segments.
+     */
+    public int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Find the artifacts referencing a class or a package.
+     *
+     * @param name
+     *  The class name in internal form (i.e. org/slf4j/Logger), or the package name followed by a slash (i.e.
+     *  org/slf4j/).
+     * @return
+     *  The names of the artifacts, in the order they were added.
+     */
+    public Set<String> findArtifacts(String name) {
+        Set<String> artifacts = new LinkedHashSet<>();
+        byte[] term = name.getBytes(StandardCharsets.UTF_8);
+        for (ReferenceIndexSegment segment : this.segments) {
+            int index = segment.findTerm(term);
+            if (index >= 0) {
+                ReferenceIndexSegment.PostingList postings = new ReferenceIndexSegment.PostingList();
+                segment.readPostings(index, postings);
+                for (int posting = 0; posting < postings.size(); posting++) {
+                    if (posting == 0 || postings.getArtifact(posting) != postings.getArtifact(posting - 1)) {
+                        artifacts.add(segment.getArtifactName(postings.getArtifact(posting)));
+                    }
+                }
+            }
+        }
+        return artifacts;
+    }
+
+    /**
+     * Find the classes referencing a class or a package, by artifact.
+     *
+     * @param name
+     *  The class name in internal form (i.e. org/slf4j/Logger), or the package name followed by a slash (i.e.
+     *  org/slf4j/).
+     * @return
+     *  The names of the referencing classes (sorted) by the name of their artifact, in the order the artifacts were
+     *  added. An artifact added more than once has the classes of each time.
+     */
+    public Map<String, List<String>> findReferences(String name) {
+        Map<String, List<String>> references = new LinkedHashMap<>();
+        byte[] term = name.getBytes(StandardCharsets.UTF_8);
+        for (ReferenceIndexSegment segment : this.segments) {
+            int index = segment.findTerm(term);
+            if (index >= 0) {
+                ReferenceIndexSegment.PostingList postings = new ReferenceIndexSegment.PostingList();
+                segment.readPostings(index, postings);
+                for (int posting = 0; posting < postings.size(); posting++) {
+                    int artifact = postings.getArtifact(posting);
+                    references.computeIfAbsent(segment.getArtifactName(artifact), key -> new ArrayList<>())
+                        .add(segment.getClassName(artifact, postings.getClassIndex(posting)));
+                }
+            }
+        }
+        return references;
+    }
+}
@@ -0,0 +1,340 @@
+package net.technolords.tools.artificer.output.index;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read only segment of a reference index (see ReferenceIndex), backed by a (memory mapped) buffer. A segment is
+ * written once (see ReferenceIndexWriter) and has the following layout (big endian), where the postings come first
+ * so a segment can be written in a single pass:
+ *
+ * ReferenceIndexSegment {
+ *     u4               magic (0x41524958, 'ARIX')
+ *     u2               version
+ *     u2               flags               (reserved, zero)
+ *     u1               postings[]
+ *     artifact_info    artifacts[artifact_count]
+ *     u4               artifact_offsets[artifact_count]
+ *     u4               term_offsets[term_count + 1]
+ *     u1               terms[]
+ *     u4               posting_offsets[term_count + 1]
+ *     footer_info      footer
+ * }
+ *
+ * artifact_info {
+ *     u2               name_length
+ *     u1               name[name_length]
+ *     u4               class_count
+ *     u4               class_offsets[class_count + 1]
+ *     u1               class_names[]
+ * }
+ *
+ * footer_info {
+ *     u4               artifact_count
+ *     u4               artifact_offsets_offset
+ *     u4               term_count
+ *     u4               term_offsets_offset
+ *     u4               posting_offsets_offset
+ *     u4               magic (0x41524958, 'ARIX')
+ * }
+ *
+ * - terms[]:
+ *      The referenced class names (i.e. org/slf4j/Logger) and package names, where a package name ends with a
+ *      slash (i.e. org/slf4j/), in UTF-8, sorted by their bytes. Term i spans term_offsets[i] up to
+ *      term_offsets[i + 1] (relative to the end of term_offsets).
+ * - postings[]:
+ *      The posting list of term i spans posting_offsets[i] up to posting_offsets[i + 1] (relative to the start of
+ *      the segment), and holds the classes referencing the term, grouped by artifact. All numbers are unsigned
+ *      variable length integers (7 bits per byte, low bits first):
+ *
+ *      posting_list {
+ *          varint      group_count
+ *          group_info  groups[group_count]
+ *      }
+ *
+ *      group_info {
+ *          varint      artifact_delta      (the artifact index minus the one of the previous group)
+ *          varint      class_count
+ *          varint      class_deltas[class_count]   (the class index minus the previous one)
+ *      }
+ *
+ * The buffer is only read with absolute methods, so the segment is thread safe.
+ */
+class ReferenceIndexSegment {
+    static final int MAGIC = 0x41524958;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int FOOTER_SIZE = 24;
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int artifactCount;
+    private final int artifactOffsetsOffset;
+    private final int termCount;
+    private final int termOffsetsOffset;
+    private final int termsOffset;
+    private final int postingOffsetsOffset;
+
+    /**
+     * Create a segment on top of a buffer.
+     *
+     * @param path
+     *  The path of the segment file, or null.
+     * @param buffer
+     *  The buffer containing the segment.
+     * @throws IOException
+     *  When the buffer does not contain a valid segment.
+     */
+    ReferenceIndexSegment(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int limit = this.buffer.limit();
+        if(limit < HEADER_SIZE + FOOTER_SIZE || this.buffer.getInt(0) != MAGIC || this.buffer.getInt(limit - 4) != MAGIC) {
+            throw new IOException("Not a reference index segment: " + path);
+        }
+        int version = this.buffer.getShort(4) & 0xFFFF;
+        if(version != VERSION) {
+            throw new IOException("Unsupported reference index version: " + version);
+        }
+        int footer = limit - FOOTER_SIZE;
+        this.artifactCount = this.buffer.getInt(footer);
+        this.artifactOffsetsOffset = this.buffer.getInt(footer + 4);
+        this.termCount = this.buffer.getInt(footer + 8);
+        this.termOffsetsOffset = this.buffer.getInt(footer + 12);
+        this.postingOffsetsOffset = this.buffer.getInt(footer + 16);
+        this.termsOffset = this.termOffsetsOffset + 4 * (this.termCount + 1);
+        if(this.artifactCount < 0 || this.termCount < 0 || (long) this.postingOffsetsOffset + 4L * (this.termCount + 1) > footer) {
+            throw new IOException("Truncated reference index segment: " + path);
+        }
+    }
+
+    /**
+     * Load a segment from a file, by mapping the file in memory.
+     *
+     * @param path
+     *  The path to the segment file.
+     * @return
+     *  The segment.
+     * @throws IOException
+     *  When the file can not be read, or is not a valid segment.
+     */
+    static ReferenceIndexSegment load(Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ReferenceIndexSegment(path, fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()));
+        }
+    }
+
+    Path getPath() {
+        return this.path;
+    }
+
+    int getArtifactCount() {
+        return this.artifactCount;
+    }
+
+    int getTermCount() {
+        return this.termCount;
+    }
+
+    /**
+     * Get the offset of an artifact_info block. As the blocks follow each other, the offset of the artifact after
+     * the last one is the end of the blocks.
+     *
+     * @param artifact
+     *  The index of the artifact, up to and including the artifact count.
+     * @return
+     *  The offset of the block (relative to the start of the segment).
+     */
+    int getArtifactOffset(int artifact) {
+        return artifact == this.artifactCount ? this.artifactOffsetsOffset : this.buffer.getInt(this.artifactOffsetsOffset + 4 * artifact);
+    }
+
+    String getArtifactName(int artifact) {
+        int position = this.buffer.getInt(this.artifactOffsetsOffset + 4 * artifact);
+        return this.readString(position + 2, this.buffer.getShort(position) & 0xFFFF);
+    }
+
+    int getClassCount(int artifact) {
+        int position = this.buffer.getInt(this.artifactOffsetsOffset + 4 * artifact);
+        return this.buffer.getInt(position + 2 + (this.buffer.getShort(position) & 0xFFFF));
+    }
+
+    String getClassName(int artifact, int classIndex) {
+        int position = this.buffer.getInt(this.artifactOffsetsOffset + 4 * artifact);
+        position += 2 + (this.buffer.getShort(position) & 0xFFFF);
+        int classCount = this.buffer.getInt(position);
+        int classNamesOffset = position + 4 + 4 * (classCount + 1);
+        int start = this.buffer.getInt(position + 4 + 4 * classIndex);
+        int end = this.buffer.getInt(position + 4 + 4 * (classIndex + 1));
+        return this.readString(classNamesOffset + start, end - start);
+    }
+
+    byte[] getTerm(int term) {
+        int start = this.buffer.getInt(this.termOffsetsOffset + 4 * term);
+        int end = this.buffer.getInt(this.termOffsetsOffset + 4 * (term + 1));
+        byte[] bytes = new byte[end - start];
+        for(int i = 0; i < bytes.length; i++) {
+            bytes[i] = this.buffer.get(this.termsOffset + start + i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Find a term, by a binary search over the (sorted) terms.
+     *
+     * @param expected
+     *  The term, in UTF-8.
+     * @return
+     *  The index of the term, or -1 when the segment does not contain the term.
+     */
+    int findTerm(byte[] expected) {
+        int low = 0;
+        int high = this.termCount - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = this.compareTerm(middle, expected);
+            if(result < 0) {
+                low = middle + 1;
+            } else if(result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decode the posting list of a term.
+     *
+     * @param term
+     *  The index of the term.
+     * @param postings
+     *  The list the postings are added to, as pairs of the artifact index and the class index.
+     */
+    void readPostings(int term, PostingList postings) {
+        int[] position = new int[] { this.buffer.getInt(this.postingOffsetsOffset + 4 * term) };
+        int groupCount = this.readVarint(position);
+        int artifact = 0;
+        for(int group = 0; group < groupCount; group++) {
+            artifact += this.readVarint(position);
+            int classCount = this.readVarint(position);
+            int classIndex = 0;
+            for(int i = 0; i < classCount; i++) {
+                classIndex += this.readVarint(position);
+                postings.add(artifact, classIndex);
+            }
+        }
+    }
+
+    /**
+     * Get the offset of the posting list of a term, where the offset of the term after the last one is the end of
+     * the postings.
+     *
+     * @param term
+     *  The index of the term, up to and including the term count.
+     * @return
+     *  The offset of the posting list (relative to the start of the segment).
+     */
+    int getPostingsOffset(int term) {
+        return this.buffer.getInt(this.postingOffsetsOffset + 4 * term);
+    }
+
+    /**
+     * Copy a range of the segment as is.
+     *
+     * @param start
+     *  The offset of the range (inclusive).
+     * @param end
+     *  The end of the range (exclusive).
+     * @param outputStream
+     *  The stream the bytes are written to.
+     * @throws IOException
+     *  When writing the bytes fails.
+     */
+    void copy(int start, int end, OutputStream outputStream) throws IOException {
+        byte[] bytes = new byte[Math.min(end - start, COPY_BUFFER_SIZE)];
+        ByteBuffer source = this.buffer.duplicate();
+        source.position(start);
+        for(int position = start; position < end; position += bytes.length) {
+            int length = Math.min(end - position, bytes.length);
+            source.get(bytes, 0, length);
+            outputStream.write(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Read an unsigned variable length integer.
+     *
+     * @param position
+     *  The position to read from, which is advanced past the integer.
+     * @return
+     *  The integer.
+     */
+    int readVarint(int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = this.buffer.get(position[0]++);
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while(current < 0);
+        return value;
+    }
+
+    private int compareTerm(int term, byte[] expected) {
+        int start = this.termsOffset + this.buffer.getInt(this.termOffsetsOffset + 4 * term);
+        int length = this.termsOffset + this.buffer.getInt(this.termOffsetsOffset + 4 * (term + 1)) - start;
+        for(int i = 0; i < Math.min(length, expected.length); i++) {
+            int result = (this.buffer.get(start + i) & 0xFF) - (expected[i] & 0xFF);
+            if(result != 0) {
+                return result;
+            }
+        }
+        return length - expected.length;
+    }
+
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = this.buffer.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A growable list of postings, being pairs of an artifact index and a class index.
+     */
+    static class PostingList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int artifact, int classIndex) {
+            if(this.size + 2 > this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.values.length * 2);
+            }
+            this.values[this.size++] = artifact;
+            this.values[this.size++] = classIndex;
+        }
+
+        int size() {
+            return this.size / 2;
+        }
+
+        int getArtifact(int index) {
+            return this.values[2 * index];
+        }
+
+        int getClassIndex(int index) {
+            return this.values[2 * index + 1];
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package net.technolords.tools.artificer.output.index;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.analyser.dotclass.SignatureAnalyser;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+/**
+ * Writer of a reference index (see ReferenceIndex), which is built incrementally: the analyses are added as they
+ * complete, and their postings are buffered until the writer is flushed, which writes them as a new segment. The
+ * segments are immutable, and merged in tiers (log structured): a flush writes a segment of tier 0, and once there
+ * are MERGE_FACTOR segments of a tier, they are merged into one segment of the next tier. This keeps the number of
+ * segments logarithmic in the number of flushes, while each posting is rewritten a logarithmic number of times.
+ *
+ * The segments are named segment-[tier]-[sequence].ridx, where the sequence tells the order of the segments. A
+ * segment is written to a temporary file first, and moved in place once complete, so a reader never sees a partial
+ * segment. The writer is thread safe, but a directory must be written by a single writer at a time.
+ */
+public class ReferenceIndexWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceIndexWriter.class);
+    public static final int MERGE_FACTOR = 10;
+    public static final String PACKAGE_SUFFIX = "/";
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_EXTENSION = ".ridx";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private final Path directory;
+    private final List<String> artifactNames = new ArrayList<>();
+    private final List<String[]> artifactClasses = new ArrayList<>();
+    private final Map<String, ReferenceIndexSegment.PostingList> postings = new HashMap<>();
+    private long nextSequence;
+
+    /**
+     * Create a writer of a reference index.
+     *
+     * @param directory
+     *  The directory of the index, which is created when absent. Existing segments are kept.
+     * @throws IOException
+     *  When the directory can not be created or read.
+     */
+    public ReferenceIndexWriter(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        for (Path segment : findSegments(directory)) {
+            this.nextSequence = Math.max(this.nextSequence, getSequence(segment) + 1);
+        }
+    }
+
+    /**
+     * Add the references of an (analysed) artifact, which are written on the next flush. Each class of the artifact
+     * is a posting of the classes it references, and of the packages of those classes. The referenced classes are
+     * normalized first (see SignatureAnalyser), so a class only mentioned in a descriptor or signature is posted
+     * under its own name.
+     *
+     * @param analysis
+     *  The analysis of the artifact.
+     */
+    public synchronized void addAnalysis(Analysis analysis) {
+        ResourceGroup javaResourceGroup = analysis.getResourceGroups().get(ArtifactManager.CLASSIFICATION_JAVA_CLASSES);
+        List<Resource> resources = new ArrayList<>();
+        if (javaResourceGroup != null) {
+            for (Resource resource : javaResourceGroup.getResources()) {
+                if (resource.getClassName() != null) {
+                    resources.add(resource);
+                }
+            }
+        }
+        resources.sort((first, second) -> first.getClassName().compareTo(second.getClassName()));
+        int artifact = this.artifactNames.size();
+        String[] classNames = new String[resources.size()];
+        for (int classIndex = 0; classIndex < classNames.length; classIndex++) {
+            Resource resource = resources.get(classIndex);
+            classNames[classIndex] = resource.getClassName();
+            Set<String> terms = new LinkedHashSet<>();
+            for (String referencedClass : SignatureAnalyser.normalizedClassNames(resource.getReferencedClasses())) {
+                if (!referencedClass.equals(resource.getClassName())) {
+                    terms.add(referencedClass);
+                    int separator = referencedClass.lastIndexOf('/');
+                    terms.add(separator == -1 ? PACKAGE_SUFFIX : referencedClass.substring(0, separator) + PACKAGE_SUFFIX);
+                }
+            }
+            for (String term : terms) {
+                this.postings.computeIfAbsent(term, key -> new ReferenceIndexSegment.PostingList()).add(artifact, classIndex);
+            }
+        }
+        this.artifactNames.add(analysis.getArtifactName() == null ? "" : analysis.getArtifactName());
+        this.artifactClasses.add(classNames);
+    }
+
+    /**
+     * Write the buffered references as a new segment, and merge the segments of a tier once there are
+     * MERGE_FACTOR of them. Nothing is written when no analyses were added.
+     *
+     * @throws IOException
+     *  When writing a segment fails.
+     */
+    public synchronized void flush() throws IOException {
+        if (this.artifactNames.isEmpty()) {
+            return;
+        }
+        byte[][] terms = new byte[this.postings.size()][];
+        ReferenceIndexSegment.PostingList[] termPostings = new ReferenceIndexSegment.PostingList[terms.length];
+        int position = 0;
+        for (String term : this.postings.keySet()) {
+            terms[position++] = term.getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(terms, AnalysisIndexWriter::compareBytes);
+        for (int term = 0; term < terms.length; term++) {
+            termPostings[term] = this.postings.get(new String(terms[term], StandardCharsets.UTF_8));
+        }
+        Path segment = this.directory.resolve(segmentName(0, this.nextSequence++));
+        try (SegmentOutput segmentOutput = new SegmentOutput(segment)) {
+            for (int term = 0; term < terms.length; term++) {
+                segmentOutput.addTerm(terms[term], termPostings[term]);
+            }
+            for (int artifact = 0; artifact < this.artifactNames.size(); artifact++) {
+                segmentOutput.addArtifact(this.artifactNames.get(artifact), this.artifactClasses.get(artifact));
+            }
+            segmentOutput.finish();
+        }
+        LOGGER.debug("Written segment " + segment + " with " + this.artifactNames.size() + " artifacts and " + terms.length + " terms");
+        this.artifactNames.clear();
+        this.artifactClasses.clear();
+        this.postings.clear();
+        this.mergeTiers();
+    }
+
+    /**
+     * Merge all segments into a single segment (of the highest tier), which makes queries cheapest. Typically done
+     * once a batch of artifacts is complete.
+     *
+     * @throws IOException
+     *  When merging the segments fails.
+     */
+    public synchronized void compact() throws IOException {
+        this.flush();
+        List<Path> segments = findSegments(this.directory);
+        if (segments.size() > 1) {
+            int tier = 0;
+            for (Path segment : segments) {
+                tier = Math.max(tier, getTier(segment));
+            }
+            this.merge(segments, tier + 1);
+        }
+    }
+
+    /**
+     * Auxiliary method to merge the segments of a tier, as long as a tier has MERGE_FACTOR segments.
+     */
+    private void mergeTiers() throws IOException {
+        for (int tier = 0; ; tier++) {
+            List<Path> segments = new ArrayList<>();
+            for (Path segment : findSegments(this.directory)) {
+                if (getTier(segment) == tier) {
+                    segments.add(segment);
+                }
+            }
+            if (segments.size() < MERGE_FACTOR) {
+                return;
+            }
+            this.merge(segments, tier + 1);
+        }
+    }
+
+    /**
+     * Auxiliary method to merge segments into one segment, which takes the sequence of the first segment, by a k-way
+     * merge of their (sorted) terms. The artifacts of a segment are renumbered after those of the segments before,
+     * which only changes the first artifact delta of each of its posting lists, so the postings and the artifacts
+     * are copied from the (mapped) segments as they are, rather than decoded in memory.
+     */
+    private void merge(List<Path> segmentPaths, int tier) throws IOException {
+        List<ReferenceIndexSegment> segments = new ArrayList<>();
+        int[] artifactBases = new int[segmentPaths.size()];
+        int artifactCount = 0;
+        for (Path segmentPath : segmentPaths) {
+            ReferenceIndexSegment segment = ReferenceIndexSegment.load(segmentPath);
+            artifactBases[segments.size()] = artifactCount;
+            artifactCount += segment.getArtifactCount();
+            segments.add(segment);
+        }
+
+        // The cursors (segment index and term index) ordered by their current term, then by segment
+        byte[][] currentTerms = new byte[segments.size()][];
+        PriorityQueue<int[]> cursors = new PriorityQueue<>((first, second) -> {
+            int result = AnalysisIndexWriter.compareBytes(currentTerms[first[0]], currentTerms[second[0]]);
+            return result != 0 ? result : Integer.compare(first[0], second[0]);
+        });
+        for (int index = 0; index < segments.size(); index++) {
+            if (segments.get(index).getTermCount() > 0) {
+                currentTerms[index] = segments.get(index).getTerm(0);
+                cursors.add(new int[] { index, 0 });
+            }
+        }
+        Path mergedSegment = this.directory.resolve(segmentName(tier, getSequence(segmentPaths.get(0))));
+        try (SegmentOutput segmentOutput = new SegmentOutput(mergedSegment)) {
+            List<int[]> termCursors = new ArrayList<>();
+            while (!cursors.isEmpty()) {
+                byte[] term = currentTerms[cursors.peek()[0]];
+                while (!cursors.isEmpty() && Arrays.equals(currentTerms[cursors.peek()[0]], term)) {
+                    termCursors.add(cursors.poll());
+                }
+                segmentOutput.addTerm(term, segments, termCursors, artifactBases);
+                for (int[] cursor : termCursors) {
+                    ReferenceIndexSegment segment = segments.get(cursor[0]);
+                    if (++cursor[1] < segment.getTermCount()) {
+                        currentTerms[cursor[0]] = segment.getTerm(cursor[1]);
+                        cursors.add(cursor);
+                    }
+                }
+                termCursors.clear();
+            }
+            for (ReferenceIndexSegment segment : segments) {
+                segmentOutput.copyArtifacts(segment);
+            }
+            segmentOutput.finish();
+        }
+        for (Path segmentPath : segmentPaths) {
+            if (!segmentPath.equals(mergedSegment)) {
+                Files.delete(segmentPath);
+            }
+        }
+        LOGGER.debug("Merged " + segmentPaths.size() + " segments into " + mergedSegment + " with " + artifactCount + " artifacts");
+    }
+
+    /**
+     * Find the segments of an index, in the order of their sequence.
+     *
+     * @param directory
+     *  The directory of the index.
+     * @return
+     *  The paths of the segments.
+     * @throws IOException
+     *  When the directory can not be read.
+     */
+    static List<Path> findSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> paths = Files.list(directory)) {
+                paths.filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXTENSION);
+                }).forEach(segments::add);
+            }
+        }
+        segments.sort((first, second) -> Long.compare(getSequence(first), getSequence(second)));
+        return segments;
+    }
+
+    private static String segmentName(int tier, long sequence) {
+        return String.format("%s%d-%08d%s", SEGMENT_PREFIX, tier, sequence, SEGMENT_EXTENSION);
+    }
+
+    private static int getTier(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.indexOf('-', SEGMENT_PREFIX.length())));
+    }
+
+    private static long getSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-', SEGMENT_PREFIX.length()) + 1, name.length() - SEGMENT_EXTENSION.length()));
+    }
+
+    /**
+     * The output of a segment, where the terms are added in order, then the artifacts, and the tables are written
+     * when finished (see ReferenceIndexSegment for the layout). The bytes written are counted as a long, so the
+     * output fails before any offset (an u4) exceeds 2 GB.
+     */
+    private static class SegmentOutput implements AutoCloseable {
+        private final Path segment;
+        private final Path temporarySegment;
+        private final CountingOutputStream countingOutputStream;
+        private final DataOutputStream dataOutputStream;
+        private final ByteArrayOutputStream terms = new ByteArrayOutputStream();
+        private final List<Integer> termOffsets = new ArrayList<>();
+        private final List<Integer> postingOffsets = new ArrayList<>();
+        private final List<Integer> artifactOffsets = new ArrayList<>();
+        private int endOfPostings = -1;
+        private boolean finished;
+
+        SegmentOutput(Path segment) throws IOException {
+            this.segment = segment;
+            this.temporarySegment = segment.resolveSibling(segment.getFileName() + TEMPORARY_EXTENSION);
+            this.countingOutputStream = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(this.temporarySegment), 1 << 16));
+            this.dataOutputStream = new DataOutputStream(this.countingOutputStream);
+            this.dataOutputStream.writeInt(ReferenceIndexSegment.MAGIC);
+            this.dataOutputStream.writeShort(ReferenceIndexSegment.VERSION);
+            this.dataOutputStream.writeShort(0);
+        }
+
+        void addTerm(byte[] term, ReferenceIndexSegment.PostingList postings) throws IOException {
+            this.startTerm(term);
+
+            // Count the groups (postings are ordered by artifact, then by class)
+            int groupCount = 0;
+            for (int posting = 0; posting < postings.size(); posting++) {
+                if (posting == 0 || postings.getArtifact(posting) != postings.getArtifact(posting - 1)) {
+                    groupCount++;
+                }
+            }
+            this.writeVarint(groupCount);
+            int previousArtifact = 0;
+            int posting = 0;
+            while (posting < postings.size()) {
+                int artifact = postings.getArtifact(posting);
+                int end = posting;
+                while (end < postings.size() && postings.getArtifact(end) == artifact) {
+                    end++;
+                }
+                this.writeVarint(artifact - previousArtifact);
+                this.writeVarint(end - posting);
+                int previousClassIndex = 0;
+                for (; posting < end; posting++) {
+                    this.writeVarint(postings.getClassIndex(posting) - previousClassIndex);
+                    previousClassIndex = postings.getClassIndex(posting);
+                }
+                previousArtifact = artifact;
+            }
+        }
+
+        /**
+         * Add a term with the posting lists of the segments being merged (in the order of the segments), where the
+         * groups are copied as they are, but for the artifact delta of the first group of each posting list, which
+         * is relative to the last artifact of the posting list before.
+         */
+        void addTerm(byte[] term, List<ReferenceIndexSegment> segments, List<int[]> cursors, int[] artifactBases) throws IOException {
+            this.startTerm(term);
+            int groupCount = 0;
+            for (int[] cursor : cursors) {
+                ReferenceIndexSegment segment = segments.get(cursor[0]);
+                groupCount += segment.readVarint(new int[] { segment.getPostingsOffset(cursor[1]) });
+            }
+            this.writeVarint(groupCount);
+            int previousArtifact = 0;
+            for (int[] cursor : cursors) {
+                ReferenceIndexSegment segment = segments.get(cursor[0]);
+                int[] position = new int[] { segment.getPostingsOffset(cursor[1]) };
+                int segmentGroupCount = segment.readVarint(position);
+                if (segmentGroupCount == 0) {
+                    continue;
+                }
+                int artifact = artifactBases[cursor[0]] + segment.readVarint(position);
+                this.writeVarint(artifact - previousArtifact);
+                int groupsOffset = position[0];
+
+                // Skip the groups, to find the artifact of the last one
+                for (int group = 0; group < segmentGroupCount; group++) {
+                    if (group > 0) {
+                        artifact += segment.readVarint(position);
+                    }
+                    int classCount = segment.readVarint(position);
+                    for (int classIndex = 0; classIndex < classCount; classIndex++) {
+                        segment.readVarint(position);
+                    }
+                }
+                segment.copy(groupsOffset, segment.getPostingsOffset(cursor[1] + 1), this.dataOutputStream);
+                previousArtifact = artifact;
+            }
+        }
+
+        void addArtifact(String artifactName, String[] classNames) throws IOException {
+            this.endPostings();
+            this.artifactOffsets.add(this.offset());
+            byte[] name = artifactName.getBytes(StandardCharsets.UTF_8);
+            this.dataOutputStream.writeShort(name.length);
+            this.dataOutputStream.write(name);
+            byte[][] classBytes = new byte[classNames.length][];
+            this.dataOutputStream.writeInt(classNames.length);
+            int classOffset = 0;
+            for (int classIndex = 0; classIndex < classNames.length; classIndex++) {
+                classBytes[classIndex] = classNames[classIndex].getBytes(StandardCharsets.UTF_8);
+                this.dataOutputStream.writeInt(classOffset);
+                classOffset += classBytes[classIndex].length;
+            }
+            this.dataOutputStream.writeInt(classOffset);
+            for (byte[] bytes : classBytes) {
+                this.dataOutputStream.write(bytes);
+            }
+        }
+
+        /**
+         * Add the artifacts of a segment being merged, by copying their artifact_info blocks as they are (as the
+         * class offsets within a block are relative to the block).
+         */
+        void copyArtifacts(ReferenceIndexSegment segment) throws IOException {
+            this.endPostings();
+            int start = segment.getArtifactOffset(0);
+            int base = this.offset();
+            for (int artifact = 0; artifact < segment.getArtifactCount(); artifact++) {
+                this.artifactOffsets.add(base + (segment.getArtifactOffset(artifact) - start));
+            }
+            segment.copy(start, segment.getArtifactOffset(segment.getArtifactCount()), this.dataOutputStream);
+        }
+
+        void finish() throws IOException {
+            this.endPostings();
+            int artifactOffsetsOffset = this.offset();
+            for (int artifactOffset : this.artifactOffsets) {
+                this.dataOutputStream.writeInt(artifactOffset);
+            }
+            int termOffsetsOffset = this.offset();
+            for (int termOffset : this.termOffsets) {
+                this.dataOutputStream.writeInt(termOffset);
+            }
+            this.dataOutputStream.writeInt(this.terms.size());
+            this.terms.writeTo(this.dataOutputStream);
+            int postingOffsetsOffset = this.offset();
+            for (int postingOffset : this.postingOffsets) {
+                this.dataOutputStream.writeInt(postingOffset);
+            }
+            this.dataOutputStream.writeInt(this.endOfPostings);
+            this.dataOutputStream.writeInt(this.artifactOffsets.size());
+            this.dataOutputStream.writeInt(artifactOffsetsOffset);
+            this.dataOutputStream.writeInt(this.termOffsets.size());
+            this.dataOutputStream.writeInt(termOffsetsOffset);
+            this.dataOutputStream.writeInt(postingOffsetsOffset);
+            this.dataOutputStream.writeInt(ReferenceIndexSegment.MAGIC);
+            // The segment is mapped as a whole, so its size is bound by 2 GB as well
+            this.offset();
+            this.finished = true;
+        }
+
+        private void startTerm(byte[] term) throws IOException {
+            this.termOffsets.add(this.terms.size());
+            this.terms.write(term);
+            this.postingOffsets.add(this.offset());
+        }
+
+        private void endPostings() throws IOException {
+            if (this.endOfPostings < 0) {
+                this.endOfPostings = this.offset();
+            }
+        }
+
+        /**
+         * Auxiliary method to get the current offset, which fails when the offset does not fit an u4 (as a signed
+         * int, being how the segment is read).
+         */
+        private int offset() throws IOException {
+            if (this.countingOutputStream.count > Integer.MAX_VALUE) {
+                throw new IOException("Segment exceeds 2 GB: " + this.segment);
+            }
+            return (int) this.countingOutputStream.count;
+        }
+
+        private void writeVarint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                this.dataOutputStream.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.dataOutputStream.writeByte(value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.dataOutputStream.close();
+            if (this.finished) {
+                try {
+                    Files.move(this.temporarySegment, this.segment, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(this.temporarySegment, this.segment, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } else {
+                Files.deleteIfExists(this.temporarySegment);
+            }
+        }
+    }
+
+    /**
+     * An output stream which counts the bytes written as a long, unlike DataOutputStream.size (which stops counting
+     * at Integer.MAX_VALUE).
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            this.out.write(value);
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            this.out.write(bytes, offset, length);
+            this.count += length;
+        }
+    }
+}
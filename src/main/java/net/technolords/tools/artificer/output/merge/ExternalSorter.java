@@ -0,0 +1,269 @@
+package net.technolords.tools.artificer.output.merge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * External merge sort of (string) records, which keeps at most runSize records in memory: once the buffer is full,
+ * it is sorted and spilled to a temporary file as a run. The sorted records are read by a k-way merge of the runs
+ * (and the records still buffered), where at most MERGE_FACTOR runs are merged at a time. When there are more
+ * runs, they are merged into longer runs first, so the number of open files stays bounded as well.
+ *
+ * A run is written as the number of records, followed by the records (modified UTF-8, see DataOutput.writeUTF).
+ * The records are sorted by their natural order, and duplicates are kept. The sorter is not thread safe.
+ */
+public class ExternalSorter implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalSorter.class);
+    public static final int MERGE_FACTOR = 16;
+    private static final String RUN_PREFIX = "artificer-";
+    private static final String RUN_EXTENSION = ".run";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final int runSize;
+    private final List<String> buffer = new ArrayList<>();
+    private final List<Run> runs = new ArrayList<>();
+
+    /**
+     * Create an external sorter.
+     *
+     * @param runSize
+     *  The maximum number of records kept in memory, which is the number of records of a run.
+     */
+    public ExternalSorter(int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("The run size must be at least 1, but is: " + runSize);
+        }
+        this.runSize = runSize;
+    }
+
+    /**
+     * Add a record, which spills the buffered records as a run when the buffer is full.
+     *
+     * @param record
+     *  The record.
+     * @throws IOException
+     *  When writing the run fails.
+     */
+    public void add(String record) throws IOException {
+        this.buffer.add(record);
+        if (this.buffer.size() >= this.runSize) {
+            Collections.sort(this.buffer);
+            this.runs.add(this.writeRun(new ListCursor(this.buffer), this.buffer.size()));
+            this.buffer.clear();
+        }
+    }
+
+    /**
+     * Get the number of runs spilled so far.
+     *
+     * @return
+     *  The number of runs.
+     */
+    public int getRunCount() {
+        return this.runs.size();
+    }
+
+    /**
+     * Open a cursor over all records added so far, in sorted order. The runs are merged down to MERGE_FACTOR runs
+     * first. The cursor must be closed before records are added again.
+     *
+     * @return
+     *  The cursor of the sorted records.
+     * @throws IOException
+     *  When merging or reading the runs fails.
+     */
+    public Cursor sorted() throws IOException {
+        Collections.sort(this.buffer);
+        while (this.runs.size() > MERGE_FACTOR) {
+            List<Run> mergedRuns = new ArrayList<>(this.runs.subList(0, MERGE_FACTOR));
+            long count = 0;
+            List<Cursor> cursors = new ArrayList<>();
+            for (Run run : mergedRuns) {
+                count += run.count;
+                cursors.add(new RunCursor(run));
+            }
+            Run mergedRun;
+            try (Cursor cursor = new MergeCursor(cursors)) {
+                mergedRun = this.writeRun(cursor, count);
+            }
+            for (Run run : mergedRuns) {
+                Files.delete(run.path);
+            }
+            this.runs.subList(0, MERGE_FACTOR).clear();
+            this.runs.add(mergedRun);
+            LOGGER.debug("Merged " + mergedRuns.size() + " runs into " + mergedRun.path + " with " + count + " records");
+        }
+        List<Cursor> cursors = new ArrayList<>();
+        cursors.add(new ListCursor(this.buffer));
+        for (Run run : this.runs) {
+            cursors.add(new RunCursor(run));
+        }
+        return new MergeCursor(cursors);
+    }
+
+    /**
+     * Delete the runs, and discard the buffered records.
+     *
+     * @throws IOException
+     *  When deleting a run fails.
+     */
+    @Override
+    public void close() throws IOException {
+        this.buffer.clear();
+        for (Run run : this.runs) {
+            Files.deleteIfExists(run.path);
+        }
+        this.runs.clear();
+    }
+
+    /**
+     * Auxiliary method to write the records of a cursor (in sorted order) as a run.
+     */
+    private Run writeRun(Cursor cursor, long count) throws IOException {
+        Path path = Files.createTempFile(RUN_PREFIX, RUN_EXTENSION);
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE))) {
+            dataOutputStream.writeLong(count);
+            for (String record = cursor.next(); record != null; record = cursor.next()) {
+                dataOutputStream.writeUTF(record);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new Run(path, count);
+    }
+
+    /**
+     * A cursor over records in sorted order.
+     */
+    public interface Cursor extends Closeable {
+
+        /**
+         * Get the next record.
+         *
+         * @return
+         *  The next record, or null when there are no more records.
+         * @throws IOException
+         *  When reading a run fails.
+         */
+        String next() throws IOException;
+    }
+
+    private static class Run {
+        private final Path path;
+        private final long count;
+
+        Run(Path path, long count) {
+            this.path = path;
+            this.count = count;
+        }
+    }
+
+    private static class ListCursor implements Cursor {
+        private final List<String> records;
+        private int position;
+
+        ListCursor(List<String> records) {
+            this.records = records;
+        }
+
+        @Override
+        public String next() {
+            return this.position < this.records.size() ? this.records.get(this.position++) : null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class RunCursor implements Cursor {
+        private final DataInputStream dataInputStream;
+        private long remaining;
+
+        RunCursor(Run run) throws IOException {
+            this.dataInputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.path), BUFFER_SIZE));
+            this.remaining = this.dataInputStream.readLong();
+        }
+
+        @Override
+        public String next() throws IOException {
+            if (this.remaining == 0) {
+                return null;
+            }
+            this.remaining--;
+            return this.dataInputStream.readUTF();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.dataInputStream.close();
+        }
+    }
+
+    /**
+     * The k-way merge of cursors, where equal records are taken in the order of the cursors.
+     */
+    private static class MergeCursor implements Cursor {
+        private final List<Cursor> cursors;
+        private final String[] currentRecords;
+        private final PriorityQueue<Integer> heads;
+
+        MergeCursor(List<Cursor> cursors) throws IOException {
+            this.cursors = cursors;
+            this.currentRecords = new String[cursors.size()];
+            this.heads = new PriorityQueue<>((first, second) -> {
+                int result = this.currentRecords[first].compareTo(this.currentRecords[second]);
+                return result != 0 ? result : Integer.compare(first, second);
+            });
+            for (int index = 0; index < cursors.size(); index++) {
+                this.advance(index);
+            }
+        }
+
+        @Override
+        public String next() throws IOException {
+            Integer head = this.heads.poll();
+            if (head == null) {
+                return null;
+            }
+            String record = this.currentRecords[head];
+            this.advance(head);
+            return record;
+        }
+
+        private void advance(int index) throws IOException {
+            this.currentRecords[index] = this.cursors.get(index).next();
+            if (this.currentRecords[index] != null) {
+                this.heads.add(index);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException exception = null;
+            for (Cursor cursor : this.cursors) {
+                try {
+                    cursor.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+}
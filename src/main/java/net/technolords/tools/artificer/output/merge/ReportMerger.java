@@ -0,0 +1,406 @@
+package net.technolords.tools.artificer.output.merge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ExternalArtifact;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.meta.FoundJavaVersion;
+import net.technolords.tools.artificer.domain.meta.FoundJavaVersions;
+import net.technolords.tools.artificer.output.OutputManager;
+
+/**
+ * The merge of the reports of many artifacts into one summary, with bounded memory however many artifacts are
+ * merged. The artifacts are added as analyses (as they complete), or as reports written before (XML, optionally
+ * compressed), which are read with a streaming reader. The summary is written as:
+ *
+ * <merged-report total-artifacts="2">
+ *     <artifacts>
+ *         <artifact name="first.jar" status="OK"/>
+ *         ...
+ *     </artifacts>
+ *     <java-versions>
+ *         <java version="1.8" total-classes="120" total-artifacts="2"/>
+ *         ...
+ *     </java-versions>
+ *     <external-classes>
+ *         <external-class package="org/slf4j/Logger" artifact="org.slf4j:slf4j-api:1.7.6" total-artifacts="2"/>
+ *         ...
+ *     </external-classes>
+ *     <class-domains>
+ *         <class-domain name="External" total-classes="3" total-references="4"/>
+ *         ...
+ *     </class-domains>
+ *     <external-artifacts>
+ *         <external-artifact group-id="org.slf4j" artifact-id="slf4j-api" version="1.7.6" total-artifacts="2"/>
+ *         ...
+ *     </external-artifacts>
+ * </merged-report>
+ *
+ * The class domains count the distinct referenced classes per domain, and the references to them (one per artifact
+ * referencing the class). The external classes and artifacts are the union over the artifacts, sorted, and computed
+ * with an external merge sort (see ExternalSorter), as are the class domains. The artifacts are kept in a temporary
+ * file in the order they are added. Only the java versions are kept in memory, as there are few of them.
+ */
+public class ReportMerger implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportMerger.class);
+    public static final int DEFAULT_RUN_SIZE = 100_000;
+    private static final char SEPARATOR = '\0';
+    private final ExternalSorter referencedClasses;
+    private final ExternalSorter externalArtifacts;
+    private final Map<String, long[]> javaVersions = new TreeMap<>(FoundJavaVersions::compareVersions);
+    private final Path artifacts;
+    private final DataOutputStream artifactsOutputStream;
+    private long totalArtifacts;
+
+    /**
+     * Create a merger, which keeps at most DEFAULT_RUN_SIZE records of a sorted section in memory.
+     *
+     * @throws IOException
+     *  When the temporary file of the artifacts can not be created.
+     */
+    public ReportMerger() throws IOException {
+        this(DEFAULT_RUN_SIZE);
+    }
+
+    /**
+     * Create a merger.
+     *
+     * @param runSize
+     *  The maximum number of records of a sorted section kept in memory (see ExternalSorter).
+     * @throws IOException
+     *  When the temporary file of the artifacts can not be created.
+     */
+    public ReportMerger(int runSize) throws IOException {
+        this.referencedClasses = new ExternalSorter(runSize);
+        this.externalArtifacts = new ExternalSorter(runSize);
+        this.artifacts = Files.createTempFile("artificer-", ".artifacts");
+        this.artifactsOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.artifacts)));
+    }
+
+    /**
+     * Get the number of artifacts merged so far.
+     *
+     * @return
+     *  The number of artifacts.
+     */
+    public synchronized long getTotalArtifacts() {
+        return this.totalArtifacts;
+    }
+
+    /**
+     * Add the analysis of an artifact. The class domains and external artifacts are merged when they are computed
+     * (see ReportSection).
+     *
+     * @param analysis
+     *  The analysis.
+     * @throws IOException
+     *  When spilling a sorted section fails.
+     */
+    public synchronized void addAnalysis(Analysis analysis) throws IOException {
+        this.addArtifact(analysis.getArtifactName(), analysis.getMeta() == null ? null : analysis.getMeta().getStatus());
+        if (analysis.getMeta() != null && analysis.getMeta().getFoundJavaVersions() != null) {
+            for (FoundJavaVersion foundJavaVersion : analysis.getMeta().getFoundJavaVersions().getFoundJavaVersionList()) {
+                this.addJavaVersion(foundJavaVersion.getFoundJavaVersion(), foundJavaVersion.getTotalClasses());
+            }
+        }
+        if (analysis.getDependencies() != null) {
+            for (ReferencedClass referencedClass : analysis.getDependencies()) {
+                if (referencedClass.getClassDomain() != null) {
+                    this.addReferencedClass(referencedClass.getPackageWithClass(), referencedClass.getClassDomain().name(), referencedClass.getArtifact());
+                }
+            }
+        }
+        if (analysis.getExternalArtifacts() != null) {
+            for (ExternalArtifact externalArtifact : analysis.getExternalArtifacts()) {
+                this.addExternalArtifact(externalArtifact.getGroupId(), externalArtifact.getArtifactId(), externalArtifact.getVersion());
+            }
+        }
+    }
+
+    /**
+     * Add the report of an artifact, as written before in the XML format (see XmlReportWriter), which is compressed
+     * when its name ends with the gzip extension. The report is read with a streaming reader, so it is not held in
+     * memory, and the sections left out of the report (see ReportSection) are not merged.
+     *
+     * @param report
+     *  The path to the report.
+     * @throws IOException
+     *  When the report can not be read, or is not the report of an artifact.
+     */
+    public synchronized void addReport(Path report) throws IOException {
+        try (InputStream inputStream = this.openReport(report)) {
+            XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+            xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            XMLStreamReader xmlStreamReader = xmlInputFactory.createXMLStreamReader(inputStream);
+            try {
+                xmlStreamReader.nextTag();
+                if (!"analysed-artifact".equals(xmlStreamReader.getLocalName())) {
+                    throw new IOException("Not the report of an artifact: " + report);
+                }
+                String artifactName = xmlStreamReader.getAttributeValue(null, "artifact-name");
+                String status = null;
+                String section = null;
+                while (xmlStreamReader.hasNext()) {
+                    int event = xmlStreamReader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT && xmlStreamReader.getLocalName().equals(section)) {
+                        section = null;
+                    }
+                    if (event != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    switch (xmlStreamReader.getLocalName()) {
+                        case "meta":
+                            status = xmlStreamReader.getAttributeValue(null, "status");
+                            break;
+                        case "java-versions":
+                        case "referenced-classes":
+                        case "external-artifacts":
+                        case "resources":
+                        case "package-structure":
+                            section = xmlStreamReader.getLocalName();
+                            break;
+                        case "java":
+                            if ("java-versions".equals(section)) {
+                                String totalClasses = xmlStreamReader.getAttributeValue(null, "total-classes");
+                                this.addJavaVersion(xmlStreamReader.getAttributeValue(null, "version"), totalClasses == null ? 0 : Long.parseLong(totalClasses));
+                            }
+                            break;
+                        case "referenced-class":
+                            String classDomain = xmlStreamReader.getAttributeValue(null, "class-domain");
+                            if ("referenced-classes".equals(section) && classDomain != null) {
+                                this.addReferencedClass(xmlStreamReader.getAttributeValue(null, "package"), classDomain, xmlStreamReader.getAttributeValue(null, "artifact"));
+                            }
+                            break;
+                        case "external-artifact":
+                            if ("external-artifacts".equals(section)) {
+                                this.addExternalArtifact(xmlStreamReader.getAttributeValue(null, "group-id"), xmlStreamReader.getAttributeValue(null, "artifact-id"), xmlStreamReader.getAttributeValue(null, "version"));
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                this.addArtifact(artifactName, status);
+            } finally {
+                xmlStreamReader.close();
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Unable to read the report " + report + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the merged report of the artifacts added so far.
+     *
+     * @param outputStream
+     *  The output stream, which is flushed but not closed.
+     * @throws IOException
+     *  When reading the sorted sections, or writing the report fails.
+     */
+    public synchronized void writeMergedReport(OutputStream outputStream) throws IOException {
+        this.artifactsOutputStream.flush();
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(writer);
+            xmlStreamWriter.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xmlStreamWriter.writeStartElement("merged-report");
+            xmlStreamWriter.writeAttribute("total-artifacts", String.valueOf(this.totalArtifacts));
+            this.writeArtifacts(xmlStreamWriter);
+            this.writeJavaVersions(xmlStreamWriter);
+            this.writeReferencedClasses(xmlStreamWriter);
+            this.writeExternalArtifacts(xmlStreamWriter);
+            xmlStreamWriter.writeEndElement();
+            xmlStreamWriter.writeEndDocument();
+            xmlStreamWriter.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write the merged report: " + e.getMessage(), e);
+        }
+        writer.flush();
+        LOGGER.debug("Written merged report of " + this.totalArtifacts + " artifacts");
+    }
+
+    /**
+     * Delete the temporary files of the merge.
+     *
+     * @throws IOException
+     *  When deleting a temporary file fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.artifactsOutputStream.close();
+            Files.deleteIfExists(this.artifacts);
+        } finally {
+            this.referencedClasses.close();
+            this.externalArtifacts.close();
+        }
+    }
+
+    private void addArtifact(String artifactName, String status) throws IOException {
+        this.artifactsOutputStream.writeUTF(artifactName == null ? "" : artifactName);
+        this.artifactsOutputStream.writeUTF(status == null ? "" : status);
+        this.totalArtifacts++;
+    }
+
+    private void addJavaVersion(String version, long totalClasses) {
+        long[] counts = this.javaVersions.computeIfAbsent(String.valueOf(version), key -> new long[2]);
+        counts[0] += totalClasses;
+        counts[1]++;
+    }
+
+    private void addReferencedClass(String className, String classDomain, String artifact) throws IOException {
+        this.referencedClasses.add(className + SEPARATOR + classDomain + SEPARATOR + (artifact == null ? "" : artifact));
+    }
+
+    private void addExternalArtifact(String groupId, String artifactId, String version) throws IOException {
+        StringBuilder coordinates = new StringBuilder(String.valueOf(groupId));
+        if (artifactId != null) {
+            coordinates.append(':').append(artifactId);
+            if (version != null) {
+                coordinates.append(':').append(version);
+            }
+        }
+        this.externalArtifacts.add(coordinates.toString());
+    }
+
+    /**
+     * Auxiliary method to write the artifacts, as read back from their temporary file.
+     */
+    private void writeArtifacts(XMLStreamWriter xmlStreamWriter) throws IOException, XMLStreamException {
+        xmlStreamWriter.writeStartElement("artifacts");
+        try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.artifacts)))) {
+            for (long artifact = 0; artifact < this.totalArtifacts; artifact++) {
+                xmlStreamWriter.writeStartElement("artifact");
+                xmlStreamWriter.writeAttribute("name", dataInputStream.readUTF());
+                xmlStreamWriter.writeAttribute("status", dataInputStream.readUTF());
+                xmlStreamWriter.writeEndElement();
+            }
+        }
+        xmlStreamWriter.writeEndElement();
+    }
+
+    private void writeJavaVersions(XMLStreamWriter xmlStreamWriter) throws XMLStreamException {
+        xmlStreamWriter.writeStartElement("java-versions");
+        for (Map.Entry<String, long[]> entry : this.javaVersions.entrySet()) {
+            xmlStreamWriter.writeStartElement("java");
+            xmlStreamWriter.writeAttribute("version", entry.getKey());
+            xmlStreamWriter.writeAttribute("total-classes", String.valueOf(entry.getValue()[0]));
+            xmlStreamWriter.writeAttribute("total-artifacts", String.valueOf(entry.getValue()[1]));
+            xmlStreamWriter.writeEndElement();
+        }
+        xmlStreamWriter.writeEndElement();
+    }
+
+    /**
+     * Auxiliary method to write the class domains and the external classes, from the sorted referenced classes. The
+     * records of a class (and domain) are adjacent, one per artifact referencing the class, where the records with
+     * an artifact come after those without. The external classes are written while the class domains are counted,
+     * and the class domains are written after them, so only the counters of the domains are kept.
+     */
+    private void writeReferencedClasses(XMLStreamWriter xmlStreamWriter) throws IOException, XMLStreamException {
+        Map<String, long[]> classDomains = new TreeMap<>();
+        xmlStreamWriter.writeStartElement("external-classes");
+        try (ExternalSorter.Cursor cursor = this.referencedClasses.sorted()) {
+            String record = cursor.next();
+            while (record != null) {
+                int domainEnd = record.indexOf(SEPARATOR, record.indexOf(SEPARATOR) + 1);
+                String key = record.substring(0, domainEnd);
+                String artifact = record.substring(domainEnd + 1);
+                long references = 0;
+                while (record != null && record.startsWith(key) && record.length() > domainEnd && record.charAt(domainEnd) == SEPARATOR) {
+                    if (artifact.isEmpty()) {
+                        artifact = record.substring(domainEnd + 1);
+                    }
+                    references++;
+                    record = cursor.next();
+                }
+                String className = key.substring(0, key.indexOf(SEPARATOR));
+                String classDomain = key.substring(key.indexOf(SEPARATOR) + 1);
+                long[] counts = classDomains.computeIfAbsent(classDomain, domain -> new long[2]);
+                counts[0]++;
+                counts[1] += references;
+                if (ReferencedClass.ClassDomain.External.name().equals(classDomain)) {
+                    xmlStreamWriter.writeStartElement("external-class");
+                    xmlStreamWriter.writeAttribute("package", className);
+                    if (!artifact.isEmpty()) {
+                        xmlStreamWriter.writeAttribute("artifact", artifact);
+                    }
+                    xmlStreamWriter.writeAttribute("total-artifacts", String.valueOf(references));
+                    xmlStreamWriter.writeEndElement();
+                }
+            }
+        }
+        xmlStreamWriter.writeEndElement();
+        xmlStreamWriter.writeStartElement("class-domains");
+        for (Map.Entry<String, long[]> entry : classDomains.entrySet()) {
+            xmlStreamWriter.writeStartElement("class-domain");
+            xmlStreamWriter.writeAttribute("name", entry.getKey());
+            xmlStreamWriter.writeAttribute("total-classes", String.valueOf(entry.getValue()[0]));
+            xmlStreamWriter.writeAttribute("total-references", String.valueOf(entry.getValue()[1]));
+            xmlStreamWriter.writeEndElement();
+        }
+        xmlStreamWriter.writeEndElement();
+    }
+
+    private void writeExternalArtifacts(XMLStreamWriter xmlStreamWriter) throws IOException, XMLStreamException {
+        xmlStreamWriter.writeStartElement("external-artifacts");
+        try (ExternalSorter.Cursor cursor = this.externalArtifacts.sorted()) {
+            String record = cursor.next();
+            while (record != null) {
+                String coordinates = record;
+                long artifacts = 0;
+                while (record != null && record.equals(coordinates)) {
+                    artifacts++;
+                    record = cursor.next();
+                }
+                ExternalArtifact externalArtifact = new ExternalArtifact(coordinates, 0);
+                xmlStreamWriter.writeStartElement("external-artifact");
+                xmlStreamWriter.writeAttribute("group-id", externalArtifact.getGroupId());
+                if (externalArtifact.getArtifactId() != null) {
+                    xmlStreamWriter.writeAttribute("artifact-id", externalArtifact.getArtifactId());
+                }
+                if (externalArtifact.getVersion() != null) {
+                    xmlStreamWriter.writeAttribute("version", externalArtifact.getVersion());
+                }
+                xmlStreamWriter.writeAttribute("total-artifacts", String.valueOf(artifacts));
+                xmlStreamWriter.writeEndElement();
+            }
+        }
+        xmlStreamWriter.writeEndElement();
+    }
+
+    private InputStream openReport(Path report) throws IOException {
+        InputStream inputStream = new BufferedInputStream(Files.newInputStream(report));
+        if (report.getFileName().toString().endsWith(OutputManager.GZIP_EXTENSION)) {
+            return new GZIPInputStream(inputStream);
+        }
+        return inputStream;
+    }
+}
@@ -1,6 +1,8 @@
 package net.technolords.tools.artificer;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -86,4 +88,28 @@ public class ArtificerImplTest extends TestSupport{
         Assert.assertTrue(Files.exists(getPathToTargetFolder()), generatedReportFilename);
     }
 
-}
\ No newline at end of file
+    @Test (dataProvider = "artifactDataProvider")
+    public void testParallelAnalysisGeneratesSameReport(final String artifact, final String generatedReportFilename) throws ArtificerException, IOException {
+        Path pathToArtifactLocation = FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + artifact);
+        String sequentialReport = this.analyseWithParallelism(pathToArtifactLocation, "sequential-" + generatedReportFilename, 1);
+        String parallelReport = this.analyseWithParallelism(pathToArtifactLocation, "parallel-" + generatedReportFilename, 4);
+        Assert.assertTrue(sequentialReport.contains("<referenced-classes>"));
+        Assert.assertEquals(parallelReport, sequentialReport);
+    }
+
+    /**
+     * Auxiliary method to analyse an artifact with a given parallelism and return the generated report, without
+     * the comment containing the generation time.
+     */
+    private String analyseWithParallelism(Path pathToArtifactLocation, String generatedReportFilename, int parallelism) throws ArtificerException, IOException {
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setOutputFilename(generatedReportFilename);
+        analyser.setParallelism(parallelism);
+        analyser.analyseArtifact(pathToArtifactLocation);
+        Path pathToOutputFile = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + generatedReportFilename);
+        String report = new String(Files.readAllBytes(pathToOutputFile), StandardCharsets.UTF_8);
+        return report.replaceAll("<!--Output generated at: [^>]*-->", "");
+    }
+
+}
@@ -0,0 +1,78 @@
+package net.technolords.tools.artificer.analyser;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.meta.FoundJavaVersion;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class AnalysisEngineTest extends TestSupport {
+    private static final String[] ARTIFACTS = { "artificer-1.0.0-SNAPSHOT.jar", "service-recommendation-1.0.0.jar" };
+
+    /**
+     * Test case 1: Test that a single engine (and artifact manager) can analyse many artifacts concurrently, and
+     * that each analysis is the same as an analysis by a dedicated engine.
+     */
+    @Test
+    public void testSharedEngineAcrossArtifactsAndThreads() throws Exception {
+        final ArtifactManager sharedArtifactManager = new ArtifactManager(new AnalysisEngine(), 2);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                for (final String artifact : ARTIFACTS) {
+                    futures.add(executorService.submit((Callable<String>) () -> summarize(sharedArtifactManager, artifact)));
+                }
+            }
+            int index = 0;
+            for (int i = 0; i < 4; i++) {
+                for (String artifact : ARTIFACTS) {
+                    String expected = summarize(new ArtifactManager(new AnalysisEngine(), 1), artifact);
+                    Assert.assertEquals(futures.get(index++).get(), expected, "Analysis of: " + artifact);
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Auxiliary method to analyse an artifact, and summarize the analysis as text (for comparison).
+     */
+    private String summarize(ArtifactManager artifactManager, String artifact) {
+        Path pathToArtifact = FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + artifact);
+        Analysis analysis = new Analysis();
+        Meta meta = new Meta();
+        meta.setStatus(Analyser.STATUS_OK);
+        analysis.setMeta(meta);
+        artifactManager.analyseArtifact(analysis, pathToArtifact);
+
+        StringBuilder buffer = new StringBuilder(meta.getStatus());
+        for (FoundJavaVersion foundJavaVersion : meta.getFoundJavaVersions().getFoundJavaVersionList()) {
+            buffer.append(", ").append(foundJavaVersion.getFoundJavaVersion()).append('=').append(foundJavaVersion.getTotalClasses());
+        }
+        for (ResourceGroup resourceGroup : analysis.getResourcesAsGroups()) {
+            buffer.append(", ").append(resourceGroup.getGroupType()).append('=').append(resourceGroup.getSize());
+        }
+        for (ReferencedClass referencedClass : analysis.getDependencies()) {
+            buffer.append(", ").append(referencedClass.getPackageWithClass()).append('=').append(referencedClass.getClassDomain());
+        }
+        return buffer.toString();
+    }
+}
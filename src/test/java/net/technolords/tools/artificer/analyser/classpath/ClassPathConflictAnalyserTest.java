@@ -0,0 +1,125 @@
+package net.technolords.tools.artificer.analyser.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.ArtificerImpl;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.domain.classpath.ClassPathAnalysis;
+import net.technolords.tools.artificer.domain.classpath.DuplicateClass;
+import net.technolords.tools.artificer.domain.classpath.SplitPackage;
+import net.technolords.tools.artificer.exception.ArtificerException;
+
+public class ClassPathConflictAnalyserTest extends TestSupport {
+    private static final byte[] ORIGINAL = "original".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CHANGED = "changed".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Test case 1: Test the detection of identical and divergent duplicates, where the definitions of a directory
+     * have no CRC and are always hashed, and the divergent definitions of jars are told apart by CRC only.
+     */
+    @Test
+    public void testDuplicateClasses() throws IOException {
+        ClassPathAnalysis classPathAnalysis = new ClassPathAnalysis();
+        new ClassPathConflictAnalyser(4).analyseClassPath(ClassPathIndex.build(this.createClassPath(), 4), classPathAnalysis);
+        Assert.assertEquals(classPathAnalysis.getTotalEntries(), 3);
+        Assert.assertEquals(classPathAnalysis.getTotalClasses(), 4);
+
+        Map<String, DuplicateClass> duplicateClasses = new HashMap<>();
+        for (DuplicateClass duplicateClass : classPathAnalysis.getDuplicateClasses()) {
+            duplicateClasses.put(duplicateClass.getName(), duplicateClass);
+        }
+        Assert.assertEquals(duplicateClasses.size(), 3);
+        DuplicateClass identical = duplicateClasses.get("org/acme/Identical");
+        Assert.assertTrue(identical.isIdentical());
+        Assert.assertEquals(identical.getDefinitions().size(), 3);
+        Assert.assertNotNull(identical.getDefinitions().get(0).getCrc());
+        Assert.assertNull(identical.getDefinitions().get(2).getCrc());
+        Assert.assertEquals(identical.getDefinitions().get(0).getDigest(), identical.getDefinitions().get(2).getDigest());
+
+        DuplicateClass divergent = duplicateClasses.get("org/acme/Divergent");
+        Assert.assertFalse(divergent.isIdentical());
+        Assert.assertNull(divergent.getDefinitions().get(0).getDigest(), "Expected no bytes to be read");
+
+        DuplicateClass divergentInDirectory = duplicateClasses.get("org/other/Divergent");
+        Assert.assertFalse(divergentInDirectory.isIdentical());
+        Assert.assertNotEquals(divergentInDirectory.getDefinitions().get(0).getDigest(), divergentInDirectory.getDefinitions().get(1).getDigest());
+    }
+
+    /**
+     * Test case 2: Test the detection of split packages.
+     */
+    @Test
+    public void testSplitPackages() throws IOException {
+        List<Path> classPath = this.createClassPath();
+        ClassPathAnalysis classPathAnalysis = new ClassPathAnalysis();
+        new ClassPathConflictAnalyser(1).analyseClassPath(ClassPathIndex.build(classPath, 1), classPathAnalysis);
+        Assert.assertEquals(classPathAnalysis.getSplitPackages().size(), 2);
+        SplitPackage splitPackage = classPathAnalysis.getSplitPackages().get(0);
+        Assert.assertEquals(splitPackage.getName(), "org/acme");
+        Assert.assertEquals(splitPackage.getDefinitions().size(), 3);
+        Assert.assertEquals(splitPackage.getDefinitions().get(0).getLocation(), classPath.get(0).toString());
+        Assert.assertEquals(classPathAnalysis.getSplitPackages().get(1).getName(), "org/other");
+    }
+
+    /**
+     * Test case 3: Test the report of the class path analysis.
+     */
+    @Test
+    public void testReportGenerated() throws IOException, ArtificerException {
+        final String filename = "generated-class-path-report.xml";
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setOutputFilename(filename);
+        analyser.setClassPath(this.createClassPath());
+        analyser.analyseClassPath();
+        String report = new String(Files.readAllBytes(getPathToTargetFolder().resolve(filename)), StandardCharsets.UTF_8);
+        Assert.assertTrue(report.contains("<meta status=\"200\">"), report);
+        Assert.assertTrue(report.contains("name=\"org/acme/Divergent\""), report);
+        Assert.assertTrue(report.contains("<split-package name=\"org/other\">"), report);
+    }
+
+    /**
+     * Auxiliary method to create a class path of two jars and a directory (with fake classes, as only the bytes
+     * matter).
+     */
+    private List<Path> createClassPath() throws IOException {
+        Path folder = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "class-path-conflicts");
+        Path firstJar = folder.resolve("first.jar");
+        Path secondJar = folder.resolve("second.jar");
+        Path directory = folder.resolve("classes");
+        Files.createDirectories(directory.resolve("org/acme"));
+        Files.createDirectories(directory.resolve("org/other"));
+        this.createJar(firstJar, "org/acme/Identical.class", ORIGINAL, "org/acme/Divergent.class", ORIGINAL, "org/other/Divergent.class", ORIGINAL);
+        this.createJar(secondJar, "org/acme/Identical.class", ORIGINAL, "org/acme/Divergent.class", CHANGED, "org/acme/Unique.class", ORIGINAL);
+        Files.write(directory.resolve("org/acme/Identical.class"), ORIGINAL);
+        Files.write(directory.resolve("org/other/Divergent.class"), CHANGED);
+        return Arrays.asList(firstJar, secondJar, directory);
+    }
+
+    private void createJar(Path pathToJar, Object... entries) throws IOException {
+        Files.createDirectories(pathToJar.getParent());
+        try (OutputStream outputStream = Files.newOutputStream(pathToJar); JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                jarOutputStream.putNextEntry(new JarEntry((String) entries[i]));
+                jarOutputStream.write((byte[]) entries[i + 1]);
+                jarOutputStream.closeEntry();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package net.technolords.tools.artificer.analyser.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ClassPathEntry;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+
+public class ClassPathIndexTest extends TestSupport {
+    private static final String DATASET_FOR_PARALLELISM = "dataSetForParallelism";
+
+    @DataProvider(name = DATASET_FOR_PARALLELISM)
+    public Object[][] dataSetForParallelism() {
+        return new Object[][] {
+            { 1 },
+            { 4 },
+        };
+    }
+
+    /**
+     * Test case 1: Test the index of a class path, where the first entry providing a class wins, regardless of the
+     * parallelism used to read the entries.
+     */
+    @Test(dataProvider = DATASET_FOR_PARALLELISM)
+    public void testFirstEntryWins(int parallelism) throws IOException {
+        List<Path> classPath = this.createClassPath();
+        ClassPathIndex classPathIndex = ClassPathIndex.build(classPath, parallelism);
+        Assert.assertEquals(classPathIndex.findProvider("org/acme/First"), 0);
+        Assert.assertEquals(classPathIndex.findProvider("org/acme/Shared"), 0);
+        Assert.assertEquals(classPathIndex.findProvider("org/acme/Second"), 1);
+        Assert.assertEquals(classPathIndex.findProvider("org/acme/Folder"), 2);
+        Assert.assertEquals(classPathIndex.findProvider("org/acme/Versioned"), -1);
+        Assert.assertEquals(classPathIndex.findProvider("module-info"), -1);
+        Assert.assertEquals(classPathIndex.size(), 4);
+    }
+
+    /**
+     * Test case 2: Test the attribution of referenced classes, where standard and self classes are skipped, and
+     * classes which are not provided are flagged.
+     */
+    @Test
+    public void testAttributionOfReferencedClasses() throws IOException {
+        List<Path> classPath = this.createClassPath();
+        Analysis analysis = new Analysis();
+        analysis.getDependencies().add(this.createReferencedClass("java/lang/Object", ReferencedClass.ClassDomain.Standard));
+        analysis.getDependencies().add(this.createReferencedClass("com/example/Main", ReferencedClass.ClassDomain.Self));
+        analysis.getDependencies().add(this.createReferencedClass("org/acme/Shared", ReferencedClass.ClassDomain.External));
+        analysis.getDependencies().add(this.createReferencedClass("org/acme/Folder", ReferencedClass.ClassDomain.External));
+        analysis.getDependencies().add(this.createReferencedClass("org/acme/Missing", ReferencedClass.ClassDomain.External));
+        ClassPathIndex.build(classPath, 2).attributeReferencedClasses(analysis);
+
+        Map<String, ReferencedClass> referencedClasses = new HashMap<>();
+        for (ReferencedClass referencedClass : analysis.getDependencies()) {
+            referencedClasses.put(referencedClass.getPackageWithClass(), referencedClass);
+        }
+        Assert.assertNull(referencedClasses.get("java/lang/Object").getProvidedBy());
+        Assert.assertNull(referencedClasses.get("java/lang/Object").getResolved());
+        Assert.assertNull(referencedClasses.get("com/example/Main").getResolved());
+        Assert.assertEquals(referencedClasses.get("org/acme/Shared").getProvidedBy(), classPath.get(0).toString());
+        Assert.assertEquals(referencedClasses.get("org/acme/Folder").getProvidedBy(), classPath.get(2).toString());
+        Assert.assertEquals(referencedClasses.get("org/acme/Missing").getResolved(), Boolean.FALSE);
+        Assert.assertNull(referencedClasses.get("org/acme/Missing").getProvidedBy());
+
+        List<ClassPathEntry> classPathEntries = analysis.getClassPathEntries();
+        Assert.assertEquals(classPathEntries.size(), 4);
+        Assert.assertEquals(classPathEntries.get(0).getTotalClasses(), 2);
+        Assert.assertEquals(classPathEntries.get(0).getReferencedClasses(), 1);
+        Assert.assertEquals(classPathEntries.get(1).getTotalClasses(), 2);
+        Assert.assertEquals(classPathEntries.get(1).getReferencedClasses(), 0);
+        Assert.assertEquals(classPathEntries.get(2).getReferencedClasses(), 1);
+        Assert.assertEquals(classPathEntries.get(3).getTotalClasses(), 0);
+    }
+
+    /**
+     * Test case 3: Test a jar with two entries of the same class, where the class is no duplicate (as it is provided
+     * by one entry of the class path), unless another entry provides it as well.
+     */
+    @Test
+    public void testSameClassTwiceInJar() throws IOException {
+        Path folder = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "class-path");
+        Path twiceJar = folder.resolve("twice.jar");
+        Path otherJar = folder.resolve("other.jar");
+        Files.createDirectories(folder);
+        // A jar can not be written with duplicate entries, so the name of the second entry is patched afterwards
+        this.createJar(twiceJar, "org/acme/Twice.class", "org/acme/TwicX.class", "org/acme/Once.class");
+        Files.write(twiceJar, new String(Files.readAllBytes(twiceJar), StandardCharsets.ISO_8859_1).replace("TwicX", "Twice").getBytes(StandardCharsets.ISO_8859_1));
+
+        ClassPathIndex classPathIndex = ClassPathIndex.build(Arrays.asList(twiceJar), 1);
+        Assert.assertEquals(classPathIndex.findProvider("org/acme/Twice"), 0);
+        Assert.assertTrue(classPathIndex.getDuplicateClasses().isEmpty());
+        Assert.assertEquals(classPathIndex.getTotalClasses(0), 2);
+
+        this.createJar(otherJar, "org/acme/Twice.class");
+        classPathIndex = ClassPathIndex.build(Arrays.asList(twiceJar, otherJar), 1);
+        Assert.assertEquals(classPathIndex.getDuplicateClasses().keySet(), Collections.singleton("org/acme/Twice"));
+        List<ClassDefinition> classDefinitions = classPathIndex.getDuplicateClasses().get("org/acme/Twice");
+        Assert.assertEquals(classDefinitions.size(), 2);
+        Assert.assertEquals(classDefinitions.get(0).getPosition(), 0);
+        Assert.assertEquals(classDefinitions.get(1).getPosition(), 1);
+    }
+
+    private ReferencedClass createReferencedClass(String className, ReferencedClass.ClassDomain classDomain) {
+        ReferencedClass referencedClass = new ReferencedClass();
+        referencedClass.setPackageWithClass(className);
+        referencedClass.setClassDomain(classDomain);
+        return referencedClass;
+    }
+
+    /**
+     * Auxiliary method to create a class path of two jars, a directory and a non existing jar (with empty classes,
+     * as only the names matter).
+     */
+    private List<Path> createClassPath() throws IOException {
+        Path folder = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "class-path");
+        Path firstJar = folder.resolve("first.jar");
+        Path secondJar = folder.resolve("second.jar");
+        Path directory = folder.resolve("classes");
+        Files.createDirectories(directory.resolve("org/acme"));
+        this.createJar(firstJar, "org/acme/First.class", "org/acme/Shared.class", "META-INF/MANIFEST.MF");
+        this.createJar(secondJar, "org/acme/Shared.class", "org/acme/Second.class", "META-INF/versions/11/org/acme/Versioned.class", "module-info.class");
+        Files.write(directory.resolve("org/acme/Folder.class"), new byte[0]);
+        return Arrays.asList(firstJar, secondJar, directory, folder.resolve("missing.jar"));
+    }
+
+    private void createJar(Path pathToJar, String... entries) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(pathToJar); JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+            for (String entry : entries) {
+                jarOutputStream.putNextEntry(new JarEntry(entry));
+                jarOutputStream.closeEntry();
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ import java.io.File;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -21,6 +23,7 @@ import net.technolords.tools.data.field.FieldTestWithConstants;
 import net.technolords.tools.data.field.FieldTestWithInnerClasses;
 import net.technolords.tools.data.field.FieldTestWithRegularFields;
 import net.technolords.tools.data.field.FieldTestWithTypeAnnotations;
+import net.technolords.tools.data.hierarchy.HierarchyTestWithInterfaces;
 import net.technolords.tools.data.method.MethodTestWithAnnotations;
 import net.technolords.tools.data.method.MethodTestWithGenericMethods;
 import net.technolords.tools.data.method.MethodTestWithLambdaMethods;
@@ -265,4 +268,96 @@ public class BytecodeParserTest extends TestSupport {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Auxiliary method to declare a data set to support byte code parsing of classes compiled with java 17 (as in
+     * records, sealed classes and a module). The classes are located in the data/class/modern folder. An entry is
+     * specified with two elements, each meaning:
+     *
+     *  [0] : The file name of the class
+     *  [1] : The expected Set of referenced classes
+     *
+     * @return
+     *  The data set.
+     */
+    @DataProvider (name = "dataSetWithModernClasses", parallel = false)
+    public Object[][] dataSetWithModernClasses() {
+        return new Object[][] {
+            { "Shape.class", this.getExpectedReferencedClassesForShape() },
+            { "Shape$Circle.class", this.getExpectedReferencedClassesForShapeCircle() },
+            { "module-info.class", this.getExpectedReferencedClassesForModuleInfo() }
+        };
+    }
+
+    private Set<String> getExpectedReferencedClassesForShape() {
+        Set<String> expected = new HashSet<>();
+        expected.add("java/lang/Object");
+        expected.add("net/technolords/tools/data/modern/Shape");
+        expected.add("net/technolords/tools/data/modern/Shape$Circle");
+        expected.add("net/technolords/tools/data/modern/Shape$Square");
+        return expected;
+    }
+
+    private Set<String> getExpectedReferencedClassesForShapeCircle() {
+        Set<String> expected = new HashSet<>();
+        expected.add("java/lang/Double");
+        expected.add("java/lang/Object");
+        expected.add("java/lang/Record");
+        expected.add("java/lang/invoke/MethodHandles");
+        expected.add("java/lang/invoke/MethodHandles$Lookup");
+        expected.add("java/lang/runtime/ObjectMethods");
+        expected.add("java/util/List");
+        expected.add("net/technolords/tools/data/modern/Shape");
+        expected.add("net/technolords/tools/data/modern/Shape$Circle");
+        return expected;
+    }
+
+    private Set<String> getExpectedReferencedClassesForModuleInfo() {
+        Set<String> expected = new HashSet<>();
+        expected.add("java/util/logging/Filter");
+        expected.add("module-info");
+        return expected;
+    }
+
+    @Test (dataProvider = "dataSetWithModernClasses")
+    public void testWithModernClasses(String fileName, Set<String> expectedReferencedClasses) {
+        Path pathToDataSample = FileSystems.getDefault().getPath(super.getPathToClassFolder() + File.separator + "modern" + File.separator + fileName);
+        Assert.assertTrue("Expected the test class to exist...", Files.exists(pathToDataSample));
+
+        // Create a resource reference linking to the file
+        Resource resource = new Resource();
+        resource.setPath(pathToDataSample);
+        resource.setName(fileName);
+
+        BytecodeParser bytecodeParser = new BytecodeParser();
+        bytecodeParser.analyseBytecode(new Meta(), resource);
+
+        // Test result of analysis
+        Assert.assertEquals("Expected compiled version", "17", resource.getCompiledVersion());
+        Assert.assertEquals("Expected referenced classes to be equal", expectedReferencedClasses, resource.getReferencedClasses());
+    }
+
+    /**
+     * Test the hierarchy of a class, being the superclass, all interfaces (in class file order) and the annotations
+     * of the class itself (not those of its methods).
+     */
+    @Test
+    public void testWithHierarchy() {
+        Path pathToDataSample = FileSystems.getDefault().getPath(super.getPathToTargetFolder().toAbsolutePath() + File.separator + "test-classes"
+            + File.separator + HierarchyTestWithInterfaces.class.getName().replace('.', File.separatorChar) + ".class");
+        Assert.assertTrue("Expected the test class to exist...", Files.exists(pathToDataSample));
+
+        // Create a resource reference linking to the file
+        Resource resource = new Resource();
+        resource.setPath(pathToDataSample);
+        resource.setName(HierarchyTestWithInterfaces.class.getSimpleName());
+        BytecodeParser bytecodeParser = new BytecodeParser();
+        bytecodeParser.analyseBytecode(new Meta(), resource);
+
+        // Test result of analysis
+        Assert.assertEquals("Expected superclass", "java/lang/Thread", resource.getSuperClass());
+        Assert.assertEquals("Expected interfaces", Arrays.asList("java/lang/Comparable", "java/io/Closeable", "java/lang/Cloneable"), resource.getInterfaces());
+        Assert.assertEquals("Expected class annotations", Collections.singleton("java/lang/Deprecated"), resource.getAnnotations());
+        Assert.assertTrue("Expected method annotation to be referenced", resource.getReferencedClasses().contains("net/technolords/tools/data/annotation/AnnotationUsingBoolean"));
+    }
+
+}
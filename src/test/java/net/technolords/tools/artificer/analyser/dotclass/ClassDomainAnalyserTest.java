@@ -0,0 +1,97 @@
+package net.technolords.tools.artificer.analyser.dotclass;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.dotclass.index.EnterpriseClassIndex;
+import net.technolords.tools.artificer.analyser.dotclass.index.StandardClassIndices;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedPackage;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+public class ClassDomainAnalyserTest extends TestSupport {
+    private static final String[] MODERN_CLASSES = { "Shape.class", "Shape$Circle.class", "Shape$Square.class" };
+
+    /**
+     * Test case 1: Test the classification of the referenced classes, where the 'self' classes are derived from the
+     * parsed class names (and not from the location of the resources).
+     */
+    @Test
+    public void testClassificationOfModernClasses() {
+        BytecodeParser bytecodeParser = new BytecodeParser();
+        ClassDomainAnalyser classDomainAnalyser = new ClassDomainAnalyser(new StandardClassIndices(), new EnterpriseClassIndex());
+        Meta meta = new Meta();
+        for (String fileName : MODERN_CLASSES) {
+            Resource resource = new Resource();
+            resource.setName(fileName);
+            resource.setPath(FileSystems.getDefault().getPath(getPathToClassFolder() + File.separator + "modern" + File.separator + fileName));
+            bytecodeParser.analyseBytecode(meta, resource);
+            Assert.assertEquals(resource.getClassName(), "net/technolords/tools/data/modern/" + fileName.replace(".class", ""));
+            classDomainAnalyser.analyseReferencedClassForClassDomain(resource);
+        }
+        Analysis analysis = new Analysis();
+        classDomainAnalyser.populateReferencedClasses(analysis);
+
+        Map<String, ReferencedClass.ClassDomain> classDomains = new HashMap<>();
+        for (ReferencedClass referencedClass : analysis.getDependencies()) {
+            classDomains.put(referencedClass.getPackageWithClass(), referencedClass.getClassDomain());
+        }
+        Assert.assertEquals(classDomains.get("net/technolords/tools/data/modern/Shape"), ReferencedClass.ClassDomain.Self);
+        Assert.assertEquals(classDomains.get("net/technolords/tools/data/modern/Shape$Circle"), ReferencedClass.ClassDomain.Self);
+        Assert.assertEquals(classDomains.get("net/technolords/tools/data/modern/Shape$Square"), ReferencedClass.ClassDomain.Self);
+        Assert.assertEquals(classDomains.get("java/lang/Record"), ReferencedClass.ClassDomain.Standard);
+        Assert.assertEquals(classDomains.get("java/lang/runtime/ObjectMethods"), ReferencedClass.ClassDomain.Standard);
+        Assert.assertEquals(classDomains.get("java/util/List"), ReferencedClass.ClassDomain.Standard);
+        Assert.assertEquals(classDomainAnalyser.getSelf().size(), MODERN_CLASSES.length);
+    }
+
+    /**
+     * Test case 2: Test the summary of the referenced classes per package and class domain, where the references are
+     * counted while classifying, and the classes referenced most are listed first.
+     */
+    @Test
+    public void testSummaryOfReferencedPackages() {
+        ClassDomainAnalyser classDomainAnalyser = new ClassDomainAnalyser(new StandardClassIndices(), new EnterpriseClassIndex());
+        classDomainAnalyser.analyseReferencedClassForClassDomain(this.createResource("org/acme/Main", "java/util/List", "java/util/Map", "org/acme/Part"));
+        classDomainAnalyser.analyseReferencedClassForClassDomain(this.createResource("org/acme/Part", "java/util/Map", "org/other/Thing"));
+        classDomainAnalyser.analyseReferencedClassForClassDomain(this.createResource("org/acme/Other", "java/util/Map", "java/util/Set", "java/util/List"));
+        Analysis analysis = new Analysis();
+        classDomainAnalyser.populateReferencedClasses(analysis);
+        classDomainAnalyser.populateReferencedPackages(analysis, 2);
+
+        Map<String, ReferencedPackage> referencedPackages = new HashMap<>();
+        for (ReferencedPackage referencedPackage : analysis.getReferencedPackages()) {
+            referencedPackages.put(referencedPackage.getName() + ":" + referencedPackage.getClassDomain(), referencedPackage);
+        }
+        Assert.assertEquals(referencedPackages.size(), 3);
+        ReferencedPackage javaUtil = referencedPackages.get("java/util:Standard");
+        Assert.assertEquals(javaUtil.getTotalClasses(), 3);
+        Assert.assertEquals(javaUtil.getTotalReferences(), 6);
+        Assert.assertEquals(javaUtil.getTopClasses().toString(), "[java/util/Map, java/util/List]");
+        ReferencedPackage acme = referencedPackages.get("org/acme:Self");
+        Assert.assertEquals(acme.getTotalClasses(), 3);
+        Assert.assertEquals(acme.getTotalReferences(), 4);
+        Assert.assertEquals(referencedPackages.get("org/other:External").getTotalClasses(), 1);
+        Assert.assertEquals(analysis.getReferencedPackages().get(0).getName(), "java/util");
+    }
+
+    private Resource createResource(String className, String... referencedClasses) {
+        Resource resource = new Resource();
+        resource.setValidClass(true);
+        resource.setMajorVersion(0x34);
+        resource.setClassName(className);
+        resource.getReferencedClasses().add(className);
+        for (String referencedClass : referencedClasses) {
+            resource.getReferencedClasses().add(referencedClass);
+        }
+        return resource;
+    }
+}
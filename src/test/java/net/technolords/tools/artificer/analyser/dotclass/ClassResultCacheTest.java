@@ -0,0 +1,108 @@
+package net.technolords.tools.artificer.analyser.dotclass;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.AnalysisEngine;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class ClassResultCacheTest extends TestSupport {
+    private static final String ARTIFACT = "artificer-1.0.0-SNAPSHOT.jar";
+
+    /**
+     * Test case 1: Test the classes are parsed once, where the analysis with the cached results is the same as the
+     * analysis without cache.
+     */
+    @Test
+    public void testAnalysisWithCachedResults() throws Exception {
+        ClassResultCache classResultCache = new ClassResultCache(this.createCacheDirectory("class-cache"));
+        String expected = this.describe(this.analyse(null));
+        Assert.assertEquals(this.describe(this.analyse(classResultCache)), expected);
+        long classes = classResultCache.getMisses();
+        Assert.assertTrue(classes > 0);
+        Assert.assertEquals(classResultCache.getHits(), 0);
+
+        Assert.assertEquals(this.describe(this.analyse(classResultCache)), expected);
+        Assert.assertEquals(classResultCache.getHits(), classes);
+        Assert.assertEquals(classResultCache.getMisses(), classes);
+    }
+
+    /**
+     * Test case 2: Test the entries which can not be read (or do not match the content) are misses, and are
+     * replaced by the results of parsing the classes again.
+     */
+    @Test
+    public void testCorruptEntriesAreReplaced() throws Exception {
+        Path cacheDirectory = this.createCacheDirectory("corrupt-class-cache");
+        ClassResultCache classResultCache = new ClassResultCache(cacheDirectory);
+        String expected = this.describe(this.analyse(classResultCache));
+        long classes = classResultCache.getMisses();
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            for (Path entry : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                Files.write(entry, new byte[] { 0x41, 0x52, 0x43, 0x43, 0, 1, 0 });
+            }
+        }
+        Assert.assertEquals(this.describe(this.analyse(classResultCache)), expected);
+        Assert.assertEquals(classResultCache.getHits(), 0);
+        Assert.assertEquals(this.describe(this.analyse(classResultCache)), expected);
+        Assert.assertEquals(classResultCache.getHits(), classes);
+    }
+
+    private Analysis analyse(ClassResultCache classResultCache) {
+        Analysis analysis = new Analysis();
+        analysis.setMeta(new Meta());
+        ArtifactManager artifactManager = new ArtifactManager(AnalysisEngine.getDefaultEngine(), 2);
+        artifactManager.setClassResultCache(classResultCache);
+        Path pathToArtifact = FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + ARTIFACT);
+        artifactManager.analyseArtifact(analysis, pathToArtifact);
+        return analysis;
+    }
+
+    /**
+     * Auxiliary method to describe the outcome of an analysis, being the parse results of the classes, the java
+     * versions, the referenced classes (with their domains) and the package cycles.
+     */
+    private String describe(Analysis analysis) {
+        List<String> description = new ArrayList<>();
+        for (Resource resource : analysis.getResourceGroups().get(ArtifactManager.CLASSIFICATION_JAVA_CLASSES).getResources()) {
+            description.add(resource.getPath() + ":" + resource.isValidClass() + ":" + resource.getCompiledVersion() + ":" + resource.getClassName()
+                + ":" + resource.getSuperClass() + ":" + resource.getAccessFlags() + ":" + resource.getInterfaces()
+                + ":" + new TreeSet<>(resource.getAnnotations()) + ":" + new TreeSet<>(resource.getReferencedClasses()));
+        }
+        description.sort(Comparator.naturalOrder());
+        description.add(String.valueOf(analysis.getMeta().getFoundJavaVersions().getFoundJavaVersionList().get(0).getTotalClasses()));
+        for (ReferencedClass referencedClass : analysis.getDependencies()) {
+            description.add(referencedClass.getPackageWithClass() + ":" + referencedClass.getClassDomain());
+        }
+        description.add(String.valueOf(analysis.getPackageCycles() == null ? 0 : analysis.getPackageCycles().size()));
+        return String.join("\n", description);
+    }
+
+    private Path createCacheDirectory(String name) throws Exception {
+        Path cacheDirectory = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + name);
+        if (Files.exists(cacheDirectory)) {
+            try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(path);
+                }
+            }
+        }
+        return cacheDirectory;
+    }
+}
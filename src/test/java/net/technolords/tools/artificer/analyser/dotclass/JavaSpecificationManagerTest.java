@@ -16,6 +16,7 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.dotclass.specification.JavaSpecification;
 import net.technolords.tools.artificer.domain.meta.FoundJavaVersion;
 import net.technolords.tools.artificer.domain.meta.FoundJavaVersions;
 import net.technolords.tools.artificer.domain.meta.Meta;
@@ -65,7 +66,10 @@ public class JavaSpecificationManagerTest extends TestSupport {
     public Object[][] dataSetWithMagicNumbersAndJavaVersions() {
         return new Object[][] {
             { "2D",   "1.1" },
+            { "2d",   "1.1" },
+            { "3002d", "1.1" },
             { "34",   "1.8" },
+            { "3d",   "17" },
             { "99",   UNKNOWN_JAVA_VERSION },
             { "ab3",  UNKNOWN_JAVA_VERSION },
             { null,   UNKNOWN_JAVA_VERSION },
@@ -249,5 +253,40 @@ public class JavaSpecificationManagerTest extends TestSupport {
             }
         }
     }
-}
 
+    /**
+     * Auxiliary method to declare a data set to support resolution of specifications. The data set is represented
+     * in a multi-dimensional array, where each entry represents a single set. An entry is specified with two
+     * elements, each meaning:
+     *
+     *  [0] : The major version
+     *  [1] : The expected version of the resolved specification
+     */
+    @DataProvider (name = "dataSetWithMajorVersionsAndSpecifications")
+    public Object[][] dataSetWithMajorVersionsAndSpecifications() {
+        return new Object[][] {
+            { 0x2D, "1.1" },
+            { 0x32, "1.6" },
+            { 0x34, "1.8" },
+            { 0x3D, "17" },
+            { 0x99, "25" },
+            { 0x10, "1.1" },
+        };
+    }
+
+    /**
+     * Test case 7: Test the resolution of the specifications, where every major version must resolve to a complete
+     * specification, as in one which has a constant pool (i.e. Utf8 and Class) as well as mnemonics.
+     */
+    @Test(dataProvider = "dataSetWithMajorVersionsAndSpecifications")
+    public void testResolutionOfSpecifications(final int majorVersion, final String expectedVersion) throws ArtificerException {
+        JavaSpecificationManager javaSpecificationManager = new JavaSpecificationManager(KNOWN_JAVA_VERSIONS_REFERENCE_FILE);
+        javaSpecificationManager.initializeLookupMap();
+        JavaSpecification javaSpecification = javaSpecificationManager.getSpecification(majorVersion);
+        Assert.assertNotNull(javaSpecification);
+        Assert.assertEquals(javaSpecification.getVersion(), expectedVersion);
+        Assert.assertNotNull(javaSpecification.getConstantPoolConstants().findByTag(1), "Expected Utf8 to be resolved");
+        Assert.assertNotNull(javaSpecification.getConstantPoolConstants().findByTag(7), "Expected Class to be resolved");
+        Assert.assertNotNull(javaSpecification.getMnemonics().findByOpcode(0), "Expected nop to be resolved");
+    }
+}
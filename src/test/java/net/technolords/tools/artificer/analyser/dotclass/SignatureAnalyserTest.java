@@ -1,5 +1,6 @@
 package net.technolords.tools.artificer.analyser.dotclass;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -71,4 +72,34 @@ public class SignatureAnalyserTest {
                 " was not", expectedReferencedClasses.contains(referencedClass));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Auxiliary method to declare a data set to support the normalization of referenced classes. An entry is
+     * specified with two elements, each meaning:
+     *
+     *  [0] : The referenced class (as found in the constant pool, or by a signature)
+     *  [1] : The expected normalized class names
+     *
+     * @return
+     *  The data set.
+     */
+    @DataProvider(name = "dataSetWithReferencedClasses")
+    public Object[][] dataSetWithReferencedClasses() {
+        return new Object[][] {
+            { "java/lang/String", new String[] { "java/lang/String" } },
+            { "[Ljava/lang/String;", new String[] { "java/lang/String" } },
+            { "[[I", new String[] { } },
+            { "java/util/List;Ljava/util/Comparator;)Ljava/lang/Object", new String[] { "java/util/List", "java/util/Comparator", "java/lang/Object" } },
+            { "java/lang/Object;Ljava/nio/file/FileVisitor<Ljava/nio/file/Path;>", new String[] { "java/lang/Object", "java/nio/file/FileVisitor", "java/nio/file/Path" } },
+            { "java/util/Map;IJ[Ljava/lang/Integer;TT;)V", new String[] { "java/util/Map", "java/lang/Integer" } },
+            { "java/util/List<+Ljava/lang/Number;*>", new String[] { "java/util/List", "java/lang/Number" } },
+        };
+    }
+
+    @Test (dataProvider = "dataSetWithReferencedClasses")
+    public void testNormalizedClassNames(String referencedClass, String[] expectedClassNames) {
+        Set<String> classNames = new HashSet<>();
+        SignatureAnalyser.normalizedClassNames(classNames, referencedClass);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expectedClassNames)), classNames);
+    }
+}
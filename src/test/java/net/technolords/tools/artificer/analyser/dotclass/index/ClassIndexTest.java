@@ -0,0 +1,103 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+
+public class ClassIndexTest extends TestSupport {
+    private static final List<String> CLASS_NAMES = Arrays.asList("java/lang/Object", "java/util/Map$Entry", "net/technolords/Café", "java/lang/String");
+
+    /**
+     * Test case 1: Test the lookup of an index, which is written to a file and mapped in memory.
+     */
+    @Test
+    public void testLookupOfMappedIndex() throws IOException {
+        Path pathToIndex = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "test-classes.idx");
+        ClassIndexWriter.write(CLASS_NAMES, pathToIndex);
+        this.assertLookups(ClassIndex.load(pathToIndex));
+    }
+
+    /**
+     * Test case 2: Test the lookup of an index, which is read from a stream, and the iteration of the names.
+     */
+    @Test
+    public void testLookupOfStreamedIndex() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ClassIndexWriter.write(CLASS_NAMES, null, false, outputStream);
+        ClassIndex classIndex = ClassIndex.load(new ByteArrayInputStream(outputStream.toByteArray()));
+        this.assertLookups(classIndex);
+        List<String> classNames = new ArrayList<>();
+        classIndex.forEach(classNames::add);
+        Assert.assertEquals(classNames, Arrays.asList("java/lang/Object", "java/lang/String", "java/util/Map$Entry", "net/technolords/Café"));
+    }
+
+    /**
+     * Test case 3: Test that an invalid index is rejected.
+     */
+    @Test(expectedExceptions = IOException.class)
+    public void testInvalidIndex() throws IOException {
+        ClassIndex.load(new ByteArrayInputStream(new byte[64]));
+    }
+
+    private void assertLookups(ClassIndex classIndex) {
+        Assert.assertEquals(classIndex.size(), CLASS_NAMES.size());
+        for (String className : CLASS_NAMES) {
+            Assert.assertTrue(classIndex.contains(className), className);
+        }
+        Assert.assertFalse(classIndex.contains("java/lang/Objec"));
+        Assert.assertFalse(classIndex.contains("java/lang/Integer"));
+        Assert.assertFalse(classIndex.contains("net/technolords/Cafe"));
+        Assert.assertFalse(classIndex.contains(null));
+    }
+
+    /**
+     * Auxiliary method to declare a data set to support the lookup of the standard classes. An entry is specified
+     * with three elements, each meaning:
+     *
+     *  [0] : The class name
+     *  [1] : The major version of the referencing class
+     *  [2] : Whether the class is expected to be a standard class
+     */
+    @DataProvider(name = "dataSetWithStandardClasses")
+    public Object[][] dataSetWithStandardClasses() {
+        return new Object[][] {
+            { "java/lang/Object", 0x34, true },
+            { "java/util/Map$Entry", 0x2E, true },
+            { "javax/xml/bind/JAXBContext", 0x34, true },
+            { "javax/xml/bind/JAXBContext", 0x35, true },
+            { "javax/xml/bind/JAXBContext", 0x36, true },
+            { "javax/xml/bind/JAXBContext", 0x37, false },
+            { "java/lang/Module", 0x34, false },
+            { "java/lang/Module", 0x35, true },
+            { "java/lang/Module", 0x36, true },
+            { "java/lang/Record", 0x37, false },
+            { "java/lang/Record", 0x3D, true },
+            { "java/util/SequencedCollection", 0x3D, false },
+            { "java/util/SequencedCollection", 0x41, true },
+            { "java/util/SequencedCollection", 0x45, true },
+            { "sun/misc/Unsafe", 0x34, false },
+            { "net/technolords/Cool", 0x34, false },
+        };
+    }
+
+    /**
+     * Test case 4: Test the lookup of the standard classes, by the release of the referencing class.
+     */
+    @Test(dataProvider = "dataSetWithStandardClasses")
+    public void testStandardClasses(final String className, final int majorVersion, final boolean expected) {
+        StandardClassIndices standardClassIndices = new StandardClassIndices();
+        Assert.assertEquals(standardClassIndices.contains(className, majorVersion), expected, className + " for major version: " + majorVersion);
+    }
+}
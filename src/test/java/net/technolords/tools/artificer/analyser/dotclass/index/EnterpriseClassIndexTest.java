@@ -0,0 +1,100 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.dotclass.ClassDomainAnalyser;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+
+public class EnterpriseClassIndexTest extends TestSupport {
+    private static final String[] JAR_ENTRIES = {
+        "javax/servlet/Servlet.class",
+        "javax/servlet/http/HttpServlet.class",
+        "jakarta/ws/rs/GET.class",
+        "META-INF/versions/11/jakarta/json/Json.class",
+        "org/glassfish/api/Implementation.class",
+        "META-INF/MANIFEST.MF",
+    };
+
+    /**
+     * Test case 1: Test the index built from an API jar, which contains the javax and jakarta classes only.
+     */
+    @Test
+    public void testBuildAndLookupOfEnterpriseIndex() throws IOException {
+        EnterpriseClassIndex enterpriseClassIndex = new EnterpriseClassIndex(this.buildEnterpriseIndex());
+        ClassIndex classIndex = enterpriseClassIndex.getIndex();
+        Assert.assertEquals(classIndex.size(), 4);
+        Assert.assertEquals(classIndex.getFlags() & ClassIndex.FLAG_BLOOM_FILTER, ClassIndex.FLAG_BLOOM_FILTER);
+        Assert.assertTrue(enterpriseClassIndex.contains("javax/servlet/Servlet"));
+        Assert.assertTrue(enterpriseClassIndex.contains("javax/servlet/http/HttpServlet"));
+        Assert.assertTrue(enterpriseClassIndex.contains("jakarta/ws/rs/GET"));
+        Assert.assertTrue(enterpriseClassIndex.contains("jakarta/json/Json"));
+        Assert.assertFalse(enterpriseClassIndex.contains("org/glassfish/api/Implementation"));
+        Assert.assertFalse(enterpriseClassIndex.contains("javax/servlet/Filter"));
+    }
+
+    /**
+     * Test case 2: Test the classification of referenced classes, where the standard domain takes precedence.
+     */
+    @Test
+    public void testClassificationOfEnterpriseClasses() throws IOException {
+        EnterpriseClassIndex enterpriseClassIndex = new EnterpriseClassIndex(this.buildEnterpriseIndex());
+        ClassDomainAnalyser classDomainAnalyser = new ClassDomainAnalyser(new StandardClassIndices(), enterpriseClassIndex);
+        Assert.assertEquals(classDomainAnalyser.findClassDomain("javax/servlet/Servlet", 0x34), ReferencedClass.ClassDomain.Enterprise);
+        Assert.assertEquals(classDomainAnalyser.findClassDomain("java/lang/Object", 0x34), ReferencedClass.ClassDomain.Standard);
+        Assert.assertEquals(classDomainAnalyser.findClassDomain("org/glassfish/api/Implementation", 0x34), ReferencedClass.ClassDomain.External);
+    }
+
+    /**
+     * Test case 3: Test that the bloom filter has no false negatives, and few false positives.
+     */
+    @Test
+    public void testBloomFilter() {
+        List<String> classNames = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            classNames.add("javax/generated/Class" + i);
+        }
+        BloomFilter bloomFilter = new BloomFilter(ByteBuffer.wrap(BloomFilter.create(classNames)));
+        for (String className : classNames) {
+            Assert.assertTrue(bloomFilter.mightContain(ClassIndex.hash(className), className), className);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            String className = "org/generated/Class" + i;
+            if (bloomFilter.mightContain(ClassIndex.hash(className), className)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives < 200, "False positives: " + falsePositives);
+    }
+
+    /**
+     * Auxiliary method to create an API jar (with empty classes, as only the names matter) and build the index.
+     */
+    private Path buildEnterpriseIndex() throws IOException {
+        Path pathToJar = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "enterprise-api.jar");
+        try (OutputStream outputStream = Files.newOutputStream(pathToJar); JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+            for (String entry : JAR_ENTRIES) {
+                jarOutputStream.putNextEntry(new JarEntry(entry));
+                jarOutputStream.closeEntry();
+            }
+        }
+        Path pathToIndex = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "enterprise.idx");
+        ClassIndexWriter.write(EnterpriseClassIndexBuilder.findClassNames(Collections.singletonList(pathToJar)), pathToIndex, true);
+        return pathToIndex;
+    }
+}
@@ -0,0 +1,152 @@
+package net.technolords.tools.artificer.analyser.dotclass.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.dotclass.ClassDomainAnalyser;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ExternalArtifact;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.resource.Resource;
+
+public class MavenArtifactIndexTest extends TestSupport {
+    private static final String DATASET_FOR_VERSIONS = "dataSetForVersions";
+
+    /**
+     * Test case 1: Test the index built from a repository, where the highest version of an artifact wins, and jars
+     * with a classifier are skipped.
+     */
+    @Test
+    public void testBuildAndLookupOfMavenArtifactIndex() throws IOException {
+        MavenArtifactIndex mavenArtifactIndex = new MavenArtifactIndex(this.buildMavenArtifactIndex());
+        Assert.assertTrue(mavenArtifactIndex.isPresent());
+        ClassIndex classIndex = mavenArtifactIndex.getIndex();
+        Assert.assertEquals(classIndex.size(), 4);
+        Assert.assertEquals(classIndex.getFlags(), ClassIndex.FLAG_BLOOM_FILTER | ClassIndex.FLAG_VALUES);
+        Assert.assertEquals(mavenArtifactIndex.findArtifact("org/acme/core/Engine"), "com.shaded:shaded-all:2.0");
+        Assert.assertEquals(mavenArtifactIndex.findArtifact("org/acme/core/Part"), "org.acme:acme-core:1.10");
+        Assert.assertEquals(mavenArtifactIndex.findArtifact("org/acme/core/NewPart"), "org.acme:acme-core:1.10");
+        Assert.assertEquals(mavenArtifactIndex.findArtifact("com/shaded/Util"), "com.shaded:shaded-all:2.0");
+        Assert.assertNull(mavenArtifactIndex.findArtifact("org/acme/core/OldPart"));
+        Assert.assertNull(mavenArtifactIndex.findArtifact("org/acme/core/Sources"));
+        Assert.assertNull(new MavenArtifactIndex().findArtifact("org/acme/core/Part"));
+    }
+
+    /**
+     * Test case 2: Test the resolution of the external classes, which are counted per artifact.
+     */
+    @Test
+    public void testResolutionOfExternalClasses() throws IOException {
+        MavenArtifactIndex mavenArtifactIndex = new MavenArtifactIndex(this.buildMavenArtifactIndex());
+        ClassDomainAnalyser classDomainAnalyser = new ClassDomainAnalyser(new StandardClassIndices(), new EnterpriseClassIndex(), null, mavenArtifactIndex);
+        Resource resource = new Resource();
+        resource.setValidClass(true);
+        resource.setMajorVersion(0x34);
+        resource.setClassName("com/example/Main");
+        resource.getReferencedClasses().add("com/example/Main");
+        resource.getReferencedClasses().add("java/lang/Object");
+        resource.getReferencedClasses().add("org/acme/core/Part");
+        resource.getReferencedClasses().add("org/acme/core/NewPart");
+        resource.getReferencedClasses().add("com/unknown/Thing");
+        classDomainAnalyser.analyseReferencedClassForClassDomain(resource);
+        Analysis analysis = new Analysis();
+        classDomainAnalyser.populateReferencedClasses(analysis);
+
+        Map<String, String> artifacts = new HashMap<>();
+        for (ReferencedClass referencedClass : analysis.getDependencies()) {
+            artifacts.put(referencedClass.getPackageWithClass(), referencedClass.getArtifact());
+        }
+        Assert.assertEquals(artifacts.get("org/acme/core/Part"), "org.acme:acme-core:1.10");
+        Assert.assertNull(artifacts.get("com/unknown/Thing"));
+        Assert.assertNull(artifacts.get("java/lang/Object"));
+        Assert.assertNull(artifacts.get("com/example/Main"));
+        Assert.assertEquals(analysis.getExternalArtifacts().size(), 1);
+        ExternalArtifact externalArtifact = analysis.getExternalArtifacts().get(0);
+        Assert.assertEquals(externalArtifact.getGroupId(), "org.acme");
+        Assert.assertEquals(externalArtifact.getArtifactId(), "acme-core");
+        Assert.assertEquals(externalArtifact.getVersion(), "1.10");
+        Assert.assertEquals(externalArtifact.getTotalClasses(), 2);
+    }
+
+    @DataProvider(name = DATASET_FOR_VERSIONS)
+    public Object[][] dataSetForVersions() {
+        return new Object[][] {
+            { "1.10", "1.9", 1 },
+            { "1.0", "1.0-SNAPSHOT", 1 },
+            { "2.0-RC1", "2.0-RC2", -1 },
+            { "1.0.1", "1.0", 1 },
+            { "3.2.1", "3.2.1", 0 },
+        };
+    }
+
+    /**
+     * Test case 3: Test the comparison of versions.
+     */
+    @Test(dataProvider = DATASET_FOR_VERSIONS)
+    public void testCompareVersions(String first, String second, int expected) {
+        Assert.assertEquals(Integer.signum(MavenArtifactIndexBuilder.compareVersions(first, second)), expected);
+        Assert.assertEquals(Integer.signum(MavenArtifactIndexBuilder.compareVersions(second, first)), -expected);
+    }
+
+    /**
+     * Test case 4: Test an index without artifacts (i.e. of class names only) is ignored, as is a missing index,
+     * which is loaded only once.
+     */
+    @Test
+    public void testIndexWithoutArtifactsIsIgnored() throws IOException {
+        Path pathToIndex = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "class-names.idx");
+        ClassIndexWriter.write(Arrays.asList("org/acme/core/Part", "org/acme/core/Engine"), pathToIndex, true);
+        Assert.assertNotNull(new EnterpriseClassIndex(pathToIndex).getIndex());
+        MavenArtifactIndex mavenArtifactIndex = new MavenArtifactIndex(pathToIndex);
+        Assert.assertFalse(mavenArtifactIndex.isPresent());
+        Assert.assertNull(mavenArtifactIndex.findArtifact("org/acme/core/Part"));
+
+        MavenArtifactIndex missingIndex = new MavenArtifactIndex(pathToIndex.resolveSibling("missing.idx"));
+        Assert.assertFalse(missingIndex.isPresent());
+        Files.copy(this.buildMavenArtifactIndex(), pathToIndex.resolveSibling("missing.idx"));
+        try {
+            Assert.assertFalse(missingIndex.isPresent());
+        } finally {
+            Files.delete(pathToIndex.resolveSibling("missing.idx"));
+        }
+    }
+
+    /**
+     * Auxiliary method to create a repository (with jars of empty classes, as only the names matter) and build
+     * the index.
+     */
+    private Path buildMavenArtifactIndex() throws IOException {
+        Path repository = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "maven-repository");
+        this.createJar(repository.resolve("org/acme/acme-core/1.9/acme-core-1.9.jar"), "org/acme/core/Part.class", "org/acme/core/OldPart.class");
+        this.createJar(repository.resolve("org/acme/acme-core/1.10/acme-core-1.10.jar"), "org/acme/core/Part.class", "org/acme/core/NewPart.class", "org/acme/core/Engine.class");
+        this.createJar(repository.resolve("org/acme/acme-core/1.10/acme-core-1.10-sources.jar"), "org/acme/core/Sources.class");
+        this.createJar(repository.resolve("com/shaded/shaded-all/2.0/shaded-all-2.0.jar"), "com/shaded/Util.class", "org/acme/core/Engine.class");
+        Path pathToIndex = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "maven-artifacts.idx");
+        ClassIndexWriter.write(MavenArtifactIndexBuilder.findClassArtifacts(repository), pathToIndex, true);
+        return pathToIndex;
+    }
+
+    private void createJar(Path pathToJar, String... entries) throws IOException {
+        Files.createDirectories(pathToJar.getParent());
+        try (OutputStream outputStream = Files.newOutputStream(pathToJar); JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+            for (String entry : entries) {
+                jarOutputStream.putNextEntry(new JarEntry(entry));
+                jarOutputStream.closeEntry();
+            }
+        }
+    }
+}
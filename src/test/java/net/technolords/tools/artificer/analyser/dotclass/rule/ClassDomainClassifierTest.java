@@ -0,0 +1,101 @@
+package net.technolords.tools.artificer.analyser.dotclass.rule;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.dotclass.BytecodeParser;
+import net.technolords.tools.artificer.analyser.dotclass.ClassDomainAnalyser;
+import net.technolords.tools.artificer.analyser.dotclass.index.EnterpriseClassIndex;
+import net.technolords.tools.artificer.analyser.dotclass.index.StandardClassIndices;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.exception.ArtificerException;
+
+public class ClassDomainClassifierTest extends TestSupport {
+
+    private Path getPathToRules(String fileName) {
+        return FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "rules" + File.separator + fileName);
+    }
+
+    /**
+     * Auxiliary method to declare a data set to support the matching of rules. An entry is specified with two
+     * elements, each meaning:
+     *
+     *  [0] : The class name
+     *  [1] : The expected custom domain (or null when no rule applies)
+     */
+    @DataProvider(name = "dataSetWithClassNames")
+    public Object[][] dataSetWithClassNames() {
+        return new Object[][] {
+            { "net/technolords/tools/artificer/Analyser", "Technolords" },
+            { "net/technolords/tools/data/modern/Shape$Circle", "Shapes" },
+            { "net/technolords/tools/data/modern/Shape", "Technolords" },
+            { "java/util/List", "Collections" },
+            { "java/lang/Object", null },
+            { "net/technolord", null },
+            { "", null },
+        };
+    }
+
+    /**
+     * Test case 1: Test that the rule with the longest matching prefix applies.
+     */
+    @Test(dataProvider = "dataSetWithClassNames")
+    public void testLongestPrefixMatch(final String className, final String expectedCustomDomain) throws ArtificerException {
+        ClassDomainClassifier classDomainClassifier = ClassDomainClassifier.load(this.getPathToRules("class-domain-rules.xml"));
+        ClassDomainRule classDomainRule = classDomainClassifier.findRule(className);
+        Assert.assertEquals(classDomainRule == null ? null : classDomainRule.getCustomDomain(), expectedCustomDomain);
+    }
+
+    /**
+     * Test case 2: Test that a rule without any domain is rejected.
+     */
+    @Test(expectedExceptions = ArtificerException.class)
+    public void testInvalidRules() throws ArtificerException {
+        ClassDomainClassifier.load(this.getPathToRules("invalid-class-domain-rules.xml"));
+    }
+
+    /**
+     * Test case 3: Test the classification of referenced classes with rules, where a rule with a class domain
+     * overrides the regular classification, and a rule without keeps it.
+     */
+    @Test
+    public void testClassificationWithRules() throws ArtificerException {
+        ClassDomainClassifier classDomainClassifier = ClassDomainClassifier.load(this.getPathToRules("class-domain-rules.xml"));
+        ClassDomainAnalyser classDomainAnalyser = new ClassDomainAnalyser(new StandardClassIndices(), new EnterpriseClassIndex(), classDomainClassifier);
+        Resource resource = new Resource();
+        resource.setName("Shape$Circle.class");
+        resource.setPath(FileSystems.getDefault().getPath(getPathToClassFolder() + File.separator + "modern" + File.separator + "Shape$Circle.class"));
+        new BytecodeParser().analyseBytecode(new Meta(), resource);
+        classDomainAnalyser.analyseReferencedClassForClassDomain(resource);
+        Analysis analysis = new Analysis();
+        classDomainAnalyser.populateReferencedClasses(analysis);
+
+        Map<String, ReferencedClass> referencedClasses = new HashMap<>();
+        for (ReferencedClass referencedClass : analysis.getDependencies()) {
+            referencedClasses.put(referencedClass.getPackageWithClass(), referencedClass);
+        }
+        ReferencedClass circle = referencedClasses.get("net/technolords/tools/data/modern/Shape$Circle");
+        Assert.assertEquals(circle.getClassDomain(), ReferencedClass.ClassDomain.Self);
+        Assert.assertEquals(circle.getCustomDomain(), "Shapes");
+        ReferencedClass shape = referencedClasses.get("net/technolords/tools/data/modern/Shape");
+        Assert.assertEquals(shape.getClassDomain(), ReferencedClass.ClassDomain.External);
+        Assert.assertEquals(shape.getCustomDomain(), "Technolords");
+        ReferencedClass list = referencedClasses.get("java/util/List");
+        Assert.assertEquals(list.getClassDomain(), ReferencedClass.ClassDomain.External);
+        Assert.assertEquals(list.getCustomDomain(), "Collections");
+        ReferencedClass record = referencedClasses.get("java/lang/Record");
+        Assert.assertEquals(record.getClassDomain(), ReferencedClass.ClassDomain.Standard);
+        Assert.assertNull(record.getCustomDomain());
+    }
+}
@@ -0,0 +1,181 @@
+package net.technolords.tools.artificer.analyser.fingerprint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.AnalysisEngine;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.EmbeddedLibrary;
+import net.technolords.tools.artificer.domain.dotclass.Constant;
+import net.technolords.tools.artificer.domain.dotclass.ConstantInfo;
+import net.technolords.tools.artificer.domain.dotclass.ConstantPool;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.exception.ArtificerException;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class EmbeddedLibraryAnalyserTest extends TestSupport {
+    private static final String LIBRARY = "artificer-1.0.0-SNAPSHOT";
+    private static final String ORIGINAL_PREFIX = "net/technolords/";
+    private static final String RELOCATED_PREFIX = "shaded/net/technolords/";
+
+    /**
+     * Test case 1: Test that the fingerprint of a class does not change by relocation, and does by other changes.
+     */
+    @Test
+    public void testClassFingerprintSurvivesRelocation() {
+        long original = ClassFingerprint.of(this.createConstantPool("com/google/common/base/Joiner", "(Lcom/google/common/base/Joiner;)V", "on"));
+        long relocated = ClassFingerprint.of(this.createConstantPool("on", "shaded/com/google/common/base/Joiner", "(Lshaded/com/google/common/base/Joiner;)V"));
+        long changed = ClassFingerprint.of(this.createConstantPool("com/google/common/base/Joiner", "(Lcom/google/common/base/Joiner;)V", "off"));
+        Assert.assertEquals(relocated, original);
+        Assert.assertNotEquals(changed, original);
+        Assert.assertEquals(ClassFingerprint.packageOf("com/google/common/base/Joiner"), "com/google/common/base");
+        Assert.assertEquals(ClassFingerprint.packageOf("Joiner"), "");
+    }
+
+    /**
+     * Test case 2: Test the estimate of the similarity, where the sets share 80 out of 120 fingerprints.
+     */
+    @Test
+    public void testMinHashSimilarity() {
+        Set<Long> first = new HashSet<>();
+        Set<Long> second = new HashSet<>();
+        for (long i = 0; i < 100; i++) {
+            first.add(i * 7919);
+            second.add((i + 20) * 7919);
+        }
+        double similarity = MinHash.similarity(MinHash.signature(first), MinHash.signature(second));
+        Assert.assertTrue(Math.abs(similarity - 80.0 / 120.0) < 0.2, "Similarity: " + similarity);
+        Assert.assertEquals(MinHash.similarity(MinHash.signature(first), MinHash.signature(new HashSet<>(first))), 1.0);
+    }
+
+    /**
+     * Test case 3: Test the detection of an embedded library which is relocated, where the database is built from
+     * the original jar, and the analysed artifact is a relocated copy.
+     */
+    @Test
+    public void testDetectionOfShadedLibrary() throws IOException, ArtificerException {
+        Path pathToJar = FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + LIBRARY + ".jar");
+        Path pathToDatabase = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "libraries.fpd");
+        try (OutputStream outputStream = Files.newOutputStream(pathToDatabase)) {
+            FingerprintDatabase.write(FingerprintDatabaseBuilder.findPackageFingerprints(Collections.singletonList(pathToJar)), outputStream);
+        }
+        Path pathToRelocatedJar = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "relocated.jar");
+        this.relocate(pathToJar, pathToRelocatedJar);
+
+        Analysis analysis = new Analysis();
+        Meta meta = new Meta();
+        analysis.setMeta(meta);
+        AnalysisEngine analysisEngine = new AnalysisEngine(null, null, null, pathToDatabase);
+        new ArtifactManager(analysisEngine, 2).analyseArtifact(analysis, pathToRelocatedJar);
+
+        List<EmbeddedLibrary> embeddedLibraries = analysis.getEmbeddedLibraries();
+        Assert.assertEquals(embeddedLibraries.size(), 2);
+        EmbeddedLibrary embeddedLibrary = embeddedLibraries.get(0);
+        Assert.assertEquals(embeddedLibrary.getPackageName(), RELOCATED_PREFIX + "tools/artificer/domain");
+        Assert.assertEquals(embeddedLibrary.getLibraryPackageName(), ORIGINAL_PREFIX + "tools/artificer/domain");
+        Assert.assertEquals(embeddedLibrary.getLibrary(), LIBRARY);
+        Assert.assertEquals(embeddedLibrary.getSimilarity(), 1.0);
+        Assert.assertEquals(embeddedLibrary.getTotalClasses(), 4);
+        Assert.assertTrue(embeddedLibrary.isRelocated());
+    }
+
+    private ConstantPool createConstantPool(String... values) {
+        ConstantPool constantPool = new ConstantPool();
+        for (String value : values) {
+            Constant constant = new Constant();
+            constant.setType("Utf8");
+            ConstantInfo constantInfo = new ConstantInfo();
+            constantInfo.setStringValue(value);
+            constant.getConstantInfoList().add(constantInfo);
+            constantPool.getConstants().add(constant);
+        }
+        return constantPool;
+    }
+
+    /**
+     * Auxiliary method to relocate the classes of a jar (like a shading tool), by renaming the package prefix in
+     * the entry names and in the Utf8 constants of the classes. Other entries are skipped.
+     */
+    private void relocate(Path source, Path target) throws IOException {
+        try (ZipFile zipFile = new ZipFile(source.toFile()); OutputStream outputStream = Files.newOutputStream(target);
+                JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.getName().endsWith(".class")) {
+                    continue;
+                }
+                jarOutputStream.putNextEntry(new JarEntry(entry.getName().replace(ORIGINAL_PREFIX, RELOCATED_PREFIX)));
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    jarOutputStream.write(this.relocateClass(new DataInputStream(inputStream)));
+                }
+                jarOutputStream.closeEntry();
+            }
+        }
+    }
+
+    private byte[] relocateClass(DataInputStream dataInputStream) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+        dataOutputStream.writeInt(dataInputStream.readInt());
+        dataOutputStream.writeInt(dataInputStream.readInt());
+        int constantPoolCount = dataInputStream.readUnsignedShort();
+        dataOutputStream.writeShort(constantPoolCount);
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = dataInputStream.readUnsignedByte();
+            dataOutputStream.writeByte(tag);
+            switch (tag) {
+                case 1:
+                    dataOutputStream.writeUTF(dataInputStream.readUTF().replace(ORIGINAL_PREFIX, RELOCATED_PREFIX));
+                    break;
+                case 5:
+                case 6:
+                    dataOutputStream.writeLong(dataInputStream.readLong());
+                    i++;
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    dataOutputStream.writeShort(dataInputStream.readUnsignedShort());
+                    break;
+                case 15:
+                    dataOutputStream.writeByte(dataInputStream.readUnsignedByte());
+                    dataOutputStream.writeShort(dataInputStream.readUnsignedShort());
+                    break;
+                default:
+                    dataOutputStream.writeInt(dataInputStream.readInt());
+                    break;
+            }
+        }
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = dataInputStream.read(buffer)) != -1) {
+            dataOutputStream.write(buffer, 0, read);
+        }
+        dataOutputStream.flush();
+        return byteArrayOutputStream.toByteArray();
+    }
+}
@@ -0,0 +1,144 @@
+package net.technolords.tools.artificer.analyser.graph;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.AnalysisEngine;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.PackageCycle;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class PackageCycleAnalyserTest extends TestSupport {
+
+    /**
+     * Test case 1: Test the graph in CSR form, where duplicate edges and self references are dropped.
+     */
+    @Test
+    public void testDependencyGraph() {
+        DependencyGraph.Builder builder = new DependencyGraph.Builder();
+        builder.addEdge("a/A", "b/B");
+        builder.addEdge("a/A", "b/C");
+        builder.addEdge("a/A", "b/B");
+        builder.addEdge("a/A", "a/A");
+        builder.addEdge("b/C", "a/A");
+        DependencyGraph graph = builder.build();
+        Assert.assertEquals(graph.size(), 3);
+        Assert.assertEquals(graph.getEdgeCount(), 3);
+        Assert.assertEquals(graph.getFirstEdge(0), 0);
+        Assert.assertEquals(graph.getFirstEdge(1), 2);
+        Assert.assertEquals(graph.getName(graph.getTarget(0)), "b/B");
+        Assert.assertEquals(graph.getName(graph.getTarget(1)), "b/C");
+
+        DependencyGraph packageGraph = graph.toPackageGraph();
+        Assert.assertEquals(packageGraph.size(), 2);
+        Assert.assertEquals(packageGraph.getEdgeCount(), 2);
+    }
+
+    /**
+     * Test case 2: Test the strongly connected components, where 0 -> 1 -> 2 -> 0 is a cycle, and 3 is on its own.
+     */
+    @Test
+    public void testStronglyConnectedComponents() {
+        DependencyGraph.Builder builder = new DependencyGraph.Builder();
+        builder.addEdge("0", "1");
+        builder.addEdge("1", "2");
+        builder.addEdge("2", "0");
+        builder.addEdge("2", "3");
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(builder.build());
+        Assert.assertEquals(components.getCount(), 2);
+        Assert.assertEquals(components.getComponent(0), components.getComponent(1));
+        Assert.assertEquals(components.getComponent(0), components.getComponent(2));
+        Assert.assertEquals(components.getComponent(3), 0);
+        Assert.assertEquals(components.getSize(components.getComponent(0)), 3);
+    }
+
+    /**
+     * Test case 3: Test a graph of a million edges, being a single ring (which would exhaust the stack of a
+     * recursive implementation) with chords.
+     */
+    @Test(timeOut = 10000)
+    public void testLargeGraph() {
+        int size = 500000;
+        DependencyGraph.Builder builder = new DependencyGraph.Builder();
+        for (int node = 0; node < size; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int node = 0; node < size; node++) {
+            builder.addEdge(node, (node + 1) % size);
+            builder.addEdge(node, (int) ((node * 7919L) % size));
+        }
+        DependencyGraph graph = builder.build();
+        Assert.assertTrue(graph.getEdgeCount() > 990000);
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+        Assert.assertEquals(components.getCount(), 1);
+        Assert.assertEquals(components.getSize(0), size);
+    }
+
+    /**
+     * Test case 4: Test the package cycles of resources, where org/acme/api and org/acme/impl depend on each other,
+     * while org/acme/app only depends on them.
+     */
+    @Test
+    public void testPackageCycles() {
+        List<Resource> resources = new ArrayList<>();
+        resources.add(this.createResource("org/acme/api/Service", "org/acme/impl/Factory", "java/lang/Object"));
+        resources.add(this.createResource("org/acme/impl/Factory", "org/acme/impl/ServiceImpl", "java/lang/Object"));
+        resources.add(this.createResource("org/acme/impl/ServiceImpl", "org/acme/api/Service", "java/lang/Object"));
+        resources.add(this.createResource("org/acme/app/Main", "org/acme/api/Service", "org/acme/impl/Factory"));
+        Analysis analysis = new Analysis();
+        new PackageCycleAnalyser().analysePackageCycles(DependencyGraph.of(resources), resources, analysis);
+
+        Assert.assertEquals(analysis.getPackageCycles().size(), 1);
+        PackageCycle packageCycle = analysis.getPackageCycles().get(0);
+        Assert.assertEquals(packageCycle.getPackages(), Arrays.asList("org/acme/api", "org/acme/impl"));
+        Assert.assertEquals(packageCycle.getTotalPackages(), 2);
+        Assert.assertEquals(packageCycle.getTotalClasses(), 3);
+    }
+
+    /**
+     * Test case 5: Test the graph of parsed classes, where the referenced classes found in signatures (i.e. the
+     * descriptor of FileVisitor.visitFile) end up as the classes they mention, rather than as remainders of the
+     * signatures.
+     */
+    @Test
+    public void testDependencyGraphOfParsedClasses() {
+        Path pathToJar = FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + "artificer-1.0.0-SNAPSHOT.jar");
+        Analysis analysis = new Analysis();
+        analysis.setMeta(new Meta());
+        new ArtifactManager(new AnalysisEngine(), 1).analyseArtifact(analysis, pathToJar);
+        DependencyGraph graph = DependencyGraph.of(analysis.getResourceGroups().get(ArtifactManager.CLASSIFICATION_JAVA_CLASSES).getResources());
+
+        for (int node = 0; node < graph.size(); node++) {
+            Assert.assertFalse(graph.getName(node).matches(".*[;()<>\\[].*"), graph.getName(node));
+        }
+        int visitor = graph.findNode("net/technolords/tools/artificer/artifact/ArtifactResourceVisitor");
+        List<String> targets = new ArrayList<>();
+        for (int edge = graph.getFirstEdge(visitor); edge < graph.getFirstEdge(visitor + 1); edge++) {
+            targets.add(graph.getName(graph.getTarget(edge)));
+        }
+        Assert.assertTrue(targets.containsAll(Arrays.asList("java/nio/file/FileVisitResult", "java/nio/file/FileVisitor", "java/nio/file/attribute/BasicFileAttributes")));
+        DependencyGraph packageGraph = graph.toPackageGraph();
+        for (int node = 0; node < packageGraph.size(); node++) {
+            Assert.assertFalse(packageGraph.getName(node).contains(";"), packageGraph.getName(node));
+        }
+    }
+
+    private Resource createResource(String className, String... referencedClasses) {
+        Resource resource = new Resource();
+        resource.setValidClass(true);
+        resource.setClassName(className);
+        resource.getReferencedClasses().add(className);
+        resource.getReferencedClasses().addAll(Arrays.asList(referencedClasses));
+        return resource;
+    }
+}
@@ -0,0 +1,112 @@
+package net.technolords.tools.artificer.analyser.graph;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.AnalysisEngine;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.PackageDependency;
+import net.technolords.tools.artificer.domain.dependencies.PackageMetrics;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class PackageStructureAnalyserTest extends TestSupport {
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    /**
+     * Test case 1: Test the matrix and metrics, where org/acme/app depends on org/acme/api (twice) and org/acme/impl,
+     * org/acme/impl depends on org/acme/api, and org/acme/api depends on java/lang only (which counts for the
+     * efferent coupling, but is not part of the matrix).
+     */
+    @Test
+    public void testPackageStructure() {
+        List<Resource> resources = new ArrayList<>();
+        resources.add(this.createResource("org/acme/api/Service", ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT, "java/lang/Object"));
+        resources.add(this.createResource("org/acme/api/Request", ACC_PUBLIC, "java/lang/Object"));
+        resources.add(this.createResource("org/acme/impl/ServiceImpl", ACC_PUBLIC, "org/acme/api/Service", "org/acme/api/Request"));
+        resources.add(this.createResource("org/acme/app/Main", ACC_PUBLIC, "org/acme/api/Service", "org/acme/impl/ServiceImpl"));
+        resources.add(this.createResource("org/acme/app/Handler", ACC_PUBLIC, "org/acme/api/Request", "org/acme/app/Main"));
+        Analysis analysis = new Analysis();
+        new PackageStructureAnalyser().analysePackageStructure(DependencyGraph.of(resources), resources, analysis);
+
+        List<PackageMetrics> packages = analysis.getPackageStructure();
+        Assert.assertEquals(packages.size(), 3);
+        PackageMetrics api = packages.get(0);
+        Assert.assertEquals(api.getName(), "org/acme/api");
+        Assert.assertEquals(api.getTotalClasses(), 2);
+        Assert.assertEquals(api.getAbstractClasses(), 1);
+        Assert.assertEquals(api.getAfferentCoupling(), 2);
+        Assert.assertEquals(api.getEfferentCoupling(), 1);
+        Assert.assertEquals(api.getInstability(), 0.33);
+        Assert.assertEquals(api.getAbstractness(), 0.5);
+        Assert.assertEquals(api.getDistance(), 0.17);
+        Assert.assertTrue(api.getDependencies().isEmpty());
+
+        PackageMetrics app = packages.get(1);
+        Assert.assertEquals(app.getName(), "org/acme/app");
+        Assert.assertEquals(app.getAfferentCoupling(), 0);
+        Assert.assertEquals(app.getEfferentCoupling(), 2);
+        Assert.assertEquals(app.getInstability(), 1.0);
+        Assert.assertEquals(app.getDistance(), 0.0);
+        Assert.assertEquals(this.toCells(app.getDependencies()), Arrays.asList("org/acme/api=2", "org/acme/impl=1"));
+
+        PackageMetrics impl = packages.get(2);
+        Assert.assertEquals(impl.getName(), "org/acme/impl");
+        Assert.assertEquals(impl.getInstability(), 0.5);
+        Assert.assertEquals(this.toCells(impl.getDependencies()), Arrays.asList("org/acme/api=2"));
+    }
+
+    /**
+     * Test case 2: Test the access flags of parsed classes, where the root package of the artifact has an interface
+     * (Analyser) and an implementation. The efferent coupling of the root package counts the packages of the
+     * classes found in the signatures (i.e. java/nio/file and java/lang of 'java/nio/file/Path;)Ljava/lang/String'),
+     * being the packages artifact, domain, exception, output, java/io, java/lang, java/nio/file and org/slf4j.
+     */
+    @Test
+    public void testPackageStructureOfArtifact() throws Exception {
+        Path pathToJar = FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + "artificer-1.0.0-SNAPSHOT.jar");
+        Analysis analysis = new Analysis();
+        analysis.setMeta(new Meta());
+        new ArtifactManager(new AnalysisEngine(), 1).analyseArtifact(analysis, pathToJar);
+
+        Assert.assertEquals(analysis.getPackageStructure().size(), 6);
+        PackageMetrics root = analysis.getPackageStructure().get(0);
+        Assert.assertEquals(root.getName(), "net/technolords/tools/artificer");
+        Assert.assertEquals(root.getTotalClasses(), 2);
+        Assert.assertEquals(root.getAbstractClasses(), 1);
+        Assert.assertEquals(root.getAbstractness(), 0.5);
+        Assert.assertEquals(root.getEfferentCoupling(), 8);
+        for (PackageMetrics packageMetrics : analysis.getPackageStructure().subList(1, 6)) {
+            Assert.assertEquals(packageMetrics.getAbstractClasses(), 0);
+        }
+    }
+
+    private List<String> toCells(List<PackageDependency> dependencies) {
+        List<String> cells = new ArrayList<>();
+        for (PackageDependency dependency : dependencies) {
+            cells.add(dependency.getPackageName() + "=" + dependency.getReferences());
+        }
+        return cells;
+    }
+
+    private Resource createResource(String className, int accessFlags, String... referencedClasses) {
+        Resource resource = new Resource();
+        resource.setValidClass(true);
+        resource.setClassName(className);
+        resource.setAccessFlags(accessFlags);
+        resource.getReferencedClasses().add(className);
+        resource.getReferencedClasses().addAll(Arrays.asList(referencedClasses));
+        return resource;
+    }
+}
@@ -0,0 +1,47 @@
+package net.technolords.tools.artificer.domain.meta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MetaTest {
+
+    /**
+     * Test case 1: Test the registration of java versions from concurrent threads, and the (sorted) snapshot
+     * of the counters.
+     */
+    @Test
+    public void testConcurrentRegistrationOfJavaVersions() throws InterruptedException {
+        final Meta meta = new Meta();
+        final String[] versions = { "17", "1.8", "9", "1.6", "11" };
+        final int registrationsPerVersion = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        for(int i = 0; i < registrationsPerVersion; i++) {
+            for(final String version : versions) {
+                executorService.submit(() -> meta.registerCompiledVersion(version));
+            }
+        }
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<String> foundVersions = new ArrayList<>();
+        for(FoundJavaVersion foundJavaVersion : meta.getFoundJavaVersions().getFoundJavaVersionList()) {
+            Assert.assertEquals(foundJavaVersion.getTotalClasses(), registrationsPerVersion);
+            foundVersions.add(foundJavaVersion.getFoundJavaVersion());
+        }
+        Assert.assertEquals(foundVersions.toArray(), new String[] { "1.6", "1.8", "9", "11", "17" });
+    }
+
+    /**
+     * Test case 2: Test that no java versions element is present when nothing is registered.
+     */
+    @Test
+    public void testWithoutJavaVersions() {
+        Assert.assertNull(new Meta().getFoundJavaVersions());
+    }
+}
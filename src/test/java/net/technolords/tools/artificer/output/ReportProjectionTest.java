@@ -0,0 +1,148 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.ArtificerImpl;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.AnalysisEngine;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class ReportProjectionTest extends TestSupport {
+    private static final String ARTIFACT = "artificer-1.0.0-SNAPSHOT.jar";
+
+    /**
+     * Test case 1: Test the report only has the referenced classes (without class domains) and the meta (without
+     * java versions), where the streamed report is the same.
+     */
+    @Test
+    public void testReportWithReferencedClassesOnly() throws Exception {
+        for (boolean streamingReport : new boolean[] { false, true }) {
+            Document report = this.analyse("projected-report-" + streamingReport + ".xml", streamingReport, EnumSet.of(ReportSection.REFERENCED_CLASSES));
+            Element root = report.getDocumentElement();
+            Assert.assertEquals(root.getElementsByTagName("meta").getLength(), 1);
+            Assert.assertEquals(root.getElementsByTagName("java-versions").getLength(), 0);
+            Assert.assertEquals(root.getElementsByTagName("resources").getLength(), 0);
+            Assert.assertEquals(root.getElementsByTagName("package-cycles").getLength(), 0);
+            Assert.assertEquals(root.getElementsByTagName("package-structure").getLength(), 0);
+            NodeList referencedClasses = root.getElementsByTagName("referenced-class");
+            Assert.assertTrue(referencedClasses.getLength() > 0);
+            for (int i = 0; i < referencedClasses.getLength(); i++) {
+                Assert.assertFalse(((Element) referencedClasses.item(i)).hasAttribute("class-domain"));
+            }
+        }
+    }
+
+    /**
+     * Test case 2: Test the resource groups are written with their totals, but without their resources.
+     */
+    @Test
+    public void testReportWithResourceGroupsOnly() throws Exception {
+        for (boolean streamingReport : new boolean[] { false, true }) {
+            Document report = this.analyse("groups-report-" + streamingReport + ".xml", streamingReport, EnumSet.of(ReportSection.RESOURCE_GROUPS));
+            Element root = report.getDocumentElement();
+            NodeList resourceGroups = root.getElementsByTagName("resource-group");
+            Assert.assertTrue(resourceGroups.getLength() > 0);
+            for (int i = 0; i < resourceGroups.getLength(); i++) {
+                Assert.assertTrue(Integer.parseInt(((Element) resourceGroups.item(i)).getAttribute("total")) > 0);
+            }
+            Assert.assertEquals(root.getElementsByTagName("resource").getLength(), 0);
+            Assert.assertEquals(root.getElementsByTagName("referenced-classes").getLength(), 0);
+        }
+    }
+
+    /**
+     * Test case 3: Test the sections which are not requested are not computed, so the byte code is not parsed
+     * when only the resources are requested, the classes are not read at all for the resource groups, and the list
+     * of referenced classes is not built for the summary of the referenced classes.
+     */
+    @Test
+    public void testSectionsNotRequestedAreNotComputed() {
+        Analysis analysis = this.analyse(EnumSet.of(ReportSection.RESOURCES));
+        ResourceGroup javaResourceGroup = analysis.getResourceGroups().get(ArtifactManager.CLASSIFICATION_JAVA_CLASSES);
+        for (Resource resource : javaResourceGroup.getResources()) {
+            Assert.assertNotNull(resource.getCompiledVersion());
+            Assert.assertTrue(resource.getReferencedClasses().isEmpty());
+        }
+        Assert.assertTrue(analysis.getDependencies().isEmpty());
+        Assert.assertNull(analysis.getPackageCycles());
+
+        analysis = this.analyse(EnumSet.of(ReportSection.RESOURCE_GROUPS));
+        javaResourceGroup = analysis.getResourceGroups().get(ArtifactManager.CLASSIFICATION_JAVA_CLASSES);
+        for (Resource resource : javaResourceGroup.getResources()) {
+            Assert.assertNull(resource.getCompiledVersion());
+        }
+        Assert.assertNull(analysis.getMeta().getFoundJavaVersions());
+
+        analysis = this.analyse(EnumSet.of(ReportSection.REFERENCED_PACKAGES));
+        Assert.assertTrue(analysis.getDependencies().isEmpty());
+        Assert.assertFalse(analysis.getReferencedPackages().isEmpty());
+    }
+
+    /**
+     * Test case 4: Test the report with the summary of the referenced classes per package, instead of the list of
+     * referenced classes, where the summary covers all referenced classes.
+     */
+    @Test
+    public void testReportWithReferencedPackagesOnly() throws Exception {
+        Element fullReport = this.analyse("full-report.xml", false, null).getDocumentElement();
+        for (boolean streamingReport : new boolean[] { false, true }) {
+            Document report = this.analyse("summary-report-" + streamingReport + ".xml", streamingReport, EnumSet.of(ReportSection.REFERENCED_PACKAGES));
+            Element root = report.getDocumentElement();
+            Assert.assertEquals(root.getElementsByTagName("referenced-class").getLength(), 0);
+            NodeList referencedPackages = root.getElementsByTagName("referenced-package");
+            Assert.assertTrue(referencedPackages.getLength() > 0);
+            int totalClasses = 0;
+            for (int i = 0; i < referencedPackages.getLength(); i++) {
+                Element referencedPackage = (Element) referencedPackages.item(i);
+                totalClasses += Integer.parseInt(referencedPackage.getAttribute("total-classes"));
+                Assert.assertTrue(referencedPackage.hasAttribute("class-domain"));
+                Assert.assertEquals(referencedPackage.getElementsByTagName("class").getLength(), Math.min(2, Integer.parseInt(referencedPackage.getAttribute("total-classes"))));
+            }
+            Assert.assertEquals(totalClasses, fullReport.getElementsByTagName("referenced-class").getLength());
+        }
+        Assert.assertEquals(fullReport.getElementsByTagName("referenced-packages").getLength(), 0);
+    }
+
+    private Analysis analyse(Set<ReportSection> reportSections) {
+        Analysis analysis = new Analysis();
+        analysis.setMeta(new Meta());
+        analysis.setReportSections(reportSections);
+        ArtifactManager artifactManager = new ArtifactManager(AnalysisEngine.getDefaultEngine(), 1, reportSections);
+        artifactManager.analyseArtifact(analysis, this.getPathToArtifact());
+        return analysis;
+    }
+
+    private Document analyse(String generatedReportFilename, boolean streamingReport, Set<ReportSection> reportSections) throws Exception {
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setOutputFilename(generatedReportFilename);
+        analyser.setStreamingReport(streamingReport);
+        analyser.setReportSections(reportSections);
+        analyser.setTopReferencedClasses(2);
+        analyser.analyseArtifact(this.getPathToArtifact());
+        Path pathToReport = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + generatedReportFilename);
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(pathToReport.toFile());
+    }
+
+    private Path getPathToArtifact() {
+        return FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + ARTIFACT);
+    }
+}
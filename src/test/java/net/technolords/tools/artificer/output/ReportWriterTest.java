@@ -0,0 +1,208 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.ArtificerImpl;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.classpath.ClassPathAnalysis;
+import net.technolords.tools.artificer.domain.classpath.Definition;
+import net.technolords.tools.artificer.domain.classpath.DuplicateClass;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.exception.ArtificerException;
+
+public class ReportWriterTest extends TestSupport {
+    private static final String ARTIFACT = "artificer-1.0.0-SNAPSHOT.jar";
+
+    /**
+     * Test case 1: Test the JSON report of a model, with the names, types and order of the XML report.
+     */
+    @Test
+    public void testJsonReport() throws Exception {
+        ClassPathAnalysis classPathAnalysis = this.createClassPathAnalysis();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new JsonReportWriter().writeReport(classPathAnalysis, outputStream);
+        Assert.assertEquals(new String(outputStream.toByteArray(), StandardCharsets.UTF_8),
+            "{\"total-classes\":4,\"total-entries\":2,\"meta\":{\"status\":\"200\"},\"duplicate-classes\":[{\"identical\":false,"
+            + "\"name\":\"org/acme/Part\",\"defined-by\":[{\"crc\":\"0000abcd\",\"location\":\"C:\\\\lib\\\\\\\"first\\\".jar\"},"
+            + "{\"location\":\"second.jar\"}]}],\"split-packages\":[]}");
+    }
+
+    /**
+     * Test case 2: Test the binary report of an artifact, which is read back (and converted to JSON) to the same
+     * report as the JSON report, while being smaller.
+     */
+    @Test
+    public void testBinaryReport() throws Exception {
+        byte[] jsonReport = this.analyse("report.json", "json");
+        byte[] binaryReport = this.analyse("report.bin", "binary");
+        Assert.assertTrue(new String(jsonReport, StandardCharsets.UTF_8).startsWith("{\"artifact-name\":\"" + ARTIFACT + "\",\"referenced-classes\":[{"));
+        Assert.assertTrue(binaryReport.length < jsonReport.length * 2 / 3, "Binary: " + binaryReport.length + ", json: " + jsonReport.length);
+
+        StringWriter writer = new StringWriter();
+        BinaryReportReader.read(new ByteArrayInputStream(binaryReport), new JsonReportWriter.JsonReportEncoder(writer));
+        Assert.assertEquals(writer.toString(), new String(jsonReport, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test case 3: Test an unsupported format is rejected.
+     */
+    @Test (expectedExceptions = ArtificerException.class)
+    public void testUnsupportedFormat() throws Exception {
+        this.analyse("report.yaml", "yaml");
+    }
+
+    /**
+     * Test case 4: Test the XML report written in parallel chunks is byte identical to the sequential report, for
+     * an analysis with many referenced classes and resources (so there are many chunks).
+     */
+    @Test
+    public void testChunkedXmlReport() throws Exception {
+        Analysis analysis = this.createAnalysis(XmlReportWriter.CHUNK_SIZE * 3 + 5);
+        ByteArrayOutputStream sequentialReport = new ByteArrayOutputStream();
+        new XmlReportWriter().writeReport(analysis, sequentialReport);
+        ByteArrayOutputStream chunkedReport = new ByteArrayOutputStream();
+        new XmlReportWriter(4).writeReport(analysis, chunkedReport);
+        Assert.assertEquals(this.withoutTime(chunkedReport.toByteArray()), this.withoutTime(sequentialReport.toByteArray()));
+    }
+
+    /**
+     * Test case 5: Test the compressed report of an artifact, written by several threads, is the same report once
+     * decompressed.
+     */
+    @Test
+    public void testCompressedReport() throws Exception {
+        byte[] report = this.analyse("sequential-report.xml", "xml", 1, false);
+        byte[] compressedReport = this.analyse("compressed-report.xml", "xml", 4, true);
+        Assert.assertEquals(this.withoutTime(this.decompress(compressedReport)), this.withoutTime(report));
+        Assert.assertTrue(compressedReport.length < report.length);
+    }
+
+    /**
+     * Test case 6: Test the data compressed in parallel blocks is the same data once decompressed, also when there
+     * is no data at all.
+     */
+    @Test
+    public void testParallelGzip() throws Exception {
+        byte[] data = new byte[ParallelGzipOutputStream.BLOCK_SIZE * 3 + 12345];
+        Random random = new Random(47);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        for (int parallelism : new int[] { 1, 4 }) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (ParallelGzipOutputStream outputStream = new ParallelGzipOutputStream(compressed, parallelism)) {
+                outputStream.write(data, 0, 100);
+                outputStream.write(data[100]);
+                outputStream.write(data, 101, data.length - 101);
+            }
+            Assert.assertEquals(this.decompress(compressed.toByteArray()), data);
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(compressed, 4).close();
+        Assert.assertEquals(this.decompress(compressed.toByteArray()).length, 0);
+    }
+
+    private byte[] analyse(String generatedReportFilename, String reportFormat) throws Exception {
+        return this.analyse(generatedReportFilename, reportFormat, 1, false);
+    }
+
+    private byte[] analyse(String generatedReportFilename, String reportFormat, int reportParallelism, boolean compressedReport) throws Exception {
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setOutputFilename(generatedReportFilename);
+        analyser.setReportFormat(reportFormat);
+        analyser.setReportParallelism(reportParallelism);
+        analyser.setCompressedReport(compressedReport);
+        analyser.analyseArtifact(FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + ARTIFACT));
+        String reportFilename = compressedReport ? generatedReportFilename + OutputManager.GZIP_EXTENSION : generatedReportFilename;
+        Path pathToReport = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + reportFilename);
+        return Files.readAllBytes(pathToReport);
+    }
+
+    private Analysis createAnalysis(int size) {
+        Analysis analysis = new Analysis();
+        analysis.setArtifactName("many-classes.jar");
+        Meta meta = new Meta();
+        meta.setStatus("200");
+        meta.registerCompiledVersion("1.8");
+        analysis.setMeta(meta);
+        ResourceGroup classes = new ResourceGroup();
+        classes.setGroupType(".class");
+        ResourceGroup properties = new ResourceGroup();
+        properties.setGroupType(".properties");
+        for (int i = 0; i < size; i++) {
+            ReferencedClass referencedClass = new ReferencedClass();
+            referencedClass.setPackageWithClass("org/acme/Part" + i);
+            referencedClass.setClassDomain(i % 2 == 0 ? ReferencedClass.ClassDomain.Self : ReferencedClass.ClassDomain.External);
+            analysis.getDependencies().add(referencedClass);
+            Resource resource = new Resource();
+            resource.setName("/org/acme/Part" + i + ".class");
+            resource.setClassName("org/acme/Part" + i);
+            resource.setCompiledVersion("1.8");
+            resource.getReferencedClasses().add("java/lang/Object");
+            classes.getResources().add(resource);
+            if (i % 100 == 0) {
+                Resource property = new Resource();
+                property.setName("/org/acme/part" + i + ".properties & more <stuff>");
+                properties.getResources().add(property);
+            }
+        }
+        analysis.getResourceGroups().put(classes.getGroupType(), classes);
+        analysis.getResourceGroups().put(properties.getGroupType(), properties);
+        return analysis;
+    }
+
+    private byte[] decompress(byte[] compressed) throws Exception {
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                decompressed.write(buffer, 0, read);
+            }
+        }
+        return decompressed.toByteArray();
+    }
+
+    private String withoutTime(byte[] report) {
+        return new String(report, StandardCharsets.UTF_8).replaceAll("<!--Output generated at: [^>]*-->", "");
+    }
+
+    private ClassPathAnalysis createClassPathAnalysis() {
+        ClassPathAnalysis classPathAnalysis = new ClassPathAnalysis();
+        Meta meta = new Meta();
+        meta.setStatus("200");
+        classPathAnalysis.setMeta(meta);
+        classPathAnalysis.setTotalClasses(4);
+        classPathAnalysis.setTotalEntries(2);
+        DuplicateClass duplicateClass = new DuplicateClass();
+        duplicateClass.setName("org/acme/Part");
+        Definition first = new Definition();
+        first.setLocation("C:\\lib\\\"first\".jar");
+        first.setCrc("0000abcd");
+        Definition second = new Definition();
+        second.setLocation("second.jar");
+        duplicateClass.getDefinitions().add(first);
+        duplicateClass.getDefinitions().add(second);
+        classPathAnalysis.getDuplicateClasses().add(duplicateClass);
+        return classPathAnalysis;
+    }
+}
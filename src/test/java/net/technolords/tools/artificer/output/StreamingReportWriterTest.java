@@ -0,0 +1,155 @@
+package net.technolords.tools.artificer.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.ArtificerImpl;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.AnalysisListener;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
+import net.technolords.tools.artificer.domain.meta.Meta;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.exception.ArtificerException;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class StreamingReportWriterTest extends TestSupport {
+    private static final String ARTIFACT = "artificer-1.0.0-SNAPSHOT.jar";
+
+    /**
+     * Test case 1: Test the streamed report is the same as the report written at the end, including the order of
+     * the sections (where the resources come last).
+     */
+    @Test
+    public void testStreamedReportMatchesReport() throws Exception {
+        Document report = this.analyse("report.xml", false, 1);
+        Document streamedReport = this.analyse("streamed-report.xml", true, 1);
+        List<String> sections = this.readSectionNames(report);
+        Assert.assertTrue(sections.contains("referenced-classes"));
+        Assert.assertEquals(sections.get(sections.size() - 1), "resources");
+        Assert.assertEquals(this.readSectionNames(streamedReport), sections);
+        Assert.assertEquals(this.toString(streamedReport.getDocumentElement()), this.toString(report.getDocumentElement()));
+    }
+
+    /**
+     * Test case 2: Test the streamed report is the same regardless of the parallelism, as the resources are written
+     * in order.
+     */
+    @Test
+    public void testStreamedReportIsOrdered() throws Exception {
+        Document sequentialReport = this.analyse("sequential-streamed-report.xml", true, 1);
+        Document parallelReport = this.analyse("parallel-streamed-report.xml", true, 4);
+        Assert.assertEquals(this.toString(parallelReport.getDocumentElement()), this.toString(sequentialReport.getDocumentElement()));
+        Assert.assertEquals(sequentialReport.getDocumentElement().getLastChild().getNodeName(), "resources");
+    }
+
+    /**
+     * Test case 3: Test the resources notified out of order (within the window) are written in order, and a
+     * resource notified ahead of the window fails the report.
+     */
+    @Test
+    public void testResourcesAreWrittenInOrderWithinWindow() throws Exception {
+        int resourceCount = AnalysisListener.WINDOW_SIZE + 10;
+        Analysis analysis = this.createAnalysis(resourceCount);
+        List<Resource> resources = analysis.getResourceGroups().get(ArtifactManager.CLASSIFICATION_JAVA_CLASSES).getResources();
+        StringWriter report = new StringWriter();
+        try (StreamingReportWriter streamingReportWriter = new StreamingReportWriter(report)) {
+            streamingReportWriter.analysisStarted(analysis);
+            for (int ordinal = AnalysisListener.WINDOW_SIZE - 1; ordinal >= 0; ordinal--) {
+                streamingReportWriter.resourceAnalysed(ordinal, resources.get(ordinal));
+            }
+            for (int ordinal = resourceCount - 1; ordinal >= AnalysisListener.WINDOW_SIZE; ordinal--) {
+                streamingReportWriter.resourceAnalysed(ordinal, resources.get(ordinal));
+            }
+            streamingReportWriter.finish(analysis);
+        }
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(report.toString().getBytes("UTF-8")));
+        NodeList writtenResources = document.getElementsByTagName("resource");
+        Assert.assertEquals(writtenResources.getLength(), resourceCount);
+        for (int ordinal = 0; ordinal < resourceCount; ordinal++) {
+            Assert.assertEquals(((Element) writtenResources.item(ordinal)).getAttribute("name"), "Class" + ordinal + ".class");
+        }
+
+        try (StreamingReportWriter streamingReportWriter = new StreamingReportWriter(new StringWriter())) {
+            streamingReportWriter.analysisStarted(analysis);
+            streamingReportWriter.resourceAnalysed(AnalysisListener.WINDOW_SIZE, resources.get(AnalysisListener.WINDOW_SIZE));
+            streamingReportWriter.finish(analysis);
+            Assert.fail("A resource ahead of the window must fail the report");
+        } catch (ArtificerException exception) {
+            Assert.assertTrue(exception.getMessage().contains("ahead of its window"));
+        }
+    }
+
+    private Analysis createAnalysis(int resourceCount) {
+        Analysis analysis = new Analysis();
+        analysis.setArtifactName("window.jar");
+        analysis.setMeta(new Meta());
+        analysis.setReportSections(ReportSection.withRequirements(EnumSet.of(ReportSection.RESOURCES)));
+        ResourceGroup resourceGroup = new ResourceGroup();
+        resourceGroup.setGroupType(ArtifactManager.CLASSIFICATION_JAVA_CLASSES);
+        List<Resource> resources = new ArrayList<>();
+        for (int ordinal = 0; ordinal < resourceCount; ordinal++) {
+            Resource resource = new Resource();
+            resource.setName("Class" + ordinal + ".class");
+            resources.add(resource);
+        }
+        resourceGroup.setResources(resources);
+        resourceGroup.setSize(resourceCount);
+        Map<String, ResourceGroup> resourceGroups = new HashMap<>();
+        resourceGroups.put(ArtifactManager.CLASSIFICATION_JAVA_CLASSES, resourceGroup);
+        analysis.setResourceGroups(resourceGroups);
+        return analysis;
+    }
+
+    private Document analyse(String generatedReportFilename, boolean streamingReport, int parallelism) throws Exception {
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setOutputFilename(generatedReportFilename);
+        analyser.setParallelism(parallelism);
+        analyser.setStreamingReport(streamingReport);
+        analyser.analyseArtifact(FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + ARTIFACT));
+        Path pathToReport = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + generatedReportFilename);
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(pathToReport.toFile());
+    }
+
+    /**
+     * Auxiliary method to read the names of the sections (the elements of the root) of a report, in order.
+     */
+    private List<String> readSectionNames(Document report) {
+        List<String> sections = new ArrayList<>();
+        for (Node node = report.getDocumentElement().getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                sections.add(node.getNodeName());
+            }
+        }
+        return sections;
+    }
+
+    private String toString(Node node) throws Exception {
+        StringWriter writer = new StringWriter();
+        TransformerFactory.newInstance().newTransformer().transform(new DOMSource(node), new StreamResult(writer));
+        return writer.toString().replaceAll("<!--Output generated at: [^>]*-->", "");
+    }
+}
@@ -0,0 +1,187 @@
+package net.technolords.tools.artificer.output.graph;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.ArtificerImpl;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.analyser.graph.DependencyGraph;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.ReportSection;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.exception.ArtificerException;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class GraphWriterTest extends TestSupport {
+    private static final String ARTIFACT = "artificer-1.0.0-SNAPSHOT.jar";
+    private static final String ANALYSER = "net/technolords/tools/artificer/Analyser";
+
+    /**
+     * Test case 1: Test the GEXF graph of the classes, with the class domain and java version of the nodes.
+     */
+    @Test
+    public void testGexfGraphOfClasses() throws Exception {
+        Document document = this.parse(this.analyse("class-graph.xml", GexfGraphWriter.FORMAT, GraphExport.GRANULARITY_CLASS));
+        int nodes = document.getElementsByTagName("node").getLength();
+        int edges = document.getElementsByTagName("edge").getLength();
+        Assert.assertTrue(nodes > 50, "Nodes: " + nodes);
+        Assert.assertTrue(edges > nodes, "Edges: " + edges);
+
+        Element analyser = this.findNode(document, "node", "label", ANALYSER);
+        Assert.assertNotNull(analyser);
+        Assert.assertEquals(this.findNode(analyser, "attvalue", "for", "class-domain").getAttribute("value"), "Self");
+        Assert.assertNotNull(this.findNode(analyser, "attvalue", "for", "java-version"));
+        Element string = this.findNode(document, "node", "label", "java/lang/String");
+        Assert.assertEquals(this.findNode(string, "attvalue", "for", "class-domain").getAttribute("value"), "Standard");
+        Assert.assertNull(this.findNode(string, "attvalue", "for", "java-version"));
+    }
+
+    /**
+     * Test case 2: Test the GraphML and DOT graphs of the packages have the same nodes and edges as the GEXF graph,
+     * where the weights of the edges add up to the number of edges between the classes.
+     */
+    @Test
+    public void testGraphsOfPackages() throws Exception {
+        Document gexf = this.parse(this.analyse("package-graph.xml", GexfGraphWriter.FORMAT, GraphExport.GRANULARITY_PACKAGE));
+        Document graphMl = this.parse(this.analyse("package-graph.xml", GraphMlGraphWriter.FORMAT, GraphExport.GRANULARITY_PACKAGE));
+        List<String> dot = Files.readAllLines(this.analyse("package-graph.xml", DotGraphWriter.FORMAT, GraphExport.GRANULARITY_PACKAGE), StandardCharsets.UTF_8);
+        int nodes = gexf.getElementsByTagName("node").getLength();
+        int edges = gexf.getElementsByTagName("edge").getLength();
+        Assert.assertEquals(graphMl.getElementsByTagName("node").getLength(), nodes);
+        Assert.assertEquals(graphMl.getElementsByTagName("edge").getLength(), edges);
+        Assert.assertEquals(dot.stream().filter(line -> line.contains("[label=")).count(), nodes);
+        Assert.assertEquals(dot.stream().filter(line -> line.contains(" -> ")).count(), edges);
+        Assert.assertTrue(dot.get(0).startsWith("digraph \"" + ARTIFACT + "\""));
+
+        Element root = this.findNode(gexf, "node", "label", "net/technolords/tools/artificer");
+        Assert.assertEquals(this.findNode(root, "attvalue", "for", "classes").getAttribute("value"), "2");
+        Assert.assertEquals(this.findNode(root, "attvalue", "for", "class-domain").getAttribute("value"), "Self");
+    }
+
+    /**
+     * Test case 3: Test the export of an analysis, where the weights of the package graph are the class references,
+     * and the classes of the artifact are Self (also when not referenced).
+     */
+    @Test
+    public void testGraphExport() {
+        Analysis analysis = new Analysis();
+        analysis.setArtifactName("test.jar");
+        this.addResource(analysis, "org/acme/Main", "org/acme/util/Helper", "org/acme/util/Other", "java/lang/Object");
+        this.addResource(analysis, "org/acme/util/Helper", "java/lang/Object");
+        this.addResource(analysis, "org/acme/util/Other", "org/acme/util/Helper");
+        ReferencedClass referencedClass = new ReferencedClass();
+        referencedClass.setPackageWithClass("java/lang/Object");
+        referencedClass.setClassDomain(ReferencedClass.ClassDomain.Standard);
+        analysis.getDependencies().add(referencedClass);
+
+        GraphExport classExport = GraphExport.of(analysis, GraphExport.GRANULARITY_CLASS);
+        Assert.assertEquals(classExport.getGraph().size(), 4);
+        Assert.assertEquals(classExport.getGraph().getEdgeCount(), 5);
+        int object = classExport.getGraph().findNode("java/lang/Object");
+        Assert.assertEquals(classExport.getClassDomain(object), "Standard");
+        Assert.assertNull(classExport.getJavaVersion(object));
+        Assert.assertEquals(classExport.getJavaVersion(classExport.getGraph().findNode("org/acme/Main")), "1.8");
+        Assert.assertEquals(classExport.getClassDomain(classExport.getGraph().findNode("org/acme/Main")), "Self");
+
+        GraphExport packageExport = GraphExport.of(analysis, GraphExport.GRANULARITY_PACKAGE);
+        DependencyGraph packageGraph = packageExport.getGraph();
+        Assert.assertEquals(packageGraph.size(), 3);
+        int acme = packageGraph.findNode("org/acme");
+        int util = packageGraph.findNode("org/acme/util");
+        Assert.assertEquals(packageExport.getClasses(util), 2);
+        Assert.assertEquals(packageExport.getClassDomain(acme), "Self");
+        Assert.assertEquals(packageExport.getClassDomain(util), "Self");
+        Assert.assertEquals(packageGraph.getTarget(packageGraph.getFirstEdge(acme)), util);
+        Assert.assertEquals(packageGraph.getWeight(packageGraph.getFirstEdge(acme)), 2);
+    }
+
+    /**
+     * Test case 4: Test the graph of a streamed report has the same edges as the graph of a report, where the
+     * details of the classes are kept for the graph (as no package cycles or package structure are reported).
+     */
+    @Test
+    public void testGraphOfStreamedReport() throws Exception {
+        Document document = this.parse(this.analyse("class-graph.xml", GexfGraphWriter.FORMAT, GraphExport.GRANULARITY_CLASS));
+        Document streamed = this.parse(this.analyse("streamed-class-graph.xml", GexfGraphWriter.FORMAT, GraphExport.GRANULARITY_CLASS, true));
+        int edges = streamed.getElementsByTagName("edge").getLength();
+        Assert.assertTrue(edges > 0, "Edges: " + edges);
+        Assert.assertEquals(edges, document.getElementsByTagName("edge").getLength());
+        Assert.assertEquals(streamed.getElementsByTagName("node").getLength(), document.getElementsByTagName("node").getLength());
+    }
+
+    /**
+     * Test case 5: Test an unsupported format is rejected.
+     */
+    @Test (expectedExceptions = ArtificerException.class)
+    public void testUnsupportedFormat() throws Exception {
+        this.analyse("graph.xml", "svg", GraphExport.GRANULARITY_CLASS);
+    }
+
+    private Path analyse(String generatedReportFilename, String graphFormat, String granularity) throws Exception {
+        return this.analyse(generatedReportFilename, graphFormat, granularity, false);
+    }
+
+    private Path analyse(String generatedReportFilename, String graphFormat, String granularity, boolean streamingReport) throws Exception {
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setOutputFilename(generatedReportFilename);
+        if (streamingReport) {
+            analyser.setStreamingReport(true);
+            analyser.setReportSections(EnumSet.of(ReportSection.RESOURCES));
+        }
+        analyser.setGraphFormat(graphFormat);
+        analyser.setGraphGranularity(granularity);
+        analyser.analyseArtifact(FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + ARTIFACT));
+        String graphFilename = generatedReportFilename.substring(0, generatedReportFilename.lastIndexOf('.')) + "." + graphFormat;
+        return FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + graphFilename);
+    }
+
+    private Document parse(Path pathToGraph) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(pathToGraph.toFile());
+    }
+
+    private Element findNode(Object parent, String tagName, String attributeName, String attributeValue) {
+        NodeList nodeList = parent instanceof Document
+            ? ((Document) parent).getElementsByTagName(tagName)
+            : ((Element) parent).getElementsByTagName(tagName);
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            Element element = (Element) nodeList.item(i);
+            if (attributeValue.equals(element.getAttribute(attributeName))) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private void addResource(Analysis analysis, String className, String... referencedClasses) {
+        Resource resource = new Resource();
+        resource.setValidClass(true);
+        resource.setMajorVersion(0x34);
+        resource.setCompiledVersion("1.8");
+        resource.setClassName(className);
+        for (String referencedClass : referencedClasses) {
+            resource.getReferencedClasses().add(referencedClass);
+        }
+        analysis.getResourceGroups().computeIfAbsent(ArtifactManager.CLASSIFICATION_JAVA_CLASSES, type -> {
+            ResourceGroup resourceGroup = new ResourceGroup();
+            resourceGroup.setGroupType(type);
+            return resourceGroup;
+        }).getResources().add(resource);
+    }
+}
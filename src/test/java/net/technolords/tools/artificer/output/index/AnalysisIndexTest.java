@@ -0,0 +1,112 @@
+package net.technolords.tools.artificer.output.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.ArtificerImpl;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.classpath.ClassPathAnalysis;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class AnalysisIndexTest extends TestSupport {
+    private static final String ARTIFACT = "artificer-1.0.0-SNAPSHOT.jar";
+    private static final String ANALYSER = "net/technolords/tools/artificer/Analyser";
+    private static final String ARTIFICER_IMPL = "net/technolords/tools/artificer/ArtificerImpl";
+
+    /**
+     * Test case 1: Test the index of an artifact, which is written as report format and queried while mapped.
+     */
+    @Test
+    public void testIndexOfArtifact() throws Exception {
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setOutputFilename("analysis.idx");
+        analyser.setReportFormat(AnalysisIndexWriter.FORMAT);
+        analyser.analyseArtifact(FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + ARTIFACT));
+        Path pathToIndex = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + "analysis.idx");
+        AnalysisIndex analysisIndex = AnalysisIndex.load(pathToIndex);
+
+        Assert.assertEquals(analysisIndex.getArtifactName(), ARTIFACT);
+        int artificerImpl = analysisIndex.findClass(ARTIFICER_IMPL);
+        Assert.assertTrue(artificerImpl >= 0);
+        Assert.assertEquals(analysisIndex.getName(artificerImpl), ARTIFICER_IMPL);
+        Assert.assertTrue(analysisIndex.isSelf(artificerImpl));
+        Assert.assertEquals(analysisIndex.getName(analysisIndex.getSuperClass(artificerImpl)), "java/lang/Object");
+        Assert.assertFalse(analysisIndex.isSelf(analysisIndex.findClass("java/lang/Object")));
+        Assert.assertEquals(analysisIndex.getSuperClass(analysisIndex.findClass("java/lang/Object")), -1);
+        Assert.assertEquals(analysisIndex.getRelated(AnalysisIndex.RELATION_INTERFACES, artificerImpl), new int[] { analysisIndex.findClass(ANALYSER) });
+
+        Assert.assertEquals(analysisIndex.findSubtypes(ANALYSER), Collections.singletonList(ARTIFICER_IMPL));
+        Assert.assertTrue(analysisIndex.findReferencingClasses(ANALYSER).contains(ARTIFICER_IMPL));
+        Assert.assertFalse(analysisIndex.findReferencingClasses(ARTIFICER_IMPL).contains(ARTIFICER_IMPL));
+        Assert.assertEquals(analysisIndex.findAnnotatedClasses("javax/xml/bind/annotation/XmlRootElement"),
+            Arrays.asList("net/technolords/tools/artificer/domain/Analysis", "net/technolords/tools/artificer/reference/JavaVersions"));
+        Assert.assertEquals(analysisIndex.findClass("org/acme/Unknown"), -1);
+        Assert.assertTrue(analysisIndex.findReferencingClasses("org/acme/Unknown").isEmpty());
+
+        // The references found in signatures are indexed by the classes they mention
+        Assert.assertTrue(analysisIndex.findReferencingClasses("java/nio/file/FileVisitResult").contains("net/technolords/tools/artificer/artifact/ArtifactResourceVisitor"));
+
+        // The names are sorted, so each name is found at its own position, and are plain class names
+        for (int id = 0; id < analysisIndex.size(); id++) {
+            Assert.assertEquals(analysisIndex.findClass(analysisIndex.getName(id)), id);
+            Assert.assertFalse(analysisIndex.getName(id).matches(".*[;()<>\\[].*"), analysisIndex.getName(id));
+        }
+    }
+
+    /**
+     * Test case 2: Test the subtypes are found transitively, across classes and interfaces.
+     */
+    @Test
+    public void testSubtypes() throws IOException {
+        Analysis analysis = new Analysis();
+        analysis.setArtifactName("test.jar");
+        this.addResource(analysis, "org/acme/Shape", "java/lang/Object");
+        this.addResource(analysis, "org/acme/Polygon", "org/acme/Shape", "org/acme/Named");
+        this.addResource(analysis, "org/acme/Square", "org/acme/Polygon", "java/lang/Comparable");
+        this.addResource(analysis, "org/acme/Circle", "org/acme/Shape");
+        this.addResource(analysis, "org/acme/Label", "java/lang/Object", "org/acme/Named");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new AnalysisIndexWriter().writeReport(analysis, outputStream);
+        AnalysisIndex analysisIndex = new AnalysisIndex(ByteBuffer.wrap(outputStream.toByteArray()));
+
+        Assert.assertEquals(analysisIndex.size(), 8);
+        Assert.assertEquals(analysisIndex.findSubtypes("org/acme/Shape"), Arrays.asList("org/acme/Circle", "org/acme/Polygon", "org/acme/Square"));
+        Assert.assertEquals(analysisIndex.findSubtypes("org/acme/Named"), Arrays.asList("org/acme/Label", "org/acme/Polygon", "org/acme/Square"));
+        Assert.assertEquals(analysisIndex.findSubtypes("org/acme/Square"), Collections.emptyList());
+        Assert.assertEquals(analysisIndex.findSubtypes("java/lang/Object").size(), 5);
+    }
+
+    /**
+     * Test case 3: Test the index does not apply to the analysis of a class path.
+     */
+    @Test (expectedExceptions = IOException.class)
+    public void testIndexOfClassPathAnalysis() throws IOException {
+        new AnalysisIndexWriter().writeReport(new ClassPathAnalysis(), new ByteArrayOutputStream());
+    }
+
+    private void addResource(Analysis analysis, String className, String superClass, String... interfaces) {
+        Resource resource = new Resource();
+        resource.setClassName(className);
+        resource.setSuperClass(superClass);
+        resource.getInterfaces().addAll(Arrays.asList(interfaces));
+        analysis.getResourceGroups().computeIfAbsent(ArtifactManager.CLASSIFICATION_JAVA_CLASSES, type -> {
+            ResourceGroup resourceGroup = new ResourceGroup();
+            resourceGroup.setGroupType(type);
+            return resourceGroup;
+        }).getResources().add(resource);
+    }
+}
@@ -0,0 +1,150 @@
+package net.technolords.tools.artificer.output.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.ArtificerImpl;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.resource.Resource;
+import net.technolords.tools.artificer.domain.resource.ResourceGroup;
+import net.technolords.tools.artificer.input.ArtifactManager;
+
+public class ReferenceIndexTest extends TestSupport {
+    private static final String ARTIFICER = "artificer-1.0.0-SNAPSHOT.jar";
+    private static final String SERVICE_RECOMMENDATION = "service-recommendation-1.0.0.jar";
+    private static final String JNDI_LOOKUP = "org/apache/logging/log4j/core/lookup/JndiLookup";
+
+    /**
+     * Test case 1: Test the index of the artifacts analysed by an analyser, which are added as each analysis
+     * completes.
+     */
+    @Test
+    public void testIndexOfAnalysedArtifacts() throws Exception {
+        Path pathToIndex = this.createIndexDirectory("analysed-references");
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setOutputFilename("referenced-artifact.xml");
+        analyser.setReferenceIndexLocation(pathToIndex);
+        analyser.analyseArtifact(FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + ARTIFICER));
+        Assert.assertEquals(ReferenceIndex.open(pathToIndex).getArtifactCount(), 1);
+        analyser.analyseArtifact(FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + SERVICE_RECOMMENDATION));
+
+        ReferenceIndex referenceIndex = ReferenceIndex.open(pathToIndex);
+        Assert.assertEquals(referenceIndex.getArtifactCount(), 2);
+        Assert.assertEquals(referenceIndex.findArtifacts("java/lang/Object"), new HashSet<>(Arrays.asList(ARTIFICER, SERVICE_RECOMMENDATION)));
+        Assert.assertEquals(referenceIndex.findArtifacts("java/lang/"), new HashSet<>(Arrays.asList(ARTIFICER, SERVICE_RECOMMENDATION)));
+        Map<String, List<String>> references = referenceIndex.findReferences("net/technolords/tools/artificer/Analyser");
+        Assert.assertEquals(references.keySet(), Collections.singleton(ARTIFICER));
+        Assert.assertTrue(references.get(ARTIFICER).contains("net/technolords/tools/artificer/ArtificerImpl"));
+        Assert.assertFalse(references.get(ARTIFICER).contains("net/technolords/tools/artificer/Analyser"));
+        Assert.assertTrue(referenceIndex.findArtifacts(JNDI_LOOKUP).isEmpty());
+    }
+
+    /**
+     * Test case 2: Test the segments are merged in tiers while the artifacts are added, and compacted to a single
+     * segment, where the answers stay the same.
+     */
+    @Test
+    public void testMergeOfSegments() throws IOException {
+        Path pathToIndex = this.createIndexDirectory("merged-references");
+        ReferenceIndexWriter referenceIndexWriter = new ReferenceIndexWriter(pathToIndex);
+        for (int artifact = 0; artifact < 25; artifact++) {
+            Analysis analysis = new Analysis();
+            analysis.setArtifactName("artifact-" + artifact + ".jar");
+            this.addResource(analysis, "org/acme/Main", "org/acme/Main", "java/lang/Object", "org/acme/util/Helper");
+            this.addResource(analysis, "org/acme/util/Helper", "java/lang/Object");
+            if (artifact % 5 == 0) {
+                this.addResource(analysis, "org/acme/Logging", JNDI_LOOKUP);
+            }
+            referenceIndexWriter.addAnalysis(analysis);
+            referenceIndexWriter.flush();
+        }
+
+        // 25 flushes make 2 segments of tier 1 and 5 segments of tier 0
+        ReferenceIndex referenceIndex = ReferenceIndex.open(pathToIndex);
+        Assert.assertEquals(referenceIndex.getSegmentCount(), 7);
+        this.assertReferences(referenceIndex);
+
+        referenceIndexWriter.compact();
+        referenceIndex = ReferenceIndex.open(pathToIndex);
+        Assert.assertEquals(referenceIndex.getSegmentCount(), 1);
+        this.assertReferences(referenceIndex);
+    }
+
+    /**
+     * Test case 3: Test the classes only mentioned in a descriptor (of a method or an array) are posted under their
+     * own name and package, rather than under the descriptor.
+     */
+    @Test
+    public void testDescriptorOnlyReferences() throws IOException {
+        Path pathToIndex = this.createIndexDirectory("descriptor-references");
+        ReferenceIndexWriter referenceIndexWriter = new ReferenceIndexWriter(pathToIndex);
+        Analysis analysis = new Analysis();
+        analysis.setArtifactName("method.jar");
+        this.addResource(analysis, "org/acme/Lookups", "java/lang/String;L" + JNDI_LOOKUP + ";)Ljava/lang/Object");
+        referenceIndexWriter.addAnalysis(analysis);
+        analysis = new Analysis();
+        analysis.setArtifactName("array.jar");
+        this.addResource(analysis, "org/acme/Registry", "[L" + JNDI_LOOKUP + ";");
+        referenceIndexWriter.addAnalysis(analysis);
+        referenceIndexWriter.flush();
+
+        ReferenceIndex referenceIndex = ReferenceIndex.open(pathToIndex);
+        Assert.assertEquals(referenceIndex.findArtifacts(JNDI_LOOKUP), new HashSet<>(Arrays.asList("method.jar", "array.jar")));
+        Assert.assertEquals(referenceIndex.findArtifacts("org/apache/logging/log4j/core/lookup/"), referenceIndex.findArtifacts(JNDI_LOOKUP));
+        Assert.assertEquals(referenceIndex.findReferences(JNDI_LOOKUP).get("method.jar"), Collections.singletonList("org/acme/Lookups"));
+        Assert.assertEquals(referenceIndex.findArtifacts("java/lang/String"), Collections.singleton("method.jar"));
+        Assert.assertTrue(referenceIndex.findArtifacts("java/lang/").contains("method.jar"));
+        Assert.assertTrue(referenceIndex.findArtifacts("java/lang/String;L" + JNDI_LOOKUP).isEmpty());
+    }
+
+    private void assertReferences(ReferenceIndex referenceIndex) {
+        Assert.assertEquals(referenceIndex.getArtifactCount(), 25);
+        Assert.assertEquals(referenceIndex.findArtifacts(JNDI_LOOKUP), new HashSet<>(Arrays.asList("artifact-0.jar", "artifact-5.jar",
+            "artifact-10.jar", "artifact-15.jar", "artifact-20.jar")));
+        Assert.assertEquals(referenceIndex.findArtifacts("org/apache/logging/log4j/core/lookup/"), referenceIndex.findArtifacts(JNDI_LOOKUP));
+        Assert.assertEquals(referenceIndex.findReferences(JNDI_LOOKUP).get("artifact-15.jar"), Collections.singletonList("org/acme/Logging"));
+        Map<String, List<String>> references = referenceIndex.findReferences("java/lang/Object");
+        Assert.assertEquals(references.size(), 25);
+        Assert.assertEquals(references.get("artifact-24.jar"), Arrays.asList("org/acme/Main", "org/acme/util/Helper"));
+        Assert.assertEquals(referenceIndex.findReferences("org/acme/Main"), Collections.emptyMap());
+        Assert.assertEquals(referenceIndex.findArtifacts("org/acme/util/Helper").size(), 25);
+    }
+
+    private Path createIndexDirectory(String name) throws IOException {
+        Path pathToIndex = FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + name);
+        if (Files.exists(pathToIndex)) {
+            try (Stream<Path> paths = Files.list(pathToIndex)) {
+                for (Object path : paths.toArray()) {
+                    Files.delete((Path) path);
+                }
+            }
+        }
+        return pathToIndex;
+    }
+
+    private void addResource(Analysis analysis, String className, String... referencedClasses) {
+        Resource resource = new Resource();
+        resource.setClassName(className);
+        resource.getReferencedClasses().addAll(Arrays.asList(referencedClasses));
+        analysis.getResourceGroups().computeIfAbsent(ArtifactManager.CLASSIFICATION_JAVA_CLASSES, type -> {
+            ResourceGroup resourceGroup = new ResourceGroup();
+            resourceGroup.setGroupType(type);
+            return resourceGroup;
+        }).getResources().add(resource);
+    }
+}
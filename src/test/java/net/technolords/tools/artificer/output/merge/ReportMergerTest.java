@@ -0,0 +1,158 @@
+package net.technolords.tools.artificer.output.merge;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import net.technolords.tools.artificer.Analyser;
+import net.technolords.tools.artificer.ArtificerImpl;
+import net.technolords.tools.artificer.TestSupport;
+import net.technolords.tools.artificer.domain.Analysis;
+import net.technolords.tools.artificer.domain.dependencies.ExternalArtifact;
+import net.technolords.tools.artificer.domain.dependencies.ReferencedClass;
+import net.technolords.tools.artificer.domain.meta.Meta;
+
+public class ReportMergerTest extends TestSupport {
+    private static final String ARTIFACT = "artificer-1.0.0-SNAPSHOT.jar";
+
+    /**
+     * Test case 1: Test the external sorter returns the records in sorted order (with duplicates), when there are
+     * more runs than can be merged at once.
+     */
+    @Test
+    public void testExternalSorter() throws Exception {
+        Random random = new Random(42);
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            records.add("org/acme/Class" + random.nextInt(500));
+        }
+        List<String> sortedRecords = new ArrayList<>();
+        try (ExternalSorter externalSorter = new ExternalSorter(10)) {
+            for (String record : records) {
+                externalSorter.add(record);
+            }
+            Assert.assertTrue(externalSorter.getRunCount() > ExternalSorter.MERGE_FACTOR);
+            try (ExternalSorter.Cursor cursor = externalSorter.sorted()) {
+                for (String record = cursor.next(); record != null; record = cursor.next()) {
+                    sortedRecords.add(record);
+                }
+            }
+            Assert.assertTrue(externalSorter.getRunCount() <= ExternalSorter.MERGE_FACTOR);
+        }
+        Collections.sort(records);
+        Assert.assertEquals(sortedRecords, records);
+    }
+
+    /**
+     * Test case 2: Test the merge of analyses, where the referenced classes and external artifacts are the union of
+     * those of the artifacts, and the java versions and class domains are counted over the artifacts.
+     */
+    @Test
+    public void testMergeOfAnalyses() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ReportMerger reportMerger = new ReportMerger(2)) {
+            reportMerger.addAnalysis(this.createAnalysis("first.jar", "1.8", "java/util/List", "org/slf4j/Logger", "org/acme/Main"));
+            reportMerger.addAnalysis(this.createAnalysis("second.jar", "11", "java/util/List", "java/util/Map", "org/slf4j/Logger", "org/other/Thing"));
+            reportMerger.addAnalysis(this.createAnalysis("third.jar", "1.8", "org/slf4j/Logger"));
+            reportMerger.writeMergedReport(outputStream);
+        }
+        Element root = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(outputStream.toByteArray())).getDocumentElement();
+        Assert.assertEquals(root.getAttribute("total-artifacts"), "3");
+        Assert.assertEquals(this.getAttributes(root, "artifact", "name"), Arrays.asList("first.jar", "second.jar", "third.jar"));
+        Assert.assertEquals(this.getAttributes(root, "java", "version"), Arrays.asList("1.8", "11"));
+        Assert.assertEquals(this.getAttributes(root, "java", "total-artifacts"), Arrays.asList("2", "1"));
+        Assert.assertEquals(this.getAttributes(root, "external-class", "package"), Arrays.asList("org/other/Thing", "org/slf4j/Logger"));
+        Assert.assertEquals(this.getAttributes(root, "external-class", "total-artifacts"), Arrays.asList("1", "3"));
+        Assert.assertEquals(this.getAttributes(root, "external-class", "artifact"), Arrays.asList("", "org.slf4j:slf4j-api:1.7.6"));
+        Assert.assertEquals(this.getAttributes(root, "class-domain", "name"), Arrays.asList("External", "Self", "Standard"));
+        Assert.assertEquals(this.getAttributes(root, "class-domain", "total-classes"), Arrays.asList("2", "1", "2"));
+        Assert.assertEquals(this.getAttributes(root, "class-domain", "total-references"), Arrays.asList("4", "1", "3"));
+        Assert.assertEquals(this.getAttributes(root, "external-artifact", "artifact-id"), Collections.singletonList("slf4j-api"));
+        Assert.assertEquals(this.getAttributes(root, "external-artifact", "total-artifacts"), Collections.singletonList("3"));
+    }
+
+    /**
+     * Test case 3: Test the merged report of the analysed artifacts is the same as the merged report of their
+     * reports (read back, and compressed or not).
+     */
+    @Test
+    public void testMergeOfAnalysesAndReports() throws Exception {
+        Path pathToArtifact = FileSystems.getDefault().getPath(getPathToDataFolder() + File.separator + "jars" + File.separator + ARTIFACT);
+        Analyser analyser = new ArtificerImpl();
+        analyser.setOutputLocation(getPathToTargetFolder());
+        analyser.setMergedReportFilename("merged-analyses.xml");
+        analyser.setOutputFilename("merge-report-1.xml");
+        analyser.analyseArtifact(pathToArtifact);
+        analyser.setOutputFilename("merge-report-2.xml");
+        analyser.setCompressedReport(true);
+        analyser.analyseArtifact(pathToArtifact);
+        analyser.setCompressedReport(false);
+        analyser.writeMergedReport();
+
+        analyser.setOutputFilename("merged-reports.xml");
+        analyser.mergeReports(Arrays.asList(this.getPathToReport("merge-report-1.xml"), this.getPathToReport("merge-report-2.xml.gz")));
+
+        byte[] mergedAnalyses = Files.readAllBytes(this.getPathToReport("merged-analyses.xml"));
+        byte[] mergedReports = Files.readAllBytes(this.getPathToReport("merged-reports.xml"));
+        Assert.assertEquals(new String(mergedReports, "UTF-8"), new String(mergedAnalyses, "UTF-8"));
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(mergedReports));
+        Assert.assertEquals(document.getDocumentElement().getAttribute("total-artifacts"), "2");
+        Assert.assertTrue(document.getElementsByTagName("class-domain").getLength() > 0);
+    }
+
+    private Analysis createAnalysis(String artifactName, String javaVersion, String... referencedClasses) {
+        Analysis analysis = new Analysis();
+        analysis.setArtifactName(artifactName);
+        Meta meta = new Meta();
+        meta.setStatus("OK");
+        meta.registerCompiledVersion(javaVersion);
+        analysis.setMeta(meta);
+        analysis.setExternalArtifacts(new ArrayList<>());
+        for (String className : referencedClasses) {
+            ReferencedClass referencedClass = new ReferencedClass();
+            referencedClass.setPackageWithClass(className);
+            if (className.startsWith("java/")) {
+                referencedClass.setClassDomain(ReferencedClass.ClassDomain.Standard);
+            } else if (className.startsWith("org/acme/")) {
+                referencedClass.setClassDomain(ReferencedClass.ClassDomain.Self);
+            } else {
+                referencedClass.setClassDomain(ReferencedClass.ClassDomain.External);
+                if (className.startsWith("org/slf4j/")) {
+                    referencedClass.setArtifact("org.slf4j:slf4j-api:1.7.6");
+                    analysis.getExternalArtifacts().add(new ExternalArtifact("org.slf4j:slf4j-api:1.7.6", 1));
+                }
+            }
+            analysis.getDependencies().add(referencedClass);
+        }
+        return analysis;
+    }
+
+    private List<String> getAttributes(Element root, String tagName, String attributeName) {
+        List<String> attributes = new ArrayList<>();
+        NodeList elements = root.getElementsByTagName(tagName);
+        for (int i = 0; i < elements.getLength(); i++) {
+            attributes.add(((Element) elements.item(i)).getAttribute(attributeName));
+        }
+        return attributes;
+    }
+
+    private Path getPathToReport(String generatedFilename) {
+        return FileSystems.getDefault().getPath(getPathToTargetFolder() + File.separator + generatedFilename);
+    }
+}
@@ -0,0 +1,22 @@
+package net.technolords.tools.data.hierarchy;
+
+import java.io.Closeable;
+
+import net.technolords.tools.data.annotation.AnnotationUsingBoolean;
+
+/**
+ * A class with a superclass, several interfaces and a class annotation (next to a method annotation).
+ */
+@Deprecated
+public class HierarchyTestWithInterfaces extends Thread implements Comparable<HierarchyTestWithInterfaces>, Closeable, Cloneable {
+
+    @Override
+    public int compareTo(HierarchyTestWithInterfaces other) {
+        return 0;
+    }
+
+    @AnnotationUsingBoolean(description = "Method annotation", enabled = true)
+    @Override
+    public void close() {
+    }
+}